@@ -2,13 +2,16 @@ package cloud.fogbow.fns;
 
 import cloud.fogbow.common.constants.FogbowConstants;
 import cloud.fogbow.common.exceptions.FatalErrorException;
+import cloud.fogbow.common.exceptions.FogbowException;
 import cloud.fogbow.common.plugins.authorization.AuthorizationPlugin;
 import cloud.fogbow.common.util.ServiceAsymmetricKeysHolder;
 import cloud.fogbow.fns.core.*;
 import cloud.fogbow.fns.constants.ConfigurationPropertyKeys;
+import cloud.fogbow.fns.constants.Messages;
 import cloud.fogbow.fns.core.datastore.DatabaseManager;
 import cloud.fogbow.fns.core.datastore.orderstorage.RecoveryService;
 import cloud.fogbow.fns.core.model.FnsOperation;
+import cloud.fogbow.fns.utils.RasRequestCoalescer;
 import org.apache.log4j.Logger;
 import cloud.fogbow.fns.core.datastore.AuditService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -40,15 +43,29 @@ public class Main implements ApplicationRunner {
             String privateKeyFilePath = PropertiesHolder.getInstance().getProperty(FogbowConstants.PRIVATE_KEY_FILE_PATH);
             ServiceAsymmetricKeysHolder.getInstance().setPublicKeyFilePath(publicKeyFilePath);
             ServiceAsymmetricKeysHolder.getInstance().setPrivateKeyFilePath(privateKeyFilePath);
+            try {
+                KeyMaterialHolder.getInstance().refresh();
+            } catch (FatalErrorException e) {
+                throw e;
+            } catch (FogbowException e) {
+                // The AS or the RAS may not be up yet
+                LOGGER.warn(String.format(Messages.Warn.UNABLE_TO_LOAD_KEY_MATERIAL, e.getMessage()), e);
+            }
+
+            // Setting up the pooled HTTP client used to talk to the RAS
+            RasHttpClientHolder.getInstance();
+            RasRequestCoalescer.getInstance();
 
             // Setting up controllers and application facade
             FederatedNetworkOrderController federatedNetworkOrderController = new FederatedNetworkOrderController();
             ComputeRequestsController computeRequestsController = new ComputeRequestsController();
+            ComputeOperationsController computeOperationsController = new ComputeOperationsController();
             String className = PropertiesHolder.getInstance().getProperty(ConfigurationPropertyKeys.AUTHORIZATION_PLUGIN_CLASS_KEY);
             AuthorizationPlugin<FnsOperation> authorizationPlugin = AuthorizationPluginInstantiator.getAuthorizationPlugin(className);
 
             this.applicationFacade.setFederatedNetworkOrderController(federatedNetworkOrderController);
             this.applicationFacade.setComputeRequestsController(computeRequestsController);
+            this.applicationFacade.setComputeOperationsController(computeOperationsController);
             this.applicationFacade.setAuthorizationPlugin(authorizationPlugin);
 
             // Setting up order processors
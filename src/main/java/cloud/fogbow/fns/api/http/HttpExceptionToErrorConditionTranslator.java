@@ -1,6 +1,8 @@
 package cloud.fogbow.fns.api.http;
 
 import cloud.fogbow.common.exceptions.*;
+import cloud.fogbow.fns.core.exceptions.AdmissionRejectedException;
+import cloud.fogbow.fns.core.exceptions.ComputeOperationsCapacityReachedException;
 import cloud.fogbow.ras.api.http.ExceptionResponse;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -65,6 +67,24 @@ public class HttpExceptionToErrorConditionTranslator extends ResponseEntityExcep
         return new ResponseEntity<>(errorDetails, HttpStatus.GATEWAY_TIMEOUT);
     }
 
+    @ExceptionHandler(ComputeOperationsCapacityReachedException.class)
+    public final ResponseEntity<ExceptionResponse> handleComputeOperationsCapacityReachedException(
+            Exception ex, WebRequest request) {
+
+        ExceptionResponse errorDetails = new ExceptionResponse(ex.getMessage(), request.getDescription(false));
+        return new ResponseEntity<>(errorDetails, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(AdmissionRejectedException.class)
+    public final ResponseEntity<ExceptionResponse> handleAdmissionRejectedException(
+            AdmissionRejectedException ex, WebRequest request) {
+
+        ExceptionResponse errorDetails = new ExceptionResponse(ex.getMessage(), request.getDescription(false));
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfter()));
+        return new ResponseEntity<>(errorDetails, headers, HttpStatus.TOO_MANY_REQUESTS);
+    }
+
     @ExceptionHandler(UnexpectedException.class)
     public final ResponseEntity<ExceptionResponse> handleUnexpectedException(Exception ex, WebRequest request) {
 
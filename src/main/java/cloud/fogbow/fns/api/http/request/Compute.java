@@ -1,7 +1,10 @@
 package cloud.fogbow.fns.api.http.request;
 
+import cloud.fogbow.fns.api.http.response.ComputeCreationResult;
+import cloud.fogbow.fns.api.http.response.ComputeOperationInstance;
 import cloud.fogbow.fns.api.http.response.ResourceId;
 import cloud.fogbow.fns.api.parameters.FederatedCompute;
+import cloud.fogbow.fns.api.parameters.FederatedComputeBatch;
 import cloud.fogbow.fns.constants.ApiDocumentation;
 import cloud.fogbow.fns.constants.SystemConstants;
 import cloud.fogbow.ras.api.http.CommonKeys;
@@ -11,10 +14,18 @@ import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 import org.apache.log4j.Logger;
 import cloud.fogbow.fns.core.ApplicationFacade;
+import cloud.fogbow.fns.core.RasHttpClientHolder;
+import cloud.fogbow.fns.core.model.ComputeOperation;
 import cloud.fogbow.fns.constants.Messages;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
 
 @CrossOrigin
 @RestController
@@ -23,12 +34,15 @@ import org.springframework.web.bind.annotation.*;
 public class Compute {
     public static final String COMPUTE_ENDPOINT = SystemConstants.SERVICE_BASE_ENDPOINT +
             cloud.fogbow.ras.api.http.request.Compute.COMPUTE_SUFFIX_ENDPOINT;
+    public static final String OPERATIONS_SUFFIX_ENDPOINT = "operations";
+    public static final String ASYNC_PARAMETER = "async";
+    public static final String BATCH_SUFFIX_ENDPOINT = "batch";
 
     private final Logger LOGGER = Logger.getLogger(Compute.class);
 
     @ApiOperation(value = cloud.fogbow.ras.constants.ApiDocumentation.Compute.CREATE_OPERATION)
     @RequestMapping(method = RequestMethod.POST)
-    public ResponseEntity<ResourceId> createCompute(
+    public DeferredResult<ResponseEntity<ResourceId>> createCompute(
             @ApiParam(value = ApiDocumentation.Compute.CREATE_REQUEST_BODY)
             @RequestBody FederatedCompute federatedCompute,
             @ApiParam(value = cloud.fogbow.common.constants.ApiDocumentation.Token.SYSTEM_USER_TOKEN)
@@ -37,8 +51,81 @@ public class Compute {
 
         try {
             LOGGER.info(String.format(Messages.Info.CREATE_COMPUTE, federatedCompute));
-            String computeId = ApplicationFacade.getInstance().createCompute(federatedCompute, systemUserToken);
-            return new ResponseEntity<ResourceId>(new ResourceId(computeId), HttpStatus.CREATED);
+            CompletableFuture<String> computeId = ApplicationFacade.getInstance().createCompute(federatedCompute,
+                    systemUserToken);
+            return toDeferredResult(computeId, id -> new ResponseEntity<>(new ResourceId(id), HttpStatus.CREATED));
+        } catch (Exception e) {
+            LOGGER.info(String.format(Messages.Exception.GENERIC_EXCEPTION, e.getMessage()));
+            throw e;
+        }
+    }
+
+    @ApiOperation(value = ApiDocumentation.Compute.CREATE_ASYNC_OPERATION)
+    @RequestMapping(method = RequestMethod.POST, params = ASYNC_PARAMETER + "=true")
+    public ResponseEntity<ComputeOperationInstance> createComputeAsync(
+            @ApiParam(value = ApiDocumentation.Compute.CREATE_REQUEST_BODY)
+            @RequestBody FederatedCompute federatedCompute,
+            @ApiParam(value = cloud.fogbow.common.constants.ApiDocumentation.Token.SYSTEM_USER_TOKEN)
+            @RequestHeader(required = false, value = CommonKeys.SYSTEM_USER_TOKEN_HEADER_KEY) String systemUserToken)
+            throws Exception {
+
+        try {
+            LOGGER.info(String.format(Messages.Info.CREATE_COMPUTE_ASYNC, federatedCompute));
+            ComputeOperation operation = ApplicationFacade.getInstance().createComputeAsync(federatedCompute, systemUserToken);
+            return new ResponseEntity<>(operation.getInstance(), HttpStatus.ACCEPTED);
+        } catch (Exception e) {
+            LOGGER.info(String.format(Messages.Exception.GENERIC_EXCEPTION, e.getMessage()));
+            throw e;
+        }
+    }
+
+    @ApiOperation(value = ApiDocumentation.Compute.CREATE_BATCH_OPERATION)
+    @RequestMapping(value = "/" + BATCH_SUFFIX_ENDPOINT, method = RequestMethod.POST)
+    public DeferredResult<ResponseEntity<List<ComputeCreationResult>>> createComputes(
+            @ApiParam(value = ApiDocumentation.Compute.CREATE_BATCH_REQUEST_BODY)
+            @RequestBody FederatedComputeBatch federatedComputeBatch,
+            @ApiParam(value = cloud.fogbow.common.constants.ApiDocumentation.Token.SYSTEM_USER_TOKEN)
+            @RequestHeader(required = false, value = CommonKeys.SYSTEM_USER_TOKEN_HEADER_KEY) String systemUserToken)
+            throws Exception {
+
+        try {
+            LOGGER.info(String.format(Messages.Info.CREATE_COMPUTE_BATCH, federatedComputeBatch.getFederatedComputes().size()));
+            CompletableFuture<List<ComputeCreationResult>> results = ApplicationFacade.getInstance().createComputes(
+                    federatedComputeBatch, systemUserToken);
+            long timeout = ApplicationFacade.getInstance().getComputeBatchTimeout(
+                    federatedComputeBatch.getFederatedComputes().size());
+            return toDeferredResult(results, timeout, computes -> new ResponseEntity<>(computes, HttpStatus.OK));
+        } catch (Exception e) {
+            LOGGER.info(String.format(Messages.Exception.GENERIC_EXCEPTION, e.getMessage()));
+            throw e;
+        }
+    }
+
+    @ApiOperation(value = ApiDocumentation.Compute.GET_OPERATION)
+    @RequestMapping(value = "/" + OPERATIONS_SUFFIX_ENDPOINT + "/{operationId}", method = RequestMethod.GET)
+    public DeferredResult<ResponseEntity<ComputeOperationInstance>> getComputeOperation(
+            @ApiParam(value = ApiDocumentation.Compute.OPERATION_ID)
+            @PathVariable String operationId,
+            @ApiParam(value = ApiDocumentation.Compute.WAIT_TIME)
+            @RequestParam(value = "wait", required = false, defaultValue = "0") long waitTime,
+            @ApiParam(value = cloud.fogbow.common.constants.ApiDocumentation.Token.SYSTEM_USER_TOKEN)
+            @RequestHeader(required = false, value = CommonKeys.SYSTEM_USER_TOKEN_HEADER_KEY) String systemUserToken)
+            throws Exception {
+
+        try {
+            LOGGER.info(String.format(Messages.Info.GET_COMPUTE_OPERATION, operationId));
+            ComputeOperation operation = ApplicationFacade.getInstance().getComputeOperation(operationId, systemUserToken);
+            long boundedWaitTime = Math.min(waitTime, SystemConstants.COMPUTE_OPERATION_MAX_WAIT_TIME);
+            DeferredResult<ResponseEntity<ComputeOperationInstance>> result = new DeferredResult<>(boundedWaitTime);
+            if (operation.isCompleted() || boundedWaitTime <= 0) {
+                result.setResult(new ResponseEntity<>(operation.getInstance(), HttpStatus.OK));
+            } else {
+                // Long polling: no request thread is held while waiting for the operation to complete
+                result.onTimeout(() -> result.setResult(new ResponseEntity<>(operation.getInstance(), HttpStatus.OK)));
+                operation.getCompletion().thenAccept(completedOperation ->
+                        result.setResult(new ResponseEntity<>(completedOperation.getInstance(), HttpStatus.OK)));
+            }
+            return result;
         } catch (Exception e) {
             LOGGER.info(String.format(Messages.Exception.GENERIC_EXCEPTION, e.getMessage()));
             throw e;
@@ -47,7 +134,7 @@ public class Compute {
 
     @ApiOperation(value = cloud.fogbow.ras.constants.ApiDocumentation.Compute.DELETE_OPERATION)
     @RequestMapping(value = "/{computeId}", method = RequestMethod.DELETE)
-    public ResponseEntity<Boolean> deleteCompute(
+    public DeferredResult<ResponseEntity<Boolean>> deleteCompute(
             @ApiParam(value = cloud.fogbow.ras.constants.ApiDocumentation.Compute.ID)
             @PathVariable String computeId,
             @ApiParam(value = cloud.fogbow.common.constants.ApiDocumentation.Token.SYSTEM_USER_TOKEN)
@@ -56,8 +143,8 @@ public class Compute {
 
         try {
             LOGGER.info(String.format(Messages.Info.DELETE_COMPUTE, computeId));
-            ApplicationFacade.getInstance().deleteCompute(computeId, systemUserToken);
-            return new ResponseEntity<>(HttpStatus.OK);
+            CompletableFuture<Void> deletion = ApplicationFacade.getInstance().deleteCompute(computeId, systemUserToken);
+            return toDeferredResult(deletion, ignored -> new ResponseEntity<>(HttpStatus.OK));
         } catch (Exception e) {
             LOGGER.info(String.format(Messages.Exception.GENERIC_EXCEPTION, e.getMessage()));
             throw e;
@@ -66,7 +153,7 @@ public class Compute {
 
     @ApiOperation(value = cloud.fogbow.ras.constants.ApiDocumentation.Compute.GET_BY_ID_OPERATION)
     @RequestMapping(value = "/{computeId}", method = RequestMethod.GET)
-    public ResponseEntity<ComputeInstance> getCompute(
+    public DeferredResult<ResponseEntity<ComputeInstance>> getCompute(
             @ApiParam(value = cloud.fogbow.ras.constants.ApiDocumentation.Compute.ID)
             @PathVariable String computeId,
             @ApiParam(value = cloud.fogbow.common.constants.ApiDocumentation.Token.SYSTEM_USER_TOKEN)
@@ -75,11 +162,35 @@ public class Compute {
 
         try {
             LOGGER.info(String.format(Messages.Info.GET_COMPUTE_BY_ID, computeId));
-            ComputeInstance compute = ApplicationFacade.getInstance().getComputeById(computeId, systemUserToken);
-            return new ResponseEntity<ComputeInstance>(compute, HttpStatus.OK);
+            CompletableFuture<ComputeInstance> compute = ApplicationFacade.getInstance().getComputeById(computeId,
+                    systemUserToken);
+            return toDeferredResult(compute, instance -> new ResponseEntity<>(instance, HttpStatus.OK));
         } catch (Exception e) {
             LOGGER.info(String.format(Messages.Exception.GENERIC_EXCEPTION, e.getMessage()));
             throw e;
         }
     }
+
+    // The servlet thread is released while the RAS is answering; the response is written once the future completes,
+    // and a failure is handled by the same exception handlers as the synchronous endpoints.
+    private <T, R> DeferredResult<ResponseEntity<R>> toDeferredResult(CompletableFuture<T> future,
+                                                                      Function<T, ResponseEntity<R>> toResponse) {
+        return toDeferredResult(future, RasHttpClientHolder.getInstance().getRequestTimeout(), toResponse);
+    }
+
+    private <T, R> DeferredResult<ResponseEntity<R>> toDeferredResult(CompletableFuture<T> future, long timeout,
+                                                                      Function<T, ResponseEntity<R>> toResponse) {
+        DeferredResult<ResponseEntity<R>> result = new DeferredResult<>(timeout);
+        future.whenComplete((value, throwable) -> {
+            if (throwable == null) {
+                result.setResult(toResponse.apply(value));
+            } else {
+                Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ?
+                        throwable.getCause() : throwable;
+                LOGGER.info(String.format(Messages.Exception.GENERIC_EXCEPTION, cause.getMessage()));
+                result.setErrorResult(cause);
+            }
+        });
+        return result;
+    }
 }
@@ -9,15 +9,20 @@ import cloud.fogbow.fns.api.http.response.FederatedNetworkInstance;
 import cloud.fogbow.fns.core.model.FederatedNetworkOrder;
 import cloud.fogbow.fns.api.http.response.InstanceStatus;
 import cloud.fogbow.ras.api.http.CommonKeys;
+import com.google.gson.Gson;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 import org.apache.log4j.Logger;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 
+import java.io.IOException;
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 
 @CrossOrigin
 @RestController
@@ -27,6 +32,9 @@ public class FederatedNetwork {
     private final Logger LOGGER = Logger.getLogger(FederatedNetwork.class);
 
     public static final String FEDERATED_NETWORK_ENDPOINT = SystemConstants.SERVICE_BASE_ENDPOINT + "federatedNetworks";
+    public static final String COMPUTES_SUFFIX_ENDPOINT = "computes";
+
+    private static final MediaType NEWLINE_DELIMITED_JSON = MediaType.parseMediaType("application/x-ndjson");
 
     @ApiOperation(value = ApiDocumentation.FederatedNetwork.CREATE_OPERATION)
     @RequestMapping(method = RequestMethod.POST)
@@ -88,6 +96,55 @@ public class FederatedNetwork {
         }
     }
 
+    @ApiOperation(value = ApiDocumentation.FederatedNetwork.GET_COMPUTES_OPERATION)
+    @GetMapping(value = "/{federatedNetworkId}/" + COMPUTES_SUFFIX_ENDPOINT)
+    public ResponseEntity<ResponseBodyEmitter> getFederatedNetworkComputes(
+            @ApiParam(value = ApiDocumentation.FederatedNetwork.ID)
+            @PathVariable String federatedNetworkId,
+            @ApiParam(value = cloud.fogbow.common.constants.ApiDocumentation.Token.SYSTEM_USER_TOKEN)
+            @RequestHeader(required = false, value = CommonKeys.SYSTEM_USER_TOKEN_HEADER_KEY) String systemUserToken)
+            throws Exception {
+
+        try {
+            LOGGER.info(String.format(Messages.Info.GET_FEDERATED_NETWORK_COMPUTES, federatedNetworkId));
+            ResponseBodyEmitter emitter = new ResponseBodyEmitter(SystemConstants.STREAMED_LISTING_TIMEOUT);
+            Gson gson = new Gson();
+            CompletableFuture<Void> listing = ApplicationFacade.getInstance().getFederatedNetworkComputes(
+                    federatedNetworkId, systemUserToken, compute -> sendAsJsonLine(emitter, gson, compute));
+            completeWhenDone(emitter, listing);
+            return ResponseEntity.ok().contentType(NEWLINE_DELIMITED_JSON).body(emitter);
+        } catch (Exception e) {
+            LOGGER.info(String.format(Messages.Exception.GENERIC_EXCEPTION, e.getMessage()));
+            throw e;
+        }
+    }
+
+    void sendAsJsonLine(ResponseBodyEmitter emitter, Gson gson, Object item) {
+        try {
+            emitter.send(gson.toJson(item) + "\n");
+        } catch (IOException | IllegalStateException e) {
+            // The client is gone, or the listing timed out; the remaining items are still fetched, and then discarded
+            LOGGER.info(String.format(Messages.Exception.GENERIC_EXCEPTION, e.getMessage()));
+        }
+    }
+
+    // Ends the response once the listing is done, even if it failed halfway, so that the client is never left waiting
+    void completeWhenDone(ResponseBodyEmitter emitter, CompletableFuture<Void> listing) {
+        listing.whenComplete((ignored, throwable) -> {
+            try {
+                if (throwable == null) {
+                    emitter.complete();
+                } else {
+                    LOGGER.info(String.format(Messages.Exception.GENERIC_EXCEPTION, throwable.getMessage()));
+                    emitter.completeWithError(throwable);
+                }
+            } catch (IllegalStateException e) {
+                // Already completed, as the listing timed out
+                LOGGER.info(String.format(Messages.Exception.GENERIC_EXCEPTION, e.getMessage()));
+            }
+        });
+    }
+
     @ApiOperation(value = ApiDocumentation.FederatedNetwork.DELETE_OPERATION)
     @DeleteMapping(value = "/{federatedNetworkId}")
     public ResponseEntity<String> deleteFederatedNetwork(
@@ -100,8 +157,10 @@ public class FederatedNetwork {
         try {
             LOGGER.info(String.format(Messages.Info.DELETE_FEDERATED_NETWORK,
                     (federatedNetworkId == null ? "null" : federatedNetworkId)));
-            ApplicationFacade.getInstance().deleteFederatedNetwork(federatedNetworkId, systemUserToken);
-            return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+            boolean agentDeletionPending = ApplicationFacade.getInstance().deleteFederatedNetwork(federatedNetworkId,
+                    systemUserToken);
+            // The removal from the agent is made, and retried until it succeeds, after the response
+            return ResponseEntity.status(agentDeletionPending ? HttpStatus.ACCEPTED : HttpStatus.NO_CONTENT).build();
         } catch (Exception e) {
             LOGGER.info(String.format(Messages.Exception.GENERIC_EXCEPTION, e.getMessage()));
             throw e;
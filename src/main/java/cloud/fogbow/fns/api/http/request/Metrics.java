@@ -0,0 +1,41 @@
+package cloud.fogbow.fns.api.http.request;
+
+import cloud.fogbow.fns.constants.ApiDocumentation;
+import cloud.fogbow.fns.constants.Messages;
+import cloud.fogbow.fns.constants.SystemConstants;
+import cloud.fogbow.fns.core.ApplicationFacade;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import org.apache.log4j.Logger;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@CrossOrigin
+@RestController
+@RequestMapping(value = Metrics.METRICS_ENDPOINT)
+@Api(description = ApiDocumentation.Metrics.API)
+public class Metrics {
+
+    public static final String METRICS_ENDPOINT = SystemConstants.SERVICE_BASE_ENDPOINT + "metrics";
+
+    private final Logger LOGGER = Logger.getLogger(Metrics.class);
+
+    @ApiOperation(value = ApiDocumentation.Metrics.GET_OPERATION)
+    @RequestMapping(method = RequestMethod.GET)
+    public ResponseEntity<Map<String, Object>> getMetrics() {
+        try {
+            LOGGER.info(Messages.Info.GET_METRICS);
+            Map<String, Object> metrics = ApplicationFacade.getInstance().getMetrics();
+            return new ResponseEntity<>(metrics, HttpStatus.OK);
+        } catch (Exception e) {
+            LOGGER.info(String.format(Messages.Exception.GENERIC_EXCEPTION, e.getMessage()));
+            throw e;
+        }
+    }
+}
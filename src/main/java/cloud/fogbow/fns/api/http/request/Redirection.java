@@ -2,6 +2,8 @@ package cloud.fogbow.fns.api.http.request;
 
 import cloud.fogbow.common.exceptions.*;
 import cloud.fogbow.fns.constants.SystemConstants;
+import cloud.fogbow.fns.core.ApplicationFacade;
+import cloud.fogbow.ras.api.http.CommonKeys;
 import cloud.fogbow.ras.api.http.request.*;
 import cloud.fogbow.ras.api.http.request.Compute;
 import org.apache.log4j.Logger;
@@ -10,13 +12,13 @@ import cloud.fogbow.fns.utils.RedirectToRasUtil;
 import org.springframework.http.*;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.CrossOrigin;
-import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import springfox.documentation.annotations.ApiIgnore;
 
 import javax.servlet.http.HttpServletRequest;
-import java.net.URISyntaxException;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 
 @CrossOrigin(methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.DELETE, RequestMethod.OPTIONS,
         RequestMethod.PUT})
@@ -35,16 +37,36 @@ public class Redirection {
                                 "/" + SystemConstants.SERVICE_BASE_ENDPOINT + Network.NETWORK_SUFFIX_ENDPOINT + "/**",
                                 "/" + SystemConstants.SERVICE_BASE_ENDPOINT + PublicIp.PUBLIC_IP_SUFFIX_ENDPOINT + "/**",
                                 "/" + SystemConstants.SERVICE_BASE_ENDPOINT + Volume.VOLUME_SUFFIX_ENDPOINT + "/**"})
-    public ResponseEntity redirectRequest(@RequestBody(required = false) String body, HttpMethod method,
-                                     HttpServletRequest request) throws URISyntaxException, FatalErrorException,
-            FogbowException {
+    public void redirectRequest(HttpMethod method, HttpServletRequest request, HttpServletResponse response)
+            throws IOException, FatalErrorException, FogbowException {
 
         try {
             LOGGER.info(Messages.Info.REDIRECT_REQUEST);
-            return RedirectToRasUtil.redirectRequestToRas(body, method, request, String.class);
+            String userKey = method == HttpMethod.GET ? getUserKey(request) : null;
+            if (userKey != null) {
+                // Identical reads of the same user made at the same time share a single request to the RAS
+                RedirectToRasUtil.coalesceGetRequestToRas(userKey, request, response);
+            } else {
+                // The bodies are streamed between the client and the RAS, instead of being bound to a String
+                RedirectToRasUtil.streamRequestToRas(method, request, response);
+            }
         } catch (Exception e) {
             LOGGER.info(String.format(Messages.Exception.GENERIC_EXCEPTION, e.getMessage()));
             throw e;
         }
     }
+
+    // Identifies the user that sent the request, or returns null if the request is not authenticated, in which case
+    // the RAS answers it with the appropriate error
+    private String getUserKey(HttpServletRequest request) {
+        String systemUserToken = request.getHeader(CommonKeys.SYSTEM_USER_TOKEN_HEADER_KEY);
+        if (systemUserToken == null) {
+            return null;
+        }
+        try {
+            return ApplicationFacade.getInstance().identifyUser(systemUserToken);
+        } catch (FogbowException e) {
+            return null;
+        }
+    }
 }
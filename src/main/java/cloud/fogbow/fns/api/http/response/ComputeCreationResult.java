@@ -0,0 +1,48 @@
+package cloud.fogbow.fns.api.http.response;
+
+import cloud.fogbow.fns.constants.ApiDocumentation;
+import cloud.fogbow.fns.core.model.ComputeOperationState;
+import io.swagger.annotations.ApiModelProperty;
+
+public class ComputeCreationResult {
+    @ApiModelProperty(position = 0, example = "SUCCEEDED")
+    private ComputeOperationState state;
+    @ApiModelProperty(position = 1, example = cloud.fogbow.ras.constants.ApiDocumentation.Model.COMPUTE_ID)
+    private String computeId;
+    @ApiModelProperty(position = 2, example = ApiDocumentation.Model.IP, notes = ApiDocumentation.Model.FEDERATED_IP_NOTE)
+    private String federatedIp;
+    @ApiModelProperty(position = 3)
+    private String errorMessage;
+
+    public ComputeCreationResult(ComputeOperationState state, String computeId, String federatedIp,
+                                 String errorMessage) {
+        this.state = state;
+        this.computeId = computeId;
+        this.federatedIp = federatedIp;
+        this.errorMessage = errorMessage;
+    }
+
+    public static ComputeCreationResult succeeded(String computeId, String federatedIp) {
+        return new ComputeCreationResult(ComputeOperationState.SUCCEEDED, computeId, federatedIp, null);
+    }
+
+    public static ComputeCreationResult failed(String errorMessage) {
+        return new ComputeCreationResult(ComputeOperationState.FAILED, null, null, errorMessage);
+    }
+
+    public ComputeOperationState getState() {
+        return state;
+    }
+
+    public String getComputeId() {
+        return computeId;
+    }
+
+    public String getFederatedIp() {
+        return federatedIp;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+}
@@ -0,0 +1,47 @@
+package cloud.fogbow.fns.api.http.response;
+
+import cloud.fogbow.fns.constants.ApiDocumentation;
+import cloud.fogbow.fns.core.model.ComputeOperationState;
+import io.swagger.annotations.ApiModelProperty;
+
+public class ComputeOperationInstance {
+    @ApiModelProperty(position = 0, example = ApiDocumentation.Model.INSTANCE_ID)
+    private String operationId;
+    @ApiModelProperty(position = 1, example = ApiDocumentation.Model.INSTANCE_ID)
+    private String federatedNetworkId;
+    @ApiModelProperty(position = 2, example = "PENDING")
+    private ComputeOperationState state;
+    @ApiModelProperty(position = 3, example = cloud.fogbow.ras.constants.ApiDocumentation.Model.COMPUTE_ID)
+    private String computeId;
+    @ApiModelProperty(position = 4)
+    private String errorMessage;
+
+    public ComputeOperationInstance(String operationId, String federatedNetworkId, ComputeOperationState state,
+                                    String computeId, String errorMessage) {
+        this.operationId = operationId;
+        this.federatedNetworkId = federatedNetworkId;
+        this.state = state;
+        this.computeId = computeId;
+        this.errorMessage = errorMessage;
+    }
+
+    public String getOperationId() {
+        return operationId;
+    }
+
+    public String getFederatedNetworkId() {
+        return federatedNetworkId;
+    }
+
+    public ComputeOperationState getState() {
+        return state;
+    }
+
+    public String getComputeId() {
+        return computeId;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+}
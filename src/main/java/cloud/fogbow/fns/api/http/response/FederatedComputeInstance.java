@@ -0,0 +1,48 @@
+package cloud.fogbow.fns.api.http.response;
+
+import cloud.fogbow.fns.constants.ApiDocumentation;
+import cloud.fogbow.ras.api.http.response.ComputeInstance;
+import io.swagger.annotations.ApiModelProperty;
+
+public class FederatedComputeInstance {
+    @ApiModelProperty(position = 0, example = cloud.fogbow.ras.constants.ApiDocumentation.Model.COMPUTE_ID)
+    private String computeId;
+    @ApiModelProperty(position = 1, example = ApiDocumentation.Model.IP, notes = ApiDocumentation.Model.FEDERATED_IP_NOTE)
+    private String federatedIp;
+    @ApiModelProperty(position = 2)
+    private ComputeInstance compute;
+    @ApiModelProperty(position = 3)
+    private String errorMessage;
+
+    public FederatedComputeInstance(String computeId, String federatedIp, ComputeInstance compute,
+                                    String errorMessage) {
+        this.computeId = computeId;
+        this.federatedIp = federatedIp;
+        this.compute = compute;
+        this.errorMessage = errorMessage;
+    }
+
+    public static FederatedComputeInstance found(AssignedIp assignedIp, ComputeInstance compute) {
+        return new FederatedComputeInstance(assignedIp.getComputeId(), assignedIp.getIp(), compute, null);
+    }
+
+    public static FederatedComputeInstance failed(AssignedIp assignedIp, String errorMessage) {
+        return new FederatedComputeInstance(assignedIp.getComputeId(), assignedIp.getIp(), null, errorMessage);
+    }
+
+    public String getComputeId() {
+        return computeId;
+    }
+
+    public String getFederatedIp() {
+        return federatedIp;
+    }
+
+    public ComputeInstance getCompute() {
+        return compute;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+}
@@ -0,0 +1,48 @@
+package cloud.fogbow.fns.api.parameters;
+
+import cloud.fogbow.fns.constants.ApiDocumentation;
+import cloud.fogbow.ras.api.parameters.Compute;
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@ApiModel
+public class FederatedComputeBatch {
+    // Like FederatedCompute, this parameter does not become an order at the FNS, but one order per compute at the
+    // underlying RAS.
+    @ApiModelProperty(position = 0, example = ApiDocumentation.Model.INSTANCE_ID)
+    private String federatedNetworkId;
+    @ApiModelProperty(position = 1, required = true)
+    private List<Compute> computes;
+
+    public String getFederatedNetworkId() {
+        return federatedNetworkId;
+    }
+
+    public void setFederatedNetworkId(String federatedNetworkId) {
+        this.federatedNetworkId = federatedNetworkId;
+    }
+
+    public List<Compute> getComputes() {
+        return computes;
+    }
+
+    public void setComputes(List<Compute> computes) {
+        this.computes = computes;
+    }
+
+    public List<FederatedCompute> getFederatedComputes() {
+        List<FederatedCompute> federatedComputes = new ArrayList<>();
+        if (this.computes != null) {
+            for (Compute compute : this.computes) {
+                FederatedCompute federatedCompute = new FederatedCompute();
+                federatedCompute.setFederatedNetworkId(this.federatedNetworkId);
+                federatedCompute.setCompute(compute);
+                federatedComputes.add(federatedCompute);
+            }
+        }
+        return federatedComputes;
+    }
+}
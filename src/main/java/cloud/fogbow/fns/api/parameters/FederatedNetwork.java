@@ -2,6 +2,7 @@ package cloud.fogbow.fns.api.parameters;
 
 import cloud.fogbow.fns.constants.ApiDocumentation;
 import cloud.fogbow.fns.core.model.FederatedNetworkOrder;
+import cloud.fogbow.fns.core.model.OrderPriority;
 import io.swagger.annotations.ApiModel;
 import io.swagger.annotations.ApiModelProperty;
 
@@ -11,10 +12,19 @@ import java.util.*;
 public class FederatedNetwork implements OrderApiParameter<FederatedNetworkOrder> {
     @ApiModelProperty(position = 0, example = ApiDocumentation.Model.INSTANCE_ID)
     private String name;
-    @ApiModelProperty(position = 1, required = true, example = ApiDocumentation.Model.CIDR)
+    @ApiModelProperty(position = 1, example = ApiDocumentation.Model.CIDR, notes = ApiDocumentation.Model.CIDR_NOTE)
     private String cidr;
     @ApiModelProperty(position = 2, example = ApiDocumentation.Model.PROVIDERS)
     private Set<String> providers;
+    @ApiModelProperty(position = 3, example = ApiDocumentation.Model.PRIORITY,
+            notes = ApiDocumentation.Model.PRIORITY_NOTE)
+    private OrderPriority priority;
+    @ApiModelProperty(position = 4, example = ApiDocumentation.Model.DEADLINE,
+            notes = ApiDocumentation.Model.DEADLINE_NOTE)
+    private Long deadline;
+    @ApiModelProperty(position = 5, example = ApiDocumentation.Model.PREFIX_LENGTH,
+            notes = ApiDocumentation.Model.PREFIX_LENGTH_NOTE)
+    private Integer prefixLength;
 
     @Override
     public FederatedNetworkOrder getOrder() {
@@ -22,6 +32,9 @@ public class FederatedNetwork implements OrderApiParameter<FederatedNetworkOrder
         order.setCidr(this.cidr);
         order.setName(this.name);
         order.setProviders(this.providers);
+        order.setPriority(this.priority);
+        order.setDeadline(this.deadline);
+        order.setPrefixLength(this.prefixLength);
         return order;
     }
 
@@ -36,4 +49,16 @@ public class FederatedNetwork implements OrderApiParameter<FederatedNetworkOrder
     public String getCidr() {
         return cidr;
     }
+
+    public OrderPriority getPriority() {
+        return priority;
+    }
+
+    public Long getDeadline() {
+        return deadline;
+    }
+
+    public Integer getPrefixLength() {
+        return prefixLength;
+    }
 }
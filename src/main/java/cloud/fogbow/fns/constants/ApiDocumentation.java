@@ -19,11 +19,28 @@ public class ApiDocumentation {
                 "that will be given to the federated network.";
         public static final String GET_OPERATION = "Lists all federated networks created by the user.";
         public static final String GET_BY_ID_OPERATION = "Lists a specific federated network.";
+        public static final String GET_COMPUTES_OPERATION = "Lists the computes attached to a specific federated " +
+                "network, along with their federated IPs. Each compute is written in a line of its own, as a JSON " +
+                "document, as soon as the RAS returns it.";
         public static final String ID = "The ID of the specific federated network.";
-        public static final String DELETE_OPERATION = "Deletes a specific federated network.";
+        public static final String DELETE_OPERATION = "Deletes a specific federated network. Answers 202 (Accepted) " +
+                "if the federated network is still to be removed from the agent, which is retried until it " +
+                "succeeds, or else 204 (No Content).";
     }
 
     public static class Compute {
+        public static final String CREATE_ASYNC_OPERATION = "Creates a compute asynchronously. The request is " +
+                "answered as soon as the federated IP (if any) is reserved, with the ID of an operation that can " +
+                "be queried to obtain the ID of the compute created. Selected by the query parameter async=true.";
+        public static final String GET_OPERATION = "Returns the state of an asynchronous compute creation.";
+        public static final String CREATE_BATCH_OPERATION = "Creates several computes, optionally attached to the " +
+                "same federated network, and returns the result of each creation, in the order of the request.";
+        public static final String CREATE_BATCH_REQUEST_BODY = "The ID of the federated network to which the " +
+                "computes should be attached (optional) and the list of parameters of each compute to be created. " +
+                cloud.fogbow.ras.constants.ApiDocumentation.Compute.CREATE_REQUEST_BODY;
+        public static final String OPERATION_ID = "The ID of the asynchronous compute creation.";
+        public static final String WAIT_TIME = "Maximum time (in milliseconds) to wait for the operation to " +
+                "complete before answering (long polling). The default is 0 (answer immediately).";
         public static final String CREATE_REQUEST_BODY =
                 "The body of the request has two parts. The first is an optional field that can be used " +
                 "to specify the ID of a federated network that has been previously created, and to which " +
@@ -31,6 +48,11 @@ public class ApiDocumentation {
                 "for the compute to be created. " + cloud.fogbow.ras.constants.ApiDocumentation.Compute.CREATE_REQUEST_BODY;
     }
 
+    public static class Metrics {
+        public static final String API = "Queries the internal metrics of the FNS.";
+        public static final String GET_OPERATION = "Returns the current value of all counters and gauges kept by the FNS.";
+    }
+
     public static class Model {
         public static final String INSTANCE_ID = "9632af26-72ee-461a-99a9-1e5d59076a98";
         public static final String INSTANCE_NAME = "instance name";
@@ -42,7 +64,15 @@ public class ApiDocumentation {
                 "    {\"computeId\": \"0b0246e3-85ea-4642-93d5-f2c4fbd415d2\", \"ip\": \"10.10.0.3\"}\n" +
                 "  ]";
         public static final String CIDR = "10.10.0.0/16";
+        public static final String CIDR_NOTE = "(required, unless a prefix length is given and the FNS has an address pool)";
+        public static final String PREFIX_LENGTH = "24";
+        public static final String PREFIX_LENGTH_NOTE = "(the size of the CIDR to be assigned from the address pool of the FNS, when no CIDR is given)";
+        public static final String PRIORITY = "HIGH";
+        public static final String PRIORITY_NOTE = "(one of LOW, NORMAL and HIGH; NORMAL if omitted)";
+        public static final String DEADLINE = "1767225600000";
+        public static final String DEADLINE_NOTE = "(the time, in milliseconds since the epoch, by which the federated network should be created)";
         public static final String IP = "188.140.0.5";
         public static final String IP_NOTE = "(the IPs assigned to the compute)";
+        public static final String FEDERATED_IP_NOTE = "(the IP assigned to the compute in the federated network)";
     }
 }
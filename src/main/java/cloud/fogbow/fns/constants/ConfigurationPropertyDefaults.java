@@ -5,4 +5,90 @@ import java.util.concurrent.TimeUnit;
 public class ConfigurationPropertyDefaults {
     // FNS CONF DEFAULTS
     public static final String BUILD_NUMBER = "[testing mode]";
+
+    // ASYNCHRONOUS COMPUTE OPERATIONS DEFAULTS
+    public static final String COMPUTE_OPERATIONS_POOL_SIZE = "8";
+    public static final String COMPUTE_OPERATIONS_QUEUE_SIZE = "256";
+    public static final String COMPUTE_OPERATIONS_RETENTION_TIME = "600000"; // 10 minutes
+    public static final String RAS_REQUESTS_PARALLELISM = "16";
+    public static final String MAX_COMPUTE_BATCH_SIZE = "500";
+
+    // IP RESERVATION DEFAULTS
+    // The reservation TTL must be longer than the time the RAS takes to answer a compute creation request
+    public static final String IP_RESERVATION_TTL = "300000"; // 5 minutes
+    public static final String IP_RESERVATION_SWEEPER_SLEEP_TIME = "10000"; // 10 seconds
+
+    // ORDER PROCESSORS DEFAULTS
+    public static final String PROCESSOR_POOL_SIZE = "1";
+    public static final String PROCESSOR_BATCH_SIZE = "100";
+    public static final String PROCESSOR_SLEEP_TIME = "1000"; // 1 second
+    public static final String PROCESSOR_POLICY = "wakeup";
+    // Failed orders are retried at a slow pace, instead of as soon as they fail
+    public static final String FAILED_PROCESSOR_SLEEP_TIME = "60000"; // 1 minute
+    public static final String FAILED_PROCESSOR_POLICY = "polling";
+
+    // AGENT DELETION DEFAULTS
+    // A removal that failed is retried after the minimum delay, which doubles after each failure up to the maximum
+    public static final String AGENT_DELETION_MIN_RETRY_DELAY = "5000"; // 5 seconds
+    public static final String AGENT_DELETION_MAX_RETRY_DELAY = "600000"; // 10 minutes
+
+    // OPEN ORDERS DEFAULTS
+    // A low priority order is served before the high priority orders created more than 10 minutes after it
+    public static final String OPEN_ORDERS_HIGH_PRIORITY_TARGET_WAIT = "0";
+    public static final String OPEN_ORDERS_NORMAL_PRIORITY_TARGET_WAIT = "60000"; // 1 minute
+    public static final String OPEN_ORDERS_LOW_PRIORITY_TARGET_WAIT = "600000"; // 10 minutes
+
+    // ADDRESS POOL DEFAULTS
+    // Every federated network must be given a CIDR unless an address pool is configured
+    public static final String ADDRESS_POOL = "";
+
+    // ADMISSION CONTROL DEFAULTS
+    // No limit is enforced on the open orders unless configured
+    public static final String MAX_OPEN_ORDERS = "0";
+    public static final String MAX_OPEN_ORDERS_PER_USER = "0";
+    // The agent is considered unavailable after this many consecutive failed calls, until a call succeeds
+    public static final String AGENT_FAILURE_THRESHOLD = "5";
+    // Failed orders are retried once a minute by default, so the agent is not seen available again sooner than that
+    public static final String AGENT_UNAVAILABLE_RETRY_AFTER = "60000"; // 1 minute
+    public static final String MAX_RETRY_AFTER = "600000"; // 10 minutes
+
+    // QUOTA DEFAULTS
+    // No quota is enforced unless configured
+    public static final String QUOTA_PER_USER = "0";
+    public static final String QUOTA_PER_IDENTITY_PROVIDER = "0";
+
+    // RAS HTTP CLIENT DEFAULTS
+    public static final String RAS_HTTP_MAX_CONNECTIONS = "64";
+    public static final String RAS_HTTP_MAX_CONNECTIONS_PER_ROUTE = "32";
+    public static final String RAS_HTTP_CONNECT_TIMEOUT = "5000"; // 5 seconds
+    // Compute creation requests may take a while to be answered by the RAS
+    public static final String RAS_HTTP_READ_TIMEOUT = "120000"; // 2 minutes
+    public static final String RAS_HTTP_CONNECTION_REQUEST_TIMEOUT = "10000"; // 10 seconds
+    public static final String RAS_HTTP_IDLE_CONNECTION_TIMEOUT = "60000"; // 1 minute
+
+    // RAS TOKEN CACHE DEFAULTS
+    // Must be shorter than the lifetime of the tokens issued by the AS
+    public static final String RAS_TOKEN_CACHE_TTL = "60000"; // 1 minute
+    public static final String RAS_TOKEN_CACHE_MAX_SIZE = "10000";
+
+    // RAS REQUEST COALESCING DEFAULTS
+    public static final String RAS_COALESCED_RESPONSE_MAX_SIZE = "1048576"; // 1 MiB
+    // No response is cached unless its endpoint family is configured
+    public static final String RAS_RESPONSE_CACHE_TTLS = "";
+    public static final String RAS_RESPONSE_CACHE_MAX_SIZE = "1000";
+
+    // AUTHENTICATION CACHE DEFAULTS
+    // A token may be accepted for up to this long after it expires, so it must be much shorter than the lifetime of
+    // the tokens issued by the AS
+    public static final String AUTHENTICATION_CACHE_TTL = "30000"; // 30 seconds
+    public static final String AUTHENTICATION_CACHE_MAX_SIZE = "10000";
+
+    // COMPUTE INSTANCE CACHE DEFAULTS
+    public static final String COMPUTE_INSTANCE_CACHE_READY_TTL = "30000"; // 30 seconds
+    // Computes being created or deleted must be seen changing state soon after they do
+    public static final String COMPUTE_INSTANCE_CACHE_TRANSITIONAL_TTL = "2000"; // 2 seconds
+    public static final String COMPUTE_INSTANCE_CACHE_MAX_SIZE = "10000";
+
+    // KEY MATERIAL DEFAULTS
+    public static final String KEY_MATERIAL_REFRESH_TIME = "600000"; // 10 minutes
 }
@@ -5,6 +5,57 @@ public class ConfigurationPropertyKeys {
     public static final String LOCAL_MEMBER_ID_KEY = "xmpp_jid";
     public static final String BUILD_NUMBER_KEY = "build_number";
 
+    // Asynchronous compute operations configuration
+    public static final String COMPUTE_OPERATIONS_POOL_SIZE_KEY = "compute_operations_pool_size";
+    public static final String COMPUTE_OPERATIONS_QUEUE_SIZE_KEY = "compute_operations_queue_size";
+    public static final String COMPUTE_OPERATIONS_RETENTION_TIME_KEY = "compute_operations_retention_time";
+    public static final String RAS_REQUESTS_PARALLELISM_KEY = "ras_requests_parallelism";
+    public static final String MAX_COMPUTE_BATCH_SIZE_KEY = "max_compute_batch_size";
+
+    // IP reservation configuration
+    public static final String IP_RESERVATION_TTL_KEY = "ip_reservation_ttl";
+    public static final String IP_RESERVATION_SWEEPER_SLEEP_TIME_KEY = "ip_reservation_sweeper_sleep_time";
+
+    // Order processors configuration; each key is formatted with the state of the orders processed, e.g.
+    // open_processor_pool_size
+    public static final String PROCESSOR_POOL_SIZE_KEY_FORMAT = "%s_processor_pool_size";
+    public static final String PROCESSOR_BATCH_SIZE_KEY_FORMAT = "%s_processor_batch_size";
+    public static final String PROCESSOR_SLEEP_TIME_KEY_FORMAT = "%s_processor_sleep_time";
+    public static final String PROCESSOR_POLICY_KEY_FORMAT = "%s_processor_policy";
+
+    // Removal of deleted federated networks from the agent
+    public static final String AGENT_DELETION_MIN_RETRY_DELAY_KEY = "agent_deletion_min_retry_delay";
+    public static final String AGENT_DELETION_MAX_RETRY_DELAY_KEY = "agent_deletion_max_retry_delay";
+
+    // Open orders configuration; formatted with the priority of the orders, e.g. open_orders_high_priority_target_wait
+    public static final String OPEN_ORDERS_TARGET_WAIT_KEY_FORMAT = "open_orders_%s_priority_target_wait";
+
+    // Address pool configuration
+    public static final String ADDRESS_POOL_KEY = "address_pool";
+
+    // Admission control configuration
+    public static final String MAX_OPEN_ORDERS_KEY = "max_open_orders";
+    public static final String MAX_OPEN_ORDERS_PER_USER_KEY = "max_open_orders_per_user";
+    public static final String AGENT_FAILURE_THRESHOLD_KEY = "agent_failure_threshold";
+    public static final String AGENT_UNAVAILABLE_RETRY_AFTER_KEY = "agent_unavailable_retry_after";
+    public static final String MAX_RETRY_AFTER_KEY = "max_retry_after";
+
+    // Quota configuration
+    public static final String QUOTA_NETWORKS_PER_USER_KEY = "quota_networks_per_user";
+    public static final String QUOTA_ADDRESS_SPACE_PER_USER_KEY = "quota_address_space_per_user";
+    public static final String QUOTA_IPS_PER_USER_KEY = "quota_ips_per_user";
+    public static final String QUOTA_NETWORKS_PER_IDENTITY_PROVIDER_KEY = "quota_networks_per_identity_provider";
+    public static final String QUOTA_ADDRESS_SPACE_PER_IDENTITY_PROVIDER_KEY = "quota_address_space_per_identity_provider";
+    public static final String QUOTA_IPS_PER_IDENTITY_PROVIDER_KEY = "quota_ips_per_identity_provider";
+
+    // Compute instance cache configuration
+    public static final String COMPUTE_INSTANCE_CACHE_READY_TTL_KEY = "compute_instance_cache_ready_ttl";
+    public static final String COMPUTE_INSTANCE_CACHE_TRANSITIONAL_TTL_KEY = "compute_instance_cache_transitional_ttl";
+    public static final String COMPUTE_INSTANCE_CACHE_MAX_SIZE_KEY = "compute_instance_cache_max_size";
+
+    // Key material configuration
+    public static final String KEY_MATERIAL_REFRESH_TIME_KEY = "key_material_refresh_time";
+
     // Plugins
     public static final String AUTHORIZATION_PLUGIN_CLASS_KEY = "authorization_plugin_class";
 
@@ -15,6 +66,21 @@ public class ConfigurationPropertyKeys {
     // RAS configuration
     public static final String RAS_PORT_KEY = "ras_port";
     public static final String RAS_URL_KEY = "ras_url";
+    public static final String RAS_HTTP_MAX_CONNECTIONS_KEY = "ras_http_max_connections";
+    public static final String RAS_HTTP_MAX_CONNECTIONS_PER_ROUTE_KEY = "ras_http_max_connections_per_route";
+    public static final String RAS_HTTP_CONNECT_TIMEOUT_KEY = "ras_http_connect_timeout";
+    public static final String RAS_HTTP_READ_TIMEOUT_KEY = "ras_http_read_timeout";
+    public static final String RAS_HTTP_CONNECTION_REQUEST_TIMEOUT_KEY = "ras_http_connection_request_timeout";
+    public static final String RAS_HTTP_IDLE_CONNECTION_TIMEOUT_KEY = "ras_http_idle_connection_timeout";
+    public static final String RAS_TOKEN_CACHE_TTL_KEY = "ras_token_cache_ttl";
+    public static final String RAS_TOKEN_CACHE_MAX_SIZE_KEY = "ras_token_cache_max_size";
+    public static final String RAS_COALESCED_RESPONSE_MAX_SIZE_KEY = "ras_coalesced_response_max_size";
+    public static final String RAS_RESPONSE_CACHE_TTLS_KEY = "ras_response_cache_ttls";
+    public static final String RAS_RESPONSE_CACHE_MAX_SIZE_KEY = "ras_response_cache_max_size";
+
+    // Authentication configuration
+    public static final String AUTHENTICATION_CACHE_TTL_KEY = "authentication_cache_ttl";
+    public static final String AUTHENTICATION_CACHE_MAX_SIZE_KEY = "authentication_cache_max_size";
 
     // Agent configuration
     public static final String ADD_FEDERATED_NETWORK_SCRIPT_PATH_KEY = "add_federated_network_script_path";
@@ -2,30 +2,63 @@ package cloud.fogbow.fns.constants;
 
 public class Messages {
     public static class Exception {
+        public static final String ADDRESS_SPACE_QUOTA = "address space";
+        public static final String CIDR_OR_PREFIX_LENGTH_REQUIRED = "Either a CIDR or a prefix length must be given.";
+        public static final String CIDR_OVERLAPS_ADDRESS_POOL_BLOCK = "CIDR %s overlaps a federated network in the address pool.";
+        public static final String CIDR_OVERLAPS_FEDERATED_NETWORK = "CIDR %s overlaps the CIDR of another federated network.";
+        public static final String COMPUTE_OPERATION_WAITED_TOO_LONG = "The compute creation waited too long to be run; the reservation of IP %s in federated network %s would expire before it completes.";
+        public static final String FEDERATED_NETWORK_AGENT_UNAVAILABLE = "The federated network agent is unavailable; try again later.";
         public static final String GENERIC_EXCEPTION = "Operation returned error: %s";
+        public static final String IDENTITY_PROVIDER_QUOTA_SCOPE = "identity provider";
         public static final String INVALID_URL = "Please check the url %s";
+        public static final String IPS_QUOTA = "federated IPs";
+        public static final String NETWORKS_QUOTA = "federated networks";
         public static final String INVALID_CIDR = "Invalid CIDR (%s).";
+        public static final String INVALID_COMPUTE_BATCH_SIZE = "The number of computes in a batch must be between 1 and %s.";
+        public static final String INVALID_PREFIX_LENGTH = "The prefix length must be between %s and %s.";
+        public static final String INVALID_ORDER_STATE_TRANSITION = "Order %s cannot go from state %s to state %s.";
+        public static final String KEY_NOT_LOADED = "The %s could not be loaded yet; try again later.";
+        public static final String NO_ADDRESS_POOL = "A CIDR must be given, as there is no address pool.";
+        public static final String NO_FREE_BLOCK_IN_ADDRESS_POOL = "No block of prefix length %s is free in the address pool.";
+        public static final String IP_LEASE_EXPIRED = "The reservation of IP %s in federated network %s has expired.";
         public static final String NO_MORE_IPS_AVAILABLE = "No more IPs available.";
         public static final String ORDER_SHOULD_BE_CLOSED_BEFORE_DEACTIVATED = "Order '%s' should be closed before deactivated.";
+        public static final String QUOTA_EXCEEDED = "The quota of %s of the %s has been exceeded.";
         public static final String REQUESTER_DOES_NOT_OWN_REQUEST = "Requester does not own request.";
+        public static final String TOO_MANY_PENDING_COMPUTE_OPERATIONS = "Too many pending compute operations; try again later.";
+        public static final String TOO_MANY_PENDING_FEDERATED_NETWORKS = "Too many federated networks waiting to be created; try again later.";
+        public static final String TOO_MANY_PENDING_FEDERATED_NETWORKS_OF_USER = "Too many of your federated networks are waiting to be created; try again later.";
         public static final String THREAD_HAS_BEEN_INTERRUPTED = "Thread has been interrupted";
         public static final String UNABLE_TO_COMMUNICATE_WITH_AGENT = "Unable to communicate with agent.";
+        public static final String UNABLE_TO_FIND_COMPUTE_OPERATION = "Unable to find compute operation %s.";
         public static final String UNABLE_TO_FIND_FEDERATED_NETWORK = "Unable to find federated network %s.";
         public static final String UNABLE_TO_FIND_LIST_FOR_REQUESTS = "Unable to find list for requests in state %s.";
         public static final String UNABLE_TO_LOAD_PUBLIC_KEY = "Unable to load FNS public key.";
         public static final String UNABLE_TO_REMOVE_FEDERATED_NETWORK = "Unable to remove federated network.";
         public static final String UNEXPECTED_EXCEPTION = "Unexpected exception.";
         public static final String UNABLE_TO_DESERIALIZE_SYSTEM_USER = "Unable to deserialize system user.";
+        public static final String USER_QUOTA_SCOPE = "user";
     }
 
     public static class Fatal {
+        public static final String INVALID_RAS_RESPONSE_CACHE_TIME_TO_LIVE = "Invalid entry '%s' in %s; expected <endpoint prefix>:<time to live in milliseconds>.";
     }
 
     public static class Warn {
+        public static final String CIDR_NOT_RESERVED_IN_ADDRESS_POOL = "CIDR %s of federated network %s overlaps another federated network in the address pool.";
+        public static final String CIDR_OVERLAPS_FEDERATED_NETWORK = "CIDR %s of federated network %s overlaps the CIDR of federated network %s.";
+        public static final String IP_RESERVATIONS_EXPIRED = "%s IP reservation(s) expired in federated network %s.";
+        public static final String UNABLE_TO_DELETE_CREATED_COMPUTE = "Unable to delete compute %s, whose federated IP could not be committed.";
+        public static final String UNABLE_TO_LOAD_KEY_MATERIAL = "Unable to load keys at startup; they will be loaded on first use: %s";
+        public static final String UNABLE_TO_READ_TOKEN_EXPIRATION_TIME = "Unable to read the expiration time of a token; it will not be cached: %s";
+        public static final String UNABLE_TO_REFRESH_KEY_MATERIAL = "Unable to refresh keys; keeping the current ones: %s";
+        public static final String UNABLE_TO_REMOVE_FEDERATED_NETWORK_FROM_AGENT = "Unable to remove federated network %s from the agent; retrying in %s ms.";
     }
 
     public static class Info {
         public static final String CREATE_COMPUTE = "Create compute request: [%s]";
+        public static final String CREATE_COMPUTE_ASYNC = "Asynchronous create compute request: [%s]";
+        public static final String CREATE_COMPUTE_BATCH = "Create compute batch request: [%s] computes";
         public static final String CREATE_FEDERATED_NETWORK = "Create federated network request: %s";
         public static final String DELETE_COMPUTE = "Delete compute request received: [%s]";
         public static final String DELETE_FEDERATED_NETWORK = "Delete federated network with id: %s";
@@ -33,10 +66,14 @@ public class Messages {
         public static final String DELETING_FEDERATED_NETWORK = "Deleting federated network: %s.";
         public static final String REDIRECT_REQUEST = "Request redirected to RAS";
         public static final String GET_COMPUTE_BY_ID = "Get compute request received: [%s]";
+        public static final String GET_COMPUTE_OPERATION = "Get compute operation request received: [%s]";
         public static final String GET_FEDERATED_NETWORK_BY_ID = "Get federated network with id: %s";
+        public static final String GET_FEDERATED_NETWORK_COMPUTES = "Get computes of federated network with id: %s";
         public static final String GET_FEDERATED_NETWORK_STATUS = "Get federated network status request";
+        public static final String GET_METRICS = "Get metrics request received.";
         public static final String GET_PUBLIC_KEY = "Get public key received.";
         public static final String GET_VERSION = "Get version request received.";
+        public static final String KEY_MATERIAL_ROTATED = "Keys have changed; cached tokens discarded.";
         public static final String INITIALIZING_DELETE_METHOD = "Initializing delete method, federated network id: %s.";
         public static final Object STARTING_THREADS = "Starting threads.";
     }
@@ -0,0 +1,84 @@
+package cloud.fogbow.fns.constants;
+
+public class MetricNames {
+    // Address pool the CIDRs of federated networks are carved out of
+    public static final String ADDRESS_POOL_ALLOCATED_ADDRESSES = "address_pool.allocated_addresses";
+    public static final String ADDRESS_POOL_TOTAL_ADDRESSES = "address_pool.total_addresses";
+
+    // Admission of new federated networks
+    public static final String ADMISSION_ACCEPTED = "admission.accepted";
+    public static final String ADMISSION_AGENT_AVAILABLE = "admission.agent_available";
+    public static final String ADMISSION_AGENT_CALL_TIME = "admission.agent_call_time_ms";
+    public static final String ADMISSION_AGENT_CONSECUTIVE_FAILURES = "admission.agent_consecutive_failures";
+    public static final String ADMISSION_AGENT_PROBES = "admission.agent_probes";
+    public static final String ADMISSION_OPEN_ORDERS = "admission.open_orders";
+    public static final String ADMISSION_REJECTED_AGENT_UNAVAILABLE = "admission.rejected.agent_unavailable";
+    public static final String ADMISSION_REJECTED_OPEN_ORDERS = "admission.rejected.open_orders";
+    public static final String ADMISSION_REJECTED_USER_OPEN_ORDERS = "admission.rejected.user_open_orders";
+
+    // Calls to the agent that were not made, because a create and a delete cancelled each other out
+    public static final String AGENT_CALLS_SAVED = "agent_calls.saved";
+
+    // Removals of deleted federated networks from the agent; the retrying ones have failed at least once
+    public static final String AGENT_DELETIONS_FAILED = "agent_deletions.failed";
+    public static final String AGENT_DELETIONS_PENDING = "agent_deletions.pending";
+    public static final String AGENT_DELETIONS_RETRYING = "agent_deletions.retrying";
+
+    // Cache of authenticated users
+    public static final String AUTHENTICATION_CACHE_HITS = "authentication_cache.hits";
+    public static final String AUTHENTICATION_CACHE_MISSES = "authentication_cache.misses";
+    public static final String AUTHENTICATION_CACHE_SIZE = "authentication_cache.size";
+
+    // Index of the CIDRs of the active federated networks
+    public static final String CIDR_INDEX_NETWORKS = "cidr_index.networks";
+    public static final String CIDR_OVERLAPS_REJECTED = "cidr_index.overlaps_rejected";
+
+    // Cache of compute instances returned by the RAS
+    public static final String COMPUTE_INSTANCE_CACHE_HITS = "compute_instance_cache.hits";
+    public static final String COMPUTE_INSTANCE_CACHE_MISSES = "compute_instance_cache.misses";
+    public static final String COMPUTE_INSTANCE_CACHE_SIZE = "compute_instance_cache.size";
+
+    // Asynchronous compute operations
+    public static final String COMPUTE_OPERATIONS_ACTIVE = "compute_operations.active";
+    public static final String COMPUTE_OPERATIONS_FAILED = "compute_operations.failed";
+    public static final String COMPUTE_OPERATIONS_QUEUED = "compute_operations.queued";
+    public static final String COMPUTE_OPERATIONS_REJECTED = "compute_operations.rejected";
+    public static final String COMPUTE_OPERATIONS_SUCCEEDED = "compute_operations.succeeded";
+
+    // IP reservations
+    public static final String IP_RESERVATIONS_ACTIVE = "ip_reservations.active";
+    public static final String IP_RESERVATIONS_COMMITTED = "ip_reservations.committed";
+    public static final String IP_RESERVATIONS_CREATED = "ip_reservations.created";
+    public static final String IP_RESERVATIONS_EXPIRED = "ip_reservations.expired";
+    public static final String IP_RESERVATIONS_RELEASED = "ip_reservations.released";
+
+    // Open orders; the queue wait is a histogram per priority, e.g. open_orders.queue_wait_ms.high
+    public static final String OPEN_ORDERS_DEADLINES_MISSED = "open_orders.deadlines_missed";
+    public static final String OPEN_ORDERS_QUEUE_WAIT_FORMAT = "open_orders.queue_wait_ms.%s";
+
+    // Requests refused because a quota would be exceeded
+    public static final String QUOTA_REJECTIONS = "quota.rejections";
+
+    // Identical GET requests to the RAS collapsed into a single one
+    public static final String RAS_COALESCED_REQUESTS_IN_FLIGHT = "ras_coalesced_requests.in_flight";
+    public static final String RAS_COALESCED_REQUESTS_JOINED = "ras_coalesced_requests.joined";
+    public static final String RAS_COALESCED_REQUESTS_SENT = "ras_coalesced_requests.sent";
+
+    // Connection pool of the HTTP client used to talk to the RAS; the wait time is a histogram, whose count is the
+    // number of leases
+    public static final String RAS_HTTP_POOL_AVAILABLE = "ras_http_pool.available";
+    public static final String RAS_HTTP_POOL_LEASED = "ras_http_pool.leased";
+    public static final String RAS_HTTP_POOL_MAX = "ras_http_pool.max";
+    public static final String RAS_HTTP_POOL_PENDING = "ras_http_pool.pending";
+    public static final String RAS_HTTP_POOL_WAIT_TIME = "ras_http_pool.wait_time_ms";
+
+    // Cache of RAS responses to GET requests
+    public static final String RAS_RESPONSE_CACHE_HITS = "ras_response_cache.hits";
+    public static final String RAS_RESPONSE_CACHE_MISSES = "ras_response_cache.misses";
+    public static final String RAS_RESPONSE_CACHE_SIZE = "ras_response_cache.size";
+
+    // Cache of user tokens rewrapped for the RAS
+    public static final String RAS_TOKEN_CACHE_HITS = "ras_token_cache.hits";
+    public static final String RAS_TOKEN_CACHE_MISSES = "ras_token_cache.misses";
+    public static final String RAS_TOKEN_CACHE_SIZE = "ras_token_cache.size";
+}
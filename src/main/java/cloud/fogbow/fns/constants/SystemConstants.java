@@ -4,6 +4,14 @@ public class SystemConstants {
     public static final String SERVICE_BASE_ENDPOINT = "fns/";
     public static final String API_VERSION_NUMBER = "2.0.0";
 
+    // Long polls must be answered before the servlet container times out the asynchronous request (30 seconds)
+    public static final long COMPUTE_OPERATION_MAX_WAIT_TIME = 25000L;
+
+    // Time a client is given to take a proxied response, beyond the time the RAS may take to answer
+    public static final long PROXIED_RESPONSE_WRITE_TIME = 60000L;
+    // Streamed listings are ended by the servlet container if they take longer than this
+    public static final long STREAMED_LISTING_TIMEOUT = 10 * 60000L;
+
     // CONFIGURATION FILES PATHS
     public static final String FNS_CONF_FILE = "fns.conf";
 }
\ No newline at end of file
@@ -0,0 +1,178 @@
+package cloud.fogbow.fns.core;
+
+import cloud.fogbow.common.models.SystemUser;
+import cloud.fogbow.fns.constants.ConfigurationPropertyDefaults;
+import cloud.fogbow.fns.constants.ConfigurationPropertyKeys;
+import cloud.fogbow.fns.constants.Messages;
+import cloud.fogbow.fns.constants.MetricNames;
+import cloud.fogbow.fns.core.exceptions.AdmissionRejectedException;
+import cloud.fogbow.fns.core.metrics.MetricsHolder;
+import cloud.fogbow.fns.core.model.OrderState;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides whether a new federated network is accepted, so that a load spike does not pile up open orders faster than
+ * the agent can create their networks. A creation is rejected when the open orders, in total or of the user, are at
+ * their limit, or while the agent is unavailable, i.e. after a number of consecutive failed calls to it. A rejected
+ * client is told how long to wait, estimated from the time the agent takes to serve each open order.
+ *
+ * While the agent is unavailable, a single creation is let through once in every retry period, so that its call to
+ * the agent tells whether the agent has recovered; any call that succeeds makes the agent available again.
+ *
+ * The limits are not enforced atomically with the creation of the order: requests admitted at the same time may go
+ * past a limit by at most the number of such requests.
+ */
+public class AdmissionController {
+    // The weight of each new sample in the average time of the calls to the agent is 1 / 2^AGENT_CALL_TIME_SHIFT
+    private static final int AGENT_CALL_TIME_SHIFT = 3;
+    // Assumed until the first call to the agent is measured
+    private static final long INITIAL_AGENT_CALL_TIME = 1000;
+
+    private static AdmissionController instance;
+
+    private final int maxOpenOrders;
+    private final int maxOpenOrdersPerUser;
+    private final int agentFailureThreshold;
+    private final long agentUnavailableRetryAfter;
+    private final long maxRetryAfter;
+    private final int openProcessorPoolSize;
+    private final AtomicInteger consecutiveAgentFailures;
+    // Moving average of the time (in milliseconds) a call to the agent takes
+    private final AtomicLong agentCallTime;
+    // Time (in milliseconds since the epoch) of the last failed call to the agent
+    private final AtomicLong lastAgentFailureTime;
+    // Time (in milliseconds since the epoch) the last creation was let through while the agent was unavailable
+    private final AtomicLong lastProbeTime;
+
+    private AdmissionController() {
+        this(Integer.parseInt(PropertiesHolder.getInstance().getProperty(
+                ConfigurationPropertyKeys.MAX_OPEN_ORDERS_KEY, ConfigurationPropertyDefaults.MAX_OPEN_ORDERS)),
+            Integer.parseInt(PropertiesHolder.getInstance().getProperty(
+                ConfigurationPropertyKeys.MAX_OPEN_ORDERS_PER_USER_KEY,
+                ConfigurationPropertyDefaults.MAX_OPEN_ORDERS_PER_USER)),
+            Integer.parseInt(PropertiesHolder.getInstance().getProperty(
+                ConfigurationPropertyKeys.AGENT_FAILURE_THRESHOLD_KEY,
+                ConfigurationPropertyDefaults.AGENT_FAILURE_THRESHOLD)),
+            Long.parseLong(PropertiesHolder.getInstance().getProperty(
+                ConfigurationPropertyKeys.AGENT_UNAVAILABLE_RETRY_AFTER_KEY,
+                ConfigurationPropertyDefaults.AGENT_UNAVAILABLE_RETRY_AFTER)),
+            Long.parseLong(PropertiesHolder.getInstance().getProperty(
+                ConfigurationPropertyKeys.MAX_RETRY_AFTER_KEY, ConfigurationPropertyDefaults.MAX_RETRY_AFTER)),
+            Integer.parseInt(PropertiesHolder.getInstance().getProperty(
+                String.format(ConfigurationPropertyKeys.PROCESSOR_POOL_SIZE_KEY_FORMAT,
+                        OrderState.OPEN.name().toLowerCase()),
+                ConfigurationPropertyDefaults.PROCESSOR_POOL_SIZE)));
+        registerGauges();
+    }
+
+    AdmissionController(int maxOpenOrders, int maxOpenOrdersPerUser, int agentFailureThreshold,
+                        long agentUnavailableRetryAfter, long maxRetryAfter, int openProcessorPoolSize) {
+        this.maxOpenOrders = maxOpenOrders;
+        this.maxOpenOrdersPerUser = maxOpenOrdersPerUser;
+        this.agentFailureThreshold = agentFailureThreshold;
+        this.agentUnavailableRetryAfter = agentUnavailableRetryAfter;
+        this.maxRetryAfter = maxRetryAfter;
+        this.openProcessorPoolSize = Math.max(1, openProcessorPoolSize);
+        this.consecutiveAgentFailures = new AtomicInteger();
+        this.agentCallTime = new AtomicLong(INITIAL_AGENT_CALL_TIME);
+        this.lastAgentFailureTime = new AtomicLong();
+        this.lastProbeTime = new AtomicLong();
+    }
+
+    public static synchronized AdmissionController getInstance() {
+        if (instance == null) {
+            instance = new AdmissionController();
+        }
+        return instance;
+    }
+
+    /**
+     * Checks whether the given user may create a new federated network now.
+     * @throws AdmissionRejectedException if not; the exception tells when the user should try again
+     */
+    public void admit(SystemUser systemUser) throws AdmissionRejectedException {
+        MetricsHolder metrics = MetricsHolder.getInstance();
+        if (!isAgentAvailable()) {
+            long now = getCurrentTime();
+            long lastProbeTime = this.lastProbeTime.get();
+            long nextProbeTime = Math.max(this.lastAgentFailureTime.get(), lastProbeTime)
+                    + this.agentUnavailableRetryAfter;
+            if (now < nextProbeTime || !this.lastProbeTime.compareAndSet(lastProbeTime, now)) {
+                metrics.incrementCounter(MetricNames.ADMISSION_REJECTED_AGENT_UNAVAILABLE);
+                throw new AdmissionRejectedException(Messages.Exception.FEDERATED_NETWORK_AGENT_UNAVAILABLE,
+                        toSeconds(Math.max(nextProbeTime - now, 0)));
+            }
+            // The probe still has to fit within the limits
+            metrics.incrementCounter(MetricNames.ADMISSION_AGENT_PROBES);
+        }
+
+        OrderWorkSet openOrders = getOpenOrders();
+        int openOrdersCount = openOrders.size();
+        if (this.maxOpenOrders > 0 && openOrdersCount >= this.maxOpenOrders) {
+            metrics.incrementCounter(MetricNames.ADMISSION_REJECTED_OPEN_ORDERS);
+            // Room for one more order is made once the orders over the limit have been served
+            long ordersToServe = openOrdersCount - this.maxOpenOrders + 1;
+            throw new AdmissionRejectedException(Messages.Exception.TOO_MANY_PENDING_FEDERATED_NETWORKS,
+                    estimateRetryAfter(ordersToServe));
+        }
+
+        int userOpenOrdersCount = openOrders.size(systemUser);
+        if (this.maxOpenOrdersPerUser > 0 && userOpenOrdersCount >= this.maxOpenOrdersPerUser) {
+            metrics.incrementCounter(MetricNames.ADMISSION_REJECTED_USER_OPEN_ORDERS);
+            // Open orders are served round-robin across users, so one order of each user is served in every round
+            long rounds = userOpenOrdersCount - this.maxOpenOrdersPerUser + 1;
+            long ordersToServe = Math.min(rounds * Math.max(1, openOrders.getTenantCount()), openOrdersCount);
+            throw new AdmissionRejectedException(Messages.Exception.TOO_MANY_PENDING_FEDERATED_NETWORKS_OF_USER,
+                    estimateRetryAfter(ordersToServe));
+        }
+
+        metrics.incrementCounter(MetricNames.ADMISSION_ACCEPTED);
+    }
+
+    /**
+     * Records the outcome of a call to the agent, which tells whether the agent is available and how fast the open
+     * orders are being served.
+     */
+    public void recordAgentCall(boolean successful, long elapsedTime) {
+        if (successful) {
+            this.consecutiveAgentFailures.set(0);
+        } else {
+            this.lastAgentFailureTime.set(getCurrentTime());
+            this.consecutiveAgentFailures.incrementAndGet();
+        }
+        this.agentCallTime.updateAndGet(average -> average + ((elapsedTime - average) >> AGENT_CALL_TIME_SHIFT));
+    }
+
+    public boolean isAgentAvailable() {
+        return this.agentFailureThreshold <= 0 || this.consecutiveAgentFailures.get() < this.agentFailureThreshold;
+    }
+
+    protected OrderWorkSet getOpenOrders() {
+        return FederatedNetworkOrdersHolder.getInstance().getOpenOrders();
+    }
+
+    protected long getCurrentTime() {
+        return System.currentTimeMillis();
+    }
+
+    // The time (in seconds) the open processors take to serve the given number of orders
+    private long estimateRetryAfter(long ordersToServe) {
+        return toSeconds(ordersToServe * this.agentCallTime.get() / this.openProcessorPoolSize);
+    }
+
+    // Retry-After is given in whole seconds, and a client is never told to retry right away
+    private long toSeconds(long milliseconds) {
+        long boundedMilliseconds = Math.min(milliseconds, this.maxRetryAfter);
+        return Math.max(1, (boundedMilliseconds + 999) / 1000);
+    }
+
+    private void registerGauges() {
+        MetricsHolder metrics = MetricsHolder.getInstance();
+        metrics.registerGauge(MetricNames.ADMISSION_AGENT_CALL_TIME, this.agentCallTime::get);
+        metrics.registerGauge(MetricNames.ADMISSION_AGENT_CONSECUTIVE_FAILURES, this.consecutiveAgentFailures::get);
+        metrics.registerGauge(MetricNames.ADMISSION_AGENT_AVAILABLE, () -> isAgentAvailable() ? 1 : 0);
+        metrics.registerGauge(MetricNames.ADMISSION_OPEN_ORDERS, () -> getOpenOrders().size());
+    }
+}
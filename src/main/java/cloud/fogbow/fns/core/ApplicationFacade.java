@@ -1,16 +1,16 @@
 package cloud.fogbow.fns.core;
 
-import cloud.fogbow.as.core.util.AuthenticationUtil;
 import cloud.fogbow.common.exceptions.*;
 import cloud.fogbow.common.models.SystemUser;
 import cloud.fogbow.common.plugins.authorization.AuthorizationPlugin;
-import cloud.fogbow.common.util.HttpErrorToFogbowExceptionMapper;
 import cloud.fogbow.common.util.CryptoUtil;
-import cloud.fogbow.common.util.ServiceAsymmetricKeysHolder;
+import cloud.fogbow.fns.api.http.response.AssignedIp;
+import cloud.fogbow.fns.api.http.response.ComputeCreationResult;
+import cloud.fogbow.fns.api.http.response.FederatedComputeInstance;
 import cloud.fogbow.fns.api.http.response.ResourceId;
 import cloud.fogbow.fns.api.parameters.FederatedCompute;
+import cloud.fogbow.fns.api.parameters.FederatedComputeBatch;
 import cloud.fogbow.fns.core.model.FnsOperation;
-import cloud.fogbow.ras.api.http.ExceptionResponse;
 import cloud.fogbow.ras.api.http.request.Compute;
 import cloud.fogbow.ras.api.http.response.ComputeInstance;
 import cloud.fogbow.fns.constants.ConfigurationPropertyKeys;
@@ -18,39 +18,45 @@ import cloud.fogbow.fns.constants.ConfigurationPropertyDefaults;
 import cloud.fogbow.fns.constants.Messages;
 import cloud.fogbow.fns.constants.SystemConstants;
 import cloud.fogbow.fns.core.exceptions.*;
+import cloud.fogbow.fns.core.metrics.MetricsHolder;
+import cloud.fogbow.fns.core.model.ComputeOperation;
 import cloud.fogbow.fns.core.model.FederatedNetworkOrder;
 import cloud.fogbow.fns.api.http.response.InstanceStatus;
+import cloud.fogbow.fns.core.model.IpLease;
 import cloud.fogbow.fns.core.model.Operation;
 import cloud.fogbow.fns.core.model.ResourceType;
 import cloud.fogbow.fns.utils.RedirectToRasUtil;
-import com.google.gson.Gson;
 import org.apache.log4j.Logger;
 import org.springframework.http.HttpMethod;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
-import org.springframework.web.client.RestClientException;
 
 import java.io.IOException;
-import java.net.URISyntaxException;
 import java.security.GeneralSecurityException;
 import java.security.interfaces.RSAPublicKey;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 
 public class ApplicationFacade {
     private final Logger LOGGER = Logger.getLogger(ApplicationFacade.class);
-    private Gson gson = new Gson();
 
     private static ApplicationFacade instance;
     private FederatedNetworkOrderController federatedNetworkOrderController;
     private ComputeRequestsController computeRequestsController;
+    private ComputeOperationsController computeOperationsController;
     private AuthorizationPlugin<FnsOperation> authorizationPlugin;
-    private RSAPublicKey asPublicKey;
     private String buildNumber;
+    private int maxComputeBatchSize;
 
     private ApplicationFacade() {
-        this.asPublicKey = null;
         this.buildNumber = PropertiesHolder.getInstance().getProperty(ConfigurationPropertyKeys.BUILD_NUMBER_KEY,
                 ConfigurationPropertyDefaults.BUILD_NUMBER);
+        this.maxComputeBatchSize = Integer.parseInt(PropertiesHolder.getInstance().getProperty(
+                ConfigurationPropertyKeys.MAX_COMPUTE_BATCH_SIZE_KEY, ConfigurationPropertyDefaults.MAX_COMPUTE_BATCH_SIZE));
     }
 
     public static ApplicationFacade getInstance() {
@@ -67,12 +73,17 @@ public class ApplicationFacade {
         return SystemConstants.API_VERSION_NUMBER + "-" + this.buildNumber;
     }
 
+    // metrics request
+    public Map<String, Object> getMetrics() {
+        return MetricsHolder.getInstance().getMetrics();
+    }
+
     // public key request
     public String getPublicKey() throws UnexpectedException {
         // There is no need to authenticate the user or authorize this operation
         try {
-            return CryptoUtil.toBase64(ServiceAsymmetricKeysHolder.getInstance().getPublicKey());
-        } catch (IOException | GeneralSecurityException e) {
+            return CryptoUtil.toBase64(KeyMaterialHolder.getInstance().getFnsPublicKey());
+        } catch (FogbowException | GeneralSecurityException e) {
             throw new UnexpectedException(e.getMessage(), e);
         }
     }
@@ -81,114 +92,346 @@ public class ApplicationFacade {
     // (see FederatedNetworkOrderController).
     public String createFederatedNetwork(FederatedNetworkOrder order, String systemUserToken)
             throws FogbowException,
-            InvalidCidrException {
-        SystemUser systemUser = AuthenticationUtil.authenticate(getAsPublicKey(), systemUserToken);
+            InvalidCidrException, AdmissionRejectedException {
+        SystemUser systemUser = authenticate(systemUserToken);
 
         // setting the user who is creating the federated network
         order.setSystemUser(systemUser);
 
         this.authorizationPlugin.isAuthorized(systemUser, new FnsOperation(Operation.CREATE, ResourceType.FEDERATED_NETWORK, order));
-        this.federatedNetworkOrderController.addFederatedNetwork(order, systemUser);
+        AdmissionController.getInstance().admit(systemUser);
+        FederatedNetworkOrdersHolder ordersHolder = FederatedNetworkOrdersHolder.getInstance();
+        ordersHolder.assignCidr(order);
+        QuotaController quotaController = QuotaController.getInstance();
+        boolean created = false;
+        try {
+            quotaController.chargeNetwork(order);
+            this.federatedNetworkOrderController.addFederatedNetwork(order, systemUser);
+            created = true;
+        } finally {
+            if (!created) {
+                // Nothing is kept for a federated network that could not be created
+                quotaController.releaseNetwork(order);
+                ordersHolder.releaseCidr(order);
+            }
+        }
         return order.getId();
     }
 
     public FederatedNetworkOrder getFederatedNetwork(String federatedNetworkId, String systemUserToken)
             throws FogbowException {
-        SystemUser systemUser = AuthenticationUtil.authenticate(getAsPublicKey(), systemUserToken);
+        SystemUser systemUser = authenticate(systemUserToken);
         FederatedNetworkOrder order = this.federatedNetworkOrderController.getFederatedNetwork(federatedNetworkId);
         authorizeOrder(systemUser, Operation.GET, ResourceType.FEDERATED_NETWORK, order);
         return order;
     }
 
+    /**
+     * Fetches every compute attached to the federated network from the RAS, handing each one to the given consumer
+     * as soon as it arrives; the consumer may be called by several threads at the same time. The computes are
+     * fetched in parallel, bounded by the configured parallelism, and through the compute instance cache.
+     * @return a future completed once all the computes have been handed to the consumer
+     */
+    public CompletableFuture<Void> getFederatedNetworkComputes(String federatedNetworkId, String systemUserToken,
+                                                               Consumer<FederatedComputeInstance> consumer)
+            throws FogbowException {
+        FederatedNetworkOrder order = getFederatedNetwork(federatedNetworkId, systemUserToken);
+        List<AssignedIp> assignedIps = order.getView().getAssignedIps();
+        return this.computeOperationsController.invokeAllAsync(assignedIps, assignedIp -> {
+            CompletableFuture<ComputeInstance> compute;
+            try {
+                compute = getComputeById(assignedIp.getComputeId(), systemUserToken);
+            } catch (FogbowException e) {
+                compute = new CompletableFuture<>();
+                compute.completeExceptionally(e);
+            }
+            return compute.handle((computeInstance, throwable) -> {
+                if (throwable == null) {
+                    consumer.accept(FederatedComputeInstance.found(assignedIp, computeInstance));
+                } else {
+                    Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ?
+                            throwable.getCause() : throwable;
+                    consumer.accept(FederatedComputeInstance.failed(assignedIp, cause.getMessage()));
+                }
+                return null;
+            });
+        });
+    }
+
     public Collection<InstanceStatus> getFederatedNetworksStatus(String systemUserToken)
             throws FogbowException {
-        SystemUser systemUser = AuthenticationUtil.authenticate(getAsPublicKey(), systemUserToken);
+        SystemUser systemUser = authenticate(systemUserToken);
         this.authorizationPlugin.isAuthorized(systemUser, new FnsOperation(Operation.GET_ALL, ResourceType.FEDERATED_NETWORK));
         return this.federatedNetworkOrderController.getFederatedNetworksStatusByUser(systemUser);
     }
 
-    public void deleteFederatedNetwork(String federatedNetworkId, String systemUserToken)
+    /**
+     * @return true if the federated network is still to be removed from the agent
+     */
+    public boolean deleteFederatedNetwork(String federatedNetworkId, String systemUserToken)
             throws UnauthenticatedUserException, UnauthorizedRequestException, UnexpectedException,
             NotEmptyFederatedNetworkException, InvalidTokenException, InstanceNotFoundException {
-        SystemUser systemUser = AuthenticationUtil.authenticate(this.asPublicKey, systemUserToken);
+        SystemUser systemUser = authenticate(systemUserToken);
         FederatedNetworkOrder order = this.federatedNetworkOrderController.getFederatedNetwork(federatedNetworkId);
         authorizeOrder(systemUser, Operation.DELETE, ResourceType.FEDERATED_NETWORK, order);
-        this.federatedNetworkOrderController.deleteFederatedNetwork(order);
+        return this.federatedNetworkOrderController.deleteFederatedNetwork(order);
     }
 
-    // federatedCompute requests that involve federated network need to be synchronized because there is no order object to
-    // synchronize to.
-    public synchronized String createCompute(FederatedCompute federatedCompute, String systemUserToken)
+    // Compute requests are not synchronized at the facade level. Reserving an IP for a federated compute only locks
+    // the target federated network order, and the RAS calls are always made outside of any critical section.
+    // The request to the RAS does not block the calling thread; the returned future completes once the RAS answers.
+    public CompletableFuture<String> createCompute(FederatedCompute federatedCompute, String systemUserToken)
             throws FogbowException, IOException, InvalidCidrException, SubnetAddressesCapacityReachedException,
             FederatedNetworkNotFoundException {
         // Authentication and authorization is performed by the RAS.
         String federatedNetworkId = federatedCompute.getFederatedNetworkId();
-        String instanceIp = this.computeRequestsController.addScriptToSetupTunnelIfNeeded(federatedCompute, federatedNetworkId);
-        ResponseEntity<String> responseEntity = null;
-        // We need a try-catch here, because a connect exception may be thrown, if RAS is offline.
+        // Reservation: the IP is taken out of the free IPs of the federated network, but it is only committed to the
+        // compute once the RAS accepts the request.
+        IpLease instanceIp = this.computeRequestsController.addScriptToSetupTunnelIfNeeded(federatedCompute, federatedNetworkId);
+        String rasTokenValue;
         try {
-            String body = gson.toJson(federatedCompute.getCompute());
-            responseEntity = RedirectToRasUtil.createAndSendRequestToRas("/" + Compute.COMPUTE_ENDPOINT, body,
-                    HttpMethod.POST, systemUserToken, String.class);
-        } catch (RestClientException e) {
-            responseEntity = ResponseEntity.status(HttpStatus.BAD_GATEWAY).
-                    body(Messages.Error.RESOURCE_ALLOCATION_SERVICE_DOES_NOT_RESPOND);
-        }
-        // if response status was not successful, return the status and rollback, undoing the latest modifications
-        if (responseEntity.getStatusCodeValue() >= HttpStatus.MULTIPLE_CHOICES.value()) {
-            // Note that if an error occurs, the IP that was removed from the cached list does not need to be returned,
-            // since it is eventually recovered when the cached list gets empty and is later refilled.
-            ExceptionResponse response = gson.fromJson(responseEntity.getBody(), ExceptionResponse.class);
-            throw HttpErrorToFogbowExceptionMapper.map(responseEntity.getStatusCode().value(), response.getMessage());
-        }
-        ResourceId computeId = gson.fromJson(responseEntity.getBody(), ResourceId.class);
-        this.computeRequestsController.addIpToComputeAllocation(instanceIp, computeId.getId(), federatedCompute.getFederatedNetworkId());
-        return computeId.getId();
-    }
-
-    public synchronized void deleteCompute(String computeId, String systemUserToken) throws FogbowException {
+            rasTokenValue = RedirectToRasUtil.rewrapToken(systemUserToken);
+        } catch (FogbowException | RuntimeException e) {
+            this.computeRequestsController.releaseIpReservation(instanceIp, federatedNetworkId);
+            throw e;
+        }
+        return createReservedCompute(federatedCompute, federatedNetworkId, rasTokenValue, instanceIp);
+    }
+
+    // The compute creation is answered right after the IP reservation; the request to the RAS and the commit (or
+    // rollback) of the reservation are performed by the compute operations thread pool.
+    public ComputeOperation createComputeAsync(FederatedCompute federatedCompute, String systemUserToken)
+            throws FogbowException, IOException, InvalidCidrException, SubnetAddressesCapacityReachedException,
+            FederatedNetworkNotFoundException, ComputeOperationsCapacityReachedException {
+        // The user is authenticated here only to identify the owner of the operation; authentication and
+        // authorization of the compute creation are still performed by the RAS.
+        SystemUser systemUser = authenticate(systemUserToken);
+        String federatedNetworkId = federatedCompute.getFederatedNetworkId();
+        IpLease instanceIp = this.computeRequestsController.addScriptToSetupTunnelIfNeeded(federatedCompute, federatedNetworkId);
+        try {
+            return this.computeOperationsController.submit(systemUser, federatedNetworkId,
+                    () -> completeComputeCreation(federatedCompute, systemUserToken, instanceIp));
+        } catch (ComputeOperationsCapacityReachedException e) {
+            this.computeRequestsController.releaseIpReservation(instanceIp, federatedNetworkId);
+            throw e;
+        }
+    }
+
+    // The IPs of all the computes are reserved in a single operation on the federated network, the user token is
+    // rewrapped once, and the requests to the RAS are made in parallel, each batch keeping at most the configured
+    // parallelism of them in flight. No thread is held while the RAS answers. The IP of each compute is committed as
+    // soon as the compute is created, so that the reservations of the first computes of a large batch do not expire
+    // while the rest of the batch is being created.
+    public CompletableFuture<List<ComputeCreationResult>> createComputes(FederatedComputeBatch federatedComputeBatch,
+                                                                       String systemUserToken)
+            throws FogbowException, IOException, InvalidCidrException, SubnetAddressesCapacityReachedException,
+            FederatedNetworkNotFoundException {
         // Authentication and authorization is performed by the RAS.
-        ResponseEntity<String> responseEntity = null;
-        // We need a try-catch here, because a connect exception may be thrown, if RAS is offline.
+        List<FederatedCompute> federatedComputes = federatedComputeBatch.getFederatedComputes();
+        if (federatedComputes.isEmpty() || federatedComputes.size() > this.maxComputeBatchSize) {
+            throw new InvalidParameterException(String.format(Messages.Exception.INVALID_COMPUTE_BATCH_SIZE,
+                    this.maxComputeBatchSize));
+        }
+        String federatedNetworkId = federatedComputeBatch.getFederatedNetworkId();
+        List<IpLease> instanceIps = this.computeRequestsController.addScriptsToSetupTunnelIfNeeded(federatedComputes,
+                federatedNetworkId);
+
+        String rasTokenValue;
         try {
-            responseEntity = RedirectToRasUtil.createAndSendRequestToRas(("/" + Compute.COMPUTE_ENDPOINT + "/" + computeId), "",
-                    HttpMethod.DELETE, systemUserToken, String.class);
-        } catch (RestClientException e) {
-            responseEntity = ResponseEntity.status(HttpStatus.BAD_GATEWAY).
-                    body(Messages.Error.RESOURCE_ALLOCATION_SERVICE_DOES_NOT_RESPOND);
+            rasTokenValue = RedirectToRasUtil.rewrapToken(systemUserToken);
+        } catch (FogbowException | RuntimeException e) {
+            this.computeRequestsController.releaseIpReservations(instanceIps, federatedNetworkId);
+            throw e;
         }
-        // if response status was not successful, return the status and rollback, undoing the latest modifications
-        if (responseEntity.getStatusCodeValue() >= HttpStatus.MULTIPLE_CHOICES.value()) {
-            // Note that if an error occurs, the IP that was removed from the cached list does not need to be returned,
-            // since it is eventually recovered when the cached list gets empty and is later refilled.
-            ExceptionResponse response = gson.fromJson(responseEntity.getBody(), ExceptionResponse.class);
-            throw HttpErrorToFogbowExceptionMapper.map(responseEntity.getStatusCode().value(), response.getMessage());
+        List<CompletableFuture<ComputeCreationResult>> results = new ArrayList<>();
+        List<Integer> requests = new ArrayList<>();
+        for (int i = 0; i < federatedComputes.size(); i++) {
+            results.add(new CompletableFuture<>());
+            requests.add(i);
         }
-        this.computeRequestsController.removeIpToComputeAllocation(computeId);
+        return this.computeOperationsController.invokeAllAsync(requests, i -> {
+            CompletableFuture<ComputeCreationResult> result = results.get(i);
+            IpLease instanceIp = instanceIps.get(i);
+            createBatchedCompute(federatedComputes.get(i), federatedNetworkId, rasTokenValue, instanceIp)
+                    .whenComplete((computeId, throwable) -> {
+                if (throwable == null) {
+                    result.complete(ComputeCreationResult.succeeded(computeId,
+                            instanceIp == null ? null : instanceIp.getIp()));
+                } else {
+                    Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ?
+                            throwable.getCause() : throwable;
+                    result.complete(ComputeCreationResult.failed(cause.getMessage()));
+                }
+            });
+            return result;
+        }).thenApply(ignored -> {
+            List<ComputeCreationResult> completedResults = new ArrayList<>();
+            for (CompletableFuture<ComputeCreationResult> result : results) {
+                completedResults.add(result.join());
+            }
+            return completedResults;
+        });
     }
 
-    public synchronized ComputeInstance getComputeById(String computeId, String systemUserToken)
-            throws FogbowException, URISyntaxException {
-        // Authentication and authorization is performed by the RAS.
-        ResponseEntity<String> responseEntity = null;
-        // We need a try-catch here, because a connect exception may be thrown, if RAS is offline.
+    /**
+     * Returns how long a batch of the given size may take to be created: the requests are sent in rounds of at most
+     * the configured parallelism, and each of them may take as long as the timeout of a request to the RAS. One round
+     * more is allowed for the requests waiting for a connection to the RAS.
+     */
+    public long getComputeBatchTimeout(int batchSize) {
+        int parallelism = this.computeOperationsController.getRasRequestsParallelism();
+        long rounds = (batchSize + parallelism - 1) / parallelism;
+        return (rounds + 1) * RasHttpClientHolder.getInstance().getRequestTimeout();
+    }
+
+    // Creates a compute of a batch. A compute whose reservation could expire before the RAS answers, because the
+    // compute waited for the previous ones of the batch, is not even requested, since it would only be deleted.
+    private CompletableFuture<String> createBatchedCompute(FederatedCompute federatedCompute, String federatedNetworkId,
+                                                           String rasTokenValue, IpLease instanceIp) {
+        if (mayExpireBeforeRasAnswers(instanceIp)) {
+            this.computeRequestsController.releaseIpReservation(instanceIp, federatedNetworkId);
+            CompletableFuture<String> failure = new CompletableFuture<>();
+            failure.completeExceptionally(new UnexpectedException(String.format(
+                    Messages.Exception.COMPUTE_OPERATION_WAITED_TOO_LONG, instanceIp.getIp(), federatedNetworkId)));
+            return failure;
+        }
+        return createReservedCompute(federatedCompute, federatedNetworkId, rasTokenValue, instanceIp);
+    }
+
+    private static boolean mayExpireBeforeRasAnswers(IpLease instanceIp) {
+        return instanceIp != null && System.currentTimeMillis() + RasHttpClientHolder.getInstance().getRequestTimeout()
+                >= instanceIp.getExpirationTime();
+    }
+
+    public ComputeOperation getComputeOperation(String operationId, String systemUserToken) throws FogbowException {
+        SystemUser systemUser = authenticate(systemUserToken);
+        ComputeOperation operation = this.computeOperationsController.getOperation(operationId);
+        if (!operation.getSystemUser().equals(systemUser)) {
+            throw new UnauthorizedRequestException(Messages.Exception.REQUESTER_DOES_NOT_OWN_REQUEST);
+        }
+        return operation;
+    }
+
+    private String completeComputeCreation(FederatedCompute federatedCompute, String systemUserToken, IpLease instanceIp)
+            throws FogbowException {
+        String federatedNetworkId = federatedCompute.getFederatedNetworkId();
+        // The operation may have waited in the queue for a long time; if the reservation could expire before the RAS
+        // answers, the compute would be created only to be deleted, so it is not even requested.
+        if (mayExpireBeforeRasAnswers(instanceIp)) {
+            this.computeRequestsController.releaseIpReservation(instanceIp, federatedNetworkId);
+            throw new UnexpectedException(String.format(Messages.Exception.COMPUTE_OPERATION_WAITED_TOO_LONG,
+                    instanceIp.getIp(), federatedNetworkId));
+        }
+        String rasTokenValue;
+        try {
+            rasTokenValue = RedirectToRasUtil.rewrapToken(systemUserToken);
+        } catch (FogbowException | RuntimeException e) {
+            // Rollback: the reserved IP is immediately returned to the federated network
+            this.computeRequestsController.releaseIpReservation(instanceIp, federatedNetworkId);
+            throw e;
+        }
+        // Called from the compute operation threads, which may block
+        try {
+            return createReservedCompute(federatedCompute, federatedNetworkId, rasTokenValue, instanceIp).join();
+        } catch (CompletionException | CancellationException e) {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof FogbowException) {
+                throw (FogbowException) cause;
+            }
+            if (cause instanceof CancellationException) {
+                throw new UnavailableProviderException(Messages.Error.RESOURCE_ALLOCATION_SERVICE_DOES_NOT_RESPOND);
+            }
+            throw new UnexpectedException(cause.getMessage(), cause);
+        }
+    }
+
+    // Creates the compute at the RAS and commits its reserved IP to it, for both the synchronous and the asynchronous
+    // compute creations. If the creation fails, the IP is returned to the federated network; if the commit fails, the
+    // compute created is deleted.
+    private CompletableFuture<String> createReservedCompute(FederatedCompute federatedCompute, String federatedNetworkId,
+                                                            String rasTokenValue, IpLease instanceIp) {
+        return sendCreateComputeRequest(federatedCompute, rasTokenValue).thenApply(computeId -> {
+            try {
+                // Commit
+                this.computeRequestsController.addIpToComputeAllocation(instanceIp, computeId.getId(), federatedNetworkId);
+                return computeId.getId();
+            } catch (FogbowException e) {
+                // The reservation expired meanwhile, so the compute would share its federated IP with another one
+                deleteCreatedCompute(computeId.getId(), rasTokenValue);
+                throw new CompletionException(e);
+            }
+        }).whenComplete((computeId, throwable) -> {
+            if (throwable != null) {
+                // Rollback: the reserved IP is immediately returned to the federated network
+                this.computeRequestsController.releaseIpReservation(instanceIp, federatedNetworkId);
+            }
+        });
+    }
+
+    // Deletes a compute created at the RAS whose federated IP could not be committed. The deletion is not waited for;
+    // if it fails, the compute is left to its owner.
+    private void deleteCreatedCompute(String computeId, String rasTokenValue) {
+        try {
+            RedirectToRasUtil.sendRequestToRasAsync(("/" + Compute.COMPUTE_ENDPOINT + "/" + computeId), null,
+                    HttpMethod.DELETE, rasTokenValue, Void.class).whenComplete((ignored, throwable) -> {
+                if (throwable != null) {
+                    LOGGER.warn(String.format(Messages.Warn.UNABLE_TO_DELETE_CREATED_COMPUTE, computeId), throwable);
+                }
+            });
+        } catch (FogbowException | RuntimeException e) {
+            LOGGER.warn(String.format(Messages.Warn.UNABLE_TO_DELETE_CREATED_COMPUTE, computeId), e);
+        }
+    }
+
+    // Every compute creation is sent to the RAS by this method. If the response status was not successful, the
+    // returned future completes with the exception corresponding to the status, as it does if the request cannot be
+    // sent at all, so that the caller can rollback the reservation.
+    private CompletableFuture<ResourceId> sendCreateComputeRequest(FederatedCompute federatedCompute,
+                                                                   String rasTokenValue) {
         try {
-            responseEntity = RedirectToRasUtil.createAndSendRequestToRas(("/" + Compute.COMPUTE_ENDPOINT + "/" + computeId),
-                    "", HttpMethod.GET, systemUserToken, String.class);
-        } catch (RestClientException e) {
-            responseEntity = ResponseEntity.status(HttpStatus.BAD_GATEWAY).
-                    body(Messages.Error.RESOURCE_ALLOCATION_SERVICE_DOES_NOT_RESPOND);
+            return RedirectToRasUtil.sendRequestToRasAsync("/" + Compute.COMPUTE_ENDPOINT,
+                    federatedCompute.getCompute(), HttpMethod.POST, rasTokenValue, ResourceId.class);
+        } catch (FogbowException | RuntimeException e) {
+            CompletableFuture<ResourceId> response = new CompletableFuture<>();
+            response.completeExceptionally(e);
+            return response;
         }
-        // if response status was not successful, return the status and rollback, undoing the latest modifications
-        if (responseEntity.getStatusCodeValue() >= HttpStatus.MULTIPLE_CHOICES.value()) {
-            // Note that if an error occurs, the IP that was removed from the cached list does not need to be returned,
-            // since it is eventually recovered when the cached list gets empty and is later refilled.
-            ExceptionResponse response = gson.fromJson(responseEntity.getBody(), ExceptionResponse.class);
-            throw HttpErrorToFogbowExceptionMapper.map(responseEntity.getStatusCode().value(), response.getMessage());
+    }
+
+    public CompletableFuture<Void> deleteCompute(String computeId, String systemUserToken) throws FogbowException {
+        // Authentication and authorization is performed by the RAS.
+        String rasTokenValue = RedirectToRasUtil.rewrapToken(systemUserToken);
+        return RedirectToRasUtil.sendRequestToRasAsync(("/" + Compute.COMPUTE_ENDPOINT + "/" + computeId), null,
+                HttpMethod.DELETE, rasTokenValue, Void.class).thenApply(ignored -> {
+            try {
+                this.computeRequestsController.removeIpToComputeAllocation(computeId);
+                ComputeInstanceCache.getInstance().invalidate(computeId);
+                return null;
+            } catch (FogbowException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    public CompletableFuture<ComputeInstance> getComputeById(String computeId, String systemUserToken)
+            throws FogbowException {
+        // Authentication and authorization is performed by the RAS; the user is identified here only so that a
+        // cached instance is never returned to a user other than the one that got it from the RAS.
+        String userKey = identifyUser(systemUserToken);
+        ComputeInstanceCache computeInstanceCache = ComputeInstanceCache.getInstance();
+        ComputeInstance cachedInstance = computeInstanceCache.get(computeId, userKey);
+        if (cachedInstance != null) {
+            return CompletableFuture.completedFuture(cachedInstance);
         }
-        ComputeInstance computeInstance = gson.fromJson(responseEntity.getBody(), ComputeInstance.class);
-        this.computeRequestsController.addFederatedIpInGetInstanceIfApplied(computeInstance, computeId);
-        return computeInstance;
+
+        long cacheVersion = computeInstanceCache.getVersion();
+        String rasTokenValue = RedirectToRasUtil.rewrapToken(systemUserToken);
+        return RedirectToRasUtil.sendRequestToRasAsync(("/" + Compute.COMPUTE_ENDPOINT + "/" + computeId), null,
+                HttpMethod.GET, rasTokenValue, ComputeInstance.class).thenApply(computeInstance -> {
+            this.computeRequestsController.addFederatedIpInGetInstanceIfApplied(computeInstance, computeId);
+            computeInstanceCache.put(computeId, userKey, computeInstance, cacheVersion);
+            return computeInstance;
+        });
     }
 
     public void setFederatedNetworkOrderController(FederatedNetworkOrderController federatedNetworkOrderController) {
@@ -199,15 +442,29 @@ public class ApplicationFacade {
         this.computeRequestsController = computeRequestsController;
     }
 
+    public void setComputeOperationsController(ComputeOperationsController computeOperationsController) {
+        this.computeOperationsController = computeOperationsController;
+    }
+
     public void setAuthorizationPlugin(AuthorizationPlugin<FnsOperation> authorizationPlugin) {
         this.authorizationPlugin = authorizationPlugin;
     }
 
     public RSAPublicKey getAsPublicKey() throws FogbowException {
-        if (this.asPublicKey == null) {
-            this.asPublicKey = FnsPublicKeysHolder.getInstance().getAsPublicKey();
-        }
-        return this.asPublicKey;
+        return KeyMaterialHolder.getInstance().getAsPublicKey();
+    }
+
+    // A token that has already been authenticated is not verified again until its cache entry expires
+    protected SystemUser authenticate(String systemUserToken) throws FogbowException {
+        return AuthenticatedUserCache.getInstance().authenticate(getAsPublicKey(), systemUserToken);
+    }
+
+    /**
+     * Returns a key that identifies the user holding the given token, regardless of which of the user's tokens it is.
+     */
+    public String identifyUser(String systemUserToken) throws FogbowException {
+        SystemUser systemUser = authenticate(systemUserToken);
+        return systemUser.getIdentityProviderId() + "/" + systemUser.getId();
     }
 
     public String getBuildNumber() {
@@ -0,0 +1,114 @@
+package cloud.fogbow.fns.core;
+
+import cloud.fogbow.as.core.util.AuthenticationUtil;
+import cloud.fogbow.as.core.util.TokenProtector;
+import cloud.fogbow.common.constants.FogbowConstants;
+import cloud.fogbow.common.exceptions.FogbowException;
+import cloud.fogbow.common.models.SystemUser;
+import cloud.fogbow.common.util.ServiceAsymmetricKeysHolder;
+import cloud.fogbow.fns.constants.ConfigurationPropertyDefaults;
+import cloud.fogbow.fns.constants.ConfigurationPropertyKeys;
+import cloud.fogbow.fns.constants.Messages;
+import cloud.fogbow.fns.constants.MetricNames;
+import cloud.fogbow.fns.utils.TokenDigestCache;
+import org.apache.log4j.Logger;
+
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Objects;
+
+/**
+ * Caches the user identified by each token that has been successfully authenticated, so that the signature of a
+ * token is not verified again on every request of the same session. An entry never outlives its token, and all the
+ * entries are discarded as soon as the keys used to authenticate the tokens change.
+ */
+public class AuthenticatedUserCache extends TokenDigestCache<SystemUser> {
+    private static final Logger LOGGER = Logger.getLogger(AuthenticatedUserCache.class);
+
+    private static AuthenticatedUserCache instance;
+
+    private final long timeToLive;
+    // The keys the cached tokens were authenticated with; guarded by this
+    private RSAPrivateKey privateKey;
+    private RSAPublicKey asPublicKey;
+
+    AuthenticatedUserCache(int maxSize, long timeToLive) {
+        super(maxSize, MetricNames.AUTHENTICATION_CACHE_HITS, MetricNames.AUTHENTICATION_CACHE_MISSES,
+                MetricNames.AUTHENTICATION_CACHE_SIZE);
+        this.timeToLive = timeToLive;
+    }
+
+    public static synchronized AuthenticatedUserCache getInstance() {
+        if (instance == null) {
+            int maxSize = Integer.parseInt(PropertiesHolder.getInstance().getProperty(
+                    ConfigurationPropertyKeys.AUTHENTICATION_CACHE_MAX_SIZE_KEY,
+                    ConfigurationPropertyDefaults.AUTHENTICATION_CACHE_MAX_SIZE));
+            long timeToLive = Long.parseLong(PropertiesHolder.getInstance().getProperty(
+                    ConfigurationPropertyKeys.AUTHENTICATION_CACHE_TTL_KEY,
+                    ConfigurationPropertyDefaults.AUTHENTICATION_CACHE_TTL));
+            instance = new AuthenticatedUserCache(maxSize, timeToLive);
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the user holding the given token, authenticating the token only if it is not cached. The token is
+     * decrypted with the same private key AuthenticationUtil uses, so the cache is invalidated exactly when the keys
+     * that authenticate the tokens change, whichever holder they are read from.
+     */
+    public SystemUser authenticate(RSAPublicKey asPublicKey, String systemUserToken) throws FogbowException {
+        RSAPrivateKey currentPrivateKey = getPrivateKey();
+        invalidateIfKeysChanged(currentPrivateKey, asPublicKey);
+        SystemUser systemUser = get(systemUserToken);
+        if (systemUser == null) {
+            systemUser = verify(asPublicKey, systemUserToken);
+            long now = System.currentTimeMillis();
+            long expirationTime = Math.min(now + this.timeToLive,
+                    getTokenExpirationTime(currentPrivateKey, systemUserToken));
+            if (expirationTime > now) {
+                put(systemUserToken, systemUser, expirationTime);
+                // The keys may have changed while the token was being verified, after the cache was cleared
+                if (!areCurrentKeys(currentPrivateKey, asPublicKey)) {
+                    remove(systemUserToken);
+                }
+            }
+        }
+        return systemUser;
+    }
+
+    private synchronized boolean areCurrentKeys(RSAPrivateKey privateKey, RSAPublicKey asPublicKey) {
+        return Objects.equals(this.privateKey, privateKey) && Objects.equals(this.asPublicKey, asPublicKey);
+    }
+
+    private synchronized void invalidateIfKeysChanged(RSAPrivateKey currentPrivateKey, RSAPublicKey currentAsPublicKey) {
+        if (this.privateKey != null && !areCurrentKeys(currentPrivateKey, currentAsPublicKey)) {
+            // Tokens authenticated with the old keys must be verified again
+            LOGGER.info(Messages.Info.KEY_MATERIAL_ROTATED);
+            clear();
+        }
+        this.privateKey = currentPrivateKey;
+        this.asPublicKey = currentAsPublicKey;
+    }
+
+    protected RSAPrivateKey getPrivateKey() throws FogbowException {
+        return ServiceAsymmetricKeysHolder.getInstance().getPrivateKey();
+    }
+
+    protected SystemUser verify(RSAPublicKey asPublicKey, String systemUserToken) throws FogbowException {
+        return AuthenticationUtil.authenticate(asPublicKey, systemUserToken);
+    }
+
+    // The payload of a token ends with the time at which it expires. The token has already been verified, so it can
+    // only fail to be parsed if its format changes; in this case it is not cached at all.
+    protected long getTokenExpirationTime(RSAPrivateKey privateKey, String systemUserToken) throws FogbowException {
+        String plainToken = TokenProtector.decrypt(privateKey, systemUserToken, FogbowConstants.TOKEN_STRING_SEPARATOR);
+        try {
+            String payload = plainToken.split(FogbowConstants.TOKEN_SEPARATOR)[0];
+            String[] payloadFields = payload.split(FogbowConstants.PAYLOAD_SEPARATOR);
+            return Long.parseLong(payloadFields[payloadFields.length - 1]);
+        } catch (RuntimeException e) {
+            LOGGER.warn(String.format(Messages.Warn.UNABLE_TO_READ_TOKEN_EXPIRATION_TIME, e.getMessage()));
+            return 0;
+        }
+    }
+}
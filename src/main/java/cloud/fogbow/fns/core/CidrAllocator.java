@@ -0,0 +1,189 @@
+package cloud.fogbow.fns.core;
+
+import cloud.fogbow.fns.core.exceptions.InvalidCidrException;
+import cloud.fogbow.fns.utils.FederatedNetworkUtil;
+import org.apache.commons.net.util.SubnetUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Carves CIDRs out of a supernet with a buddy allocator. Every block is aligned to its own size, so the block of
+ * prefix length p at address a can only be merged with its buddy, the block of the same size at a ^ 2^(32 - p). The
+ * free blocks of each prefix length are kept sorted, so allocating, reserving and freeing a block take O(log n)
+ * operations for each prefix length between the one of the supernet and the one of the block.
+ *
+ * A block is allocated to an owner, and is only freed by that owner. Freeing a block merges it with its buddy, and
+ * the result with its own buddy, for as long as the buddies are free, so the pool does not stay fragmented once the
+ * networks carved out of it are gone.
+ */
+public class CidrAllocator {
+    private static final int ADDRESS_BITS = 32;
+
+    private final long supernetAddress;
+    private final int supernetPrefixLength;
+    // The addresses of the free blocks, indexed by their prefix length
+    private final TreeSet<Long>[] freeBlocks;
+    // The owner of each allocated block, by block CIDR
+    private final Map<String, String> owners;
+    private long allocatedAddresses;
+
+    @SuppressWarnings("unchecked")
+    public CidrAllocator(String supernet) throws InvalidCidrException {
+        this.supernetPrefixLength = getPrefixLength(supernet);
+        this.supernetAddress = getBlockAddress(supernet, this.supernetPrefixLength);
+        this.freeBlocks = new TreeSet[ADDRESS_BITS + 1];
+        for (int prefixLength = 0; prefixLength <= ADDRESS_BITS; prefixLength++) {
+            this.freeBlocks[prefixLength] = new TreeSet<>();
+        }
+        this.freeBlocks[this.supernetPrefixLength].add(this.supernetAddress);
+        this.owners = new HashMap<>();
+        this.allocatedAddresses = 0;
+    }
+
+    public int getSupernetPrefixLength() {
+        return this.supernetPrefixLength;
+    }
+
+    /**
+     * Tells whether the given CIDR lies within the supernet, regardless of whether its addresses are free.
+     */
+    public boolean contains(String cidr) throws InvalidCidrException {
+        int prefixLength = getPrefixLength(cidr);
+        return prefixLength >= this.supernetPrefixLength
+                && (getBlockAddress(cidr, prefixLength) & mask(this.supernetPrefixLength)) == this.supernetAddress;
+    }
+
+    /**
+     * Allocates the free block of the given prefix length with the lowest address, splitting the smallest free block
+     * that is large enough, if needed.
+     * @return the CIDR of the block, or null if no block of that size is free
+     */
+    public synchronized String allocate(int prefixLength, String owner) {
+        if (prefixLength < this.supernetPrefixLength || prefixLength > ADDRESS_BITS) {
+            return null;
+        }
+        int freePrefixLength = prefixLength;
+        while (freePrefixLength >= this.supernetPrefixLength && this.freeBlocks[freePrefixLength].isEmpty()) {
+            freePrefixLength--;
+        }
+        if (freePrefixLength < this.supernetPrefixLength) {
+            return null;
+        }
+        long address = this.freeBlocks[freePrefixLength].pollFirst();
+        // The lower half of each split is kept, and the upper half is freed
+        while (freePrefixLength < prefixLength) {
+            freePrefixLength++;
+            this.freeBlocks[freePrefixLength].add(address + getSize(freePrefixLength));
+        }
+        return take(address, prefixLength, owner);
+    }
+
+    /**
+     * Allocates the given block, e.g. a CIDR chosen by the user or one recovered from the database.
+     * @return false if the block is not within the supernet, or if any of its addresses is already allocated
+     */
+    public synchronized boolean reserve(String cidr, String owner) throws InvalidCidrException {
+        if (!contains(cidr)) {
+            return false;
+        }
+        int prefixLength = getPrefixLength(cidr);
+        long address = getBlockAddress(cidr, prefixLength);
+        // Looks for the free block containing the requested one, from the largest possible to the requested size
+        for (int freePrefixLength = this.supernetPrefixLength; freePrefixLength <= prefixLength; freePrefixLength++) {
+            long freeAddress = address & mask(freePrefixLength);
+            if (this.freeBlocks[freePrefixLength].remove(freeAddress)) {
+                // The half containing the requested block is split again, and the other half is freed
+                while (freePrefixLength < prefixLength) {
+                    freePrefixLength++;
+                    long half = getSize(freePrefixLength);
+                    this.freeBlocks[freePrefixLength].add((address & half) == 0 ? freeAddress + half : freeAddress);
+                    freeAddress = address & mask(freePrefixLength);
+                }
+                take(address, prefixLength, owner);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gives a block allocated to the given owner to another one, e.g. when a closed order hands its CIDR over to a new
+     * order (see CidrIndex).
+     * @return false if the block is not allocated to the given owner
+     */
+    public synchronized boolean transfer(String cidr, String owner, String newOwner) throws InvalidCidrException {
+        int prefixLength = getPrefixLength(cidr);
+        String block = toCidr(getBlockAddress(cidr, prefixLength), prefixLength);
+        if (!owner.equals(this.owners.get(block))) {
+            return false;
+        }
+        this.owners.put(block, newOwner);
+        return true;
+    }
+
+    /**
+     * Frees a block allocated to the given owner, merging it with its buddies. Does nothing if the block is not
+     * allocated to that owner.
+     */
+    public synchronized void release(String cidr, String owner) throws InvalidCidrException {
+        int prefixLength = getPrefixLength(cidr);
+        long address = getBlockAddress(cidr, prefixLength);
+        String block = toCidr(address, prefixLength);
+        if (!owner.equals(this.owners.get(block))) {
+            return;
+        }
+        this.owners.remove(block);
+        this.allocatedAddresses -= getSize(prefixLength);
+        while (prefixLength > this.supernetPrefixLength) {
+            long buddy = address ^ getSize(prefixLength);
+            if (!this.freeBlocks[prefixLength].remove(buddy)) {
+                break;
+            }
+            address = Math.min(address, buddy);
+            prefixLength--;
+        }
+        this.freeBlocks[prefixLength].add(address);
+    }
+
+    public synchronized long getAllocatedAddresses() {
+        return this.allocatedAddresses;
+    }
+
+    public long getTotalAddresses() {
+        return getSize(this.supernetPrefixLength);
+    }
+
+    private String take(long address, int prefixLength, String owner) {
+        String block = toCidr(address, prefixLength);
+        this.owners.put(block, owner);
+        this.allocatedAddresses += getSize(prefixLength);
+        return block;
+    }
+
+    private static int getPrefixLength(String cidr) throws InvalidCidrException {
+        // Validates the CIDR before its prefix length is read
+        FederatedNetworkUtil.getSubnetInfo(cidr);
+        return Integer.parseInt(cidr.substring(cidr.indexOf('/') + 1));
+    }
+
+    // The address of the block of the given prefix length containing the address of the CIDR
+    private static long getBlockAddress(String cidr, int prefixLength) throws InvalidCidrException {
+        SubnetUtils.SubnetInfo subnetInfo = FederatedNetworkUtil.getSubnetInfo(cidr);
+        return (subnetInfo.asInteger(subnetInfo.getAddress()) & 0xFFFFFFFFL) & mask(prefixLength);
+    }
+
+    private static long getSize(int prefixLength) {
+        return 1L << (ADDRESS_BITS - prefixLength);
+    }
+
+    private static long mask(int prefixLength) {
+        return (0xFFFFFFFFL << (ADDRESS_BITS - prefixLength)) & 0xFFFFFFFFL;
+    }
+
+    private static String toCidr(long address, int prefixLength) {
+        return String.format("%d.%d.%d.%d/%d", (address >> 24) & 0xFF, (address >> 16) & 0xFF, (address >> 8) & 0xFF,
+                address & 0xFF, prefixLength);
+    }
+}
@@ -0,0 +1,125 @@
+package cloud.fogbow.fns.core;
+
+import cloud.fogbow.fns.core.exceptions.InvalidCidrException;
+import cloud.fogbow.fns.core.model.FederatedNetworkOrder;
+import cloud.fogbow.fns.core.model.OrderState;
+import cloud.fogbow.fns.utils.FederatedNetworkUtil;
+import org.apache.commons.net.util.SubnetUtils;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The CIDRs of the active federated networks, as address ranges sorted by their first address. The ranges in the index
+ * never overlap, so a new range overlaps an indexed one only if it overlaps the range starting right before it or the
+ * one starting right after it, and the network containing an address can only be the one starting right before it.
+ * Both are found in O(log n).
+ */
+public class CidrIndex {
+    private static final String SINGLE_ADDRESS_PREFIX = "/32";
+
+    private final TreeMap<Long, Entry> entries;
+
+    public CidrIndex() {
+        this.entries = new TreeMap<>();
+    }
+
+    /**
+     * Indexes the CIDR of the order, unless it overlaps the CIDR of another indexed order. A closed order still holding
+     * the very same CIDR gives its place to the new order, as its network is handed over to it (see OpenProcessor).
+     * @return null if the CIDR was indexed, or else the order whose CIDR overlaps it
+     */
+    public synchronized FederatedNetworkOrder add(FederatedNetworkOrder order) throws InvalidCidrException {
+        Entry entry = new Entry(order, null);
+        Entry overlapping = findOverlapping(entry);
+        if (overlapping != null && overlapping.order != order) {
+            if (overlapping.start != entry.start || overlapping.end != entry.end
+                    || overlapping.order.getOrderState() != OrderState.CLOSED) {
+                return overlapping.order;
+            }
+            entry = new Entry(order, overlapping.order);
+        }
+        this.entries.put(entry.start, entry);
+        return null;
+    }
+
+    /**
+     * Returns the closed order that gave its CIDR to the given order when it was indexed, or null if there is none.
+     */
+    public synchronized FederatedNetworkOrder getHandedOverOrder(FederatedNetworkOrder order)
+            throws InvalidCidrException {
+        long start = getFirstAddress(FederatedNetworkUtil.getSubnetInfo(order.getCidr()));
+        Entry entry = this.entries.get(start);
+        return entry != null && entry.order == order ? entry.handedOverOrder : null;
+    }
+
+    /**
+     * Drops the CIDR of the order from the index. Does nothing if its CIDR is held by another order. A closed order
+     * that handed the CIDR over to this one gets it back, unless its network was taken over too (see OpenProcessor),
+     * since that network is still at the agent. The caller holds the monitor of the closed order, so that its network
+     * is neither taken over nor removed from the agent meanwhile.
+     */
+    public synchronized void remove(FederatedNetworkOrder order) throws InvalidCidrException {
+        long start = getFirstAddress(FederatedNetworkUtil.getSubnetInfo(order.getCidr()));
+        Entry entry = this.entries.get(start);
+        if (entry == null || entry.order != order) {
+            return;
+        }
+        FederatedNetworkOrder handedOverOrder = entry.handedOverOrder;
+        if (handedOverOrder != null && handedOverOrder.getOrderState() == OrderState.CLOSED
+                && handedOverOrder.isAgentDeletionPending()) {
+            this.entries.put(start, new Entry(handedOverOrder, null));
+        } else {
+            this.entries.remove(start);
+        }
+    }
+
+    /**
+     * Returns the order whose CIDR contains the given IP, or null if there is none.
+     */
+    public synchronized FederatedNetworkOrder find(String ip) throws InvalidCidrException {
+        long address = getFirstAddress(FederatedNetworkUtil.getSubnetInfo(ip + SINGLE_ADDRESS_PREFIX));
+        Map.Entry<Long, Entry> floor = this.entries.floorEntry(address);
+        return floor != null && floor.getValue().end >= address ? floor.getValue().order : null;
+    }
+
+    public synchronized int size() {
+        return this.entries.size();
+    }
+
+    private Entry findOverlapping(Entry entry) {
+        Map.Entry<Long, Entry> floor = this.entries.floorEntry(entry.start);
+        if (floor != null && floor.getValue().end >= entry.start) {
+            return floor.getValue();
+        }
+        Map.Entry<Long, Entry> higher = this.entries.higherEntry(entry.start);
+        if (higher != null && higher.getKey() <= entry.end) {
+            return higher.getValue();
+        }
+        return null;
+    }
+
+    private static long getFirstAddress(SubnetUtils.SubnetInfo subnetInfo) {
+        return subnetInfo.asInteger(subnetInfo.getNetworkAddress()) & 0xFFFFFFFFL;
+    }
+
+    private static long getLastAddress(SubnetUtils.SubnetInfo subnetInfo) {
+        return subnetInfo.asInteger(subnetInfo.getBroadcastAddress()) & 0xFFFFFFFFL;
+    }
+
+    private static class Entry {
+        private final long start;
+        private final long end;
+        private final FederatedNetworkOrder order;
+        // The closed order that held the CIDR before this one, if any
+        private final FederatedNetworkOrder handedOverOrder;
+
+        Entry(FederatedNetworkOrder order, FederatedNetworkOrder handedOverOrder) throws InvalidCidrException {
+            SubnetUtils.SubnetInfo subnetInfo = FederatedNetworkUtil.getSubnetInfo(order.getCidr());
+            this.start = getFirstAddress(subnetInfo);
+            this.end = getLastAddress(subnetInfo);
+            this.order = order;
+            this.handedOverOrder = handedOverOrder;
+        }
+    }
+}
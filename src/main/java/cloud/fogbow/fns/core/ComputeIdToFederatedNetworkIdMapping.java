@@ -1,7 +1,7 @@
 package cloud.fogbow.fns.core;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ComputeIdToFederatedNetworkIdMapping {
     private static ComputeIdToFederatedNetworkIdMapping instance;
@@ -9,7 +9,7 @@ public class ComputeIdToFederatedNetworkIdMapping {
     private Map<String, String> computeIdToFederatedNetworkIdMap;
 
     private ComputeIdToFederatedNetworkIdMapping() {
-        this.computeIdToFederatedNetworkIdMap = new HashMap<>();
+        this.computeIdToFederatedNetworkIdMap = new ConcurrentHashMap<>();
     }
 
     public static synchronized ComputeIdToFederatedNetworkIdMapping getInstance() {
@@ -0,0 +1,152 @@
+package cloud.fogbow.fns.core;
+
+import cloud.fogbow.fns.constants.ConfigurationPropertyDefaults;
+import cloud.fogbow.fns.constants.ConfigurationPropertyKeys;
+import cloud.fogbow.fns.constants.MetricNames;
+import cloud.fogbow.fns.core.metrics.MetricsHolder;
+import cloud.fogbow.ras.api.http.response.ComputeInstance;
+import cloud.fogbow.ras.api.http.response.InstanceState;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches the compute instances returned by the RAS, already enriched with their federated IPs, so that clients
+ * polling the state of a compute do not turn every poll into a request to the RAS. A READY compute seldom changes, so
+ * it is kept longer than a compute in any other state, which is expected to change soon.
+ *
+ * Since the RAS is the one that authorizes the access to a compute, an instance is only ever returned to the user
+ * that got it from the RAS. The least recently used compute is evicted once the cache is full.
+ */
+public class ComputeInstanceCache {
+    private static ComputeInstanceCache instance;
+
+    // Indexed by compute id, and then by user, so that all the entries of a compute can be invalidated at once
+    private final Map<String, Map<String, CachedInstance>> cache;
+    private final long readyTimeToLive;
+    private final long transitionalTimeToLive;
+    // Incremented on every invalidation, so that a response fetched before it is not cached after it
+    private final AtomicLong invalidations;
+
+    ComputeInstanceCache(int maxSize, long readyTimeToLive, long transitionalTimeToLive) {
+        this.readyTimeToLive = readyTimeToLive;
+        this.transitionalTimeToLive = transitionalTimeToLive;
+        this.invalidations = new AtomicLong();
+        // Access-ordered, so that the eldest entry is the least recently used one
+        this.cache = new LinkedHashMap<String, Map<String, CachedInstance>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Map<String, CachedInstance>> eldest) {
+                return size() > maxSize;
+            }
+        };
+        MetricsHolder.getInstance().registerGauge(MetricNames.COMPUTE_INSTANCE_CACHE_SIZE, this::size);
+    }
+
+    public static synchronized ComputeInstanceCache getInstance() {
+        if (instance == null) {
+            PropertiesHolder properties = PropertiesHolder.getInstance();
+            int maxSize = Integer.parseInt(properties.getProperty(
+                    ConfigurationPropertyKeys.COMPUTE_INSTANCE_CACHE_MAX_SIZE_KEY,
+                    ConfigurationPropertyDefaults.COMPUTE_INSTANCE_CACHE_MAX_SIZE));
+            long readyTimeToLive = Long.parseLong(properties.getProperty(
+                    ConfigurationPropertyKeys.COMPUTE_INSTANCE_CACHE_READY_TTL_KEY,
+                    ConfigurationPropertyDefaults.COMPUTE_INSTANCE_CACHE_READY_TTL));
+            long transitionalTimeToLive = Long.parseLong(properties.getProperty(
+                    ConfigurationPropertyKeys.COMPUTE_INSTANCE_CACHE_TRANSITIONAL_TTL_KEY,
+                    ConfigurationPropertyDefaults.COMPUTE_INSTANCE_CACHE_TRANSITIONAL_TTL));
+            instance = new ComputeInstanceCache(maxSize, readyTimeToLive, transitionalTimeToLive);
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the instance previously cached for the given compute and user, or null if there is none or it has
+     * expired.
+     */
+    public ComputeInstance get(String computeId, String userKey) {
+        CachedInstance cachedInstance = null;
+        synchronized (this.cache) {
+            Map<String, CachedInstance> userInstances = this.cache.get(computeId);
+            if (userInstances != null) {
+                cachedInstance = userInstances.get(userKey);
+                if (cachedInstance != null && cachedInstance.isExpired(System.currentTimeMillis())) {
+                    userInstances.remove(userKey);
+                    if (userInstances.isEmpty()) {
+                        this.cache.remove(computeId);
+                    }
+                    cachedInstance = null;
+                }
+            }
+        }
+        if (cachedInstance == null) {
+            MetricsHolder.getInstance().incrementCounter(MetricNames.COMPUTE_INSTANCE_CACHE_MISSES);
+            return null;
+        }
+        MetricsHolder.getInstance().incrementCounter(MetricNames.COMPUTE_INSTANCE_CACHE_HITS);
+        return cachedInstance.getComputeInstance();
+    }
+
+    /**
+     * Must be called before the compute is fetched from the RAS; the value returned is then passed to put().
+     */
+    public long getVersion() {
+        return this.invalidations.get();
+    }
+
+    /**
+     * Caches the instance fetched from the RAS, unless some compute has been invalidated since it was fetched.
+     *
+     * @param version the value returned by getVersion() before the instance was fetched
+     */
+    public void put(String computeId, String userKey, ComputeInstance computeInstance, long version) {
+        long timeToLive = computeInstance.getState() == InstanceState.READY ?
+                this.readyTimeToLive : this.transitionalTimeToLive;
+        if (timeToLive <= 0) {
+            return;
+        }
+        CachedInstance cachedInstance = new CachedInstance(computeInstance, System.currentTimeMillis() + timeToLive);
+        synchronized (this.cache) {
+            // Checked while holding the lock, since invalidate() increments the counter while holding it
+            if (this.invalidations.get() != version) {
+                return;
+            }
+            this.cache.computeIfAbsent(computeId, id -> new HashMap<>()).put(userKey, cachedInstance);
+        }
+    }
+
+    /**
+     * Discards all the cached instances of the given compute, e.g. because it has been deleted.
+     */
+    public void invalidate(String computeId) {
+        synchronized (this.cache) {
+            this.invalidations.incrementAndGet();
+            this.cache.remove(computeId);
+        }
+    }
+
+    public int size() {
+        synchronized (this.cache) {
+            return this.cache.size();
+        }
+    }
+
+    private static class CachedInstance {
+        private final ComputeInstance computeInstance;
+        private final long expirationTime;
+
+        CachedInstance(ComputeInstance computeInstance, long expirationTime) {
+            this.computeInstance = computeInstance;
+            this.expirationTime = expirationTime;
+        }
+
+        ComputeInstance getComputeInstance() {
+            return this.computeInstance;
+        }
+
+        boolean isExpired(long now) {
+            return now >= this.expirationTime;
+        }
+    }
+}
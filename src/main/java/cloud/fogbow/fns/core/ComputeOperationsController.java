@@ -0,0 +1,166 @@
+package cloud.fogbow.fns.core;
+
+import cloud.fogbow.common.exceptions.InstanceNotFoundException;
+import cloud.fogbow.common.models.SystemUser;
+import cloud.fogbow.fns.constants.ConfigurationPropertyDefaults;
+import cloud.fogbow.fns.constants.ConfigurationPropertyKeys;
+import cloud.fogbow.fns.constants.Messages;
+import cloud.fogbow.fns.constants.MetricNames;
+import cloud.fogbow.fns.core.exceptions.ComputeOperationsCapacityReachedException;
+import cloud.fogbow.fns.core.metrics.MetricsHolder;
+import cloud.fogbow.fns.core.model.ComputeOperation;
+import org.apache.log4j.Logger;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+public class ComputeOperationsController {
+    private static final Logger LOGGER = Logger.getLogger(ComputeOperationsController.class);
+
+    private static final String COMPUTE_OPERATION_THREAD_NAME_PREFIX = "fns-compute-op-";
+
+    private final ThreadPoolExecutor executor;
+    private final int rasRequestsParallelism;
+    private final Map<String, ComputeOperation> operations;
+    private final long retentionTime;
+
+    public ComputeOperationsController() {
+        this(Integer.parseInt(PropertiesHolder.getInstance().getProperty(
+                ConfigurationPropertyKeys.COMPUTE_OPERATIONS_POOL_SIZE_KEY,
+                ConfigurationPropertyDefaults.COMPUTE_OPERATIONS_POOL_SIZE)),
+            Integer.parseInt(PropertiesHolder.getInstance().getProperty(
+                ConfigurationPropertyKeys.COMPUTE_OPERATIONS_QUEUE_SIZE_KEY,
+                ConfigurationPropertyDefaults.COMPUTE_OPERATIONS_QUEUE_SIZE)),
+            Long.parseLong(PropertiesHolder.getInstance().getProperty(
+                ConfigurationPropertyKeys.COMPUTE_OPERATIONS_RETENTION_TIME_KEY,
+                ConfigurationPropertyDefaults.COMPUTE_OPERATIONS_RETENTION_TIME)),
+            Integer.parseInt(PropertiesHolder.getInstance().getProperty(
+                ConfigurationPropertyKeys.RAS_REQUESTS_PARALLELISM_KEY,
+                ConfigurationPropertyDefaults.RAS_REQUESTS_PARALLELISM)));
+    }
+
+    ComputeOperationsController(int poolSize, int queueSize, long retentionTime, int rasRequestsParallelism) {
+        this.retentionTime = retentionTime;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                runnable -> new Thread(runnable, COMPUTE_OPERATION_THREAD_NAME_PREFIX + threadCount.incrementAndGet()));
+        this.operations = new ConcurrentHashMap<>();
+
+        // Bounds how many requests to the RAS are in flight on behalf of a single API request (e.g. a batch)
+        this.rasRequestsParallelism = rasRequestsParallelism;
+
+        MetricsHolder.getInstance().registerGauge(MetricNames.COMPUTE_OPERATIONS_ACTIVE, this.executor::getActiveCount);
+        MetricsHolder.getInstance().registerGauge(MetricNames.COMPUTE_OPERATIONS_QUEUED, () -> this.executor.getQueue().size());
+    }
+
+    public int getRasRequestsParallelism() {
+        return this.rasRequestsParallelism;
+    }
+
+    /**
+     * Runs the given compute creation in the bounded pool of compute operation threads. The returned operation is
+     * completed with the id of the created compute, or with the message of the exception thrown by computeCreation.
+     * @throws ComputeOperationsCapacityReachedException if both the pool and its queue are full; in this case
+     * computeCreation is never called.
+     */
+    public ComputeOperation submit(SystemUser systemUser, String federatedNetworkId, Callable<String> computeCreation)
+            throws ComputeOperationsCapacityReachedException {
+        removeExpiredOperations();
+        ComputeOperation operation = new ComputeOperation(systemUser, federatedNetworkId);
+        this.operations.put(operation.getId(), operation);
+        try {
+            this.executor.execute(() -> {
+                try {
+                    operation.succeed(computeCreation.call());
+                    MetricsHolder.getInstance().incrementCounter(MetricNames.COMPUTE_OPERATIONS_SUCCEEDED);
+                } catch (Exception e) {
+                    LOGGER.info(String.format(Messages.Exception.GENERIC_EXCEPTION, e.getMessage()));
+                    operation.fail(e.getMessage());
+                    MetricsHolder.getInstance().incrementCounter(MetricNames.COMPUTE_OPERATIONS_FAILED);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            this.operations.remove(operation.getId());
+            MetricsHolder.getInstance().incrementCounter(MetricNames.COMPUTE_OPERATIONS_REJECTED);
+            throw new ComputeOperationsCapacityReachedException();
+        }
+        return operation;
+    }
+
+    /**
+     * Sends the request of each item, keeping at most the configured parallelism of them in flight, without holding
+     * any thread while they are. The bound applies to each call, i.e. to each API request (e.g. a batch) on whose
+     * behalf the requests are sent.
+     * @return a future completed once the requests of all items have completed, successfully or not
+     */
+    public <T> CompletableFuture<Void> invokeAllAsync(List<T> items, Function<T, CompletableFuture<?>> request) {
+        CompletableFuture<Void> completion = new CompletableFuture<>();
+        if (items.isEmpty()) {
+            completion.complete(null);
+            return completion;
+        }
+        AtomicInteger nextItem = new AtomicInteger();
+        AtomicInteger pendingItems = new AtomicInteger(items.size());
+        for (int i = 0; i < Math.min(this.rasRequestsParallelism, items.size()); i++) {
+            sendNextRequest(items, request, nextItem, pendingItems, completion);
+        }
+        return completion;
+    }
+
+    // Each completed request sends the next one, so the number of requests in flight never exceeds the initial one
+    private <T> void sendNextRequest(List<T> items, Function<T, CompletableFuture<?>> request, AtomicInteger nextItem,
+                                     AtomicInteger pendingItems, CompletableFuture<Void> completion) {
+        int item = nextItem.getAndIncrement();
+        if (item >= items.size()) {
+            return;
+        }
+        CompletableFuture<?> response;
+        try {
+            response = request.apply(items.get(item));
+        } catch (RuntimeException e) {
+            LOGGER.info(String.format(Messages.Exception.GENERIC_EXCEPTION, e.getMessage()));
+            response = CompletableFuture.completedFuture(null);
+        }
+        // Continued in another thread, so that requests completed right away do not pile up in the stack
+        response.whenCompleteAsync((ignoredResult, ignoredThrowable) -> {
+            if (pendingItems.decrementAndGet() == 0) {
+                completion.complete(null);
+            } else {
+                sendNextRequest(items, request, nextItem, pendingItems, completion);
+            }
+        }, RasHttpClientHolder.getInstance().getResponseHandlersExecutor());
+    }
+
+    public ComputeOperation getOperation(String operationId) throws InstanceNotFoundException {
+        ComputeOperation operation = this.operations.get(operationId);
+        if (operation == null) {
+            throw new InstanceNotFoundException(String.format(Messages.Exception.UNABLE_TO_FIND_COMPUTE_OPERATION,
+                    operationId));
+        }
+        return operation;
+    }
+
+    // Completed operations are kept for retentionTime milliseconds, so that their result can be polled.
+    private void removeExpiredOperations() {
+        long expirationThreshold = System.currentTimeMillis() - this.retentionTime;
+        Iterator<ComputeOperation> iterator = this.operations.values().iterator();
+        while (iterator.hasNext()) {
+            ComputeOperation operation = iterator.next();
+            if (operation.isCompleted() && operation.getCompletionTime() < expirationThreshold) {
+                iterator.remove();
+            }
+        }
+    }
+}
@@ -1,40 +1,115 @@
 package cloud.fogbow.fns.core;
 
 import cloud.fogbow.fns.api.parameters.FederatedCompute;
+import cloud.fogbow.common.exceptions.QuotaExceededException;
 import cloud.fogbow.common.exceptions.UnexpectedException;
+import cloud.fogbow.fns.constants.ConfigurationPropertyDefaults;
 import cloud.fogbow.fns.constants.ConfigurationPropertyKeys;
 import cloud.fogbow.fns.core.exceptions.FederatedNetworkNotFoundException;
 import cloud.fogbow.fns.core.exceptions.InvalidCidrException;
 import cloud.fogbow.fns.core.exceptions.SubnetAddressesCapacityReachedException;
 import cloud.fogbow.fns.core.model.FederatedNetworkOrder;
+import cloud.fogbow.fns.core.model.IpLease;
 import cloud.fogbow.fns.utils.FederatedComputeUtil;
 import cloud.fogbow.ras.api.http.response.ComputeInstance;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 public class ComputeRequestsController {
+    private long ipReservationTtl;
+
+    public ComputeRequestsController() {
+        this.ipReservationTtl = Long.parseLong(PropertiesHolder.getInstance().getProperty(
+                ConfigurationPropertyKeys.IP_RESERVATION_TTL_KEY, ConfigurationPropertyDefaults.IP_RESERVATION_TTL));
+    }
 
     // FederatedCompute methods
-    public String addScriptToSetupTunnelIfNeeded(FederatedCompute federatedCompute, String federatedNetworkId)
+    public IpLease addScriptToSetupTunnelIfNeeded(FederatedCompute federatedCompute, String federatedNetworkId)
             throws FederatedNetworkNotFoundException, InvalidCidrException,
-            SubnetAddressesCapacityReachedException, IOException, UnexpectedException {
-        String instanceIp = null;
+            SubnetAddressesCapacityReachedException, IOException, UnexpectedException, QuotaExceededException {
+        IpLease instanceIp = null;
         if (federatedNetworkId != null && !federatedNetworkId.isEmpty()) {
             FederatedNetworkOrder federatedNetworkOrder = FederatedNetworkOrdersHolder.getInstance().
                     getFederatedNetworkOrder(federatedNetworkId);
             if (federatedNetworkOrder == null) {
                 throw new FederatedNetworkNotFoundException(federatedNetworkId);
             }
-            instanceIp = federatedNetworkOrder.getFreeIp();
+            // Only the target federated network is locked while the IP is reserved
+            instanceIp = reserveIps(federatedNetworkOrder, 1).get(0);
             String cidr = federatedNetworkOrder.getCidr();
-            FederatedComputeUtil.addUserData(federatedCompute, instanceIp,
-                    PropertiesHolder.getInstance().getProperty(ConfigurationPropertyKeys.FEDERATED_NETWORK_AGENT_ADDRESS_KEY), cidr,
-                    PropertiesHolder.getInstance().getProperty(ConfigurationPropertyKeys.FEDERATED_NETWORK_PRE_SHARED_KEY_KEY));
+            try {
+                FederatedComputeUtil.addUserData(federatedCompute, instanceIp.getIp(),
+                        PropertiesHolder.getInstance().getProperty(ConfigurationPropertyKeys.FEDERATED_NETWORK_AGENT_ADDRESS_KEY), cidr,
+                        PropertiesHolder.getInstance().getProperty(ConfigurationPropertyKeys.FEDERATED_NETWORK_PRE_SHARED_KEY_KEY));
+            } catch (IOException e) {
+                federatedNetworkOrder.releaseFreeIp(instanceIp);
+                throw e;
+            }
         }
         return instanceIp;
     }
 
-    public void addIpToComputeAllocation(String instanceIp, String computeId, String federatedNetworkId)
+    /**
+     * Reserves one IP per compute in a single operation on the federated network, and adds the script that sets up
+     * the tunnel to each compute.
+     * @return the leases of the IPs reserved, in the same order as federatedComputes, or a list of nulls if no
+     * federated network was informed
+     */
+    public List<IpLease> addScriptsToSetupTunnelIfNeeded(List<FederatedCompute> federatedComputes, String federatedNetworkId)
+            throws FederatedNetworkNotFoundException, InvalidCidrException,
+            SubnetAddressesCapacityReachedException, IOException, UnexpectedException, QuotaExceededException {
+        List<IpLease> instanceIps = new ArrayList<>(Collections.nCopies(federatedComputes.size(), (IpLease) null));
+        if (federatedNetworkId != null && !federatedNetworkId.isEmpty()) {
+            FederatedNetworkOrder federatedNetworkOrder = FederatedNetworkOrdersHolder.getInstance().
+                    getFederatedNetworkOrder(federatedNetworkId);
+            if (federatedNetworkOrder == null) {
+                throw new FederatedNetworkNotFoundException(federatedNetworkId);
+            }
+            instanceIps = reserveIps(federatedNetworkOrder, federatedComputes.size());
+            String cidr = federatedNetworkOrder.getCidr();
+            String agentAddress = PropertiesHolder.getInstance().getProperty(ConfigurationPropertyKeys.FEDERATED_NETWORK_AGENT_ADDRESS_KEY);
+            String preSharedKey = PropertiesHolder.getInstance().getProperty(ConfigurationPropertyKeys.FEDERATED_NETWORK_PRE_SHARED_KEY_KEY);
+            try {
+                for (int i = 0; i < federatedComputes.size(); i++) {
+                    FederatedComputeUtil.addUserData(federatedComputes.get(i), instanceIps.get(i).getIp(), agentAddress, cidr,
+                            preSharedKey);
+                }
+            } catch (IOException e) {
+                releaseIpReservations(instanceIps, federatedNetworkId);
+                throw e;
+            }
+        }
+        return instanceIps;
+    }
+
+    // The federated network charges the IPs to the quota of its owner as it reserves them, and discharges them as they
+    // are released, expire or are detached from their computes
+    private List<IpLease> reserveIps(FederatedNetworkOrder federatedNetworkOrder, int count) throws InvalidCidrException,
+            SubnetAddressesCapacityReachedException, UnexpectedException, QuotaExceededException {
+        return federatedNetworkOrder.getFreeIps(count, this.ipReservationTtl);
+    }
+
+    public void releaseIpReservations(List<IpLease> instanceIps, String federatedNetworkId) {
+        for (IpLease instanceIp : instanceIps) {
+            releaseIpReservation(instanceIp, federatedNetworkId);
+        }
+    }
+
+    public void releaseIpReservation(IpLease instanceIp, String federatedNetworkId) {
+        if (instanceIp != null && federatedNetworkId != null && !federatedNetworkId.isEmpty()) {
+            FederatedNetworkOrder federatedNetworkOrder = FederatedNetworkOrdersHolder.getInstance().
+                    getFederatedNetworkOrder(federatedNetworkId);
+            // The federated network may have been removed meanwhile; in this case there is nothing to be returned
+            if (federatedNetworkOrder != null) {
+                federatedNetworkOrder.releaseFreeIp(instanceIp);
+            }
+        }
+    }
+
+    public void addIpToComputeAllocation(IpLease instanceIp, String computeId, String federatedNetworkId)
             throws UnexpectedException {
         if (federatedNetworkId != null && !federatedNetworkId.isEmpty()) {
             FederatedNetworkOrder federatedNetworkOrder = FederatedNetworkOrdersHolder.getInstance().
@@ -6,13 +6,13 @@ import cloud.fogbow.common.models.SystemUser;
 import cloud.fogbow.fns.api.http.response.InstanceStatus;
 import cloud.fogbow.fns.constants.ConfigurationPropertyKeys;
 import cloud.fogbow.fns.constants.Messages;
-import cloud.fogbow.fns.core.exceptions.AgentCommucationException;
+import cloud.fogbow.fns.constants.MetricNames;
 import cloud.fogbow.fns.core.exceptions.InvalidCidrException;
 import cloud.fogbow.fns.core.exceptions.NotEmptyFederatedNetworkException;
+import cloud.fogbow.fns.core.metrics.MetricsHolder;
 import cloud.fogbow.fns.core.model.FederatedNetworkOrder;
-import cloud.fogbow.fns.core.model.InstanceState;
+import cloud.fogbow.fns.core.model.FederatedNetworkOrderView;
 import cloud.fogbow.fns.core.model.OrderState;
-import cloud.fogbow.fns.utils.AgentCommunicatorUtil;
 import cloud.fogbow.fns.utils.FederatedNetworkUtil;
 import org.apache.commons.net.util.SubnetUtils;
 import org.apache.log4j.Logger;
@@ -45,12 +45,15 @@ public class FederatedNetworkOrderController {
                 LOGGER.error(String.format(Messages.Exception.INVALID_CIDR, federatedNetwork.getCidr()));
                 throw new InvalidCidrException(String.format(Messages.Exception.INVALID_CIDR, federatedNetwork.getCidr()));
             }
-
-            this.activateOrder(federatedNetwork);
         }
+        this.activateOrder(federatedNetwork);
     }
 
-    public void deleteFederatedNetwork(FederatedNetworkOrder federatedNetwork)
+    /**
+     * Deletes the federated network. Its removal from the agent, if needed, is left to the ClosedProcessor.
+     * @return true if the federated network is still to be removed from the agent
+     */
+    public boolean deleteFederatedNetwork(FederatedNetworkOrder federatedNetwork)
             throws NotEmptyFederatedNetworkException, UnexpectedException {
         LOGGER.info(String.format(Messages.Info.INITIALIZING_DELETE_METHOD, federatedNetwork.getId()));
 
@@ -58,19 +61,43 @@ public class FederatedNetworkOrderController {
             throw new NotEmptyFederatedNetworkException();
         }
 
-        synchronized (federatedNetwork) {
-            LOGGER.info(String.format(Messages.Info.DELETING_FEDERATED_NETWORK, federatedNetwork.toString()));
-            boolean wasDeleted = AgentCommunicatorUtil.deleteFederatedNetwork(federatedNetwork.getCidr());
-            if (wasDeleted || federatedNetwork.getOrderState() == OrderState.FAILED) {
-                // If the state of the order is FAILED, this is because in the creation, it was not possible to
-                // connect to the Agent. Thus, there is nothing to remove at the Agent, and an exception does not
-                // need to be thrown.
-                LOGGER.info(String.format(Messages.Info.DELETED_FEDERATED_NETWORK, federatedNetwork.toString()));
-                OrderStateTransitioner.transition(federatedNetwork, OrderState.CLOSED);
-            } else {
-                throw new UnexpectedException(Messages.Exception.UNABLE_TO_REMOVE_FEDERATED_NETWORK, new AgentCommucationException());
+        // The processors hold the monitor of the order while calling the agent, and record in it whether the federated
+        // network exists at the agent before releasing the monitor
+        LOGGER.info(String.format(Messages.Info.DELETING_FEDERATED_NETWORK, federatedNetwork.toString()));
+        OrderState state;
+        do {
+            synchronized (federatedNetwork) {
+                state = federatedNetwork.getOrderState();
+                switch (state) {
+                    case FULFILLED:
+                        // Removed from the agent by the ClosedProcessor, unless a new federated network with the
+                        // same CIDR takes it over before that (see OpenProcessor)
+                        federatedNetwork.setAgentDeletionPending(true);
+                        break;
+                    case OPEN:
+                    case FAILED:
+                        break;
+                    default:
+                        // Already deleted
+                        return federatedNetwork.isAgentDeletionPending();
+                }
             }
+            // The order is closed once its monitor is released, and examined again if its state changed meanwhile
+        } while (!OrderStateTransitioner.transition(federatedNetwork, state, OrderState.CLOSED));
+
+        // A processor that was creating the federated network at the agent when the order was closed has finished
+        boolean agentDeletionPending;
+        synchronized (federatedNetwork) {
+            agentDeletionPending = federatedNetwork.isAgentDeletionPending();
         }
+        if (!agentDeletionPending && state == OrderState.OPEN) {
+            // The creation at the agent has not been run, so neither it nor the removal is needed
+            MetricsHolder.getInstance().addToCounter(MetricNames.AGENT_CALLS_SAVED, 2);
+        } else if (!agentDeletionPending && state == OrderState.FAILED) {
+            // The creation at the agent failed, so there is nothing to remove
+            MetricsHolder.getInstance().incrementCounter(MetricNames.AGENT_CALLS_SAVED);
+        }
+        return agentDeletionPending;
     }
 
     public Collection<InstanceStatus> getFederatedNetworksStatusByUser(SystemUser systemUser) {
@@ -78,35 +105,33 @@ public class FederatedNetworkOrderController {
 
         // Filter all orders of resourceType from systemUser that are not closed (closed orders have been deleted by
         // the user and should not be seen; they will disappear from the system).
+        // The views of the orders are read, so that the listing never waits for an order being changed
         return orders.stream()
-                .filter(order -> order.getSystemUser().equals(systemUser))
-                .filter(order -> !order.getOrderState().equals(OrderState.DEACTIVATED))
-                .map(orderToInstanceStatus())
+                .map(FederatedNetworkOrder::getView)
+                .filter(view -> view.getSystemUser().equals(systemUser))
+                .filter(view -> !OrderState.DEACTIVATED.equals(view.getOrderState()))
+                .map(view -> new InstanceStatus(view.getId(), view.getName(), RAS_NAME, view.getInstanceState()))
                 .collect(Collectors.toList());
     }
 
     public static Function<FederatedNetworkOrder, InstanceStatus> orderToInstanceStatus() {
         return order -> {
-            InstanceState status = order.getInstanceStateFromOrderState();
-            InstanceStatus instanceStatus = new InstanceStatus(order.getId(), order.getName(), RAS_NAME, status);
-            return instanceStatus;
+            FederatedNetworkOrderView view = order.getView();
+            return new InstanceStatus(view.getId(), view.getName(), RAS_NAME, view.getInstanceState());
         };
     }
 
+    // Neither method holds the monitor of the order, since the transitions write the order to the database
     public void activateOrder(FederatedNetworkOrder order) throws UnexpectedException {
-        synchronized (order) {
-            order.setOrderState(OrderState.OPEN);
-            FederatedNetworkOrdersHolder.getInstance().insertNewOrder(order);
-        }
+        order.setOrderState(OrderState.OPEN);
+        FederatedNetworkOrdersHolder.getInstance().insertNewOrder(order);
     }
 
     public void deactivateOrder(FederatedNetworkOrder order) throws UnexpectedException {
-        synchronized (order) {
-            if (!order.getOrderState().equals(OrderState.CLOSED)) {
-                String message = Messages.Exception.ORDER_SHOULD_BE_CLOSED_BEFORE_DEACTIVATED;
-                throw new RuntimeException(String.format(message, order.getId()));
-            }
-            FederatedNetworkOrdersHolder.getInstance().removeOrder(order);
+        if (!order.getOrderState().equals(OrderState.CLOSED)) {
+            String message = Messages.Exception.ORDER_SHOULD_BE_CLOSED_BEFORE_DEACTIVATED;
+            throw new RuntimeException(String.format(message, order.getId()));
         }
+        FederatedNetworkOrdersHolder.getInstance().removeOrder(order);
     }
 }
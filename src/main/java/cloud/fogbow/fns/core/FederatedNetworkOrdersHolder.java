@@ -1,32 +1,63 @@
 package cloud.fogbow.fns.core;
 
+import cloud.fogbow.common.exceptions.InvalidParameterException;
+import cloud.fogbow.common.exceptions.NoAvailableResourcesException;
 import cloud.fogbow.common.exceptions.UnexpectedException;
-import cloud.fogbow.common.models.linkedlists.SynchronizedDoublyLinkedList;
+import cloud.fogbow.fns.constants.ConfigurationPropertyDefaults;
+import cloud.fogbow.fns.constants.ConfigurationPropertyKeys;
+import cloud.fogbow.fns.constants.Messages;
+import cloud.fogbow.fns.constants.MetricNames;
 import cloud.fogbow.fns.core.datastore.DatabaseManager;
+import cloud.fogbow.fns.core.exceptions.InvalidCidrException;
+import cloud.fogbow.fns.core.metrics.MetricsHolder;
 import cloud.fogbow.fns.core.model.FederatedNetworkOrder;
 import cloud.fogbow.fns.core.model.OrderState;
+import cloud.fogbow.fns.core.model.VersionedOrderState;
+import org.apache.log4j.Logger;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class FederatedNetworkOrdersHolder {
+    private static final Logger LOGGER = Logger.getLogger(FederatedNetworkOrdersHolder.class);
+
+    // The smallest federated network with room for the agent and a compute (see FederatedNetworkUtil.isSubnetValid())
+    private static final int MAX_PREFIX_LENGTH = 30;
+
     private static FederatedNetworkOrdersHolder instance;
 
     private Map<String, FederatedNetworkOrder> activeOrders;
-    private SynchronizedDoublyLinkedList<FederatedNetworkOrder> openOrders;
-    private SynchronizedDoublyLinkedList<FederatedNetworkOrder> fulfilledOrders;
-    private SynchronizedDoublyLinkedList<FederatedNetworkOrder> failedOrders;
-    private SynchronizedDoublyLinkedList<FederatedNetworkOrder> closedOrders;
+    private OrderWorkSet openOrders;
+    private OrderWorkSet fulfilledOrders;
+    private OrderWorkSet failedOrders;
+    private OrderWorkSet closedOrders;
+    // Null if no address pool is configured
+    private CidrAllocator addressPool;
+    // The CIDRs of the active orders, so that no two federated networks on the agent overlap
+    private CidrIndex cidrIndex;
 
     private FederatedNetworkOrdersHolder() {
         // retrieve from database
         DatabaseManager databaseManager = DatabaseManager.getInstance();
-        this.openOrders = databaseManager.readActiveOrders(OrderState.OPEN);
-        this.fulfilledOrders = databaseManager.readActiveOrders(OrderState.FULFILLED);
-        this.failedOrders = databaseManager.readActiveOrders(OrderState.FAILED);
-        this.closedOrders = databaseManager.readActiveOrders(OrderState.CLOSED);
+        // Open orders are served by priority and deadline, the orders in the other states in the order they arrive
+        this.openOrders = new OrderWorkSet(PrioritySchedulingPolicy.fromConfiguration());
+        this.openOrders.addAll(databaseManager.readActiveOrders(OrderState.OPEN));
+        this.fulfilledOrders = new OrderWorkSet();
+        this.fulfilledOrders.addAll(databaseManager.readActiveOrders(OrderState.FULFILLED));
+        this.failedOrders = new OrderWorkSet();
+        this.failedOrders.addAll(databaseManager.readActiveOrders(OrderState.FAILED));
+        this.closedOrders = new OrderWorkSet();
+        this.closedOrders.addAll(databaseManager.readActiveOrders(OrderState.CLOSED));
 
         this.activeOrders = initializeActiveOrders(this.openOrders, this.fulfilledOrders, this.failedOrders, this.closedOrders);
+        QuotaController.getInstance().rebuild(this.activeOrders.values());
+        this.addressPool = createAddressPool(this.activeOrders.values());
+        this.cidrIndex = createCidrIndex(this.activeOrders.values());
+        registerIpReservationsGauge();
     }
 
     public static synchronized FederatedNetworkOrdersHolder getInstance() {
@@ -36,19 +67,19 @@ public class FederatedNetworkOrdersHolder {
         return instance;
     }
 
-    public SynchronizedDoublyLinkedList<FederatedNetworkOrder> getOpenOrders() {
+    public OrderWorkSet getOpenOrders() {
         return this.openOrders;
     }
 
-    public SynchronizedDoublyLinkedList<FederatedNetworkOrder> getFulfilledOrders() {
+    public OrderWorkSet getFulfilledOrders() {
         return this.fulfilledOrders;
     }
 
-    public SynchronizedDoublyLinkedList<FederatedNetworkOrder> getFailedOrders() {
+    public OrderWorkSet getFailedOrders() {
         return this.failedOrders;
     }
 
-    public SynchronizedDoublyLinkedList<FederatedNetworkOrder> getClosedOrders() {
+    public OrderWorkSet getClosedOrders() {
         return this.closedOrders;
     }
 
@@ -57,7 +88,7 @@ public class FederatedNetworkOrdersHolder {
     }
 
     public FederatedNetworkOrder insertNewOrder(FederatedNetworkOrder order) {
-        getOrdersList(order.getOrderState()).addItem(order);
+        getWorkSet(order.getOrderState()).add(order);
         return activeOrders.put(order.getId(), order);
     }
 
@@ -77,14 +108,139 @@ public class FederatedNetworkOrdersHolder {
     public FederatedNetworkOrder removeOrder(String id) throws UnexpectedException {
         FederatedNetworkOrder order = activeOrders.get(id);
 
-        getOrdersList(order.getOrderState()).removeItem(order);
         FederatedNetworkOrder removedOrder = activeOrders.remove(id);
 
-        order.setOrderState(OrderState.DEACTIVATED);
+        OrderStateTransitioner.transition(order, OrderState.DEACTIVATED);
+        releaseCidr(order);
         return removedOrder;
     }
 
-    public SynchronizedDoublyLinkedList<FederatedNetworkOrder> getOrdersList(OrderState orderState) {
+    /**
+     * Returns the active order whose CIDR contains the given IP, or null if there is none.
+     */
+    public FederatedNetworkOrder getOrderByIp(String ip) throws InvalidCidrException {
+        return this.cidrIndex.find(ip);
+    }
+
+    /**
+     * Returns the closed order whose federated network, still at the agent, the given order may take over, as it took
+     * its CIDR, or null if there is none.
+     */
+    public FederatedNetworkOrder getHandedOverOrder(FederatedNetworkOrder order) throws InvalidCidrException {
+        return this.cidrIndex.getHandedOverOrder(order);
+    }
+
+    /**
+     * Settles the CIDR of a new order: a block of the requested prefix length is carved out of the address pool if
+     * the order has no CIDR. The CIDR is then indexed, and rejected if it overlaps the CIDR of any other active order.
+     * Finally, a CIDR within the address pool is reserved, so that no other order is given any of its addresses,
+     * unless it is handed over by a closed order, which gives its block to the new order along with it.
+     */
+    public void assignCidr(FederatedNetworkOrder order) throws InvalidParameterException,
+            NoAvailableResourcesException, InvalidCidrException {
+        String cidr = order.getCidr();
+        boolean reserveFromPool = false;
+        if (cidr == null || cidr.isEmpty()) {
+            if (this.addressPool == null) {
+                throw new InvalidParameterException(Messages.Exception.NO_ADDRESS_POOL);
+            }
+            Integer prefixLength = order.getPrefixLength();
+            if (prefixLength == null) {
+                throw new InvalidParameterException(Messages.Exception.CIDR_OR_PREFIX_LENGTH_REQUIRED);
+            }
+            if (prefixLength < this.addressPool.getSupernetPrefixLength() || prefixLength > MAX_PREFIX_LENGTH) {
+                throw new InvalidParameterException(String.format(Messages.Exception.INVALID_PREFIX_LENGTH,
+                        this.addressPool.getSupernetPrefixLength(), MAX_PREFIX_LENGTH));
+            }
+            String block = this.addressPool.allocate(prefixLength, order.getId());
+            if (block == null) {
+                throw new NoAvailableResourcesException(String.format(
+                        Messages.Exception.NO_FREE_BLOCK_IN_ADDRESS_POOL, prefixLength));
+            }
+            order.setCidr(block);
+        } else {
+            reserveFromPool = this.addressPool != null && this.addressPool.contains(cidr);
+        }
+
+        if (this.cidrIndex.add(order) != null) {
+            releaseCidr(order);
+            MetricsHolder.getInstance().incrementCounter(MetricNames.CIDR_OVERLAPS_REJECTED);
+            throw new InvalidParameterException(String.format(Messages.Exception.CIDR_OVERLAPS_FEDERATED_NETWORK,
+                    order.getCidr()));
+        }
+        if (reserveFromPool) {
+            FederatedNetworkOrder handedOverOrder = this.cidrIndex.getHandedOverOrder(order);
+            boolean reserved = (handedOverOrder != null
+                    && this.addressPool.transfer(cidr, handedOverOrder.getId(), order.getId()))
+                    || this.addressPool.reserve(cidr, order.getId());
+            if (!reserved) {
+                releaseCidr(order);
+                throw new InvalidParameterException(String.format(Messages.Exception.CIDR_OVERLAPS_ADDRESS_POOL_BLOCK,
+                        cidr));
+            }
+        }
+    }
+
+    /**
+     * Drops the CIDR of the order from the index, and returns it to the address pool if it was taken from it. A CIDR
+     * handed over by a closed order whose network was not taken over (see OpenProcessor) goes back to that order, in
+     * the index and in the address pool, as its network is still to be removed from the agent.
+     */
+    public void releaseCidr(FederatedNetworkOrder order) {
+        if (order.getCidr() == null) {
+            return;
+        }
+        try {
+            FederatedNetworkOrder handedOverOrder = this.cidrIndex.getHandedOverOrder(order);
+            if (handedOverOrder == null) {
+                dropCidr(order, null);
+            } else {
+                // The OpenProcessor and the ClosedProcessor hold the monitor of the closed order while they take over
+                // or remove its network
+                synchronized (handedOverOrder) {
+                    dropCidr(order, handedOverOrder);
+                }
+            }
+        } catch (InvalidCidrException e) {
+            // An invalid CIDR is neither indexed nor taken from the pool
+        }
+    }
+
+    private void dropCidr(FederatedNetworkOrder order, FederatedNetworkOrder handedOverOrder)
+            throws InvalidCidrException {
+        this.cidrIndex.remove(order);
+        if (this.addressPool != null) {
+            boolean givenBack = handedOverOrder != null && handedOverOrder.getOrderState() == OrderState.CLOSED
+                    && handedOverOrder.isAgentDeletionPending()
+                    && this.addressPool.transfer(order.getCidr(), order.getId(), handedOverOrder.getId());
+            if (!givenBack) {
+                this.addressPool.release(order.getCidr(), order.getId());
+            }
+        }
+    }
+
+    /**
+     * Leaves the order in the work set of its current state only. Transitions change the state of an order without
+     * locking it, so two of them may update the work sets concurrently; whichever finishes last sees the latest
+     * state, since the state is read again until it no longer changes while the sets are being updated.
+     */
+    public void updateWorkSets(FederatedNetworkOrder order) {
+        VersionedOrderState state;
+        do {
+            state = order.getVersionedState();
+            OrderWorkSet destination = getWorkSet(state.getState());
+            for (OrderWorkSet workSet : getWorkSets()) {
+                if (workSet != destination) {
+                    workSet.remove(order);
+                }
+            }
+            if (destination != null) {
+                destination.add(order);
+            }
+        } while (order.getVersionedState() != state);
+    }
+
+    public OrderWorkSet getWorkSet(OrderState orderState) {
         switch (orderState) {
             case OPEN:
                 return this.openOrders;
@@ -99,15 +255,82 @@ public class FederatedNetworkOrdersHolder {
         }
     }
 
-    private HashMap<String, FederatedNetworkOrder> initializeActiveOrders(SynchronizedDoublyLinkedList<FederatedNetworkOrder>... listsToBeAdded) {
-        HashMap<String, FederatedNetworkOrder> allOrders = new HashMap();
-        FederatedNetworkOrder order;
+    private OrderWorkSet[] getWorkSets() {
+        return new OrderWorkSet[] {this.openOrders, this.fulfilledOrders, this.failedOrders, this.closedOrders};
+    }
+
+    // Reservations are not persisted, so every reservation has been created since startup
+    private void registerIpReservationsGauge() {
+        MetricsHolder metrics = MetricsHolder.getInstance();
+        metrics.registerGauge(MetricNames.IP_RESERVATIONS_ACTIVE, () ->
+                metrics.getCounter(MetricNames.IP_RESERVATIONS_CREATED)
+                        - metrics.getCounter(MetricNames.IP_RESERVATIONS_COMMITTED)
+                        - metrics.getCounter(MetricNames.IP_RESERVATIONS_RELEASED)
+                        - metrics.getCounter(MetricNames.IP_RESERVATIONS_EXPIRED));
+    }
+
+    // The CIDRs of the orders recovered from the database are reserved again, so they are not handed out to new orders
+    private CidrAllocator createAddressPool(Collection<FederatedNetworkOrder> orders) {
+        String supernet = PropertiesHolder.getInstance().getProperty(ConfigurationPropertyKeys.ADDRESS_POOL_KEY,
+                ConfigurationPropertyDefaults.ADDRESS_POOL);
+        if (supernet == null || supernet.isEmpty()) {
+            return null;
+        }
+        CidrAllocator addressPool;
+        try {
+            addressPool = new CidrAllocator(supernet);
+        } catch (InvalidCidrException e) {
+            throw new IllegalStateException(e);
+        }
+        // Closed orders reserve their blocks last, as those handed over to other orders belong to the latter now
+        List<FederatedNetworkOrder> sortedOrders = new ArrayList<>(orders);
+        sortedOrders.sort(Comparator.comparing(order -> order.getOrderState() == OrderState.CLOSED));
+        for (FederatedNetworkOrder order : sortedOrders) {
+            try {
+                if (addressPool.contains(order.getCidr()) && !addressPool.reserve(order.getCidr(), order.getId())
+                        && order.getOrderState() != OrderState.CLOSED) {
+                    LOGGER.warn(String.format(Messages.Warn.CIDR_NOT_RESERVED_IN_ADDRESS_POOL, order.getCidr(),
+                            order.getId()));
+                }
+            } catch (InvalidCidrException e) {
+                // Not within the pool
+            }
+        }
+        MetricsHolder metrics = MetricsHolder.getInstance();
+        metrics.registerGauge(MetricNames.ADDRESS_POOL_ALLOCATED_ADDRESSES, addressPool::getAllocatedAddresses);
+        metrics.registerGauge(MetricNames.ADDRESS_POOL_TOTAL_ADDRESSES, addressPool::getTotalAddresses);
+        return addressPool;
+    }
+
+    private CidrIndex createCidrIndex(Collection<FederatedNetworkOrder> orders) {
+        CidrIndex cidrIndex = new CidrIndex();
+        // Closed orders are indexed first, so that they hand their CIDR over to the orders that took it, as they did
+        // before the restart
+        List<FederatedNetworkOrder> sortedOrders = new ArrayList<>(orders);
+        sortedOrders.sort(Comparator.comparing(order -> order.getOrderState() != OrderState.CLOSED));
+        for (FederatedNetworkOrder order : sortedOrders) {
+            try {
+                FederatedNetworkOrder overlappingOrder = cidrIndex.add(order);
+                if (overlappingOrder != null) {
+                    LOGGER.warn(String.format(Messages.Warn.CIDR_OVERLAPS_FEDERATED_NETWORK, order.getCidr(),
+                            order.getId(), overlappingOrder.getId()));
+                }
+            } catch (InvalidCidrException e) {
+                LOGGER.warn(String.format(Messages.Exception.INVALID_CIDR, order.getCidr()), e);
+            }
+        }
+        MetricsHolder.getInstance().registerGauge(MetricNames.CIDR_INDEX_NETWORKS, cidrIndex::size);
+        return cidrIndex;
+    }
+
+    // The active orders are read by the processors while being modified by request threads, hence the concurrent map
+    private Map<String, FederatedNetworkOrder> initializeActiveOrders(OrderWorkSet... workSetsToBeAdded) {
+        Map<String, FederatedNetworkOrder> allOrders = new ConcurrentHashMap<>();
 
-        for (SynchronizedDoublyLinkedList<FederatedNetworkOrder> listToBeAdded : listsToBeAdded) {
-            while ((order = listToBeAdded.getNext()) != null) {
+        for (OrderWorkSet workSetToBeAdded : workSetsToBeAdded) {
+            for (FederatedNetworkOrder order : workSetToBeAdded.getOrders()) {
                 allOrders.put(order.getId(), order);
             }
-            listToBeAdded.resetPointer();
         }
         return allOrders;
     }
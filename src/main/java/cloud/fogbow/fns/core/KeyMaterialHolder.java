@@ -0,0 +1,244 @@
+package cloud.fogbow.fns.core;
+
+import cloud.fogbow.common.constants.FogbowConstants;
+import cloud.fogbow.common.exceptions.FatalErrorException;
+import cloud.fogbow.common.exceptions.FogbowException;
+import cloud.fogbow.common.exceptions.UnavailableProviderException;
+import cloud.fogbow.common.util.CryptoUtil;
+import cloud.fogbow.fns.constants.ConfigurationPropertyKeys;
+import cloud.fogbow.fns.constants.Messages;
+import cloud.fogbow.fns.utils.RasTokenCache;
+import cloud.fogbow.ras.api.http.request.PublicKey;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Objects;
+
+import static cloud.fogbow.common.util.PublicKeysHolder.getPublicKey;
+
+/**
+ * Holds all the key material used by the FNS: its own key pair, read from disk, and the public keys of the AS and
+ * the RAS, fetched from those services. The keys are kept in an immutable snapshot that is replaced as a whole by
+ * refresh(), so readers never block and never see keys from different loads mixed together. Each key is loaded on its
+ * own: a key that cannot be loaded does not prevent the others from being used, and the last good value of each key
+ * is kept until a new one is loaded.
+ */
+public class KeyMaterialHolder {
+    private static final Logger LOGGER = Logger.getLogger(KeyMaterialHolder.class);
+
+    private static final String AS_PUBLIC_KEY = "AS public key";
+    private static final String RAS_PUBLIC_KEY = "RAS public key";
+    private static final String FNS_KEYS = "FNS key pair";
+    // Bounds of the delay between loads of the keys that could not be loaded yet
+    private static final long MIN_RETRY_DELAY = 1000; // 1 second
+    private static final long MAX_RETRY_DELAY = 60000; // 1 minute
+
+    private static KeyMaterialHolder instance;
+
+    private volatile KeyMaterial keyMaterial;
+    // Incremented every time a load is attempted, successfully or not; used to collapse concurrent refreshes into a
+    // single one
+    private volatile long generation;
+    private final Object refreshLock;
+    // While some key is missing, the time before which no request triggers another load, and the delay to be waited
+    // after the next failed load; both are guarded by refreshLock
+    private volatile long nextRetryTime;
+    private long retryDelay;
+
+    KeyMaterialHolder() {
+        this.keyMaterial = new KeyMaterial(null, null, null, null);
+        this.generation = 0;
+        this.refreshLock = new Object();
+        this.nextRetryTime = 0;
+        this.retryDelay = MIN_RETRY_DELAY;
+    }
+
+    public static synchronized KeyMaterialHolder getInstance() {
+        if (instance == null) {
+            instance = new KeyMaterialHolder();
+        }
+        return instance;
+    }
+
+    public RSAPublicKey getAsPublicKey() throws FogbowException {
+        return getKeyMaterial().getAsPublicKey();
+    }
+
+    public RSAPublicKey getRasPublicKey() throws FogbowException {
+        return getKeyMaterial().getRasPublicKey();
+    }
+
+    public RSAPublicKey getFnsPublicKey() throws FogbowException {
+        return getKeyMaterial().getFnsPublicKey();
+    }
+
+    public RSAPrivateKey getFnsPrivateKey() throws FogbowException {
+        return getKeyMaterial().getFnsPrivateKey();
+    }
+
+    /**
+     * Returns the current snapshot of the keys. Callers that use several keys together must take all of them from
+     * the same snapshot. If some key is missing, it is loaded first, unless a load has failed recently: such loads
+     * are spaced by an exponential backoff, so that an unreachable service is not called by every request.
+     */
+    public KeyMaterial getKeyMaterial() {
+        KeyMaterial currentKeyMaterial = this.keyMaterial;
+        if (!currentKeyMaterial.isComplete() && System.currentTimeMillis() >= this.nextRetryTime) {
+            try {
+                refresh();
+            } catch (FogbowException e) {
+                LOGGER.warn(String.format(Messages.Warn.UNABLE_TO_REFRESH_KEY_MATERIAL, e.getMessage()), e);
+            }
+            currentKeyMaterial = this.keyMaterial;
+        }
+        return currentKeyMaterial;
+    }
+
+    /**
+     * Returns true if the given snapshot is still the one held, i.e. no refresh has replaced it since it was taken.
+     */
+    public boolean isCurrent(KeyMaterial keyMaterial) {
+        return this.keyMaterial == keyMaterial;
+    }
+
+    /**
+     * Returns how long to wait before loading the missing keys again, or 0 if no key is missing.
+     */
+    public long getRetryDelay() {
+        synchronized (this.refreshLock) {
+            return this.keyMaterial.isComplete() ? 0 : this.retryDelay;
+        }
+    }
+
+    /**
+     * Loads all the keys again and installs them at once. If another thread is already refreshing the keys, the
+     * caller waits for that refresh and uses its result instead of loading the keys once more. A key that cannot be
+     * loaded keeps its current value, and the exception of the failed load is thrown once the others are installed.
+     */
+    public void refresh() throws FogbowException {
+        long observedGeneration = this.generation;
+        synchronized (this.refreshLock) {
+            if (this.generation != observedGeneration) {
+                return;
+            }
+            KeyMaterial oldKeyMaterial = this.keyMaterial;
+            FogbowException failure = null;
+
+            RSAPublicKey fnsPublicKey = oldKeyMaterial.fnsPublicKey;
+            RSAPrivateKey fnsPrivateKey = oldKeyMaterial.fnsPrivateKey;
+            try {
+                RSAPublicKey newFnsPublicKey = readFnsPublicKey();
+                fnsPrivateKey = readFnsPrivateKey();
+                fnsPublicKey = newFnsPublicKey;
+            } catch (IOException | GeneralSecurityException e) {
+                failure = new FatalErrorException(Messages.Exception.UNABLE_TO_LOAD_PUBLIC_KEY);
+            }
+            RSAPublicKey asPublicKey = oldKeyMaterial.asPublicKey;
+            try {
+                asPublicKey = fetchPublicKey(ConfigurationPropertyKeys.AS_URL_KEY, ConfigurationPropertyKeys.AS_PORT_KEY,
+                        cloud.fogbow.as.api.http.request.PublicKey.PUBLIC_KEY_ENDPOINT);
+            } catch (FogbowException e) {
+                failure = failure == null ? e : failure;
+            }
+            RSAPublicKey rasPublicKey = oldKeyMaterial.rasPublicKey;
+            try {
+                rasPublicKey = fetchPublicKey(ConfigurationPropertyKeys.RAS_URL_KEY,
+                        ConfigurationPropertyKeys.RAS_PORT_KEY, PublicKey.PUBLIC_KEY_ENDPOINT);
+            } catch (FogbowException e) {
+                failure = failure == null ? e : failure;
+            }
+
+            KeyMaterial newKeyMaterial = new KeyMaterial(asPublicKey, rasPublicKey, fnsPublicKey, fnsPrivateKey);
+            this.keyMaterial = newKeyMaterial;
+            this.generation++;
+            if (newKeyMaterial.isComplete()) {
+                this.nextRetryTime = 0;
+                this.retryDelay = MIN_RETRY_DELAY;
+            } else {
+                this.nextRetryTime = System.currentTimeMillis() + this.retryDelay;
+                this.retryDelay = Math.min(2 * this.retryDelay, MAX_RETRY_DELAY);
+            }
+            if (oldKeyMaterial.canRewrapTokens() && !oldKeyMaterial.rewrapsTokensAs(newKeyMaterial)) {
+                // Tokens rewrapped with the old keys would no longer be accepted by the RAS
+                LOGGER.info(Messages.Info.KEY_MATERIAL_ROTATED);
+                RasTokenCache.getInstance().clear();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    protected RSAPublicKey readFnsPublicKey() throws IOException, GeneralSecurityException {
+        return CryptoUtil.getPublicKey(PropertiesHolder.getInstance().getProperty(FogbowConstants.PUBLIC_KEY_FILE_PATH));
+    }
+
+    protected RSAPrivateKey readFnsPrivateKey() throws IOException, GeneralSecurityException {
+        return CryptoUtil.getPrivateKey(PropertiesHolder.getInstance().getProperty(FogbowConstants.PRIVATE_KEY_FILE_PATH));
+    }
+
+    protected RSAPublicKey fetchPublicKey(String addressKey, String portKey, String endpoint) throws FogbowException {
+        PropertiesHolder properties = PropertiesHolder.getInstance();
+        return getPublicKey(properties.getProperty(addressKey), properties.getProperty(portKey), endpoint);
+    }
+
+    /**
+     * An immutable set of keys, all of them loaded by the same refresh. A key that has never been loaded is missing,
+     * and asking for it fails.
+     */
+    public static class KeyMaterial {
+        private final RSAPublicKey asPublicKey;
+        private final RSAPublicKey rasPublicKey;
+        private final RSAPublicKey fnsPublicKey;
+        private final RSAPrivateKey fnsPrivateKey;
+
+        KeyMaterial(RSAPublicKey asPublicKey, RSAPublicKey rasPublicKey, RSAPublicKey fnsPublicKey,
+                    RSAPrivateKey fnsPrivateKey) {
+            this.asPublicKey = asPublicKey;
+            this.rasPublicKey = rasPublicKey;
+            this.fnsPublicKey = fnsPublicKey;
+            this.fnsPrivateKey = fnsPrivateKey;
+        }
+
+        public RSAPublicKey getAsPublicKey() throws UnavailableProviderException {
+            return requireKey(this.asPublicKey, AS_PUBLIC_KEY);
+        }
+
+        public RSAPublicKey getRasPublicKey() throws UnavailableProviderException {
+            return requireKey(this.rasPublicKey, RAS_PUBLIC_KEY);
+        }
+
+        public RSAPublicKey getFnsPublicKey() throws UnavailableProviderException {
+            return requireKey(this.fnsPublicKey, FNS_KEYS);
+        }
+
+        public RSAPrivateKey getFnsPrivateKey() throws UnavailableProviderException {
+            return requireKey(this.fnsPrivateKey, FNS_KEYS);
+        }
+
+        boolean isComplete() {
+            return this.asPublicKey != null && this.rasPublicKey != null && this.fnsPublicKey != null
+                    && this.fnsPrivateKey != null;
+        }
+
+        boolean canRewrapTokens() {
+            return this.rasPublicKey != null && this.fnsPrivateKey != null;
+        }
+
+        // A token rewrapped for the RAS depends on both the FNS private key and the RAS public key
+        boolean rewrapsTokensAs(KeyMaterial other) {
+            return Objects.equals(this.rasPublicKey, other.rasPublicKey)
+                    && Objects.equals(this.fnsPrivateKey, other.fnsPrivateKey);
+        }
+
+        private static <K> K requireKey(K key, String keyName) throws UnavailableProviderException {
+            if (key == null) {
+                throw new UnavailableProviderException(String.format(Messages.Exception.KEY_NOT_LOADED, keyName));
+            }
+            return key;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package cloud.fogbow.fns.core;
+
+import cloud.fogbow.fns.core.model.FederatedNetworkOrder;
+
+/**
+ * Decides the order in which the orders of a tenant are handed out by an OrderWorkSet. Without a policy, orders are
+ * handed out in the order they were added.
+ */
+public interface OrderSchedulingPolicy {
+    /**
+     * Orders with an earlier due time are handed out first; orders with the same due time in the order they were
+     * added. Computed once, when the order is added to the work set.
+     * @param addedAt the time (in milliseconds) the order was added to the work set
+     */
+    long getDueTime(FederatedNetworkOrder order, long addedAt);
+
+    /**
+     * Called the first time the order is handed out after being added to the work set.
+     * @param waitTime the time (in milliseconds) the order waited since it was added
+     */
+    void onFirstDispatch(FederatedNetworkOrder order, long waitTime);
+}
@@ -1,45 +1,82 @@
 package cloud.fogbow.fns.core;
 
 import cloud.fogbow.common.exceptions.UnexpectedException;
-import cloud.fogbow.common.models.linkedlists.SynchronizedDoublyLinkedList;
 import cloud.fogbow.fns.constants.Messages;
 import cloud.fogbow.fns.core.model.FederatedNetworkOrder;
 import cloud.fogbow.fns.core.model.OrderState;
+import cloud.fogbow.fns.core.model.VersionedOrderState;
 
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Moves orders between states. A transition is a compare-and-set on the versioned state of the order, validated
+ * against the table below, so it never locks the order nor any work set; the order is persisted once the transition
+ * has been made, from a copy taken under its monitor (see FederatedNetworkOrder.persist()). Callers should not hold
+ * the monitor of the order while making a transition, so that the database is never written while holding it. A new
+ * order, which has no state yet, can only be moved to OPEN.
+ */
 public class OrderStateTransitioner {
-    public static void transition(FederatedNetworkOrder order, OrderState newState) throws UnexpectedException {
-        synchronized (order) {
-            doTransition(order, newState);
-        }
-    }
+    private static final Map<OrderState, Set<OrderState>> ALLOWED_TRANSITIONS = new EnumMap<>(OrderState.class);
 
-    private static void doTransition(FederatedNetworkOrder order, OrderState newState) throws UnexpectedException {
-        OrderState currentState = order.getOrderState();
+    static {
+        ALLOWED_TRANSITIONS.put(OrderState.OPEN, EnumSet.of(OrderState.FULFILLED, OrderState.FAILED, OrderState.CLOSED));
+        ALLOWED_TRANSITIONS.put(OrderState.FULFILLED, EnumSet.of(OrderState.CLOSED));
+        ALLOWED_TRANSITIONS.put(OrderState.FAILED, EnumSet.of(OrderState.FULFILLED, OrderState.CLOSED));
+        ALLOWED_TRANSITIONS.put(OrderState.CLOSED, EnumSet.of(OrderState.DEACTIVATED));
+        ALLOWED_TRANSITIONS.put(OrderState.DEACTIVATED, EnumSet.noneOf(OrderState.class));
+    }
 
-        if (currentState == newState) {
-            // The order may have already been moved to the new state by another thread
-            // In this case, there is nothing else to be done
-            return;
+    public static boolean isAllowed(OrderState currentState, OrderState newState) {
+        if (currentState == null) {
+            return newState == OrderState.OPEN;
         }
+        Set<OrderState> allowed = ALLOWED_TRANSITIONS.get(currentState);
+        return allowed != null && allowed.contains(newState);
+    }
 
-        SynchronizedDoublyLinkedList<FederatedNetworkOrder> origin = FederatedNetworkOrdersHolder.getInstance()
-                .getOrdersList(currentState);
-        SynchronizedDoublyLinkedList<FederatedNetworkOrder> destination = FederatedNetworkOrdersHolder.getInstance()
-                .getOrdersList(newState);
-
-        if (origin == null) {
-            String message = String.format(Messages.Exception.UNABLE_TO_FIND_LIST_FOR_REQUESTS, currentState);
-            throw new UnexpectedException(message);
-        } else if (destination == null) {
-            String message = String.format(Messages.Exception.UNABLE_TO_FIND_LIST_FOR_REQUESTS, newState);
-            throw new UnexpectedException(message);
-        } else {
-            // The order may have already been removed from the origin list by another thread
-            // In this case, there is nothing else to be done
-            if (origin.removeItem(order)) {
-                order.setOrderState(newState);
-                destination.addItem(order);
+    public static void transition(FederatedNetworkOrder order, OrderState newState) throws UnexpectedException {
+        transition(order, null, newState);
+    }
+
+    /**
+     * Moves the order to newState, as transition(order, newState) does, but only if it is still in expectedState.
+     * @return false if the order had left expectedState, or was already in newState, so nothing was done
+     */
+    public static boolean transition(FederatedNetworkOrder order, OrderState expectedState, OrderState newState)
+            throws UnexpectedException {
+        FederatedNetworkOrdersHolder ordersHolder = FederatedNetworkOrdersHolder.getInstance();
+        VersionedOrderState current;
+        do {
+            current = order.getVersionedState();
+            if (current.getState() == newState) {
+                // The order may have already been moved to the new state by another thread
+                // In this case, there is nothing else to be done
+                return false;
+            }
+            if (expectedState != null && current.getState() != expectedState) {
+                return false;
             }
+            if (!isAllowed(current.getState(), newState)) {
+                String message = String.format(Messages.Exception.INVALID_ORDER_STATE_TRANSITION, order.getId(),
+                        current.getState(), newState);
+                throw new UnexpectedException(message);
+            }
+            if (current.getState() != null && ordersHolder.getWorkSet(current.getState()) == null) {
+                String message = String.format(Messages.Exception.UNABLE_TO_FIND_LIST_FOR_REQUESTS, current.getState());
+                throw new UnexpectedException(message);
+            }
+            // If another thread changed the state meanwhile, the transition is validated again against the new state
+        } while (!order.compareAndSetOrderState(current, newState));
+
+        ordersHolder.updateWorkSets(order);
+        if (!QuotaController.holdsQuota(newState)) {
+            QuotaController.getInstance().releaseNetwork(order);
         }
+        // Should the order change state again meanwhile, the copy written last is the one with the newer state
+        order.persist();
+        return true;
     }
 }
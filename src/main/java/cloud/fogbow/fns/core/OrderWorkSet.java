@@ -0,0 +1,259 @@
+package cloud.fogbow.fns.core;
+
+import cloud.fogbow.common.models.SystemUser;
+import cloud.fogbow.fns.core.model.FederatedNetworkOrder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The orders that are in a given state, waiting to be processed. Any number of consumers may take orders from the set
+ * at the same time: each call to poll() hands an order to a single consumer, which gives it back with requeue() once
+ * it is done with it, so the order is visited again if it is still in this state by then.
+ *
+ * Orders are handed out round-robin across tenants (the users owning the orders): each tenant has its own queue, and
+ * poll() takes one order from each tenant with pending orders in turn, so a user with many orders cannot delay the
+ * orders of the other users. Within a tenant, orders are handed out in the order set by the scheduling policy of the
+ * set, if any, or else in the order they were queued.
+ *
+ * None of the operations blocks. Removing an order only drops it from the membership map, in constant time; the
+ * entry it left in its queue is recognized as stale and skipped by poll(). The number of orders of each tenant, and of
+ * tenants with orders, are kept up to date by add() and remove(), so they are also read in constant time.
+ */
+public class OrderWorkSet {
+    // The entry currently representing each order in the set, by order id
+    private final Map<String, Entry> members;
+    // Tenant queues are kept once created, so there is at most one per user that ever had an order in this state
+    private final Map<String, TenantQueue> tenantQueues;
+    // The tenants with pending orders, in the order they will be served
+    private final Queue<TenantQueue> tenantRotation;
+    // The number of tenants with at least one order in the set
+    private final AtomicInteger activeTenants;
+    // Breaks ties between entries with the same due time, in favour of the one queued first
+    private final AtomicLong queueSequence;
+    private final OrderSchedulingPolicy schedulingPolicy;
+    private volatile Runnable orderAddedListener;
+
+    public OrderWorkSet() {
+        this(null);
+    }
+
+    public OrderWorkSet(OrderSchedulingPolicy schedulingPolicy) {
+        this.schedulingPolicy = schedulingPolicy;
+        this.queueSequence = new AtomicLong();
+        this.members = new ConcurrentHashMap<>();
+        this.tenantQueues = new ConcurrentHashMap<>();
+        this.tenantRotation = new ConcurrentLinkedQueue<>();
+        this.activeTenants = new AtomicInteger();
+        this.orderAddedListener = null;
+    }
+
+    /**
+     * Registers a callback run every time an order is added to the set, e.g. to wake up the consumers. The callback
+     * runs in the thread adding the order, so it must not block.
+     */
+    public void setOrderAddedListener(Runnable orderAddedListener) {
+        this.orderAddedListener = orderAddedListener;
+    }
+
+    /**
+     * Returns false if the order was already in the set.
+     */
+    public boolean add(FederatedNetworkOrder order) {
+        long now = System.currentTimeMillis();
+        long dueTime = this.schedulingPolicy == null ? 0 : this.schedulingPolicy.getDueTime(order, now);
+        Entry entry = new Entry(order, now, dueTime);
+        if (this.members.putIfAbsent(order.getId(), entry) != null) {
+            return false;
+        }
+        if (getTenantQueue(entry.tenant).members.incrementAndGet() == 1) {
+            this.activeTenants.incrementAndGet();
+        }
+        enqueue(entry);
+        Runnable listener = this.orderAddedListener;
+        if (listener != null) {
+            listener.run();
+        }
+        return true;
+    }
+
+    /**
+     * Returns false if the order was not in the set, for instance because another thread has already removed it.
+     */
+    public boolean remove(FederatedNetworkOrder order) {
+        Entry entry = this.members.get(order.getId());
+        if (entry == null || entry.order != order || !this.members.remove(order.getId(), entry)) {
+            return false;
+        }
+        if (getTenantQueue(entry.tenant).members.decrementAndGet() == 0) {
+            this.activeTenants.decrementAndGet();
+        }
+        return true;
+    }
+
+    public boolean contains(FederatedNetworkOrder order) {
+        Entry entry = this.members.get(order.getId());
+        return entry != null && entry.order == order;
+    }
+
+    /**
+     * Takes the next order to be processed, or returns null if every order in the set has been taken by a consumer.
+     */
+    public FederatedNetworkOrder poll() {
+        TenantQueue tenantQueue;
+        while ((tenantQueue = this.tenantRotation.poll()) != null) {
+            Entry entry = tenantQueue.entries.pollFirst();
+            // The tenant goes back to the end of the rotation if it still has pending orders
+            if (!tenantQueue.entries.isEmpty()) {
+                this.tenantRotation.offer(tenantQueue);
+            } else {
+                tenantQueue.scheduled.set(false);
+                // An order may have been queued after the check above, while the tenant was still marked as scheduled
+                if (!tenantQueue.entries.isEmpty() && tenantQueue.scheduled.compareAndSet(false, true)) {
+                    this.tenantRotation.offer(tenantQueue);
+                }
+            }
+            if (entry == null) {
+                continue;
+            }
+            entry.queued.set(false);
+            // An entry is stale if its order has been removed from the set, or removed and added again since then
+            if (this.members.get(entry.order.getId()) == entry) {
+                if (!entry.dispatched) {
+                    entry.dispatched = true;
+                    if (this.schedulingPolicy != null) {
+                        this.schedulingPolicy.onFirstDispatch(entry.order, System.currentTimeMillis() - entry.addedAt);
+                    }
+                }
+                return entry.order;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gives back an order taken by poll(). The order is queued again only if it is still in the set.
+     * @return false if the order has left the set
+     */
+    public boolean requeue(FederatedNetworkOrder order) {
+        Entry entry = this.members.get(order.getId());
+        if (entry == null || entry.order != order) {
+            return false;
+        }
+        enqueue(entry);
+        return true;
+    }
+
+    public int size() {
+        return this.members.size();
+    }
+
+    /**
+     * Returns the number of orders of the given user in the set.
+     */
+    public int size(SystemUser systemUser) {
+        TenantQueue tenantQueue = this.tenantQueues.get(getTenant(systemUser));
+        return tenantQueue == null ? 0 : tenantQueue.members.get();
+    }
+
+    /**
+     * Returns the number of users with orders in the set, i.e. the number of orders handed out in each round.
+     */
+    public int getTenantCount() {
+        return this.activeTenants.get();
+    }
+
+    /**
+     * Returns a copy of the orders currently in the set, regardless of whether they have been taken by a consumer.
+     */
+    public List<FederatedNetworkOrder> getOrders() {
+        List<FederatedNetworkOrder> orders = new ArrayList<>(this.members.size());
+        for (Entry entry : this.members.values()) {
+            orders.add(entry.order);
+        }
+        return orders;
+    }
+
+    public void addAll(Collection<FederatedNetworkOrder> orders) {
+        for (FederatedNetworkOrder order : orders) {
+            add(order);
+        }
+    }
+
+    // An entry is never in a queue more than once, and a tenant is never in the rotation more than once
+    private void enqueue(Entry entry) {
+        if (!entry.queued.compareAndSet(false, true)) {
+            return;
+        }
+        TenantQueue tenantQueue = getTenantQueue(entry.tenant);
+        // The sequence is only changed while the entry is out of its queue, as it is part of its ordering
+        entry.sequence = this.queueSequence.incrementAndGet();
+        tenantQueue.entries.add(entry);
+        if (tenantQueue.scheduled.compareAndSet(false, true)) {
+            this.tenantRotation.offer(tenantQueue);
+        }
+    }
+
+    private TenantQueue getTenantQueue(String tenant) {
+        return this.tenantQueues.computeIfAbsent(tenant, key -> new TenantQueue());
+    }
+
+    private static String getTenant(SystemUser systemUser) {
+        if (systemUser == null) {
+            return "";
+        }
+        return systemUser.getIdentityProviderId() + "/" + systemUser.getId();
+    }
+
+    // A new entry is created every time an order is added, so that entries left in the queue by a previous membership
+    // can be told apart from the current one
+    private static class Entry implements Comparable<Entry> {
+        private final FederatedNetworkOrder order;
+        private final String tenant;
+        private final long addedAt;
+        private final long dueTime;
+        private final AtomicBoolean queued;
+        private volatile long sequence;
+        // Only changed by the consumer the entry has been handed to
+        private volatile boolean dispatched;
+
+        Entry(FederatedNetworkOrder order, long addedAt, long dueTime) {
+            this.order = order;
+            this.tenant = getTenant(order.getSystemUser());
+            this.addedAt = addedAt;
+            this.dueTime = dueTime;
+            this.queued = new AtomicBoolean(false);
+            this.dispatched = false;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int comparison = Long.compare(this.dueTime, other.dueTime);
+            return comparison != 0 ? comparison : Long.compare(this.sequence, other.sequence);
+        }
+    }
+
+    // Scheduled while it is in the rotation, or while a consumer that took it from the rotation has not decided yet
+    // whether to put it back
+    private static class TenantQueue {
+        private final ConcurrentSkipListSet<Entry> entries;
+        private final AtomicBoolean scheduled;
+        // The number of orders of the tenant in the set, whether queued or taken by a consumer
+        private final AtomicInteger members;
+
+        TenantQueue() {
+            this.entries = new ConcurrentSkipListSet<>();
+            this.scheduled = new AtomicBoolean(false);
+            this.members = new AtomicInteger();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package cloud.fogbow.fns.core;
+
+import cloud.fogbow.fns.constants.ConfigurationPropertyDefaults;
+import cloud.fogbow.fns.constants.ConfigurationPropertyKeys;
+import cloud.fogbow.fns.constants.MetricNames;
+import cloud.fogbow.fns.core.metrics.MetricsHolder;
+import cloud.fogbow.fns.core.model.FederatedNetworkOrder;
+import cloud.fogbow.fns.core.model.OrderPriority;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Schedules open orders by the time they are due: the time they were added plus the target wait of their priority,
+ * or their deadline, if earlier. Since the due time of an order is fixed when it is added, an order of low priority
+ * ages: once it has waited for its target wait, it is handed out before any order that becomes due later, whatever
+ * its priority.
+ */
+public class PrioritySchedulingPolicy implements OrderSchedulingPolicy {
+    private final Map<OrderPriority, Long> targetWaits;
+
+    PrioritySchedulingPolicy(Map<OrderPriority, Long> targetWaits) {
+        this.targetWaits = new EnumMap<>(targetWaits);
+    }
+
+    public static PrioritySchedulingPolicy fromConfiguration() {
+        PropertiesHolder properties = PropertiesHolder.getInstance();
+        Map<OrderPriority, Long> targetWaits = new EnumMap<>(OrderPriority.class);
+        targetWaits.put(OrderPriority.HIGH, Long.parseLong(properties.getProperty(
+                String.format(ConfigurationPropertyKeys.OPEN_ORDERS_TARGET_WAIT_KEY_FORMAT, "high"),
+                ConfigurationPropertyDefaults.OPEN_ORDERS_HIGH_PRIORITY_TARGET_WAIT)));
+        targetWaits.put(OrderPriority.NORMAL, Long.parseLong(properties.getProperty(
+                String.format(ConfigurationPropertyKeys.OPEN_ORDERS_TARGET_WAIT_KEY_FORMAT, "normal"),
+                ConfigurationPropertyDefaults.OPEN_ORDERS_NORMAL_PRIORITY_TARGET_WAIT)));
+        targetWaits.put(OrderPriority.LOW, Long.parseLong(properties.getProperty(
+                String.format(ConfigurationPropertyKeys.OPEN_ORDERS_TARGET_WAIT_KEY_FORMAT, "low"),
+                ConfigurationPropertyDefaults.OPEN_ORDERS_LOW_PRIORITY_TARGET_WAIT)));
+        return new PrioritySchedulingPolicy(targetWaits);
+    }
+
+    @Override
+    public long getDueTime(FederatedNetworkOrder order, long addedAt) {
+        long dueTime = addedAt + this.targetWaits.get(order.getPriority());
+        Long deadline = order.getDeadline();
+        if (deadline != null && deadline < dueTime) {
+            dueTime = deadline;
+        }
+        return dueTime;
+    }
+
+    @Override
+    public void onFirstDispatch(FederatedNetworkOrder order, long waitTime) {
+        MetricsHolder metrics = MetricsHolder.getInstance();
+        String priority = order.getPriority().name().toLowerCase();
+        metrics.recordValue(String.format(MetricNames.OPEN_ORDERS_QUEUE_WAIT_FORMAT, priority), waitTime);
+        Long deadline = order.getDeadline();
+        if (deadline != null && System.currentTimeMillis() > deadline) {
+            metrics.incrementCounter(MetricNames.OPEN_ORDERS_DEADLINES_MISSED);
+        }
+    }
+}
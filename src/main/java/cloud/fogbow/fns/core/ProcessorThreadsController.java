@@ -1,27 +1,56 @@
 package cloud.fogbow.fns.core;
 
+import cloud.fogbow.fns.constants.ConfigurationPropertyDefaults;
+import cloud.fogbow.fns.constants.ConfigurationPropertyKeys;
 import cloud.fogbow.fns.constants.Messages;
+import cloud.fogbow.fns.core.model.OrderState;
 import cloud.fogbow.fns.core.processors.ClosedProcessor;
+import cloud.fogbow.fns.core.processors.FailedProcessor;
+import cloud.fogbow.fns.core.processors.IpReservationSweeper;
+import cloud.fogbow.fns.core.processors.KeyMaterialRefresher;
 import cloud.fogbow.fns.core.processors.OpenProcessor;
+import cloud.fogbow.fns.core.processors.OrderProcessor;
+import cloud.fogbow.fns.core.processors.StateProcessorPool;
 import org.apache.log4j.Logger;
 
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
 public class ProcessorThreadsController {
     private static final Logger LOGGER = Logger.getLogger(ProcessorThreadsController.class);
 
-    private static final Long DEFAULT_SLEEP_TIME = 1000L;
-
-    private final static String OPEN_PROCESSOR_THREAD_NAME = "fns-open-proc";
-    private final static String CLOSED_PROCESSOR_THREAD_NAME = "fns-closed-proc";
+    private final static String IP_RESERVATION_SWEEPER_THREAD_NAME = "fns-ip-reservation-sweeper";
+    private final static String KEY_MATERIAL_REFRESHER_THREAD_NAME = "fns-key-material-refresher";
 
-    private final Thread openProcessorThread;
-    private final Thread closedProcessorThread;
+    private final List<StateProcessorPool> processorPools;
+    private final Thread ipReservationSweeperThread;
+    private final Thread keyMaterialRefresherThread;
 
     public ProcessorThreadsController(FederatedNetworkOrderController orderController) {
-        OpenProcessor openProcessor = new OpenProcessor(DEFAULT_SLEEP_TIME);
-        ClosedProcessor closedProcessor = new ClosedProcessor(orderController, DEFAULT_SLEEP_TIME);
+        // The orders of each state listed here are processed by a pool of threads of their own
+        Map<OrderState, OrderProcessor> processors = new EnumMap<>(OrderState.class);
+        processors.put(OrderState.OPEN, new OpenProcessor());
+        processors.put(OrderState.FAILED, new FailedProcessor());
+        processors.put(OrderState.CLOSED, new ClosedProcessor(orderController));
+
+        this.processorPools = new ArrayList<>();
+        for (Map.Entry<OrderState, OrderProcessor> processor : processors.entrySet()) {
+            this.processorPools.add(createProcessorPool(processor.getKey(), processor.getValue()));
+        }
+
+        Long sweeperSleepTime = Long.parseLong(PropertiesHolder.getInstance().getProperty(
+                ConfigurationPropertyKeys.IP_RESERVATION_SWEEPER_SLEEP_TIME_KEY,
+                ConfigurationPropertyDefaults.IP_RESERVATION_SWEEPER_SLEEP_TIME));
+        IpReservationSweeper ipReservationSweeper = new IpReservationSweeper(sweeperSleepTime);
+        this.ipReservationSweeperThread = new Thread(ipReservationSweeper, IP_RESERVATION_SWEEPER_THREAD_NAME);
 
-        this.openProcessorThread = new Thread(openProcessor, OPEN_PROCESSOR_THREAD_NAME);
-        this.closedProcessorThread = new Thread(closedProcessor, CLOSED_PROCESSOR_THREAD_NAME);
+        Long keyMaterialRefreshTime = Long.parseLong(PropertiesHolder.getInstance().getProperty(
+                ConfigurationPropertyKeys.KEY_MATERIAL_REFRESH_TIME_KEY,
+                ConfigurationPropertyDefaults.KEY_MATERIAL_REFRESH_TIME));
+        KeyMaterialRefresher keyMaterialRefresher = new KeyMaterialRefresher(keyMaterialRefreshTime);
+        this.keyMaterialRefresherThread = new Thread(keyMaterialRefresher, KEY_MATERIAL_REFRESHER_THREAD_NAME);
     }
 
     /**
@@ -30,7 +59,34 @@ public class ProcessorThreadsController {
      */
     public void startFnsThreads() {
         LOGGER.info(Messages.Info.STARTING_THREADS);
-        this.openProcessorThread.start();
-        this.closedProcessorThread.start();
+        for (StateProcessorPool processorPool : this.processorPools) {
+            processorPool.start();
+        }
+        this.ipReservationSweeperThread.start();
+        this.keyMaterialRefresherThread.start();
+    }
+
+    private StateProcessorPool createProcessorPool(OrderState state, OrderProcessor processor) {
+        PropertiesHolder properties = PropertiesHolder.getInstance();
+        String stateName = state.name().toLowerCase();
+        boolean failedState = state.equals(OrderState.FAILED);
+
+        int poolSize = Integer.parseInt(properties.getProperty(
+                String.format(ConfigurationPropertyKeys.PROCESSOR_POOL_SIZE_KEY_FORMAT, stateName),
+                ConfigurationPropertyDefaults.PROCESSOR_POOL_SIZE));
+        int batchSize = Integer.parseInt(properties.getProperty(
+                String.format(ConfigurationPropertyKeys.PROCESSOR_BATCH_SIZE_KEY_FORMAT, stateName),
+                ConfigurationPropertyDefaults.PROCESSOR_BATCH_SIZE));
+        long sleepTime = Long.parseLong(properties.getProperty(
+                String.format(ConfigurationPropertyKeys.PROCESSOR_SLEEP_TIME_KEY_FORMAT, stateName),
+                failedState ? ConfigurationPropertyDefaults.FAILED_PROCESSOR_SLEEP_TIME
+                        : ConfigurationPropertyDefaults.PROCESSOR_SLEEP_TIME));
+        String policy = properties.getProperty(
+                String.format(ConfigurationPropertyKeys.PROCESSOR_POLICY_KEY_FORMAT, stateName),
+                failedState ? ConfigurationPropertyDefaults.FAILED_PROCESSOR_POLICY
+                        : ConfigurationPropertyDefaults.PROCESSOR_POLICY);
+
+        OrderWorkSet orders = FederatedNetworkOrdersHolder.getInstance().getWorkSet(state);
+        return new StateProcessorPool(state, orders, processor, poolSize, batchSize, sleepTime, policy);
     }
 }
@@ -0,0 +1,312 @@
+package cloud.fogbow.fns.core;
+
+import cloud.fogbow.common.exceptions.QuotaExceededException;
+import cloud.fogbow.common.models.SystemUser;
+import cloud.fogbow.fns.constants.ConfigurationPropertyDefaults;
+import cloud.fogbow.fns.constants.ConfigurationPropertyKeys;
+import cloud.fogbow.fns.constants.Messages;
+import cloud.fogbow.fns.constants.MetricNames;
+import cloud.fogbow.fns.core.exceptions.InvalidCidrException;
+import cloud.fogbow.fns.core.metrics.MetricsHolder;
+import cloud.fogbow.fns.core.model.FederatedNetworkOrder;
+import cloud.fogbow.fns.core.model.OrderState;
+import cloud.fogbow.fns.utils.FederatedNetworkUtil;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Enforces the quotas of federated networks, of address space (the number of addresses in the CIDRs of the federated
+ * networks) and of federated IPs (those reserved for or assigned to computes), per user and per identity provider.
+ * The usage of each user and of each identity provider is kept in counters, so a check costs a few compare-and-set
+ * operations, however many orders there are.
+ *
+ * A federated network is charged to its owner when it is created, or when it is recovered from the database, and
+ * discharged when its order is closed. Its IPs are charged when they are reserved, and discharged when a reservation
+ * is released or expires, or when an IP is detached from its compute. What has been charged for each order is kept
+ * here as well, so an order is never discharged twice nor of more than it was charged.
+ */
+public class QuotaController {
+    private static QuotaController instance;
+
+    private final long[] userLimits;
+    private final long[] identityProviderLimits;
+    private final Map<String, Usage> userUsages;
+    private final Map<String, Usage> identityProviderUsages;
+    // What has been charged for each order that currently holds quota, by order id
+    private final Map<String, Charge> charges;
+
+    QuotaController(long networksPerUser, long addressSpacePerUser, long ipsPerUser,
+                    long networksPerIdentityProvider, long addressSpacePerIdentityProvider,
+                    long ipsPerIdentityProvider) {
+        this.userLimits = amounts(networksPerUser, addressSpacePerUser, ipsPerUser);
+        this.identityProviderLimits = amounts(networksPerIdentityProvider, addressSpacePerIdentityProvider,
+                ipsPerIdentityProvider);
+        this.userUsages = new ConcurrentHashMap<>();
+        this.identityProviderUsages = new ConcurrentHashMap<>();
+        this.charges = new ConcurrentHashMap<>();
+    }
+
+    private static QuotaController fromConfiguration() {
+        PropertiesHolder properties = PropertiesHolder.getInstance();
+        return new QuotaController(
+                Long.parseLong(properties.getProperty(ConfigurationPropertyKeys.QUOTA_NETWORKS_PER_USER_KEY,
+                        ConfigurationPropertyDefaults.QUOTA_PER_USER)),
+                Long.parseLong(properties.getProperty(ConfigurationPropertyKeys.QUOTA_ADDRESS_SPACE_PER_USER_KEY,
+                        ConfigurationPropertyDefaults.QUOTA_PER_USER)),
+                Long.parseLong(properties.getProperty(ConfigurationPropertyKeys.QUOTA_IPS_PER_USER_KEY,
+                        ConfigurationPropertyDefaults.QUOTA_PER_USER)),
+                Long.parseLong(properties.getProperty(ConfigurationPropertyKeys.QUOTA_NETWORKS_PER_IDENTITY_PROVIDER_KEY,
+                        ConfigurationPropertyDefaults.QUOTA_PER_IDENTITY_PROVIDER)),
+                Long.parseLong(properties.getProperty(
+                        ConfigurationPropertyKeys.QUOTA_ADDRESS_SPACE_PER_IDENTITY_PROVIDER_KEY,
+                        ConfigurationPropertyDefaults.QUOTA_PER_IDENTITY_PROVIDER)),
+                Long.parseLong(properties.getProperty(ConfigurationPropertyKeys.QUOTA_IPS_PER_IDENTITY_PROVIDER_KEY,
+                        ConfigurationPropertyDefaults.QUOTA_PER_IDENTITY_PROVIDER)));
+    }
+
+    public static synchronized QuotaController getInstance() {
+        if (instance == null) {
+            instance = fromConfiguration();
+        }
+        return instance;
+    }
+
+    /**
+     * Tells whether an order in the given state holds quota.
+     */
+    public static boolean holdsQuota(OrderState state) {
+        return state == OrderState.OPEN || state == OrderState.FULFILLED || state == OrderState.FAILED;
+    }
+
+    /**
+     * Charges a new federated network to its owner. Nothing is charged if any quota would be exceeded.
+     */
+    public void chargeNetwork(FederatedNetworkOrder order) throws QuotaExceededException, InvalidCidrException {
+        SystemUser systemUser = order.getSystemUser();
+        long addressSpace = getAddressSpace(order.getCidr());
+        Charge charge = new Charge(systemUser, addressSpace);
+        synchronized (charge) {
+            if (this.charges.putIfAbsent(order.getId(), charge) != null) {
+                // Already charged
+                return;
+            }
+            try {
+                charge(systemUser, amounts(1, addressSpace, 0));
+                charge.charged = true;
+            } catch (QuotaExceededException e) {
+                this.charges.remove(order.getId(), charge);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Discharges everything charged for the order, if anything.
+     */
+    public void releaseNetwork(FederatedNetworkOrder order) {
+        Charge charge = this.charges.remove(order.getId());
+        if (charge == null) {
+            return;
+        }
+        synchronized (charge) {
+            if (!charge.charged) {
+                // The charge failed, while this thread was waiting for it
+                return;
+            }
+            Usage userUsage = getUserUsage(charge.systemUser);
+            Usage identityProviderUsage = getIdentityProviderUsage(charge.systemUser);
+            for (Usage usage : new Usage[] {userUsage, identityProviderUsage}) {
+                usage.get(Resource.NETWORKS).decrementAndGet();
+                usage.get(Resource.ADDRESS_SPACE).addAndGet(-charge.addressSpace);
+                usage.get(Resource.IPS).addAndGet(-charge.ips);
+            }
+            charge.ips = 0;
+        }
+    }
+
+    /**
+     * Charges IPs about to be reserved in the federated network to its owner. Nothing is charged if the quota would be
+     * exceeded, nor if the federated network does not hold quota.
+     */
+    public void chargeIps(FederatedNetworkOrder order, int count) throws QuotaExceededException {
+        Charge charge = this.charges.get(order.getId());
+        if (charge == null) {
+            return;
+        }
+        synchronized (charge) {
+            // The network may have been discharged meanwhile
+            if (this.charges.get(order.getId()) != charge) {
+                return;
+            }
+            charge(charge.systemUser, amounts(0, 0, count));
+            charge.ips += count;
+        }
+    }
+
+    public void releaseIps(FederatedNetworkOrder order, int count) {
+        updateIps(order, -count);
+    }
+
+    /**
+     * Charges the given orders again from scratch, regardless of the quotas, e.g. the orders recovered from the
+     * database at startup.
+     */
+    public void rebuild(Collection<FederatedNetworkOrder> orders) {
+        this.charges.clear();
+        this.userUsages.clear();
+        this.identityProviderUsages.clear();
+        for (FederatedNetworkOrder order : orders) {
+            if (!holdsQuota(order.getOrderState())) {
+                continue;
+            }
+            long addressSpace;
+            try {
+                addressSpace = getAddressSpace(order.getCidr());
+            } catch (InvalidCidrException e) {
+                addressSpace = 0;
+            }
+            Charge charge = new Charge(order.getSystemUser(), addressSpace);
+            charge.ips = order.getAssignedIps().size();
+            charge.charged = true;
+            this.charges.put(order.getId(), charge);
+            for (Usage usage : new Usage[] {getUserUsage(charge.systemUser), getIdentityProviderUsage(charge.systemUser)}) {
+                usage.get(Resource.NETWORKS).incrementAndGet();
+                usage.get(Resource.ADDRESS_SPACE).addAndGet(addressSpace);
+                usage.get(Resource.IPS).addAndGet(charge.ips);
+            }
+        }
+    }
+
+    private void updateIps(FederatedNetworkOrder order, int delta) {
+        Charge charge = this.charges.get(order.getId());
+        if (charge == null) {
+            return;
+        }
+        synchronized (charge) {
+            if (this.charges.get(order.getId()) != charge) {
+                return;
+            }
+            getUserUsage(charge.systemUser).get(Resource.IPS).addAndGet(delta);
+            getIdentityProviderUsage(charge.systemUser).get(Resource.IPS).addAndGet(delta);
+            charge.ips += delta;
+        }
+    }
+
+    // Adds each amount, indexed by resource, to the usage of the user and of its identity provider, or adds nothing if
+    // any limit would be exceeded
+    private void charge(SystemUser systemUser, long[] amounts) throws QuotaExceededException {
+        Usage[] usages = {getUserUsage(systemUser), getIdentityProviderUsage(systemUser)};
+        long[][] limits = {this.userLimits, this.identityProviderLimits};
+        String[] scopes = {Messages.Exception.USER_QUOTA_SCOPE, Messages.Exception.IDENTITY_PROVIDER_QUOTA_SCOPE};
+        Resource[] resources = Resource.values();
+        for (int i = 0; i < usages.length * resources.length; i++) {
+            int scope = i / resources.length;
+            Resource resource = resources[i % resources.length];
+            if (!tryAdd(usages[scope].get(resource), amounts[resource.ordinal()], limits[scope][resource.ordinal()])) {
+                // Undoes what has already been added
+                for (int j = 0; j < i; j++) {
+                    Resource addedResource = resources[j % resources.length];
+                    usages[j / resources.length].get(addedResource).addAndGet(-amounts[addedResource.ordinal()]);
+                }
+                MetricsHolder.getInstance().incrementCounter(MetricNames.QUOTA_REJECTIONS);
+                throw new QuotaExceededException(String.format(Messages.Exception.QUOTA_EXCEEDED,
+                        resource.getDescription(), scopes[scope]));
+            }
+        }
+    }
+
+    private static long[] amounts(long networks, long addressSpace, long ips) {
+        long[] amounts = new long[Resource.values().length];
+        amounts[Resource.NETWORKS.ordinal()] = networks;
+        amounts[Resource.ADDRESS_SPACE.ordinal()] = addressSpace;
+        amounts[Resource.IPS.ordinal()] = ips;
+        return amounts;
+    }
+
+    // A limit of zero means no limit; amounts that are not positive are always added
+    private static boolean tryAdd(AtomicLong counter, long amount, long limit) {
+        long current;
+        do {
+            current = counter.get();
+            if (amount > 0 && limit > 0 && current + amount > limit) {
+                return false;
+            }
+        } while (!counter.compareAndSet(current, current + amount));
+        return true;
+    }
+
+    private static long getAddressSpace(String cidr) throws InvalidCidrException {
+        // Validates the CIDR before its prefix length is read
+        FederatedNetworkUtil.getSubnetInfo(cidr);
+        int prefixLength = Integer.parseInt(cidr.substring(cidr.indexOf('/') + 1));
+        return 1L << (32 - prefixLength);
+    }
+
+    long getUserUsage(SystemUser systemUser, Resource resource) {
+        return getUserUsage(systemUser).get(resource).get();
+    }
+
+    long getIdentityProviderUsage(SystemUser systemUser, Resource resource) {
+        return getIdentityProviderUsage(systemUser).get(resource).get();
+    }
+
+    private Usage getUserUsage(SystemUser systemUser) {
+        String user = systemUser == null ? "" : systemUser.getIdentityProviderId() + "/" + systemUser.getId();
+        return this.userUsages.computeIfAbsent(user, key -> new Usage());
+    }
+
+    private Usage getIdentityProviderUsage(SystemUser systemUser) {
+        String identityProvider = systemUser == null ? "" : systemUser.getIdentityProviderId();
+        return this.identityProviderUsages.computeIfAbsent(identityProvider, key -> new Usage());
+    }
+
+    enum Resource {
+        NETWORKS(Messages.Exception.NETWORKS_QUOTA),
+        ADDRESS_SPACE(Messages.Exception.ADDRESS_SPACE_QUOTA),
+        IPS(Messages.Exception.IPS_QUOTA);
+
+        private final String description;
+
+        Resource(String description) {
+            this.description = description;
+        }
+
+        String getDescription() {
+            return this.description;
+        }
+    }
+
+    private static class Usage {
+        private final AtomicLong[] counters;
+
+        Usage() {
+            this.counters = new AtomicLong[Resource.values().length];
+            for (int i = 0; i < this.counters.length; i++) {
+                this.counters[i] = new AtomicLong();
+            }
+        }
+
+        AtomicLong get(Resource resource) {
+            return this.counters[resource.ordinal()];
+        }
+    }
+
+    // Guarded by its own monitor
+    private static class Charge {
+        private final SystemUser systemUser;
+        private final long addressSpace;
+        private long ips;
+        // Whether the network has actually been added to the usages
+        private boolean charged;
+
+        Charge(SystemUser systemUser, long addressSpace) {
+            this.systemUser = systemUser;
+            this.addressSpace = addressSpace;
+            this.ips = 0;
+            this.charged = false;
+        }
+    }
+}
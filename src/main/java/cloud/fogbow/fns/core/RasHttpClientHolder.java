@@ -0,0 +1,199 @@
+package cloud.fogbow.fns.core;
+
+import cloud.fogbow.fns.constants.ConfigurationPropertyDefaults;
+import cloud.fogbow.fns.constants.ConfigurationPropertyKeys;
+import cloud.fogbow.fns.constants.MetricNames;
+import cloud.fogbow.fns.core.metrics.MetricsHolder;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.NHttpClientConnection;
+import org.apache.http.nio.reactor.ConnectingIOReactor;
+import org.apache.http.nio.reactor.IOReactorException;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Holds the non-blocking HTTP client used to talk to the RAS. The client is pooled and keeps connections alive, so
+ * that consecutive requests reuse the connections already open to the RAS instead of opening a new one per request;
+ * it is the only client, so the configured limits bound all the connections open to the RAS.
+ */
+public class RasHttpClientHolder {
+    private static final String ASYNC_CONNECTION_EVICTOR_THREAD_NAME = "fns-ras-async-connection-evictor";
+    private static final String RESPONSE_HANDLER_THREAD_NAME_PREFIX = "fns-ras-response-handler-";
+
+    private static RasHttpClientHolder instance;
+
+    private PoolingNHttpClientConnectionManager asyncConnectionManager;
+    private CloseableHttpAsyncClient asyncHttpClient;
+    private ScheduledExecutorService asyncConnectionEvictor;
+    private ExecutorService responseHandlersExecutor;
+    private long requestTimeout;
+
+    private RasHttpClientHolder() {
+        PropertiesHolder properties = PropertiesHolder.getInstance();
+        int maxConnections = Integer.parseInt(properties.getProperty(
+                ConfigurationPropertyKeys.RAS_HTTP_MAX_CONNECTIONS_KEY,
+                ConfigurationPropertyDefaults.RAS_HTTP_MAX_CONNECTIONS));
+        int maxConnectionsPerRoute = Integer.parseInt(properties.getProperty(
+                ConfigurationPropertyKeys.RAS_HTTP_MAX_CONNECTIONS_PER_ROUTE_KEY,
+                ConfigurationPropertyDefaults.RAS_HTTP_MAX_CONNECTIONS_PER_ROUTE));
+        int connectTimeout = Integer.parseInt(properties.getProperty(
+                ConfigurationPropertyKeys.RAS_HTTP_CONNECT_TIMEOUT_KEY,
+                ConfigurationPropertyDefaults.RAS_HTTP_CONNECT_TIMEOUT));
+        int readTimeout = Integer.parseInt(properties.getProperty(
+                ConfigurationPropertyKeys.RAS_HTTP_READ_TIMEOUT_KEY,
+                ConfigurationPropertyDefaults.RAS_HTTP_READ_TIMEOUT));
+        int connectionRequestTimeout = Integer.parseInt(properties.getProperty(
+                ConfigurationPropertyKeys.RAS_HTTP_CONNECTION_REQUEST_TIMEOUT_KEY,
+                ConfigurationPropertyDefaults.RAS_HTTP_CONNECTION_REQUEST_TIMEOUT));
+        long idleConnectionTimeout = Long.parseLong(properties.getProperty(
+                ConfigurationPropertyKeys.RAS_HTTP_IDLE_CONNECTION_TIMEOUT_KEY,
+                ConfigurationPropertyDefaults.RAS_HTTP_IDLE_CONNECTION_TIMEOUT));
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(connectTimeout)
+                .setSocketTimeout(readTimeout)
+                .setConnectionRequestTimeout(connectionRequestTimeout)
+                .build();
+
+        // The connections are served by a few I/O threads, regardless of how many requests are in flight
+        IOReactorConfig ioReactorConfig = IOReactorConfig.custom()
+                .setConnectTimeout(connectTimeout)
+                .setSoTimeout(readTimeout)
+                .build();
+        try {
+            this.asyncConnectionManager = new MeteredConnectionManager(new DefaultConnectingIOReactor(ioReactorConfig));
+        } catch (IOReactorException e) {
+            throw new IllegalStateException(e);
+        }
+        this.asyncConnectionManager.setMaxTotal(maxConnections);
+        this.asyncConnectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+
+        this.asyncHttpClient = HttpAsyncClients.custom()
+                .setConnectionManager(this.asyncConnectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                // The client is shared by all users, so it must not keep any cookie set by the RAS
+                .disableCookieManagement()
+                .build();
+        this.asyncHttpClient.start();
+
+        this.asyncConnectionEvictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, ASYNC_CONNECTION_EVICTOR_THREAD_NAME);
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.asyncConnectionEvictor.scheduleWithFixedDelay(() -> {
+            this.asyncConnectionManager.closeExpiredConnections();
+            this.asyncConnectionManager.closeIdleConnections(idleConnectionTimeout, TimeUnit.MILLISECONDS);
+        }, idleConnectionTimeout, idleConnectionTimeout, TimeUnit.MILLISECONDS);
+
+        // The RAS responses are handled out of the I/O threads of the non-blocking client, which must never block
+        AtomicInteger responseHandlerThreadCount = new AtomicInteger();
+        this.responseHandlersExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+                runnable -> {
+                    Thread thread = new Thread(runnable,
+                            RESPONSE_HANDLER_THREAD_NAME_PREFIX + responseHandlerThreadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        // The longest a request to the RAS may take: waiting for a connection, connecting and waiting for the answer
+        this.requestTimeout = (long) connectionRequestTimeout + connectTimeout + readTimeout;
+
+        registerGauges();
+    }
+
+    public static synchronized RasHttpClientHolder getInstance() {
+        if (instance == null) {
+            instance = new RasHttpClientHolder();
+        }
+        return instance;
+    }
+
+    /**
+     * The returned client never blocks the calling thread; the response is handed to a callback or consumer once it
+     * arrives.
+     */
+    public CloseableHttpAsyncClient getAsyncHttpClient() {
+        return this.asyncHttpClient;
+    }
+
+    public Executor getResponseHandlersExecutor() {
+        return this.responseHandlersExecutor;
+    }
+
+    public long getRequestTimeout() {
+        return this.requestTimeout;
+    }
+
+    private void registerGauges() {
+        MetricsHolder metrics = MetricsHolder.getInstance();
+        metrics.registerGauge(MetricNames.RAS_HTTP_POOL_AVAILABLE,
+                () -> this.asyncConnectionManager.getTotalStats().getAvailable());
+        metrics.registerGauge(MetricNames.RAS_HTTP_POOL_LEASED,
+                () -> this.asyncConnectionManager.getTotalStats().getLeased());
+        metrics.registerGauge(MetricNames.RAS_HTTP_POOL_MAX,
+                () -> this.asyncConnectionManager.getTotalStats().getMax());
+        metrics.registerGauge(MetricNames.RAS_HTTP_POOL_PENDING,
+                () -> this.asyncConnectionManager.getTotalStats().getPending());
+    }
+
+    // Accounts for the time each request spends waiting for a connection to be leased from the pool, including the
+    // time taken to open a new one. The wait ends when the lease succeeds, fails or is cancelled, on an I/O thread.
+    private static class MeteredConnectionManager extends PoolingNHttpClientConnectionManager {
+
+        MeteredConnectionManager(ConnectingIOReactor ioReactor) {
+            super(ioReactor);
+        }
+
+        @Override
+        public Future<NHttpClientConnection> requestConnection(HttpRoute route, Object state, long connectTimeout,
+                                                               long leaseTimeout, TimeUnit timeUnit,
+                                                               FutureCallback<NHttpClientConnection> callback) {
+            long start = System.nanoTime();
+            return super.requestConnection(route, state, connectTimeout, leaseTimeout, timeUnit,
+                    new FutureCallback<NHttpClientConnection>() {
+                        @Override
+                        public void completed(NHttpClientConnection connection) {
+                            recordWaitTime(start);
+                            if (callback != null) {
+                                callback.completed(connection);
+                            }
+                        }
+
+                        @Override
+                        public void failed(Exception e) {
+                            recordWaitTime(start);
+                            if (callback != null) {
+                                callback.failed(e);
+                            }
+                        }
+
+                        @Override
+                        public void cancelled() {
+                            recordWaitTime(start);
+                            if (callback != null) {
+                                callback.cancelled();
+                            }
+                        }
+                    });
+        }
+
+        private static void recordWaitTime(long start) {
+            MetricsHolder.getInstance().recordValue(MetricNames.RAS_HTTP_POOL_WAIT_TIME,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+}
@@ -1,13 +1,13 @@
 package cloud.fogbow.fns.core.datastore;
 
 import cloud.fogbow.common.exceptions.UnexpectedException;
-import cloud.fogbow.common.models.linkedlists.SynchronizedDoublyLinkedList;
 import cloud.fogbow.fns.core.datastore.orderstorage.RecoveryService;
 import cloud.fogbow.fns.core.model.FederatedNetworkOrder;
 import cloud.fogbow.fns.core.model.OrderState;
 import org.apache.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.List;
 import java.util.Map;
 
 public class DatabaseManager implements StableStorage {
@@ -42,13 +42,8 @@ public class DatabaseManager implements StableStorage {
         return recoveryService.readActiveOrders();
     }
 
-    public SynchronizedDoublyLinkedList<FederatedNetworkOrder> readActiveOrders(OrderState orderState) {
-        SynchronizedDoublyLinkedList<FederatedNetworkOrder> synchronizedDoublyLinkedList = new SynchronizedDoublyLinkedList<>();
-
-        for (FederatedNetworkOrder order : this.recoveryService.readActiveOrdersByState(orderState)) {
-            synchronizedDoublyLinkedList.addItem(order);
-        }
-        return synchronizedDoublyLinkedList;
+    public List<FederatedNetworkOrder> readActiveOrders(OrderState orderState) {
+        return this.recoveryService.readActiveOrdersByState(orderState);
     }
 
     public void setRecoveryService(RecoveryService recoveryService) {
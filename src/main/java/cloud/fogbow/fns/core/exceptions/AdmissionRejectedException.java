@@ -0,0 +1,17 @@
+package cloud.fogbow.fns.core.exceptions;
+
+public class AdmissionRejectedException extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    // Time (in seconds) after which the request is likely to be accepted
+    private final long retryAfter;
+
+    public AdmissionRejectedException(String message, long retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public long getRetryAfter() {
+        return this.retryAfter;
+    }
+}
@@ -0,0 +1,19 @@
+package cloud.fogbow.fns.core.exceptions;
+
+import cloud.fogbow.fns.constants.Messages;
+
+public class ComputeOperationsCapacityReachedException extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    public ComputeOperationsCapacityReachedException() {
+        super(Messages.Exception.TOO_MANY_PENDING_COMPUTE_OPERATIONS);
+    }
+
+    public ComputeOperationsCapacityReachedException(String message) {
+        super(message);
+    }
+
+    public ComputeOperationsCapacityReachedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
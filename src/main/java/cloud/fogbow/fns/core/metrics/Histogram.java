@@ -0,0 +1,58 @@
+package cloud.fogbow.fns.core.metrics;
+
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the recorded values that fall under each of a fixed set of bounds. Buckets are cumulative: a value is
+ * counted by every bucket whose bound is not lower than it.
+ */
+public class Histogram {
+    // Suited to times in milliseconds, from a few milliseconds to several minutes
+    private static final long[] DEFAULT_BOUNDS = {10, 50, 100, 500, 1000, 5000, 10000, 30000, 60000, 300000, 600000};
+
+    private final long[] bounds;
+    private final LongAdder[] buckets;
+    private final LongAdder count;
+    private final LongAdder sum;
+
+    public Histogram() {
+        this(DEFAULT_BOUNDS);
+    }
+
+    public Histogram(long[] bounds) {
+        this.bounds = bounds.clone();
+        this.buckets = new LongAdder[bounds.length];
+        for (int i = 0; i < bounds.length; i++) {
+            this.buckets[i] = new LongAdder();
+        }
+        this.count = new LongAdder();
+        this.sum = new LongAdder();
+    }
+
+    public void record(long value) {
+        for (int i = 0; i < this.bounds.length; i++) {
+            if (value <= this.bounds[i]) {
+                this.buckets[i].increment();
+            }
+        }
+        this.count.increment();
+        this.sum.add(value);
+    }
+
+    public long getCount() {
+        return this.count.sum();
+    }
+
+    /**
+     * Adds the buckets, the count and the sum of the recorded values to the given metrics, named after the histogram,
+     * e.g. name.le_100, name.count and name.sum.
+     */
+    void exportTo(String name, Map<String, Object> metrics) {
+        for (int i = 0; i < this.bounds.length; i++) {
+            metrics.put(name + ".le_" + this.bounds[i], this.buckets[i].sum());
+        }
+        metrics.put(name + ".count", this.count.sum());
+        metrics.put(name + ".sum", this.sum.sum());
+    }
+}
@@ -0,0 +1,67 @@
+package cloud.fogbow.fns.core.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+public class MetricsHolder {
+    private static MetricsHolder instance;
+
+    private Map<String, LongAdder> counters;
+    private Map<String, Supplier<Number>> gauges;
+    private Map<String, Histogram> histograms;
+
+    private MetricsHolder() {
+        this.counters = new ConcurrentHashMap<>();
+        this.gauges = new ConcurrentHashMap<>();
+        this.histograms = new ConcurrentHashMap<>();
+    }
+
+    public static synchronized MetricsHolder getInstance() {
+        if (instance == null) {
+            instance = new MetricsHolder();
+        }
+        return instance;
+    }
+
+    public void incrementCounter(String name) {
+        addToCounter(name, 1);
+    }
+
+    public void addToCounter(String name, long value) {
+        this.counters.computeIfAbsent(name, key -> new LongAdder()).add(value);
+    }
+
+    public long getCounter(String name) {
+        LongAdder counter = this.counters.get(name);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    /**
+     * Registers a metric whose value is computed by the given supplier every time the metrics are read. Registering
+     * a gauge with a name that is already in use replaces the previous one.
+     */
+    public void registerGauge(String name, Supplier<Number> gauge) {
+        this.gauges.put(name, gauge);
+    }
+
+    public void recordValue(String name, long value) {
+        this.histograms.computeIfAbsent(name, key -> new Histogram()).record(value);
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new TreeMap<>();
+        for (Map.Entry<String, LongAdder> counter : this.counters.entrySet()) {
+            metrics.put(counter.getKey(), counter.getValue().sum());
+        }
+        for (Map.Entry<String, Supplier<Number>> gauge : this.gauges.entrySet()) {
+            metrics.put(gauge.getKey(), gauge.getValue().get());
+        }
+        for (Map.Entry<String, Histogram> histogram : this.histograms.entrySet()) {
+            histogram.getValue().exportTo(histogram.getKey(), metrics);
+        }
+        return metrics;
+    }
+}
@@ -0,0 +1,88 @@
+package cloud.fogbow.fns.core.model;
+
+import cloud.fogbow.common.models.SystemUser;
+import cloud.fogbow.fns.api.http.response.ComputeOperationInstance;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * An asynchronous compute creation. The operation is created right after the federated IP (if any) is reserved,
+ * and is completed once the RAS answers the request and the IP is committed to (or released from) the compute.
+ */
+public class ComputeOperation {
+    private final String id;
+    private final SystemUser systemUser;
+    private final String federatedNetworkId;
+    private final CompletableFuture<ComputeOperation> completion;
+
+    private volatile ComputeOperationState state;
+    private volatile String computeId;
+    private volatile String errorMessage;
+    private volatile long completionTime;
+
+    public ComputeOperation(SystemUser systemUser, String federatedNetworkId) {
+        this.id = String.valueOf(UUID.randomUUID());
+        this.systemUser = systemUser;
+        this.federatedNetworkId = federatedNetworkId;
+        this.completion = new CompletableFuture<>();
+        this.state = ComputeOperationState.PENDING;
+    }
+
+    public void succeed(String computeId) {
+        this.computeId = computeId;
+        complete(ComputeOperationState.SUCCEEDED);
+    }
+
+    public void fail(String errorMessage) {
+        this.errorMessage = errorMessage;
+        complete(ComputeOperationState.FAILED);
+    }
+
+    private void complete(ComputeOperationState finalState) {
+        this.completionTime = System.currentTimeMillis();
+        this.state = finalState;
+        this.completion.complete(this);
+    }
+
+    public boolean isCompleted() {
+        return this.state != ComputeOperationState.PENDING;
+    }
+
+    public ComputeOperationInstance getInstance() {
+        return new ComputeOperationInstance(this.id, this.federatedNetworkId, this.state, this.computeId,
+                this.errorMessage);
+    }
+
+    public String getId() {
+        return this.id;
+    }
+
+    public SystemUser getSystemUser() {
+        return this.systemUser;
+    }
+
+    public String getFederatedNetworkId() {
+        return this.federatedNetworkId;
+    }
+
+    public ComputeOperationState getState() {
+        return this.state;
+    }
+
+    public String getComputeId() {
+        return this.computeId;
+    }
+
+    public String getErrorMessage() {
+        return this.errorMessage;
+    }
+
+    public long getCompletionTime() {
+        return this.completionTime;
+    }
+
+    public CompletableFuture<ComputeOperation> getCompletion() {
+        return this.completion;
+    }
+}
@@ -0,0 +1,7 @@
+package cloud.fogbow.fns.core.model;
+
+public enum ComputeOperationState {
+    PENDING,
+    SUCCEEDED,
+    FAILED
+}
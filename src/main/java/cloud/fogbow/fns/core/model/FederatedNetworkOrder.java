@@ -1,5 +1,6 @@
 package cloud.fogbow.fns.core.model;
 
+import cloud.fogbow.common.exceptions.QuotaExceededException;
 import cloud.fogbow.common.exceptions.UnexpectedException;
 import cloud.fogbow.common.models.SystemUser;
 import cloud.fogbow.common.util.GsonHolder;
@@ -8,11 +9,15 @@ import cloud.fogbow.common.models.SystemUser;
 import cloud.fogbow.fns.api.http.response.AssignedIp;
 import cloud.fogbow.fns.api.http.response.FederatedNetworkInstance;
 import cloud.fogbow.fns.constants.Messages;
+import cloud.fogbow.fns.constants.MetricNames;
 import cloud.fogbow.fns.core.ComputeIdToFederatedNetworkIdMapping;
+import cloud.fogbow.fns.core.OrderStateTransitioner;
+import cloud.fogbow.fns.core.QuotaController;
 import cloud.fogbow.fns.core.datastore.DatabaseManager;
 import cloud.fogbow.fns.core.datastore.StableStorage;
 import cloud.fogbow.fns.core.exceptions.InvalidCidrException;
 import cloud.fogbow.fns.core.exceptions.SubnetAddressesCapacityReachedException;
+import cloud.fogbow.fns.core.metrics.MetricsHolder;
 import cloud.fogbow.fns.utils.FederatedNetworkUtil;
 import org.hibernate.annotations.LazyCollection;
 import org.hibernate.annotations.LazyCollectionOption;
@@ -21,6 +26,7 @@ import javax.persistence.*;
 import javax.validation.constraints.Size;
 import java.io.Serializable;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Entity
 @Table(name = "federated_network_table")
@@ -33,9 +39,14 @@ public class FederatedNetworkOrder implements Serializable {
     @Id
     private String id;
 
+    // The persisted copy of the state held by versionedState; only written by syncOrderState()
     @Column
     @Enumerated(EnumType.STRING)
-    private OrderState orderState;
+    private volatile OrderState orderState;
+
+    // Changed only through compare-and-set, so that concurrent transitions never need to lock the order
+    @Transient
+    private transient AtomicReference<VersionedOrderState> versionedState;
 
     @Transient
     private SystemUser systemUser;
@@ -67,6 +78,26 @@ public class FederatedNetworkOrder implements Serializable {
     @Embedded
     private ArrayList<AssignedIp> assignedIps;
 
+    // Null in orders created before priorities existed, which are treated as of normal priority
+    @Column
+    @Enumerated(EnumType.STRING)
+    private OrderPriority priority;
+
+    // Time (in milliseconds since the epoch) by which the federated network should be created, if any
+    @Column
+    private Long deadline;
+
+    // The size of the CIDR to be carved out of the address pool, for an order created without a CIDR; only used
+    // until the CIDR is assigned
+    @Transient
+    private Integer prefixLength;
+
+    // Set once the federated network exists at the agent (it was created there, or taken over from a deleted one),
+    // until it is removed from the agent, or taken over by a new federated network; guarded by the monitor of the
+    // order
+    @Column
+    private Boolean agentDeletionPending;
+
     @ElementCollection(targetClass = String.class)
     @CollectionTable(name = "federated_network_allowed_members")
     @LazyCollection(LazyCollectionOption.FALSE)
@@ -75,6 +106,27 @@ public class FederatedNetworkOrder implements Serializable {
     @Transient
     private Queue<String> cacheOfFreeIps;
 
+    // IPs handed out by getFreeIp() that have not been committed to a compute (see addAssociatedIp()), released
+    // back to the cache (see releaseFreeIp()) nor expired (see expireIpReservations()) yet, mapped to the lease they
+    // are currently reserved by.
+    @Transient
+    private Map<String, IpLease> reservedIps;
+
+    // Republished after each change to the state it copies; null until the first time it is read
+    @Transient
+    private transient volatile FederatedNetworkOrderView view;
+
+    // Counts the copies of the order taken to be persisted (see persist()); guarded by the monitor of the order
+    @Transient
+    private transient long persistedCopies;
+
+    // The number of the last copy written to the database; guarded by persistenceLock
+    @Transient
+    private transient long lastWrittenCopy;
+
+    @Transient
+    private final transient Object persistenceLock = new Object();
+
     public FederatedNetworkOrder() {
         this(String.valueOf(UUID.randomUUID()));
     }
@@ -84,6 +136,8 @@ public class FederatedNetworkOrder implements Serializable {
         this.providers = new HashSet<>();
         this.cacheOfFreeIps = new LinkedList<>();
         this.assignedIps = new ArrayList<>();
+        this.reservedIps = new HashMap<>();
+        this.versionedState = new AtomicReference<>(new VersionedOrderState(null, 0));
     }
 
     public FederatedNetworkOrder(SystemUser systemUser, String requester, String provider) {
@@ -113,7 +167,7 @@ public class FederatedNetworkOrder implements Serializable {
         this.providers = providers;
         this.cacheOfFreeIps = cacheOfFreeIps;
         this.assignedIps = assignedIps;
-        this.orderState = orderState;
+        forceOrderState(orderState);
     }
 
     public FederatedNetworkOrder(SystemUser systemUser, String requester, String provider,
@@ -127,21 +181,41 @@ public class FederatedNetworkOrder implements Serializable {
         this.assignedIps = assignedIps;
     }
 
-    public synchronized void addAssociatedIp(String computeId, String ipToBeAttached) throws UnexpectedException {
-        this.assignedIps.add(new AssignedIp(computeId, ipToBeAttached));
-        StableStorage databaseManager = DatabaseManager.getInstance();
-        databaseManager.put(this);
+    /**
+     * Commits the IP reserved by the given lease to a compute.
+     * @throws UnexpectedException if the lease has expired, since its IP may have been reserved by someone else
+     */
+    public synchronized void addAssociatedIp(String computeId, IpLease lease) throws UnexpectedException {
+        commitReservation(lease);
+        this.assignedIps.add(new AssignedIp(computeId, lease.getIp()));
+        publishView();
+        persist();
         ComputeIdToFederatedNetworkIdMapping.getInstance().put(computeId, this.getId());
     }
 
+    private boolean isCurrent(IpLease lease) {
+        IpLease currentLease = this.reservedIps.get(lease.getIp());
+        return currentLease != null && currentLease.getToken().equals(lease.getToken());
+    }
+
+    private void commitReservation(IpLease lease) throws UnexpectedException {
+        if (!isCurrent(lease)) {
+            throw new UnexpectedException(String.format(Messages.Exception.IP_LEASE_EXPIRED, lease.getIp(),
+                    this.getId()));
+        }
+        this.reservedIps.remove(lease.getIp());
+        MetricsHolder.getInstance().incrementCounter(MetricNames.IP_RESERVATIONS_COMMITTED);
+    }
+
     public synchronized void removeAssociatedIp(String computeId) throws UnexpectedException {
         int associatedIpIndex = containsKey(computeId);
         if (associatedIpIndex == -1) {
             throw new IllegalArgumentException();
         }
         this.assignedIps.remove(associatedIpIndex);
-        StableStorage databaseManager = DatabaseManager.getInstance();
-        databaseManager.put(this);
+        QuotaController.getInstance().releaseIps(this, 1);
+        publishView();
+        persist();
         ComputeIdToFederatedNetworkIdMapping.getInstance().remove(computeId);
     }
 
@@ -158,18 +232,46 @@ public class FederatedNetworkOrder implements Serializable {
         return -1;
     }
 
-    public synchronized String getAssociatedIp(String computeId) {
-        Iterator<AssignedIp> iterator = this.assignedIps.iterator();
-        while (iterator.hasNext()) {
-            AssignedIp assignedIp = iterator.next();
-            if (assignedIp.getComputeId().equals(computeId)) {
-                return assignedIp.getIp();
+    public String getAssociatedIp(String computeId) {
+        return getView().getAssociatedIp(computeId);
+    }
+
+    /**
+     * Reserves a free IP for a compute, charging it to the quota of the owner of the federated network. The
+     * reservation lasts for reservationTtl milliseconds; if it is neither committed through addAssociatedIp() nor
+     * released through releaseFreeIp() within that time, the IP is reclaimed (and discharged) by
+     * expireIpReservations(), and the lease can no longer be committed.
+     */
+    public synchronized IpLease getFreeIp(long reservationTtl) throws InvalidCidrException, UnexpectedException,
+            SubnetAddressesCapacityReachedException, QuotaExceededException {
+        return getFreeIps(1, reservationTtl).get(0);
+    }
+
+    /**
+     * Reserves count free IPs in a single operation, charging them to the quota of the owner of the federated
+     * network; either all of them are reserved and charged or none is.
+     */
+    public synchronized List<IpLease> getFreeIps(int count, long reservationTtl) throws InvalidCidrException,
+            UnexpectedException, SubnetAddressesCapacityReachedException, QuotaExceededException {
+        QuotaController quotaController = QuotaController.getInstance();
+        quotaController.chargeIps(this, count);
+        List<IpLease> leases = new ArrayList<>(count);
+        try {
+            for (int i = 0; i < count; i++) {
+                leases.add(reserveFreeIp(reservationTtl));
+            }
+        } catch (InvalidCidrException | UnexpectedException | SubnetAddressesCapacityReachedException e) {
+            for (IpLease lease : leases) {
+                returnReservedIp(lease);
             }
+            quotaController.releaseIps(this, count);
+            throw e;
         }
-        return null;
+        return leases;
     }
 
-    public synchronized String getFreeIp() throws InvalidCidrException, UnexpectedException,
+    // Reserves a free IP without charging it; the callers are the ones to charge it
+    private IpLease reserveFreeIp(long reservationTtl) throws InvalidCidrException, UnexpectedException,
             SubnetAddressesCapacityReachedException {
         String ip = null;
         try {
@@ -185,20 +287,57 @@ public class FederatedNetworkOrder implements Serializable {
                 throw new UnexpectedException(Messages.Exception.UNEXPECTED_EXCEPTION, e2);
             }
         }
-        return ip;
-    }
-
-    public synchronized InstanceState getInstanceStateFromOrderState() {
-        switch (this.getOrderState()) {
-            case OPEN:
-                return InstanceState.OPEN;
-            case FAILED:
-                return InstanceState.FAILED;
-            case FULFILLED:
-                return InstanceState.READY;
-            default:
-                return null;
+        IpLease lease = new IpLease(ip, System.currentTimeMillis() + reservationTtl);
+        this.reservedIps.put(ip, lease);
+        MetricsHolder.getInstance().incrementCounter(MetricNames.IP_RESERVATIONS_CREATED);
+        return lease;
+    }
+
+    /**
+     * Returns an IP obtained through getFreeIp() that will not be attached to any compute (e.g. because the
+     * compute creation failed at the RAS), so that it can be immediately handed out again. Does nothing if the lease
+     * has expired, since its IP may be reserved by someone else by now.
+     */
+    public synchronized void releaseFreeIp(IpLease lease) {
+        if (returnReservedIp(lease)) {
+            QuotaController.getInstance().releaseIps(this, 1);
+        }
+    }
+
+    private boolean returnReservedIp(IpLease lease) {
+        if (!isCurrent(lease)) {
+            return false;
+        }
+        this.reservedIps.remove(lease.getIp());
+        this.cacheOfFreeIps.add(lease.getIp());
+        MetricsHolder.getInstance().incrementCounter(MetricNames.IP_RESERVATIONS_RELEASED);
+        return true;
+    }
+
+    /**
+     * Returns to the cache of free IPs all the IPs whose reservation expired before the given time.
+     * @return the number of expired reservations
+     */
+    public synchronized int expireIpReservations(long now) {
+        int expired = 0;
+        Iterator<Map.Entry<String, IpLease>> iterator = this.reservedIps.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, IpLease> reservation = iterator.next();
+            if (reservation.getValue().getExpirationTime() <= now) {
+                iterator.remove();
+                this.cacheOfFreeIps.add(reservation.getKey());
+                expired++;
+            }
+        }
+        if (expired > 0) {
+            QuotaController.getInstance().releaseIps(this, expired);
+            MetricsHolder.getInstance().addToCounter(MetricNames.IP_RESERVATIONS_EXPIRED, expired);
         }
+        return expired;
+    }
+
+    public InstanceState getInstanceStateFromOrderState() {
+        return getView().getInstanceState();
     }
 
     private void fillCacheOfFreeIps() throws InvalidCidrException, SubnetAddressesCapacityReachedException {
@@ -213,28 +352,139 @@ public class FederatedNetworkOrder implements Serializable {
         this.id = id;
     }
 
-    public synchronized OrderState getOrderState() {
-        return this.orderState;
+    public OrderState getOrderState() {
+        return this.versionedState.get().getState();
+    }
+
+    public VersionedOrderState getVersionedState() {
+        return this.versionedState.get();
     }
 
-    public synchronized void setOrderStateInRecoveryMode(OrderState state) {
-        this.orderState = state;
+    /**
+     * Moves the order to newState only if its state is still the expected one, i.e. if no other transition happened
+     * since expected was read. The order is not persisted; that is up to the caller, which must not hold the monitor
+     * of the order while doing it.
+     * @return false if the state of the order has changed since expected was read
+     */
+    public boolean compareAndSetOrderState(VersionedOrderState expected, OrderState newState) {
+        if (!this.versionedState.compareAndSet(expected, expected.next(newState))) {
+            return false;
+        }
+        syncOrderState();
+        return true;
     }
 
-    public synchronized void setOrderStateInTestMode(OrderState state) {
-        this.orderState = state;
+    public void setOrderStateInRecoveryMode(OrderState state) {
+        forceOrderState(state);
     }
 
-    public synchronized void setOrderState(OrderState state) throws UnexpectedException {
-        this.orderState = state;
-        DatabaseManager databaseManager = DatabaseManager.getInstance();
-        databaseManager.put(this);
+    public void setOrderStateInTestMode(OrderState state) {
+        forceOrderState(state);
+    }
+
+    /**
+     * Moves the order to the given state, if the transition is allowed (see OrderStateTransitioner), and persists it.
+     * @throws UnexpectedException if the order cannot go from its current state to the given one
+     */
+    public void setOrderState(OrderState state) throws UnexpectedException {
+        OrderStateTransitioner.transition(this, state);
+    }
+
+    private void forceOrderState(OrderState state) {
+        VersionedOrderState current;
+        do {
+            current = this.versionedState.get();
+        } while (!this.versionedState.compareAndSet(current, current.next(state)));
+        syncOrderState();
+    }
+
+    /**
+     * Writes the order to the database. The persisted fields are copied under the monitor of the order, and the copy
+     * is written once the monitor is released (unless the caller holds it), so that the order is never saved while
+     * being changed, and the threads changing it never wait for the database. A copy is only written if no later
+     * copy has been written already.
+     */
+    public void persist() throws UnexpectedException {
+        FederatedNetworkOrder copy;
+        long copyNumber;
+        synchronized (this) {
+            copy = copyPersistedFields();
+            copyNumber = ++this.persistedCopies;
+        }
+        synchronized (this.persistenceLock) {
+            if (copyNumber > this.lastWrittenCopy) {
+                StableStorage databaseManager = DatabaseManager.getInstance();
+                databaseManager.put(copy);
+                this.lastWrittenCopy = copyNumber;
+            }
+        }
+    }
+
+    // Must be called while holding the monitor of this order
+    private FederatedNetworkOrder copyPersistedFields() {
+        FederatedNetworkOrder copy = new FederatedNetworkOrder(this.id);
+        copy.versionedState.set(this.versionedState.get());
+        copy.orderState = this.orderState;
+        copy.systemUser = this.systemUser;
+        copy.serializedSystemUser = this.serializedSystemUser;
+        copy.userId = this.userId;
+        copy.identityProviderId = this.identityProviderId;
+        copy.requester = this.requester;
+        copy.provider = this.provider;
+        copy.cidr = this.cidr;
+        copy.name = this.name;
+        if (this.assignedIps != null) {
+            for (AssignedIp assignedIp : this.assignedIps) {
+                copy.assignedIps.add(new AssignedIp(assignedIp.getComputeId(), assignedIp.getIp()));
+            }
+        }
+        copy.priority = this.priority;
+        copy.deadline = this.deadline;
+        copy.agentDeletionPending = this.agentDeletionPending;
+        if (this.providers != null) {
+            copy.providers.addAll(this.providers);
+        }
+        return copy;
+    }
+
+    // Copies the current state to the persisted field and to the view. The monitor is only held while copying, so
+    // that the last thread to get here after a transition always leaves both up to date.
+    private synchronized void syncOrderState() {
+        this.orderState = this.versionedState.get().getState();
+        publishView();
     }
 
     public FederatedNetworkInstance getInstance() {
-        return new FederatedNetworkInstance(this.id, this.name, this.requester, this.provider,
-                this.cidr, this.providers, this.getAssignedIps(),
-                (this.orderState == OrderState.FULFILLED ? InstanceState.READY : InstanceState.FAILED));
+        return getView().toInstance();
+    }
+
+    /**
+     * Returns the latest state of this order, without locking it. The view is immutable, so it may be kept and read
+     * while the order keeps changing.
+     */
+    public FederatedNetworkOrderView getView() {
+        FederatedNetworkOrderView currentView = this.view;
+        if (currentView == null) {
+            // Not published yet, e.g. because the order has just been created or loaded from the database
+            synchronized (this) {
+                if (this.view == null) {
+                    publishView();
+                }
+                currentView = this.view;
+            }
+        }
+        return currentView;
+    }
+
+    // Must be called while holding the monitor of this order, after each change to the state copied by the view
+    private void publishView() {
+        this.view = new FederatedNetworkOrderView(this);
+    }
+
+    // The plain setters are only called while the order is being built, so the view is simply built again on the
+    // next read
+    private void discardView() {
+        this.view = null;
     }
 
     public SystemUser getSystemUser() {
@@ -243,6 +493,7 @@ public class FederatedNetworkOrder implements Serializable {
 
     public void setSystemUser(SystemUser systemUser) {
         this.systemUser = systemUser;
+        discardView();
     }
 
     public String getRequester() {
@@ -251,6 +502,7 @@ public class FederatedNetworkOrder implements Serializable {
 
     public void setRequester(String requester) {
         this.requester = requester;
+        discardView();
     }
 
     public String getProvider() {
@@ -259,6 +511,7 @@ public class FederatedNetworkOrder implements Serializable {
 
     public void setProvider(String provider) {
         this.provider = provider;
+        discardView();
     }
 
     public boolean isProviderLocal(String localMemberId) {
@@ -275,6 +528,7 @@ public class FederatedNetworkOrder implements Serializable {
 
     public void setCidr(String cidr) {
         this.cidr = cidr;
+        discardView();
     }
 
     public String getName() {
@@ -283,6 +537,7 @@ public class FederatedNetworkOrder implements Serializable {
 
     public void setName(String name) {
         this.name = name;
+        discardView();
     }
 
     public Set<String> getProviders() {
@@ -291,6 +546,39 @@ public class FederatedNetworkOrder implements Serializable {
 
     public void setProviders(Set<String> providers) {
         this.providers = providers;
+        discardView();
+    }
+
+    public Integer getPrefixLength() {
+        return this.prefixLength;
+    }
+
+    public void setPrefixLength(Integer prefixLength) {
+        this.prefixLength = prefixLength;
+    }
+
+    public OrderPriority getPriority() {
+        return this.priority == null ? OrderPriority.NORMAL : this.priority;
+    }
+
+    public void setPriority(OrderPriority priority) {
+        this.priority = priority;
+    }
+
+    public Long getDeadline() {
+        return this.deadline;
+    }
+
+    public void setDeadline(Long deadline) {
+        this.deadline = deadline;
+    }
+
+    public boolean isAgentDeletionPending() {
+        return this.agentDeletionPending != null && this.agentDeletionPending;
+    }
+
+    public void setAgentDeletionPending(boolean agentDeletionPending) {
+        this.agentDeletionPending = agentDeletionPending;
     }
 
     public Queue<String> getCacheOfFreeIps() {
@@ -301,12 +589,17 @@ public class FederatedNetworkOrder implements Serializable {
         this.cacheOfFreeIps = cacheOfFreeIps;
     }
 
+    public Set<String> getReservedIps() {
+        return reservedIps.keySet();
+    }
+
     public List<AssignedIp> getAssignedIps() {
         return assignedIps;
     }
 
     public void setAssignedIps(ArrayList<AssignedIp> assignedIps) {
         this.assignedIps = assignedIps;
+        discardView();
     }
 
     public ResourceType getType() {
@@ -339,6 +632,11 @@ public class FederatedNetworkOrder implements Serializable {
     }
 
     @PostLoad
+    private void postLoad() throws UnexpectedException {
+        this.versionedState.set(new VersionedOrderState(this.orderState, 0));
+        deserializeSystemUser();
+    }
+
     private void deserializeSystemUser() throws UnexpectedException {
         try {
             SerializedEntityHolder serializedSystemUserHolder = GsonHolder.getInstance().fromJson(
@@ -364,7 +662,7 @@ public class FederatedNetworkOrder implements Serializable {
 
     @Override
     public String toString() {
-        return "Order [id=" + this.id + ", orderState=" + this.orderState + ", requester=" +
+        return "Order [id=" + this.id + ", orderState=" + getOrderState() + ", requester=" +
                 this.requester + ", provider=" + this.provider + "]";
     }
 }
@@ -0,0 +1,99 @@
+package cloud.fogbow.fns.core.model;
+
+import cloud.fogbow.common.models.SystemUser;
+import cloud.fogbow.fns.api.http.response.AssignedIp;
+import cloud.fogbow.fns.api.http.response.FederatedNetworkInstance;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An immutable copy of the state of a FederatedNetworkOrder that is read by the queries on federated networks. The
+ * order publishes a new view after each change (see FederatedNetworkOrder.getView()), so queries see a consistent
+ * state of the order without locking it, and never wait for the threads changing it.
+ */
+public final class FederatedNetworkOrderView {
+    private final String id;
+    private final SystemUser systemUser;
+    private final OrderState orderState;
+    private final String name;
+    private final String requester;
+    private final String provider;
+    private final String cidr;
+    private final Set<String> providers;
+    private final List<AssignedIp> assignedIps;
+
+    // Must be called while holding the monitor of the order
+    FederatedNetworkOrderView(FederatedNetworkOrder order) {
+        this.id = order.getId();
+        this.systemUser = order.getSystemUser();
+        this.orderState = order.getOrderState();
+        this.name = order.getName();
+        this.requester = order.getRequester();
+        this.provider = order.getProvider();
+        this.cidr = order.getCidr();
+        this.providers = order.getProviders() == null ? Collections.emptySet() :
+                Collections.unmodifiableSet(new HashSet<>(order.getProviders()));
+        List<AssignedIp> assignedIps = new ArrayList<>();
+        if (order.getAssignedIps() != null) {
+            for (AssignedIp assignedIp : order.getAssignedIps()) {
+                assignedIps.add(new AssignedIp(assignedIp.getComputeId(), assignedIp.getIp()));
+            }
+        }
+        this.assignedIps = Collections.unmodifiableList(assignedIps);
+    }
+
+    public String getId() {
+        return this.id;
+    }
+
+    public SystemUser getSystemUser() {
+        return this.systemUser;
+    }
+
+    public OrderState getOrderState() {
+        return this.orderState;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public List<AssignedIp> getAssignedIps() {
+        return this.assignedIps;
+    }
+
+    public String getAssociatedIp(String computeId) {
+        for (AssignedIp assignedIp : this.assignedIps) {
+            if (assignedIp.getComputeId().equals(computeId)) {
+                return assignedIp.getIp();
+            }
+        }
+        return null;
+    }
+
+    public InstanceState getInstanceState() {
+        if (this.orderState == null) {
+            return null;
+        }
+        switch (this.orderState) {
+            case OPEN:
+                return InstanceState.OPEN;
+            case FAILED:
+                return InstanceState.FAILED;
+            case FULFILLED:
+                return InstanceState.READY;
+            default:
+                return null;
+        }
+    }
+
+    public FederatedNetworkInstance toInstance() {
+        return new FederatedNetworkInstance(this.id, this.name, this.requester, this.provider, this.cidr,
+                this.providers, this.assignedIps,
+                (this.orderState == OrderState.FULFILLED ? InstanceState.READY : InstanceState.FAILED));
+    }
+}
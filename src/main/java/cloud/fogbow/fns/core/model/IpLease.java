@@ -0,0 +1,39 @@
+package cloud.fogbow.fns.core.model;
+
+import java.util.UUID;
+
+/**
+ * A reservation of an IP of a federated network for a compute being created. Each reservation gets its own lease,
+ * even when the IP was reserved before, so a lease that expired (and whose IP may have been handed out again) is never
+ * mistaken for the current reservation of its IP: the federated network only commits or releases the IP for the
+ * lease it is currently reserved by.
+ */
+public class IpLease {
+    private final String ip;
+    private final String token;
+    // Time (in milliseconds since the epoch) at which the reservation expires
+    private final long expirationTime;
+
+    IpLease(String ip, long expirationTime) {
+        this.ip = ip;
+        this.token = String.valueOf(UUID.randomUUID());
+        this.expirationTime = expirationTime;
+    }
+
+    public String getIp() {
+        return this.ip;
+    }
+
+    public String getToken() {
+        return this.token;
+    }
+
+    public long getExpirationTime() {
+        return this.expirationTime;
+    }
+
+    @Override
+    public String toString() {
+        return this.ip;
+    }
+}
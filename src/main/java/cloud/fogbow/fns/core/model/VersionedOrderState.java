@@ -0,0 +1,33 @@
+package cloud.fogbow.fns.core.model;
+
+/**
+ * The state of an order together with the number of times it has changed. Instances are immutable: a transition
+ * replaces the instance held by the order through a compare-and-set (see FederatedNetworkOrder.compareAndSetOrderState()),
+ * so two transitions read from the same instance can never both succeed.
+ */
+public final class VersionedOrderState {
+    private final OrderState state;
+    private final long version;
+
+    public VersionedOrderState(OrderState state, long version) {
+        this.state = state;
+        this.version = version;
+    }
+
+    public OrderState getState() {
+        return this.state;
+    }
+
+    public long getVersion() {
+        return this.version;
+    }
+
+    public VersionedOrderState next(OrderState newState) {
+        return new VersionedOrderState(newState, this.version + 1);
+    }
+
+    @Override
+    public String toString() {
+        return this.state + "@" + this.version;
+    }
+}
@@ -1,55 +1,107 @@
 package cloud.fogbow.fns.core.processors;
 
 import cloud.fogbow.common.exceptions.UnexpectedException;
-import cloud.fogbow.common.models.linkedlists.ChainedList;
+import cloud.fogbow.fns.constants.ConfigurationPropertyDefaults;
+import cloud.fogbow.fns.constants.ConfigurationPropertyKeys;
 import cloud.fogbow.fns.constants.Messages;
+import cloud.fogbow.fns.constants.MetricNames;
 import cloud.fogbow.fns.core.FederatedNetworkOrderController;
 import cloud.fogbow.fns.core.FederatedNetworkOrdersHolder;
-import cloud.fogbow.fns.core.exceptions.AgentCommucationException;
+import cloud.fogbow.fns.core.PropertiesHolder;
+import cloud.fogbow.fns.core.metrics.MetricsHolder;
 import cloud.fogbow.fns.core.model.FederatedNetworkOrder;
 import cloud.fogbow.fns.core.model.OrderState;
 import cloud.fogbow.fns.utils.AgentCommunicatorUtil;
 import org.apache.log4j.Logger;
 
-public class ClosedProcessor implements Runnable {
-    private static final Logger LOGGER = Logger.getLogger(cloud.fogbow.ras.core.processors.ClosedProcessor.class);
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
-    private final Long sleepTime;
-    private ChainedList<FederatedNetworkOrder> orders;
-    private FederatedNetworkOrderController orderController;
+/**
+ * Removes deleted federated networks from the agent, and then deactivates their orders. A removal that fails is
+ * retried with an exponential backoff, bounded by the maximum retry delay, until it succeeds or a new federated network
+ * with the same CIDR takes the network over (see OpenProcessor).
+ */
+public class ClosedProcessor implements OrderProcessor {
+    private static final Logger LOGGER = Logger.getLogger(ClosedProcessor.class);
 
-    public ClosedProcessor(FederatedNetworkOrderController orderController, Long sleepTime) {
-        this.sleepTime = sleepTime;
-        this.orders = FederatedNetworkOrdersHolder.getInstance().getClosedOrders();
+    private final FederatedNetworkOrderController orderController;
+    private final long minRetryDelay;
+    private final long maxRetryDelay;
+    // The orders whose removal from the agent failed, by order id
+    private final Map<String, FailedDeletion> failedDeletions;
+
+    public ClosedProcessor(FederatedNetworkOrderController orderController) {
+        this(orderController,
+            Long.parseLong(PropertiesHolder.getInstance().getProperty(
+                ConfigurationPropertyKeys.AGENT_DELETION_MIN_RETRY_DELAY_KEY,
+                ConfigurationPropertyDefaults.AGENT_DELETION_MIN_RETRY_DELAY)),
+            Long.parseLong(PropertiesHolder.getInstance().getProperty(
+                ConfigurationPropertyKeys.AGENT_DELETION_MAX_RETRY_DELAY_KEY,
+                ConfigurationPropertyDefaults.AGENT_DELETION_MAX_RETRY_DELAY)));
+    }
+
+    ClosedProcessor(FederatedNetworkOrderController orderController, long minRetryDelay, long maxRetryDelay) {
         this.orderController = orderController;
+        this.minRetryDelay = minRetryDelay;
+        this.maxRetryDelay = maxRetryDelay;
+        this.failedDeletions = new ConcurrentHashMap<>();
+
+        MetricsHolder metrics = MetricsHolder.getInstance();
+        metrics.registerGauge(MetricNames.AGENT_DELETIONS_RETRYING, this.failedDeletions::size);
+        metrics.registerGauge(MetricNames.AGENT_DELETIONS_PENDING, () ->
+                FederatedNetworkOrdersHolder.getInstance().getClosedOrders().getOrders().stream()
+                        .filter(FederatedNetworkOrder::isAgentDeletionPending)
+                        .count());
     }
 
     @Override
-    public void run() {
-        while (true) {
-            try {
-                FederatedNetworkOrder order = this.orders.getNext();
-                if (order != null) {
-                    processOrder(order);
-                } else {
-                    this.orders.resetPointer();
-                    Thread.sleep(this.sleepTime);
+    public void processOrder(FederatedNetworkOrder order) throws UnexpectedException {
+        synchronized (order) {
+            // Check if the order is still CLOSED (it could have been changed by another thread)
+            if (!order.getOrderState().equals(OrderState.CLOSED)) {
+                this.failedDeletions.remove(order.getId());
+                return;
+            }
+            if (order.isAgentDeletionPending()) {
+                FailedDeletion failedDeletion = this.failedDeletions.get(order.getId());
+                long now = System.currentTimeMillis();
+                if (failedDeletion != null && now < failedDeletion.nextAttemptTime) {
+                    return;
                 }
-            } catch (UnexpectedException e) {
-                LOGGER.error("", e);
-            } catch (InterruptedException e) {
-                LOGGER.error(Messages.Exception.THREAD_HAS_BEEN_INTERRUPTED, e);
-                break;
+                if (!AgentCommunicatorUtil.deleteFederatedNetwork(order.getCidr())) {
+                    long retryDelay = failedDeletion == null ? this.minRetryDelay
+                            : Math.min(2 * failedDeletion.retryDelay, this.maxRetryDelay);
+                    this.failedDeletions.put(order.getId(), new FailedDeletion(now + retryDelay, retryDelay));
+                    MetricsHolder.getInstance().incrementCounter(MetricNames.AGENT_DELETIONS_FAILED);
+                    LOGGER.warn(String.format(Messages.Warn.UNABLE_TO_REMOVE_FEDERATED_NETWORK_FROM_AGENT,
+                            order.getId(), retryDelay));
+                    return;
+                }
+                LOGGER.info(String.format(Messages.Info.DELETED_FEDERATED_NETWORK, order.toString()));
+                order.setAgentDeletionPending(false);
             }
+            this.failedDeletions.remove(order.getId());
         }
+        // Deactivated once the monitor is released, since deactivating the order writes it to the database
+        this.orderController.deactivateOrder(order);
     }
 
-    protected void processOrder(FederatedNetworkOrder order) throws UnexpectedException {
-        synchronized (order) {
-            // Check if the order is still CLOSED (it could have been changed by another thread)
-            if (order.getOrderState().equals(OrderState.CLOSED)) {
-                this.orderController.deactivateOrder(order);
-            }
+    /**
+     * Returns whether a removal of the federated network of the order from the agent has failed, and is waiting to
+     * be retried.
+     */
+    boolean isRetrying(FederatedNetworkOrder order) {
+        return this.failedDeletions.containsKey(order.getId());
+    }
+
+    private static class FailedDeletion {
+        private final long nextAttemptTime;
+        private final long retryDelay;
+
+        FailedDeletion(long nextAttemptTime, long retryDelay) {
+            this.nextAttemptTime = nextAttemptTime;
+            this.retryDelay = retryDelay;
         }
     }
 }
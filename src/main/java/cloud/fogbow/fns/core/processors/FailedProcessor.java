@@ -0,0 +1,33 @@
+package cloud.fogbow.fns.core.processors;
+
+import cloud.fogbow.common.exceptions.UnexpectedException;
+import cloud.fogbow.fns.core.OrderStateTransitioner;
+import cloud.fogbow.fns.core.exceptions.InvalidCidrException;
+import cloud.fogbow.fns.core.model.FederatedNetworkOrder;
+import cloud.fogbow.fns.core.model.OrderState;
+import cloud.fogbow.fns.utils.AgentCommunicatorUtil;
+import cloud.fogbow.fns.utils.FederatedNetworkUtil;
+import org.apache.commons.net.util.SubnetUtils;
+
+/**
+ * An order fails when the federated network could not be created at the agent, e.g. because the agent could not be
+ * reached. The creation is retried every time the order is processed, until it succeeds or the order is deleted.
+ */
+public class FailedProcessor implements OrderProcessor {
+    @Override
+    public void processOrder(FederatedNetworkOrder order) throws UnexpectedException, InvalidCidrException {
+        // Prevents the order from being deleted while its federated network is being created; the network is
+        // recorded as existing at the agent before the monitor is released (see OpenProcessor)
+        synchronized (order) {
+            if (!order.getOrderState().equals(OrderState.FAILED)) {
+                return;
+            }
+            SubnetUtils.SubnetInfo subnetInfo = FederatedNetworkUtil.getSubnetInfo(order.getCidr());
+            if (!AgentCommunicatorUtil.createFederatedNetwork(order.getCidr(), subnetInfo.getLowAddress())) {
+                return;
+            }
+            order.setAgentDeletionPending(true);
+        }
+        OrderStateTransitioner.transition(order, OrderState.FAILED, OrderState.FULFILLED);
+    }
+}
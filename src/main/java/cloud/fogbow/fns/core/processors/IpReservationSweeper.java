@@ -0,0 +1,46 @@
+package cloud.fogbow.fns.core.processors;
+
+import cloud.fogbow.fns.constants.Messages;
+import cloud.fogbow.fns.core.FederatedNetworkOrdersHolder;
+import cloud.fogbow.fns.core.model.FederatedNetworkOrder;
+import org.apache.log4j.Logger;
+
+public class IpReservationSweeper implements Runnable {
+    private static final Logger LOGGER = Logger.getLogger(IpReservationSweeper.class);
+
+    private final Long sleepTime;
+
+    public IpReservationSweeper(Long sleepTime) {
+        this.sleepTime = sleepTime;
+    }
+
+    @Override
+    public void run() {
+        while (true) {
+            try {
+                sweep(System.currentTimeMillis());
+                Thread.sleep(this.sleepTime);
+            } catch (InterruptedException e) {
+                LOGGER.error(Messages.Exception.THREAD_HAS_BEEN_INTERRUPTED, e);
+                break;
+            } catch (RuntimeException e) {
+                // Must not kill the thread; the reservations left are swept in the next round
+                LOGGER.error("", e);
+            }
+        }
+    }
+
+    protected void sweep(long now) {
+        for (FederatedNetworkOrder order : FederatedNetworkOrdersHolder.getInstance().getActiveOrders().values()) {
+            try {
+                int expired = order.expireIpReservations(now);
+                if (expired > 0) {
+                    LOGGER.warn(String.format(Messages.Warn.IP_RESERVATIONS_EXPIRED, expired, order.getId()));
+                }
+            } catch (RuntimeException e) {
+                // A failing order must not keep the reservations of the other orders from expiring
+                LOGGER.error("", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package cloud.fogbow.fns.core.processors;
+
+import cloud.fogbow.common.exceptions.FogbowException;
+import cloud.fogbow.fns.constants.Messages;
+import cloud.fogbow.fns.core.KeyMaterialHolder;
+import org.apache.log4j.Logger;
+
+public class KeyMaterialRefresher implements Runnable {
+    private static final Logger LOGGER = Logger.getLogger(KeyMaterialRefresher.class);
+
+    private final Long sleepTime;
+
+    public KeyMaterialRefresher(Long sleepTime) {
+        this.sleepTime = sleepTime;
+    }
+
+    @Override
+    public void run() {
+        while (true) {
+            try {
+                // While some key is missing, it is loaded again sooner, with the backoff of the holder
+                long retryDelay = KeyMaterialHolder.getInstance().getRetryDelay();
+                Thread.sleep(retryDelay > 0 ? Math.min(retryDelay, this.sleepTime) : this.sleepTime);
+                refresh();
+            } catch (InterruptedException e) {
+                LOGGER.error(Messages.Exception.THREAD_HAS_BEEN_INTERRUPTED, e);
+                break;
+            }
+        }
+    }
+
+    protected void refresh() {
+        try {
+            KeyMaterialHolder.getInstance().refresh();
+        } catch (FogbowException e) {
+            LOGGER.warn(String.format(Messages.Warn.UNABLE_TO_REFRESH_KEY_MATERIAL, e.getMessage()), e);
+        }
+    }
+}
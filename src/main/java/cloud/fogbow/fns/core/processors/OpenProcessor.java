@@ -1,66 +1,69 @@
 package cloud.fogbow.fns.core.processors;
 
 import cloud.fogbow.common.exceptions.UnexpectedException;
-import cloud.fogbow.common.models.linkedlists.ChainedList;
-import cloud.fogbow.fns.constants.Messages;
+import cloud.fogbow.fns.constants.MetricNames;
 import cloud.fogbow.fns.core.FederatedNetworkOrdersHolder;
 import cloud.fogbow.fns.core.OrderStateTransitioner;
 import cloud.fogbow.fns.core.exceptions.InvalidCidrException;
+import cloud.fogbow.fns.core.metrics.MetricsHolder;
 import cloud.fogbow.fns.core.model.FederatedNetworkOrder;
 import cloud.fogbow.fns.core.model.OrderState;
 import cloud.fogbow.fns.utils.AgentCommunicatorUtil;
 import cloud.fogbow.fns.utils.FederatedNetworkUtil;
 import org.apache.commons.net.util.SubnetUtils;
-import org.apache.log4j.Logger;
-
-public class OpenProcessor implements Runnable {
-    private static final Logger LOGGER = Logger.getLogger(cloud.fogbow.ras.core.processors.OpenProcessor.class);
-
-    private Long sleepTime;
-    private ChainedList<FederatedNetworkOrder> orders;
-
-    public OpenProcessor(Long sleepTime) {
-        this.sleepTime = sleepTime;
-        this.orders = FederatedNetworkOrdersHolder.getInstance().getOpenOrders();
-    }
 
+public class OpenProcessor implements OrderProcessor {
     @Override
-    public void run() {
-        while (true) {
-            try {
-                FederatedNetworkOrder order = this.orders.getNext();
-                if (order != null) {
-                    processOrder(order);
-                } else {
-                    this.orders.resetPointer();
-                    Thread.sleep(this.sleepTime);
-                }
-            } catch (InvalidCidrException e) {
-                LOGGER.error("", e);
-            } catch (UnexpectedException e) {
-                LOGGER.error("", e);
-            } catch (InterruptedException e) {
-                LOGGER.error(Messages.Exception.THREAD_HAS_BEEN_INTERRUPTED, e);
-                break;
-            }
-        }
-    }
-
-    protected void processOrder(FederatedNetworkOrder order) throws UnexpectedException, InvalidCidrException {
+    public void processOrder(FederatedNetworkOrder order) throws UnexpectedException, InvalidCidrException {
+        FederatedNetworkOrder closedOrder;
+        boolean successfullyCreated;
         // The order object synchronization is needed to prevent a race
         // condition on order access. For example: a user can delete an open
         // order while this method is trying to create the federated network.
+        // Whether the network exists at the agent is recorded before the monitor is released, so that a deletion
+        // that follows knows whether it is to be removed from the agent.
         synchronized (order) {
-            if (order.getOrderState().equals(OrderState.OPEN)) {
+            if (!order.getOrderState().equals(OrderState.OPEN)) {
+                return;
+            }
+            closedOrder = takeOverPendingDeletion(order);
+            if (closedOrder != null) {
+                // The network at the agent already has the configuration this order asks for
+                MetricsHolder.getInstance().addToCounter(MetricNames.AGENT_CALLS_SAVED, 2);
+                successfullyCreated = true;
+            } else {
                 SubnetUtils.SubnetInfo subnetInfo = FederatedNetworkUtil.getSubnetInfo(order.getCidr());
-                boolean successfullyCreated = AgentCommunicatorUtil.createFederatedNetwork(
+                successfullyCreated = AgentCommunicatorUtil.createFederatedNetwork(
                         order.getCidr(), subnetInfo.getLowAddress());
-                if (successfullyCreated) {
-                    OrderStateTransitioner.transition(order, OrderState.FULFILLED);
-                } else {
-                    OrderStateTransitioner.transition(order, OrderState.FAILED);
-                }
+            }
+            if (successfullyCreated) {
+                order.setAgentDeletionPending(true);
+            }
+        }
+        if (closedOrder != null) {
+            closedOrder.persist();
+        }
+        // Should the order have been deleted meanwhile, the network is removed from the agent by the ClosedProcessor
+        OrderStateTransitioner.transition(order, OrderState.OPEN,
+                successfullyCreated ? OrderState.FULFILLED : OrderState.FAILED);
+    }
+
+    // A deleted federated network with the same CIDR that has not been removed from the agent yet is kept at the
+    // agent for this order, instead of being removed and then created again. Such a network can only belong to the
+    // closed order this order took the CIDR from (see CidrIndex). Returns that order, to be persisted once the monitor
+    // of this one is released, or null if no network was taken over.
+    private FederatedNetworkOrder takeOverPendingDeletion(FederatedNetworkOrder order) throws InvalidCidrException {
+        FederatedNetworkOrder closedOrder = FederatedNetworkOrdersHolder.getInstance().getHandedOverOrder(order);
+        if (closedOrder == null) {
+            return null;
+        }
+        // The ClosedProcessor holds the monitor of the closed order while removing its network from the agent
+        synchronized (closedOrder) {
+            if (closedOrder.getOrderState().equals(OrderState.CLOSED) && closedOrder.isAgentDeletionPending()) {
+                closedOrder.setAgentDeletionPending(false);
+                return closedOrder;
             }
         }
+        return null;
     }
 }
@@ -0,0 +1,14 @@
+package cloud.fogbow.fns.core.processors;
+
+import cloud.fogbow.common.exceptions.UnexpectedException;
+import cloud.fogbow.fns.core.exceptions.InvalidCidrException;
+import cloud.fogbow.fns.core.model.FederatedNetworkOrder;
+
+/**
+ * Handles the orders in a given state; run by the threads of a StateProcessorPool. The same order is never handed to
+ * two threads at once, but the order may be changed concurrently by request threads, so implementations must check
+ * the state of the order again before acting on it.
+ */
+public interface OrderProcessor {
+    void processOrder(FederatedNetworkOrder order) throws UnexpectedException, InvalidCidrException;
+}
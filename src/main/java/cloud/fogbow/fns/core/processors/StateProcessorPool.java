@@ -0,0 +1,125 @@
+package cloud.fogbow.fns.core.processors;
+
+import cloud.fogbow.common.exceptions.UnexpectedException;
+import cloud.fogbow.fns.constants.Messages;
+import cloud.fogbow.fns.core.OrderWorkSet;
+import cloud.fogbow.fns.core.exceptions.InvalidCidrException;
+import cloud.fogbow.fns.core.model.FederatedNetworkOrder;
+import cloud.fogbow.fns.core.model.OrderState;
+import org.apache.log4j.Logger;
+
+/**
+ * The threads processing the orders in a given state. Each thread takes a batch of orders from the work set of the
+ * state, hands them to the processor and, unless the batch was full and made progress, waits before taking the next
+ * batch. With the polling policy, a thread always waits the whole sleep time; with the wakeup policy, it is woken up
+ * as soon as an order gets to the state.
+ */
+public class StateProcessorPool {
+    private static final Logger LOGGER = Logger.getLogger(StateProcessorPool.class);
+
+    public static final String POLLING_POLICY = "polling";
+    public static final String WAKEUP_POLICY = "wakeup";
+
+    private static final String THREAD_NAME_FORMAT = "fns-%s-proc-%d";
+
+    private final OrderState state;
+    private final OrderWorkSet orders;
+    private final OrderProcessor processor;
+    private final int poolSize;
+    private final int batchSize;
+    private final long sleepTime;
+    private final boolean wakeUpOnNewOrders;
+    private final Object wakeUpSignal;
+    // Guarded by wakeUpSignal; set when an order arrived while no thread was waiting
+    private boolean wakeUpPending;
+
+    public StateProcessorPool(OrderState state, OrderWorkSet orders, OrderProcessor processor, int poolSize,
+                              int batchSize, long sleepTime, String policy) {
+        this.state = state;
+        this.orders = orders;
+        this.processor = processor;
+        this.poolSize = poolSize;
+        this.batchSize = batchSize;
+        this.sleepTime = sleepTime;
+        this.wakeUpOnNewOrders = WAKEUP_POLICY.equalsIgnoreCase(policy);
+        this.wakeUpSignal = new Object();
+        this.wakeUpPending = false;
+    }
+
+    public void start() {
+        if (this.wakeUpOnNewOrders) {
+            this.orders.setOrderAddedListener(this::wakeUp);
+        }
+        String stateName = this.state.name().toLowerCase();
+        for (int i = 1; i <= this.poolSize; i++) {
+            new Thread(this::run, String.format(THREAD_NAME_FORMAT, stateName, i)).start();
+        }
+    }
+
+    private void run() {
+        while (true) {
+            try {
+                if (!processBatch()) {
+                    awaitOrders();
+                }
+            } catch (InterruptedException e) {
+                LOGGER.error(Messages.Exception.THREAD_HAS_BEEN_INTERRUPTED, e);
+                break;
+            }
+        }
+    }
+
+    /**
+     * Processes up to batchSize orders, each of them at most once.
+     * @return true if the batch was full and at least one of its orders left the state, i.e. if there may be more
+     * orders that can be processed right away
+     */
+    protected boolean processBatch() {
+        int processed = 0;
+        int left = 0;
+        // Orders given back to the set during the batch must not be taken again by it
+        int limit = Math.min(this.batchSize, this.orders.size());
+        while (processed < limit) {
+            FederatedNetworkOrder order = this.orders.poll();
+            if (order == null) {
+                break;
+            }
+            processed++;
+            try {
+                this.processor.processOrder(order);
+            } catch (InvalidCidrException e) {
+                LOGGER.error("", e);
+            } catch (UnexpectedException e) {
+                LOGGER.error("", e);
+            } catch (RuntimeException e) {
+                // Must not kill the thread; the order is processed again in a later batch
+                LOGGER.error("", e);
+            } finally {
+                if (!this.orders.requeue(order)) {
+                    left++;
+                }
+            }
+        }
+        return processed == this.batchSize && left > 0;
+    }
+
+    private void awaitOrders() throws InterruptedException {
+        if (!this.wakeUpOnNewOrders) {
+            Thread.sleep(this.sleepTime);
+            return;
+        }
+        synchronized (this.wakeUpSignal) {
+            if (!this.wakeUpPending) {
+                this.wakeUpSignal.wait(this.sleepTime);
+            }
+            this.wakeUpPending = false;
+        }
+    }
+
+    private void wakeUp() {
+        synchronized (this.wakeUpSignal) {
+            this.wakeUpPending = true;
+            this.wakeUpSignal.notify();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package cloud.fogbow.fns.utils;
 
 import org.apache.log4j.Logger;
+import cloud.fogbow.fns.core.AdmissionController;
 import cloud.fogbow.fns.core.PropertiesHolder;
 import cloud.fogbow.common.util.ProcessUtil;
 import cloud.fogbow.fns.constants.Messages;
@@ -24,6 +25,7 @@ public class AgentCommunicatorUtil {
         LOGGER.info("Trying to call agent with atts (" + cidrNotation + "): " + builder.command());
 
         int resultCode = 0;
+        long startTime = System.currentTimeMillis();
         try {
             Process process = builder.start();
             LOGGER.info(String.format(Messages.Error.TRYING_TO_CREATE_AGENT_OUTPUT, cidrNotation,
@@ -31,11 +33,13 @@ public class AgentCommunicatorUtil {
             LOGGER.info(String.format(Messages.Error.TRYING_TO_CREATE_AGENT_ERROR, cidrNotation, ProcessUtil.getError(process)));
             resultCode = process.waitFor();
             if (resultCode == 0) {
+                recordAgentCall(true, startTime);
                 return true;
             }
         } catch (Exception e) {
             LOGGER.error("", e);
         }
+        recordAgentCall(false, startTime);
         LOGGER.error(String.format(Messages.Error.UNABLE_TO_CALL_AGENT, resultCode));
         return false;
     }
@@ -52,6 +56,7 @@ public class AgentCommunicatorUtil {
         LOGGER.info("Trying to remove network on agent with atts (" + cidr + "): " + builder.command());
 
         int resultCode = 0;
+        long startTime = System.currentTimeMillis();
         try {
             Process process = builder.start();
             LOGGER.info(String.format(Messages.Error.TRYING_TO_DELETE_AGENT_OUTPUT, cidr,
@@ -59,12 +64,19 @@ public class AgentCommunicatorUtil {
             LOGGER.info(String.format(Messages.Error.TRYING_TO_DELETE_AGENT_ERROR, cidr, ProcessUtil.getError(process)));
             resultCode = process.waitFor();
             if (resultCode == 0) {
+                recordAgentCall(true, startTime);
                 return true;
             }
         } catch (Exception e) {
             LOGGER.error("", e);
         }
+        recordAgentCall(false, startTime);
         LOGGER.error(String.format(Messages.Error.UNABLE_TO_DELETE_AGENT, resultCode));
         return false;
     }
+
+    // The outcome of the calls tells the admission control whether the agent is available
+    private static void recordAgentCall(boolean successful, long startTime) {
+        AdmissionController.getInstance().recordAgentCall(successful, System.currentTimeMillis() - startTime);
+    }
 }
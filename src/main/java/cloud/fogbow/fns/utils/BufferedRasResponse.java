@@ -0,0 +1,100 @@
+package cloud.fogbow.fns.utils;
+
+import cloud.fogbow.fns.constants.Messages;
+import cloud.fogbow.ras.api.http.ExceptionResponse;
+import com.google.gson.Gson;
+import org.apache.http.Header;
+import org.apache.http.entity.ContentType;
+import org.apache.http.message.BasicHeader;
+import org.apache.http.protocol.HTTP;
+import org.apache.log4j.Logger;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A RAS response held in memory, so that it can be written to several clients. Instances are immutable.
+ */
+public class BufferedRasResponse {
+    private static final Logger LOGGER = Logger.getLogger(BufferedRasResponse.class);
+
+    private static final int WRITE_CHUNK_SIZE = 8192;
+
+    private final int status;
+    private final List<Header> headers;
+    private final byte[] body;
+
+    public BufferedRasResponse(int status, List<Header> headers, byte[] body) {
+        this.status = status;
+        this.headers = Collections.unmodifiableList(headers);
+        this.body = body;
+    }
+
+    // The same error the synchronous path answers with when the RAS cannot be reached
+    public static BufferedRasResponse gatewayTimeout(String requestDescription) {
+        ExceptionResponse errorDetails = new ExceptionResponse(
+                Messages.Error.RESOURCE_ALLOCATION_SERVICE_DOES_NOT_RESPOND, requestDescription);
+        byte[] body = new Gson().toJson(errorDetails).getBytes(StandardCharsets.UTF_8);
+        Header contentType = new BasicHeader(HTTP.CONTENT_TYPE, ContentType.APPLICATION_JSON.getMimeType());
+        return new BufferedRasResponse(HttpServletResponse.SC_GATEWAY_TIMEOUT, Collections.singletonList(contentType),
+                body);
+    }
+
+    public int getStatus() {
+        return this.status;
+    }
+
+    public int getSize() {
+        return this.body.length;
+    }
+
+    /**
+     * Writes this response to the client of an asynchronous request, without blocking the calling thread, and
+     * completes the request once the whole body is written.
+     */
+    public void writeTo(AsyncContext asyncContext, HttpServletResponse response) throws IOException {
+        response.setStatus(this.status);
+        for (Header header : this.headers) {
+            response.addHeader(header.getName(), header.getValue());
+        }
+        response.setContentLength(this.body.length);
+        ServletOutputStream outputStream = response.getOutputStream();
+        outputStream.setWriteListener(new BodyWriter(asyncContext, outputStream));
+    }
+
+    private class BodyWriter implements WriteListener {
+        private final AsyncContext asyncContext;
+        private final ServletOutputStream outputStream;
+        private int offset;
+
+        BodyWriter(AsyncContext asyncContext, ServletOutputStream outputStream) {
+            this.asyncContext = asyncContext;
+            this.outputStream = outputStream;
+            this.offset = 0;
+        }
+
+        @Override
+        public void onWritePossible() throws IOException {
+            while (this.offset < body.length && this.outputStream.isReady()) {
+                int length = Math.min(WRITE_CHUNK_SIZE, body.length - this.offset);
+                this.outputStream.write(body, this.offset, length);
+                this.offset += length;
+            }
+            if (this.offset == body.length) {
+                this.asyncContext.complete();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            LOGGER.info(String.format(Messages.Exception.GENERIC_EXCEPTION, throwable.getMessage()));
+            this.asyncContext.complete();
+        }
+    }
+}
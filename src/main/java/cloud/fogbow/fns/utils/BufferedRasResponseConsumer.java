@@ -0,0 +1,82 @@
+package cloud.fogbow.fns.utils;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.entity.ContentType;
+import org.apache.http.nio.ContentDecoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.protocol.AbstractAsyncResponseConsumer;
+import org.apache.http.protocol.HttpContext;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reads a whole RAS response into a BufferedRasResponse. Responses larger than the given limit are aborted with a
+ * ResponseTooLargeException, so that they can be streamed instead.
+ */
+public class BufferedRasResponseConsumer extends AbstractAsyncResponseConsumer<BufferedRasResponse> {
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Set<String> notForwardedHeaders;
+    private final long maxSize;
+    private final ByteBuffer buffer;
+    private int status;
+    private List<Header> headers;
+    private ByteArrayOutputStream body;
+
+    public BufferedRasResponseConsumer(Set<String> notForwardedHeaders, long maxSize) {
+        this.notForwardedHeaders = notForwardedHeaders;
+        this.maxSize = maxSize;
+        this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        this.headers = new ArrayList<>();
+        this.body = new ByteArrayOutputStream();
+    }
+
+    @Override
+    protected void onResponseReceived(HttpResponse response) {
+        this.status = response.getStatusLine().getStatusCode();
+        for (Header header : response.getAllHeaders()) {
+            if (!this.notForwardedHeaders.contains(header.getName().toLowerCase())) {
+                this.headers.add(header);
+            }
+        }
+    }
+
+    @Override
+    protected void onEntityEnclosed(HttpEntity entity, ContentType contentType) throws IOException {
+        if (entity.getContentLength() > this.maxSize) {
+            throw new ResponseTooLargeException();
+        }
+    }
+
+    @Override
+    protected void onContentReceived(ContentDecoder decoder, IOControl ioControl) throws IOException {
+        this.buffer.clear();
+        int read = decoder.read(this.buffer);
+        if (read > 0) {
+            if (this.body.size() + read > this.maxSize) {
+                throw new ResponseTooLargeException();
+            }
+            this.body.write(this.buffer.array(), 0, read);
+        }
+    }
+
+    @Override
+    protected BufferedRasResponse buildResult(HttpContext context) {
+        return new BufferedRasResponse(this.status, this.headers, this.body.toByteArray());
+    }
+
+    @Override
+    protected void releaseResources() {
+        this.body = null;
+    }
+
+    public static class ResponseTooLargeException extends IOException {
+    }
+}
@@ -3,7 +3,6 @@ package cloud.fogbow.fns.utils;
 import cloud.fogbow.common.util.CloudInitUserDataBuilder;
 import cloud.fogbow.fns.api.parameters.FederatedCompute;
 import cloud.fogbow.ras.core.models.UserData;
-import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.io.IOUtils;
 
 import java.io.FileInputStream;
@@ -11,7 +10,12 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class FederatedComputeUtil {
     private static final String IPSEC_INSTALLATION_PATH = "bin/ipsec-configuration";
@@ -22,14 +26,20 @@ public class FederatedComputeUtil {
     public static final String PRE_SHARED_KEY = "#PRE_SHARED_KEY#";
     public static final String FEDERATED_NETWORK_USER_DATA_TAG = "FNS_SCRIPT";
 
+    private static final String IS_FEDERATED_VM = "true";
+    private static final String NETWORK_KEY_SEPARATOR = "\u0000";
+    private static final int NETWORK_TEMPLATES_MAX_SIZE = 1024;
+
+    private static UserDataTemplate ipsecConfigurationTemplate;
+    // The ipsec configuration template with the values that are the same for every compute of a federated network
+    // (agent IP, CIDR and pre-shared key) already replaced; only the compute IP is left to be rendered.
+    private static Map<String, UserDataTemplate> networkTemplates = new ConcurrentHashMap<>();
+
     public static void addUserData(FederatedCompute fnsFederatedCompute, String federatedComputeIp, String agentPublicIp,
                                    String cidr, String preSharedKey) throws IOException {
-        InputStream inputStream = new FileInputStream(IPSEC_INSTALLATION_PATH);
-        String cloudInitScript = IOUtils.toString(inputStream);
-        String newScript = replaceScriptValues(cloudInitScript, federatedComputeIp, agentPublicIp, cidr, preSharedKey);
-        byte[] scriptBytes = newScript.getBytes(StandardCharsets.UTF_8);
-        byte[] encryptedScriptBytes = Base64.encodeBase64(scriptBytes);
-        String encryptedScript = new String(encryptedScriptBytes, StandardCharsets.UTF_8);
+        UserDataTemplate networkTemplate = getNetworkTemplate(agentPublicIp, cidr, preSharedKey);
+        String encryptedScript = networkTemplate.renderBase64(
+                Collections.singletonMap(LEFT_SOURCE_IP_KEY, federatedComputeIp));
 
         UserData newUserData = new UserData(encryptedScript,
                 CloudInitUserDataBuilder.FileType.SHELL_SCRIPT, FEDERATED_NETWORK_USER_DATA_TAG);
@@ -42,17 +52,34 @@ public class FederatedComputeUtil {
         userDataList.add(newUserData);
     }
 
-    private static String replaceScriptValues(String script, String federatedComputeIp, String agentPublicIp,
-                                              String cidr, String preSharedKey) {
-        String isFederatedVM = "true";
-        String scriptReplaced = script.replace(IS_FEDERATED_VM_KEY, isFederatedVM);
-        scriptReplaced = scriptReplaced.replace(LEFT_SOURCE_IP_KEY, federatedComputeIp);
-        scriptReplaced = scriptReplaced.replace(RIGHT_IP, agentPublicIp);
-        scriptReplaced = scriptReplaced.replace(RIGHT_SUBNET_KEY, cidr);
-        scriptReplaced = scriptReplaced.replace(PRE_SHARED_KEY, preSharedKey);
-        scriptReplaced = scriptReplaced.replace("\n", "[[\\n]]");
-        scriptReplaced = scriptReplaced.replace("\r", "");
-        return scriptReplaced;
+    private static UserDataTemplate getNetworkTemplate(String agentPublicIp, String cidr, String preSharedKey)
+            throws IOException {
+        String networkKey = agentPublicIp + NETWORK_KEY_SEPARATOR + cidr + NETWORK_KEY_SEPARATOR + preSharedKey;
+        UserDataTemplate networkTemplate = networkTemplates.get(networkKey);
+        if (networkTemplate == null) {
+            Map<String, String> networkValues = new HashMap<>();
+            networkValues.put(IS_FEDERATED_VM_KEY, IS_FEDERATED_VM);
+            networkValues.put(RIGHT_IP, agentPublicIp);
+            networkValues.put(RIGHT_SUBNET_KEY, cidr);
+            networkValues.put(PRE_SHARED_KEY, preSharedKey);
+            networkTemplate = getIpsecConfigurationTemplate().bind(networkValues);
+            if (networkTemplates.size() >= NETWORK_TEMPLATES_MAX_SIZE) {
+                // Rebuilding a network template is cheap; this only prevents the cache from growing indefinitely
+                networkTemplates.clear();
+            }
+            networkTemplates.put(networkKey, networkTemplate);
+        }
+        return networkTemplate;
     }
-}
 
+    private static synchronized UserDataTemplate getIpsecConfigurationTemplate() throws IOException {
+        if (ipsecConfigurationTemplate == null) {
+            try (InputStream inputStream = new FileInputStream(IPSEC_INSTALLATION_PATH)) {
+                String cloudInitScript = IOUtils.toString(inputStream, StandardCharsets.UTF_8.name());
+                ipsecConfigurationTemplate = UserDataTemplate.compile(cloudInitScript, Arrays.asList(
+                        IS_FEDERATED_VM_KEY, LEFT_SOURCE_IP_KEY, RIGHT_IP, RIGHT_SUBNET_KEY, PRE_SHARED_KEY));
+            }
+        }
+        return ipsecConfigurationTemplate;
+    }
+}
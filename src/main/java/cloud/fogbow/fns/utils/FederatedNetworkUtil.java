@@ -16,11 +16,13 @@ public class FederatedNetworkUtil {
     public static final int FREE_IP_CACHE_MAX_SIZE = 16;
     public static final int RESERVED_IPS = 2;
 
-    public synchronized static void fillCacheOfFreeIps(FederatedNetworkOrder federatedNetwork) throws InvalidCidrException,
+    // Callers must hold the federatedNetwork monitor; there is no need for a class-wide lock, since all the state
+    // read and written here belongs to the federatedNetwork order itself.
+    public static void fillCacheOfFreeIps(FederatedNetworkOrder federatedNetwork) throws InvalidCidrException,
             SubnetAddressesCapacityReachedException {
         int index = 1;
         String freeIp = null;
-        List<String> usedIPs = getUsedIps(federatedNetwork);
+        Set<String> usedIPs = getUsedIps(federatedNetwork);
         SubnetUtils.SubnetInfo subnetInfo = getSubnetInfo(federatedNetwork.getCidr());
         int lowAddress = subnetInfo.asInteger(subnetInfo.getLowAddress());
         Queue<String> cache = federatedNetwork.getCacheOfFreeIps();
@@ -34,13 +36,15 @@ public class FederatedNetworkUtil {
         if (cache.isEmpty()) throw new SubnetAddressesCapacityReachedException(federatedNetwork.getCidr());
     }
 
-    private synchronized static List<String> getUsedIps(FederatedNetworkOrder federatedNetworkOrder) {
+    private static Set<String> getUsedIps(FederatedNetworkOrder federatedNetworkOrder) {
         List<AssignedIp> assignedIps = federatedNetworkOrder.getAssignedIps();
-        List<String> usedIps = new ArrayList<>();
+        Set<String> usedIps = new HashSet<>();
         Iterator<AssignedIp> iterator = assignedIps.iterator();
         while (iterator.hasNext()) {
             usedIps.add(iterator.next().getIp());
         }
+        // IPs reserved for computes whose creation is still in progress are not free either
+        usedIps.addAll(federatedNetworkOrder.getReservedIps());
         return usedIps;
     }
 
@@ -0,0 +1,75 @@
+package cloud.fogbow.fns.utils;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A growable buffer holding a JSON document written straight into it as UTF-8, with no intermediate String. Buffers
+ * are taken from and returned to a small pool, so the buffers needed by compute creation requests, which carry the
+ * Base64-encoded user data, are allocated once and reused by the following requests.
+ *
+ * A buffer must be released only once nothing reads from it anymore, e.g. after the request it was sent in has
+ * completed.
+ */
+public class PooledJsonBuffer extends ByteArrayOutputStream {
+    private static final int INITIAL_SIZE = 16 * 1024;
+    // Buffers grown beyond this size are left to the garbage collector, so the pool never pins a lot of memory
+    private static final int MAX_POOLED_SIZE = 1024 * 1024;
+    private static final int MAX_POOLED_BUFFERS = 64;
+
+    private static final Queue<PooledJsonBuffer> POOL = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger POOLED_BUFFERS = new AtomicInteger();
+
+    private PooledJsonBuffer() {
+        super(INITIAL_SIZE);
+    }
+
+    public static PooledJsonBuffer acquire() {
+        PooledJsonBuffer buffer = POOL.poll();
+        if (buffer == null) {
+            return new PooledJsonBuffer();
+        }
+        POOLED_BUFFERS.decrementAndGet();
+        return buffer;
+    }
+
+    public void release() {
+        if (this.buf.length > MAX_POOLED_SIZE) {
+            return;
+        }
+        reset();
+        if (POOLED_BUFFERS.incrementAndGet() <= MAX_POOLED_BUFFERS) {
+            POOL.offer(this);
+        } else {
+            POOLED_BUFFERS.decrementAndGet();
+        }
+    }
+
+    static int getPooledBuffers() {
+        return POOLED_BUFFERS.get();
+    }
+
+    public void writeJson(Gson gson, Object source) throws IOException {
+        JsonWriter writer = new JsonWriter(new OutputStreamWriter(this, StandardCharsets.UTF_8));
+        gson.toJson(source, source.getClass(), writer);
+        writer.flush();
+    }
+
+    /**
+     * Returns an entity backed by this buffer, without copying it.
+     */
+    public HttpEntity toEntity() {
+        return new ByteArrayEntity(this.buf, 0, this.count, ContentType.APPLICATION_JSON);
+    }
+}
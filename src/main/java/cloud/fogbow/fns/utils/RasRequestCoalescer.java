@@ -0,0 +1,161 @@
+package cloud.fogbow.fns.utils;
+
+import cloud.fogbow.common.exceptions.FatalErrorException;
+import cloud.fogbow.fns.constants.ConfigurationPropertyDefaults;
+import cloud.fogbow.fns.constants.ConfigurationPropertyKeys;
+import cloud.fogbow.fns.constants.Messages;
+import cloud.fogbow.fns.constants.MetricNames;
+import cloud.fogbow.fns.core.PropertiesHolder;
+import cloud.fogbow.fns.core.metrics.MetricsHolder;
+
+import javax.servlet.http.HttpServletResponse;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Collapses identical GET requests sent to the RAS at the same time into a single one. Two requests are identical
+ * when they target the same endpoint, with the same query, on behalf of the same user; while the first one is in
+ * flight, the others wait for its response instead of sending their own.
+ *
+ * Optionally, the responses of some endpoint families are also kept for a short while after they arrive. The
+ * families are configured as a list of endpoint prefixes, each one with the time (in milliseconds) its responses are
+ * reused, e.g. "images:10000,clouds:60000,computes/quota:5000". Only successful responses are kept, and a response
+ * is only ever served to the user that got it.
+ */
+public class RasRequestCoalescer {
+    private static final String FAMILIES_SEPARATOR = ",";
+    private static final String TIME_TO_LIVE_SEPARATOR = ":";
+
+    private static RasRequestCoalescer instance;
+
+    private final Map<String, CompletableFuture<BufferedRasResponse>> inFlightRequests;
+    private final Map<String, Long> timesToLive;
+    private final TokenDigestCache<BufferedRasResponse> responseCache;
+    private final long maxResponseSize;
+
+    RasRequestCoalescer(Map<String, Long> timesToLive, int responseCacheMaxSize, long maxResponseSize) {
+        this.inFlightRequests = new ConcurrentHashMap<>();
+        this.timesToLive = timesToLive;
+        this.maxResponseSize = maxResponseSize;
+        // The cache keys embed the user identity, so they are digested just like tokens
+        this.responseCache = new TokenDigestCache<>(responseCacheMaxSize, MetricNames.RAS_RESPONSE_CACHE_HITS,
+                MetricNames.RAS_RESPONSE_CACHE_MISSES, MetricNames.RAS_RESPONSE_CACHE_SIZE);
+        MetricsHolder.getInstance().registerGauge(MetricNames.RAS_COALESCED_REQUESTS_IN_FLIGHT,
+                this.inFlightRequests::size);
+    }
+
+    public static synchronized RasRequestCoalescer getInstance() {
+        if (instance == null) {
+            PropertiesHolder properties = PropertiesHolder.getInstance();
+            Map<String, Long> timesToLive = parseTimesToLive(properties.getProperty(
+                    ConfigurationPropertyKeys.RAS_RESPONSE_CACHE_TTLS_KEY,
+                    ConfigurationPropertyDefaults.RAS_RESPONSE_CACHE_TTLS));
+            int responseCacheMaxSize = Integer.parseInt(properties.getProperty(
+                    ConfigurationPropertyKeys.RAS_RESPONSE_CACHE_MAX_SIZE_KEY,
+                    ConfigurationPropertyDefaults.RAS_RESPONSE_CACHE_MAX_SIZE));
+            long maxResponseSize = Long.parseLong(properties.getProperty(
+                    ConfigurationPropertyKeys.RAS_COALESCED_RESPONSE_MAX_SIZE_KEY,
+                    ConfigurationPropertyDefaults.RAS_COALESCED_RESPONSE_MAX_SIZE));
+            instance = new RasRequestCoalescer(timesToLive, responseCacheMaxSize, maxResponseSize);
+        }
+        return instance;
+    }
+
+    /**
+     * Responses are held in memory to be shared, so only those up to this size (in bytes) are coalesced; larger ones
+     * are streamed to each client separately.
+     */
+    public long getMaxResponseSize() {
+        return this.maxResponseSize;
+    }
+
+    /**
+     * Returns the response to the given GET request. The request is only sent, through rasRequest, if the same user
+     * has no identical request in flight and no cached response for it.
+     *
+     * @param endpoint the path of the request, relative to the FNS base endpoint (e.g. "images/cloud")
+     * @param query the query string of the request, or null
+     * @param userKey identifies the user on whose behalf the request is made
+     */
+    public CompletableFuture<BufferedRasResponse> get(String endpoint, String query, String userKey,
+                                                      Supplier<CompletableFuture<BufferedRasResponse>> rasRequest) {
+        String key = userKey + "\n" + endpoint + "?" + (query == null ? "" : query);
+        long timeToLive = getTimeToLive(endpoint);
+        if (timeToLive > 0) {
+            BufferedRasResponse cachedResponse = this.responseCache.get(key);
+            if (cachedResponse != null) {
+                return CompletableFuture.completedFuture(cachedResponse);
+            }
+        }
+
+        CompletableFuture<BufferedRasResponse> response = new CompletableFuture<>();
+        CompletableFuture<BufferedRasResponse> inFlightResponse = this.inFlightRequests.putIfAbsent(key, response);
+        if (inFlightResponse != null) {
+            MetricsHolder.getInstance().incrementCounter(MetricNames.RAS_COALESCED_REQUESTS_JOINED);
+            return inFlightResponse;
+        }
+
+        MetricsHolder.getInstance().incrementCounter(MetricNames.RAS_COALESCED_REQUESTS_SENT);
+        try {
+            rasRequest.get().whenComplete((rasResponse, throwable) -> {
+                // The response is cached before the request leaves the map, so that no identical request sent in
+                // between misses both of them
+                if (throwable == null && timeToLive > 0 && rasResponse.getStatus() == HttpServletResponse.SC_OK) {
+                    this.responseCache.put(key, rasResponse, System.currentTimeMillis() + timeToLive);
+                }
+                this.inFlightRequests.remove(key, response);
+                if (throwable == null) {
+                    response.complete(rasResponse);
+                } else {
+                    response.completeExceptionally(throwable);
+                }
+            });
+        } catch (RuntimeException e) {
+            this.inFlightRequests.remove(key, response);
+            response.completeExceptionally(e);
+        }
+        return response;
+    }
+
+    // The longest configured prefix matching the endpoint determines its family
+    long getTimeToLive(String endpoint) {
+        String family = null;
+        for (String prefix : this.timesToLive.keySet()) {
+            boolean matches = endpoint.equals(prefix) || endpoint.startsWith(prefix + "/");
+            if (matches && (family == null || prefix.length() > family.length())) {
+                family = prefix;
+            }
+        }
+        return family == null ? 0 : this.timesToLive.get(family);
+    }
+
+    // Malformed entries are rejected here, so that a wrong configuration stops the FNS at startup (see Main) instead
+    // of failing its first proxied request
+    static Map<String, Long> parseTimesToLive(String property) throws FatalErrorException {
+        Map<String, Long> timesToLive = new HashMap<>();
+        for (String family : property.split(FAMILIES_SEPARATOR)) {
+            if (family.trim().isEmpty()) {
+                continue;
+            }
+            String[] prefixAndTimeToLive = family.split(TIME_TO_LIVE_SEPARATOR);
+            String prefix = prefixAndTimeToLive[0].trim().replaceAll("^/+|/+$", "");
+            long timeToLive = -1;
+            if (prefixAndTimeToLive.length == 2 && !prefix.isEmpty()) {
+                try {
+                    timeToLive = Long.parseLong(prefixAndTimeToLive[1].trim());
+                } catch (NumberFormatException e) {
+                    timeToLive = -1;
+                }
+            }
+            if (timeToLive < 0) {
+                throw new FatalErrorException(String.format(Messages.Fatal.INVALID_RAS_RESPONSE_CACHE_TIME_TO_LIVE,
+                        family.trim(), ConfigurationPropertyKeys.RAS_RESPONSE_CACHE_TTLS_KEY));
+            }
+            timesToLive.put(prefix, timeToLive);
+        }
+        return timesToLive;
+    }
+}
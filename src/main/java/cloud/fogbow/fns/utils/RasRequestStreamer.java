@@ -0,0 +1,146 @@
+package cloud.fogbow.fns.utils;
+
+import cloud.fogbow.fns.constants.Messages;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.utils.URIUtils;
+import org.apache.http.nio.ContentEncoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.protocol.HttpAsyncRequestProducer;
+import org.apache.http.protocol.HttpContext;
+import org.apache.log4j.Logger;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Sends the body of a client request to the RAS as it arrives, without holding any thread while either side is not
+ * ready. At most one buffer of data is kept in memory: the client is read only once the previous data has been sent
+ * to the RAS, and only while the servlet container tells that reading will not block; when there is nothing to send,
+ * writing to the RAS is suspended until the client sends more data.
+ *
+ * The RAS side is driven by the I/O threads of the non-blocking HTTP client and the client side by the servlet
+ * container, so all the state is guarded by this object's monitor.
+ */
+public class RasRequestStreamer implements HttpAsyncRequestProducer, ReadListener {
+    private static final Logger LOGGER = Logger.getLogger(RasRequestStreamer.class);
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final HttpHost target;
+    // Declares the body, so the HTTP client sets the headers describing it
+    private final HttpUriRequest rasRequest;
+    private final ServletInputStream inputStream;
+    // Holds the data already read from the client, but not yet sent to the RAS; always in read mode
+    private final ByteBuffer buffer;
+    private IOControl ioControl;
+    private boolean outputSuspended;
+    private boolean clientRequestCompleted;
+    private Throwable clientError;
+
+    public RasRequestStreamer(HttpUriRequest rasRequest, ServletInputStream inputStream) {
+        this.target = URIUtils.extractHost(rasRequest.getURI());
+        this.rasRequest = rasRequest;
+        this.inputStream = inputStream;
+        this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        this.buffer.limit(0);
+        this.outputSuspended = false;
+        this.clientRequestCompleted = false;
+    }
+
+    @Override
+    public HttpHost getTarget() {
+        return this.target;
+    }
+
+    @Override
+    public HttpRequest generateRequest() {
+        return this.rasRequest;
+    }
+
+    @Override
+    public synchronized void produceContent(ContentEncoder encoder, IOControl ioControl) throws IOException {
+        this.ioControl = ioControl;
+        if (this.clientError != null) {
+            // Failing the request to the RAS makes the response streamer end the client request
+            throw new IOException(this.clientError);
+        }
+        readBuffer();
+        if (this.buffer.hasRemaining()) {
+            encoder.write(this.buffer);
+        } else if (isClientRequestCompleted()) {
+            encoder.complete();
+        } else {
+            // The client has not sent more data yet
+            this.ioControl.suspendOutput();
+            this.outputSuspended = true;
+        }
+    }
+
+    @Override
+    public void requestCompleted(HttpContext context) {
+    }
+
+    @Override
+    public void failed(Exception exception) {
+        // The failure is handled by the callback of the request
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        // The body is read from the client only once
+        return false;
+    }
+
+    @Override
+    public void resetRequest() {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public synchronized void onDataAvailable() {
+        resumeOutput();
+    }
+
+    @Override
+    public synchronized void onAllDataRead() {
+        this.clientRequestCompleted = true;
+        resumeOutput();
+    }
+
+    @Override
+    public synchronized void onError(Throwable throwable) {
+        // The client is gone; there is no point in sending the rest of the request to the RAS
+        LOGGER.info(String.format(Messages.Exception.GENERIC_EXCEPTION, throwable.getMessage()));
+        this.clientError = throwable;
+        resumeOutput();
+    }
+
+    private void readBuffer() throws IOException {
+        // isReady() returning false makes the container call onDataAvailable() once the client has sent more data,
+        // so reading never blocks the calling thread
+        while (!this.buffer.hasRemaining() && !isClientRequestCompleted() && this.inputStream.isReady()) {
+            this.buffer.clear();
+            int read = this.inputStream.read(this.buffer.array(), 0, this.buffer.capacity());
+            this.buffer.limit(Math.max(read, 0));
+            this.clientRequestCompleted = read == -1;
+        }
+    }
+
+    private boolean isClientRequestCompleted() {
+        return this.clientRequestCompleted || this.inputStream.isFinished();
+    }
+
+    private void resumeOutput() {
+        if (this.outputSuspended) {
+            this.outputSuspended = false;
+            this.ioControl.requestOutput();
+        }
+    }
+}
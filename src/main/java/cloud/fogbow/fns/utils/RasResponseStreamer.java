@@ -0,0 +1,195 @@
+package cloud.fogbow.fns.utils;
+
+import cloud.fogbow.fns.constants.Messages;
+import cloud.fogbow.ras.api.http.ExceptionResponse;
+import com.google.gson.Gson;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.entity.ContentType;
+import org.apache.http.nio.ContentDecoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.protocol.AbstractAsyncResponseConsumer;
+import org.apache.http.protocol.HTTP;
+import org.apache.http.protocol.HttpContext;
+import org.apache.log4j.Logger;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+/**
+ * Writes a RAS response to the client of an asynchronous request as the response arrives, without holding any thread
+ * while either side is not ready. At most one buffer of data is kept in memory: when the client cannot take more
+ * data, reading from the RAS is suspended until the servlet container tells that the client is ready again.
+ *
+ * The RAS side is driven by the I/O threads of the non-blocking HTTP client and the client side by the servlet
+ * container, so all the state is guarded by this object's monitor.
+ */
+public class RasResponseStreamer extends AbstractAsyncResponseConsumer<Void> implements WriteListener {
+    private static final Logger LOGGER = Logger.getLogger(RasResponseStreamer.class);
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final AsyncContext asyncContext;
+    private final HttpServletResponse response;
+    private final ServletOutputStream outputStream;
+    private final Set<String> notForwardedHeaders;
+    private final String requestDescription;
+    // Holds the data already read from the RAS, but not yet written to the client; always in read mode
+    private ByteBuffer buffer;
+    private IOControl ioControl;
+    private boolean inputSuspended;
+    private boolean rasResponseCompleted;
+    private boolean finished;
+
+    public RasResponseStreamer(AsyncContext asyncContext, HttpServletResponse response, Set<String> notForwardedHeaders,
+                               String requestDescription) throws IOException {
+        this.asyncContext = asyncContext;
+        this.response = response;
+        this.outputStream = response.getOutputStream();
+        this.notForwardedHeaders = notForwardedHeaders;
+        this.requestDescription = requestDescription;
+        this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        this.buffer.limit(0);
+        this.inputSuspended = false;
+        this.rasResponseCompleted = false;
+        this.finished = false;
+    }
+
+    @Override
+    protected synchronized void onResponseReceived(HttpResponse rasResponse) {
+        this.response.setStatus(rasResponse.getStatusLine().getStatusCode());
+        for (Header header : rasResponse.getAllHeaders()) {
+            if (!this.notForwardedHeaders.contains(header.getName().toLowerCase())) {
+                this.response.addHeader(header.getName(), header.getValue());
+            }
+        }
+        Header contentLength = rasResponse.getFirstHeader(HTTP.CONTENT_LEN);
+        if (contentLength != null) {
+            this.response.setContentLengthLong(Long.parseLong(contentLength.getValue()));
+        }
+    }
+
+    @Override
+    protected void onEntityEnclosed(HttpEntity entity, ContentType contentType) {
+        // The headers of the entity have already been copied by onResponseReceived()
+    }
+
+    @Override
+    protected synchronized void onContentReceived(ContentDecoder decoder, IOControl ioControl) throws IOException {
+        this.ioControl = ioControl;
+        if (this.buffer.hasRemaining()) {
+            // The client has not taken the previous data yet
+            suspendInput();
+            return;
+        }
+        this.buffer.clear();
+        decoder.read(this.buffer);
+        this.buffer.flip();
+        writeBuffer();
+        if (this.buffer.hasRemaining()) {
+            suspendInput();
+        }
+    }
+
+    @Override
+    protected synchronized Void buildResult(HttpContext context) throws IOException {
+        this.rasResponseCompleted = true;
+        if (!this.buffer.hasRemaining() && this.outputStream.isReady()) {
+            finish();
+        }
+        return null;
+    }
+
+    @Override
+    protected void releaseResources() {
+    }
+
+    @Override
+    public synchronized void onWritePossible() throws IOException {
+        writeBuffer();
+        if (this.buffer.hasRemaining()) {
+            return;
+        }
+        if (this.rasResponseCompleted) {
+            finish();
+        } else if (this.inputSuspended) {
+            this.inputSuspended = false;
+            this.ioControl.requestInput();
+        }
+    }
+
+    @Override
+    public synchronized void onError(Throwable throwable) {
+        // The client is gone; there is no point in reading the rest of the RAS response
+        LOGGER.info(String.format(Messages.Exception.GENERIC_EXCEPTION, throwable.getMessage()));
+        cancel();
+        if (this.ioControl != null) {
+            try {
+                this.ioControl.shutdown();
+            } catch (IOException e) {
+                LOGGER.info(String.format(Messages.Exception.GENERIC_EXCEPTION, e.getMessage()));
+            }
+        }
+        finish();
+    }
+
+    /**
+     * Called when the request to the RAS fails. If nothing has been sent to the client yet, it gets the same error
+     * the synchronous path would answer with; otherwise the response is just ended.
+     */
+    public synchronized void fail(Exception exception) {
+        LOGGER.info(String.format(Messages.Exception.GENERIC_EXCEPTION, exception.getMessage()));
+        if (this.finished) {
+            return;
+        }
+        if (this.response.isCommitted()) {
+            finish();
+            return;
+        }
+        this.response.reset();
+        this.response.setStatus(HttpServletResponse.SC_GATEWAY_TIMEOUT);
+        this.response.setContentType(ContentType.APPLICATION_JSON.getMimeType());
+        ExceptionResponse errorDetails = new ExceptionResponse(
+                Messages.Error.RESOURCE_ALLOCATION_SERVICE_DOES_NOT_RESPOND, this.requestDescription);
+        this.buffer = ByteBuffer.wrap(new Gson().toJson(errorDetails).getBytes(StandardCharsets.UTF_8));
+        this.rasResponseCompleted = true;
+        try {
+            onWritePossible();
+        } catch (IOException e) {
+            onError(e);
+        }
+    }
+
+    private void writeBuffer() throws IOException {
+        // isReady() returning false makes the container call onWritePossible() once the client can take more data
+        while (this.buffer.hasRemaining() && this.outputStream.isReady()) {
+            this.outputStream.write(this.buffer.array(), this.buffer.arrayOffset() + this.buffer.position(),
+                    this.buffer.remaining());
+            this.buffer.position(this.buffer.limit());
+        }
+    }
+
+    private void suspendInput() {
+        this.ioControl.suspendInput();
+        this.inputSuspended = true;
+    }
+
+    private void finish() {
+        if (!this.finished) {
+            this.finished = true;
+            try {
+                this.asyncContext.complete();
+            } catch (IllegalStateException e) {
+                // The request has already been completed by the container, because it timed out
+                LOGGER.info(String.format(Messages.Exception.GENERIC_EXCEPTION, e.getMessage()));
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package cloud.fogbow.fns.utils;
+
+import cloud.fogbow.fns.constants.ConfigurationPropertyDefaults;
+import cloud.fogbow.fns.constants.ConfigurationPropertyKeys;
+import cloud.fogbow.fns.constants.MetricNames;
+import cloud.fogbow.fns.core.PropertiesHolder;
+
+/**
+ * Caches the result of rewrapping a user token for the RAS, so that consecutive requests of the same user do not pay
+ * for the asymmetric decryption and encryption again. Must be cleared whenever the keys used to rewrap the tokens
+ * change.
+ */
+public class RasTokenCache extends TokenDigestCache<String> {
+    private static RasTokenCache instance;
+
+    private final long timeToLive;
+
+    RasTokenCache(int maxSize, long timeToLive) {
+        super(maxSize, MetricNames.RAS_TOKEN_CACHE_HITS, MetricNames.RAS_TOKEN_CACHE_MISSES,
+                MetricNames.RAS_TOKEN_CACHE_SIZE);
+        this.timeToLive = timeToLive;
+    }
+
+    public static synchronized RasTokenCache getInstance() {
+        if (instance == null) {
+            int maxSize = Integer.parseInt(PropertiesHolder.getInstance().getProperty(
+                    ConfigurationPropertyKeys.RAS_TOKEN_CACHE_MAX_SIZE_KEY,
+                    ConfigurationPropertyDefaults.RAS_TOKEN_CACHE_MAX_SIZE));
+            long timeToLive = Long.parseLong(PropertiesHolder.getInstance().getProperty(
+                    ConfigurationPropertyKeys.RAS_TOKEN_CACHE_TTL_KEY,
+                    ConfigurationPropertyDefaults.RAS_TOKEN_CACHE_TTL));
+            instance = new RasTokenCache(maxSize, timeToLive);
+        }
+        return instance;
+    }
+
+    public void put(String systemUserToken, String rasToken) {
+        put(systemUserToken, rasToken, System.currentTimeMillis() + this.timeToLive);
+    }
+}
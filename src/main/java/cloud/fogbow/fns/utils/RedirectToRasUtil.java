@@ -2,90 +2,359 @@ package cloud.fogbow.fns.utils;
 
 import cloud.fogbow.common.constants.FogbowConstants;
 import cloud.fogbow.common.exceptions.*;
-import cloud.fogbow.common.util.ServiceAsymmetricKeysHolder;
+import cloud.fogbow.common.util.HttpErrorToFogbowExceptionMapper;
 import cloud.fogbow.as.core.util.TokenProtector;
 import cloud.fogbow.fns.constants.SystemConstants;
 import cloud.fogbow.fns.core.PropertiesHolder;
-import cloud.fogbow.fns.core.FnsPublicKeysHolder;
+import cloud.fogbow.fns.core.RasHttpClientHolder;
+import cloud.fogbow.fns.core.KeyMaterialHolder;
 import cloud.fogbow.fns.constants.ConfigurationPropertyKeys;
 import cloud.fogbow.fns.constants.Messages;
 import cloud.fogbow.ras.api.http.CommonKeys;
+import cloud.fogbow.ras.api.http.ExceptionResponse;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.entity.BasicHttpEntity;
+import org.apache.http.nio.client.methods.HttpAsyncMethods;
+import org.apache.http.nio.protocol.HttpAsyncRequestProducer;
+import org.apache.http.util.EntityUtils;
 import org.apache.log4j.Logger;
-import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.ClientHttpResponse;
-import org.springframework.web.client.ResponseErrorHandler;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import javax.servlet.AsyncContext;
+import javax.servlet.ServletInputStream;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.security.GeneralSecurityException;
-import java.security.interfaces.RSAPrivateKey;
-import java.security.interfaces.RSAPublicKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 public class RedirectToRasUtil {
 
     private static final Logger LOGGER = Logger.getLogger(RedirectToRasUtil.class);
 
-    public static <T> ResponseEntity<T> redirectRequestToRas(String body, HttpMethod method, HttpServletRequest request,
-                                                             Class<T> responseType) throws FatalErrorException,
-            FogbowException {
-        String requestUrl = request.getRequestURI();
-        String rasUrl = PropertiesHolder.getInstance().getProperty(ConfigurationPropertyKeys.RAS_URL_KEY);
-        int rasPort = Integer.parseInt(PropertiesHolder.getInstance().getProperty(ConfigurationPropertyKeys.RAS_PORT_KEY));
+    private static final Gson GSON = new Gson();
 
-        URI uri = null;
+    private static final Set<String> NOT_FORWARDED_HEADERS = new HashSet<>(Arrays.asList(
+            "connection", "content-length", "host", "keep-alive", "transfer-encoding", "upgrade"));
+
+    /**
+     * Forwards the request to the RAS and writes the RAS response back to the client. Both bodies are streamed
+     * through fixed-size buffers, so the memory used does not depend on their sizes; the only header rewritten is the
+     * one carrying the user token.
+     *
+     * The request is served asynchronously: this method returns as soon as the request is started, releasing the
+     * calling servlet thread. The request body is sent by a RasRequestStreamer as the client sends it, and the
+     * response is written by a RasResponseStreamer as it arrives; both only touch a client when the servlet container
+     * tells it is ready, so the I/O threads of the HTTP client, shared by all the requests to the RAS, never wait for
+     * a client.
+     */
+    public static void streamRequestToRas(HttpMethod method, HttpServletRequest request, HttpServletResponse response)
+            throws FatalErrorException, FogbowException, IOException {
+        RequestBuilder rasRequest = buildRasRequest(method, request);
+        String requestDescription = describe(request);
+        AsyncContext asyncContext = startAsync(request, response);
         try {
-            uri = new URI(rasUrl);
-        } catch (URISyntaxException e) {
-            throw new ConfigurationErrorException(String.format(Messages.Exception.INVALID_URL, rasUrl));
+            streamResponseFromRas(createRequestProducer(rasRequest, request), asyncContext, response,
+                    requestDescription);
+        } catch (IOException | RuntimeException e) {
+            failAsync(asyncContext, response, e);
+        }
+    }
+
+    /**
+     * Serves a GET request of an authenticated user like streamRequestToRas() does, except that identical requests of
+     * the same user made at the same time share a single request to the RAS (see RasRequestCoalescer). The shared
+     * response is read into memory before being written to each client; responses too large to be shared are
+     * streamed to each client by a request of its own.
+     *
+     * @param userKey identifies the user on whose behalf the request is made
+     */
+    public static void coalesceGetRequestToRas(String userKey, HttpServletRequest request,
+                                               HttpServletResponse response)
+            throws FatalErrorException, FogbowException, IOException {
+        if (hasBody(request)) {
+            // The body would not be part of the key the requests are shared by
+            streamRequestToRas(HttpMethod.GET, request, response);
+            return;
+        }
+        HttpUriRequest rasRequest = buildRasRequest(HttpMethod.GET, request).build();
+        String requestDescription = describe(request);
+        String requestUri = request.getRequestURI();
+        String endpoint = requestUri.substring(requestUri.indexOf(SystemConstants.SERVICE_BASE_ENDPOINT) +
+                SystemConstants.SERVICE_BASE_ENDPOINT.length());
+
+        AsyncContext asyncContext = startAsync(request, response);
+        RasRequestCoalescer coalescer = RasRequestCoalescer.getInstance();
+        CompletableFuture<BufferedRasResponse> sharedResponse;
+        try {
+            sharedResponse = coalescer.get(endpoint, request.getQueryString(), userKey,
+                    () -> bufferResponseFromRas(rasRequest, coalescer.getMaxResponseSize()));
+        } catch (RuntimeException e) {
+            failAsync(asyncContext, response, e);
+            return;
+        }
+        sharedResponse.whenCompleteAsync((rasResponse, throwable) -> {
+            Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+            try {
+                if (cause == null) {
+                    rasResponse.writeTo(asyncContext, response);
+                } else if (cause instanceof BufferedRasResponseConsumer.ResponseTooLargeException) {
+                    // The request is built again, since the one already sent may not be reused
+                    streamResponseFromRas(HttpAsyncMethods.create(buildRasRequest(HttpMethod.GET, request).build()),
+                            asyncContext, response, requestDescription);
+                } else {
+                    LOGGER.info(String.format(Messages.Exception.GENERIC_EXCEPTION, cause.getMessage()));
+                    BufferedRasResponse.gatewayTimeout(requestDescription).writeTo(asyncContext, response);
+                }
+            } catch (FogbowException | IOException | RuntimeException e) {
+                failAsync(asyncContext, response, e);
+            }
+        }, RasHttpClientHolder.getInstance().getResponseHandlersExecutor());
+    }
+
+    /**
+     * Sends a request to the RAS on behalf of a user whose token has already been rewrapped with rewrapToken(),
+     * without blocking the calling thread. This allows a single rewrap to be shared by several requests of the same
+     * user. The body, if not null, is written as JSON straight into a pooled buffer, and a successful response is read
+     * as JSON straight into an instance of responseType (unless it is Void), neither of them going through a String.
+     *
+     * The returned future completes exceptionally with the exception corresponding to the status of an unsuccessful
+     * response, or with an UnavailableProviderException if the RAS cannot be reached. The future is completed by a
+     * response handler thread, so the stages chained to it may block.
+     */
+    public static <T> CompletableFuture<T> sendRequestToRasAsync(String path, Object body, HttpMethod method,
+                                                                 String rasTokenValue, Class<T> responseType)
+            throws FatalErrorException, FogbowException {
+        RequestBuilder rasRequest = RequestBuilder.create(method.name()).setUri(getRasUri(path, null))
+                .addHeader(HttpHeaders.CONTENT_TYPE, "application/json")
+                .addHeader(CommonKeys.SYSTEM_USER_TOKEN_HEADER_KEY, rasTokenValue);
+        PooledJsonBuffer requestBody = null;
+        if (body != null) {
+            requestBody = PooledJsonBuffer.acquire();
+            try {
+                requestBody.writeJson(GSON, body);
+            } catch (IOException | RuntimeException e) {
+                requestBody.release();
+                throw new UnexpectedException(e.getMessage(), e);
+            }
+            rasRequest.setEntity(requestBody.toEntity());
+        }
+
+        CompletableFuture<T> future = new CompletableFuture<>();
+        RasResponseCallback<T> callback = new RasResponseCallback<>(future, requestBody, responseType,
+                RasHttpClientHolder.getInstance().getResponseHandlersExecutor());
+        try {
+            RasHttpClientHolder.getInstance().getAsyncHttpClient().execute(rasRequest.build(), callback);
+        } catch (RuntimeException e) {
+            // The HTTP client is not running
+            callback.failed(e);
+        }
+        return future;
+    }
+
+    // The systemUserToken needs to be decrypted with the FNS private key, and then encrypted with
+    // the RAS public key, before being forwarded. The result is cached, since the same user usually sends
+    // several requests in a row.
+    public static String rewrapToken(String systemUserToken) throws FatalErrorException, FogbowException {
+        RasTokenCache rasTokenCache = RasTokenCache.getInstance();
+        String rasTokenValue = rasTokenCache.get(systemUserToken);
+        if (rasTokenValue == null) {
+            // Both keys are taken from the same snapshot, so a refresh cannot mix an old key with a new one
+            KeyMaterialHolder keyMaterialHolder = KeyMaterialHolder.getInstance();
+            KeyMaterialHolder.KeyMaterial keyMaterial = keyMaterialHolder.getKeyMaterial();
+            rasTokenValue = TokenProtector.rewrap(keyMaterial.getFnsPrivateKey(), keyMaterial.getRasPublicKey(),
+                    systemUserToken, FogbowConstants.TOKEN_STRING_SEPARATOR);
+            rasTokenCache.put(systemUserToken, rasTokenValue);
+            // The cache may have been cleared by a refresh between the rewrap and the put; the snapshot is replaced
+            // before the cache is cleared, so an entry rewrapped with replaced keys is always dropped
+            if (!keyMaterialHolder.isCurrent(keyMaterial)) {
+                rasTokenCache.remove(systemUserToken);
+            }
         }
-        uri = UriComponentsBuilder.fromUri(uri).port(rasPort).path(replaceServiceName(requestUrl))
-                .query(request.getQueryString()).build(true).toUri();
+        return rasTokenValue;
+    }
+
+    // Copies the request, but not its body, rewriting the header that carries the user token
+    private static RequestBuilder buildRasRequest(HttpMethod method, HttpServletRequest request)
+            throws FatalErrorException, FogbowException, IOException {
+        URI uri = getRasUri(replaceServiceName(request.getRequestURI()), request.getQueryString());
 
-        HttpHeaders headers = new HttpHeaders();
+        RequestBuilder rasRequest = RequestBuilder.create(method.name()).setUri(uri);
         Enumeration<String> headerNames = request.getHeaderNames();
         while (headerNames.hasMoreElements()) {
             String headerName = headerNames.nextElement();
+            if (NOT_FORWARDED_HEADERS.contains(headerName.toLowerCase())) {
+                // These headers describe the connection to the FNS, and are set by the HTTP client for the
+                // connection to the RAS
+                continue;
+            }
             if (headerName.equalsIgnoreCase(CommonKeys.SYSTEM_USER_TOKEN_HEADER_KEY)) {
                 // If the header is the federationTokenValue, then it needs to be decrypted with the FNS private key,
                 // and then encrypted with the RAS public key, before being forwarded.
-                RSAPrivateKey myPrivateKey = null;
-                RSAPublicKey rasPublicKey = FnsPublicKeysHolder.getInstance().getRasPublicKey();
-                try {
-                    myPrivateKey = ServiceAsymmetricKeysHolder.getInstance().getPrivateKey();
-                } catch (IOException | GeneralSecurityException e) {
-                    throw new FatalErrorException(Messages.Exception.UNABLE_TO_LOAD_PUBLIC_KEY);
-                }
-                String rasTokenValue = TokenProtector.rewrap(myPrivateKey, rasPublicKey,
-                        request.getHeader(headerName), FogbowConstants.TOKEN_STRING_SEPARATOR);
-                headers.set(CommonKeys.SYSTEM_USER_TOKEN_HEADER_KEY, rasTokenValue);
+                String rasTokenValue = rewrapToken(request.getHeader(headerName));
+                rasRequest.addHeader(CommonKeys.SYSTEM_USER_TOKEN_HEADER_KEY, rasTokenValue);
             } else {
-                headers.set(headerName, request.getHeader(headerName));
+                Enumeration<String> headerValues = request.getHeaders(headerName);
+                while (headerValues.hasMoreElements()) {
+                    rasRequest.addHeader(headerName, headerValues.nextElement());
+                }
             }
         }
+        return rasRequest;
+    }
+
+    // The body of the request, if any, is sent to the RAS as the client sends it
+    private static HttpAsyncRequestProducer createRequestProducer(RequestBuilder rasRequest,
+                                                                  HttpServletRequest request) throws IOException {
+        if (!hasBody(request)) {
+            return HttpAsyncMethods.create(rasRequest.build());
+        }
+        // The entity only declares the body, so that the HTTP client sets the headers describing it
+        long contentLength = request.getContentLengthLong();
+        BasicHttpEntity entity = new BasicHttpEntity();
+        entity.setContentLength(contentLength);
+        entity.setChunked(contentLength < 0);
+        ServletInputStream inputStream = request.getInputStream();
+        RasRequestStreamer streamer = new RasRequestStreamer(rasRequest.setEntity(entity).build(), inputStream);
+        inputStream.setReadListener(streamer);
+        return streamer;
+    }
 
-        HttpEntity<String> httpEntity = new HttpEntity<>(body, headers);
+    private static AsyncContext startAsync(HttpServletRequest request, HttpServletResponse response) {
+        AsyncContext asyncContext = request.startAsync(request, response);
+        // Nothing is written once the RAS stops answering, so the request is bounded by the time the RAS may take
+        // to answer, plus some time for the client to send its body and take the response
+        asyncContext.setTimeout(RasHttpClientHolder.getInstance().getRequestTimeout() +
+                SystemConstants.PROXIED_RESPONSE_WRITE_TIME);
+        return asyncContext;
+    }
 
-        RestTemplate restTemplate = new RestTemplate();
-        restTemplate.setErrorHandler(new NoOpErrorHandler());
+    // Ends an asynchronous request that failed before its response could be written
+    private static void failAsync(AsyncContext asyncContext, HttpServletResponse response, Exception exception) {
+        LOGGER.info(String.format(Messages.Exception.GENERIC_EXCEPTION, exception.getMessage()));
         try {
-            ResponseEntity<T> response = restTemplate.exchange(uri, method, httpEntity, responseType);
-            return response;
-        } catch (Exception e) {
+            if (!response.isCommitted()) {
+                response.reset();
+                response.setStatus(HttpServletResponse.SC_GATEWAY_TIMEOUT);
+            }
+            asyncContext.complete();
+        } catch (IllegalStateException e) {
+            // The request has already been completed, e.g. because it timed out
             LOGGER.info(String.format(Messages.Exception.GENERIC_EXCEPTION, e.getMessage()));
-            throw e;
         }
     }
 
-    public static <T> ResponseEntity<T> createAndSendRequestToRas(String path, String body, HttpMethod method,
-                                                                  String systemUserToken, Class<T> responseType) throws FatalErrorException, FogbowException {
+    private static void streamResponseFromRas(HttpAsyncRequestProducer requestProducer, AsyncContext asyncContext,
+                                              HttpServletResponse response, String requestDescription)
+            throws IOException {
+        RasResponseStreamer streamer = new RasResponseStreamer(asyncContext, response, NOT_FORWARDED_HEADERS,
+                requestDescription);
+        response.getOutputStream().setWriteListener(streamer);
+        try {
+            RasHttpClientHolder.getInstance().getAsyncHttpClient().execute(requestProducer, streamer,
+                    new FutureCallback<Void>() {
+                        @Override
+                        public void completed(Void result) {
+                        }
+
+                        @Override
+                        public void failed(Exception e) {
+                            streamer.fail(e);
+                        }
+
+                        @Override
+                        public void cancelled() {
+                            streamer.fail(new CancellationException());
+                        }
+                    });
+        } catch (RuntimeException e) {
+            // e.g. the client has been shut down; the streamer answers as if the RAS could not be reached
+            streamer.fail(e);
+        }
+    }
+
+    private static CompletableFuture<BufferedRasResponse> bufferResponseFromRas(HttpUriRequest rasRequest,
+                                                                                long maxSize) {
+        CompletableFuture<BufferedRasResponse> future = new CompletableFuture<>();
+        RasHttpClientHolder.getInstance().getAsyncHttpClient().execute(HttpAsyncMethods.create(rasRequest),
+                new BufferedRasResponseConsumer(NOT_FORWARDED_HEADERS, maxSize),
+                new FutureCallback<BufferedRasResponse>() {
+                    @Override
+                    public void completed(BufferedRasResponse rasResponse) {
+                        future.complete(rasResponse);
+                    }
+
+                    @Override
+                    public void failed(Exception e) {
+                        future.completeExceptionally(e);
+                    }
+
+                    @Override
+                    public void cancelled() {
+                        future.completeExceptionally(new CancellationException());
+                    }
+                });
+        return future;
+    }
+
+    private static String describe(HttpServletRequest request) {
+        return "uri=" + request.getRequestURI();
+    }
+
+    // If the response status is not successful, throws the exception corresponding to the status
+    static <T> T readRasResponse(HttpResponse rasResponse, Class<T> responseType) throws FogbowException, IOException {
+        int status = rasResponse.getStatusLine().getStatusCode();
+        HttpEntity entity = rasResponse.getEntity();
+        if (status >= HttpStatus.MULTIPLE_CHOICES.value()) {
+            String message = rasResponse.getStatusLine().getReasonPhrase();
+            try {
+                ExceptionResponse exceptionResponse = readJson(entity, ExceptionResponse.class);
+                if (exceptionResponse != null) {
+                    message = exceptionResponse.getMessage();
+                }
+            } catch (JsonParseException e) {
+                // The error did not come from the RAS itself (e.g. it came from a proxy in front of it)
+                LOGGER.info(String.format(Messages.Exception.GENERIC_EXCEPTION, e.getMessage()));
+            }
+            throw HttpErrorToFogbowExceptionMapper.map(status, message);
+        }
+        if (responseType == Void.class) {
+            EntityUtils.consume(entity);
+            return null;
+        }
+        return readJson(entity, responseType);
+    }
+
+    private static <T> T readJson(HttpEntity entity, Class<T> type) throws IOException {
+        if (entity == null) {
+            return null;
+        }
+        try (JsonReader reader = new JsonReader(new InputStreamReader(entity.getContent(), StandardCharsets.UTF_8))) {
+            return GSON.fromJson(reader, type);
+        }
+    }
+
+    private static URI getRasUri(String path, String query) throws ConfigurationErrorException {
         String rasUrl = PropertiesHolder.getInstance().getProperty(ConfigurationPropertyKeys.RAS_URL_KEY);
         int rasPort = Integer.parseInt(PropertiesHolder.getInstance().getProperty(ConfigurationPropertyKeys.RAS_PORT_KEY));
 
@@ -95,34 +364,12 @@ public class RedirectToRasUtil {
         } catch (URISyntaxException e) {
             throw new ConfigurationErrorException(String.format(Messages.Exception.INVALID_URL, rasUrl));
         }
-        uri = UriComponentsBuilder.fromUri(uri).port(rasPort).path(path).build(true).toUri();
-
-        // The systemUserToken needs to be decrypted with the FNS public key, and then encrypted with
-        // the RAS public key, before being forwarded.
-        RSAPrivateKey myPrivateKey = null;
-        RSAPublicKey rasPublicKey = FnsPublicKeysHolder.getInstance().getRasPublicKey();
-        try {
-            myPrivateKey = ServiceAsymmetricKeysHolder.getInstance().getPrivateKey();
-        } catch (IOException | GeneralSecurityException e) {
-            throw new FatalErrorException(Messages.Exception.UNABLE_TO_LOAD_PUBLIC_KEY);
-        }
-        String rasTokenValue = TokenProtector.rewrap(myPrivateKey, rasPublicKey, systemUserToken,
-                FogbowConstants.TOKEN_STRING_SEPARATOR);
-        HttpHeaders headers = new HttpHeaders();
-        headers.set("Content-Type", "application/json");
-        headers.set(CommonKeys.SYSTEM_USER_TOKEN_HEADER_KEY, rasTokenValue);
-
-        HttpEntity<String> httpEntity = new HttpEntity<>(body, headers);
+        return UriComponentsBuilder.fromUri(uri).port(rasPort).path(path).query(query).build(true).toUri();
+    }
 
-        RestTemplate restTemplate = new RestTemplate();
-        restTemplate.setErrorHandler(new NoOpErrorHandler());
-        try {
-            ResponseEntity<T> response = restTemplate.exchange(uri, method, httpEntity, responseType);
-            return response;
-        } catch (Exception e) {
-            LOGGER.info(String.format(Messages.Exception.GENERIC_EXCEPTION, e.getMessage()));
-            throw e;
-        }
+    // A request has a body if it declares its length or is sent in chunks
+    private static boolean hasBody(HttpServletRequest request) {
+        return request.getContentLengthLong() > 0 || request.getHeader(HttpHeaders.TRANSFER_ENCODING) != null;
     }
 
     private static String replaceServiceName(String queryString) {
@@ -130,15 +377,57 @@ public class RedirectToRasUtil {
                 cloud.fogbow.ras.constants.SystemConstants.SERVICE_BASE_ENDPOINT);
     }
 
-    private static class NoOpErrorHandler implements ResponseErrorHandler {
+    /**
+     * Completes the future of a request sent with sendRequestToRasAsync(), and returns the pooled buffer holding its
+     * body once the request is over, whatever its outcome.
+     */
+    static class RasResponseCallback<T> implements FutureCallback<HttpResponse> {
+        private final CompletableFuture<T> future;
+        private final PooledJsonBuffer body;
+        private final Class<T> responseType;
+        private final Executor responseHandlersExecutor;
+
+        RasResponseCallback(CompletableFuture<T> future, PooledJsonBuffer body, Class<T> responseType,
+                            Executor responseHandlersExecutor) {
+            this.future = future;
+            this.body = body;
+            this.responseType = responseType;
+            this.responseHandlersExecutor = responseHandlersExecutor;
+        }
 
         @Override
-        public boolean hasError(ClientHttpResponse clientHttpResponse) throws IOException {
-            return clientHttpResponse.getRawStatusCode() >= 300;
+        public void completed(HttpResponse rasResponse) {
+            releaseBody();
+            // The response is read out of the I/O threads of the HTTP client
+            this.responseHandlersExecutor.execute(() -> {
+                try {
+                    this.future.complete(readRasResponse(rasResponse, this.responseType));
+                } catch (FogbowException | IOException | RuntimeException e) {
+                    this.future.completeExceptionally(e);
+                }
+            });
         }
 
         @Override
-        public void handleError(ClientHttpResponse clientHttpResponse) {
+        public void failed(Exception e) {
+            releaseBody();
+            LOGGER.info(String.format(Messages.Exception.GENERIC_EXCEPTION, e.getMessage()));
+            this.future.completeExceptionally(new UnavailableProviderException(
+                    Messages.Error.RESOURCE_ALLOCATION_SERVICE_DOES_NOT_RESPOND));
+        }
+
+        // Only happens when the HTTP client is shut down, so the RAS is as unreachable as when the request fails
+        @Override
+        public void cancelled() {
+            releaseBody();
+            this.future.completeExceptionally(new UnavailableProviderException(
+                    Messages.Error.RESOURCE_ALLOCATION_SERVICE_DOES_NOT_RESPOND));
+        }
+
+        private void releaseBody() {
+            if (this.body != null) {
+                this.body.release();
+            }
         }
     }
 }
@@ -0,0 +1,113 @@
+package cloud.fogbow.fns.utils;
+
+import cloud.fogbow.fns.core.metrics.MetricsHolder;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache of values derived from user tokens through expensive cryptographic operations. Entries are indexed
+ * by a SHA-256 digest of the token, so the tokens received by the FNS are never kept in memory; each entry has its
+ * own expiration time, and the least recently used entry is evicted once the cache is full.
+ */
+public class TokenDigestCache<V> {
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private final Map<String, CachedValue<V>> cache;
+    private final String hitsMetric;
+    private final String missesMetric;
+
+    public TokenDigestCache(int maxSize, String hitsMetric, String missesMetric, String sizeMetric) {
+        this.hitsMetric = hitsMetric;
+        this.missesMetric = missesMetric;
+        // Access-ordered, so that the eldest entry is the least recently used one
+        this.cache = new LinkedHashMap<String, CachedValue<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedValue<V>> eldest) {
+                return size() > maxSize;
+            }
+        };
+        MetricsHolder.getInstance().registerGauge(sizeMetric, this::size);
+    }
+
+    /**
+     * Returns the value previously cached for the given token, or null if there is none or it has expired.
+     */
+    public V get(String token) {
+        String key = digest(token);
+        CachedValue<V> cachedValue;
+        synchronized (this.cache) {
+            cachedValue = this.cache.get(key);
+            if (cachedValue != null && cachedValue.isExpired(System.currentTimeMillis())) {
+                this.cache.remove(key);
+                cachedValue = null;
+            }
+        }
+        if (cachedValue == null) {
+            MetricsHolder.getInstance().incrementCounter(this.missesMetric);
+            return null;
+        }
+        MetricsHolder.getInstance().incrementCounter(this.hitsMetric);
+        return cachedValue.getValue();
+    }
+
+    public void put(String token, V value, long expirationTime) {
+        String key = digest(token);
+        CachedValue<V> cachedValue = new CachedValue<>(value, expirationTime);
+        synchronized (this.cache) {
+            this.cache.put(key, cachedValue);
+        }
+    }
+
+    public void remove(String token) {
+        String key = digest(token);
+        synchronized (this.cache) {
+            this.cache.remove(key);
+        }
+    }
+
+    public void clear() {
+        synchronized (this.cache) {
+            this.cache.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (this.cache) {
+            return this.cache.size();
+        }
+    }
+
+    private String digest(String token) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+            byte[] hash = messageDigest.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class CachedValue<V> {
+        private final V value;
+        private final long expirationTime;
+
+        CachedValue(V value, long expirationTime) {
+            this.value = value;
+            this.expirationTime = expirationTime;
+        }
+
+        V getValue() {
+            return this.value;
+        }
+
+        boolean isExpired(long now) {
+            return now >= this.expirationTime;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package cloud.fogbow.fns.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A user data script compiled into a sequence of literal and placeholder segments. Literal segments are escaped and
+ * encoded once, at compile time, so that rendering the script only writes the segments, in order, to a Base64
+ * encoder.
+ */
+public class UserDataTemplate {
+    private static final String NEW_LINE = "\n";
+    private static final String ESCAPED_NEW_LINE = "[[\\n]]";
+    private static final String CARRIAGE_RETURN = "\r";
+    private static final int INITIAL_BUFFER_SIZE = 8192;
+
+    private static final ThreadLocal<ByteArrayOutputStream> BUFFER =
+            ThreadLocal.withInitial(() -> new ByteArrayOutputStream(INITIAL_BUFFER_SIZE));
+
+    private final List<Segment> segments;
+
+    private UserDataTemplate(List<Segment> segments) {
+        this.segments = Collections.unmodifiableList(segments);
+    }
+
+    public static UserDataTemplate compile(String script, Collection<String> placeholders) {
+        List<Segment> segments = new ArrayList<>();
+        int position = 0;
+        while (position < script.length()) {
+            int nextPlaceholderIndex = -1;
+            String nextPlaceholder = null;
+            for (String placeholder : placeholders) {
+                int index = script.indexOf(placeholder, position);
+                if (index != -1 && (nextPlaceholderIndex == -1 || index < nextPlaceholderIndex)) {
+                    nextPlaceholderIndex = index;
+                    nextPlaceholder = placeholder;
+                }
+            }
+            if (nextPlaceholder == null) {
+                segments.add(Segment.literal(script.substring(position)));
+                break;
+            }
+            if (nextPlaceholderIndex > position) {
+                segments.add(Segment.literal(script.substring(position, nextPlaceholderIndex)));
+            }
+            segments.add(Segment.placeholder(nextPlaceholder));
+            position = nextPlaceholderIndex + nextPlaceholder.length();
+        }
+        return new UserDataTemplate(segments);
+    }
+
+    /**
+     * Returns a new template in which the placeholders with a value in the given map are replaced by the (escaped)
+     * value, merging it with the adjacent literal segments. Placeholders without a value are kept.
+     */
+    public UserDataTemplate bind(Map<String, String> values) {
+        List<Segment> boundSegments = new ArrayList<>();
+        StringBuilder pendingLiteral = new StringBuilder();
+        for (Segment segment : this.segments) {
+            if (segment.isLiteral()) {
+                pendingLiteral.append(segment.getEscapedText());
+            } else if (values.containsKey(segment.getPlaceholder())) {
+                pendingLiteral.append(escape(values.get(segment.getPlaceholder())));
+            } else {
+                if (pendingLiteral.length() > 0) {
+                    boundSegments.add(Segment.escapedLiteral(pendingLiteral.toString()));
+                    pendingLiteral.setLength(0);
+                }
+                boundSegments.add(segment);
+            }
+        }
+        if (pendingLiteral.length() > 0) {
+            boundSegments.add(Segment.escapedLiteral(pendingLiteral.toString()));
+        }
+        return new UserDataTemplate(boundSegments);
+    }
+
+    /**
+     * Renders the script, replacing the remaining placeholders by the given values, and returns it Base64 encoded.
+     * The script is streamed straight into the encoder, which writes to a buffer that is reused by the calling
+     * thread.
+     */
+    public String renderBase64(Map<String, String> values) {
+        ByteArrayOutputStream buffer = BUFFER.get();
+        buffer.reset();
+        try (OutputStream encoder = Base64.getEncoder().wrap(buffer)) {
+            for (Segment segment : this.segments) {
+                if (segment.isLiteral()) {
+                    encoder.write(segment.getBytes());
+                } else {
+                    String value = values.get(segment.getPlaceholder());
+                    if (value == null) {
+                        // Unbound placeholders are rendered as they appear in the script
+                        value = segment.getPlaceholder();
+                    }
+                    encoder.write(escape(value).getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        } catch (IOException e) {
+            // ByteArrayOutputStream does not throw IOException
+            throw new IllegalStateException(e);
+        }
+        return new String(buffer.toByteArray(), StandardCharsets.US_ASCII);
+    }
+
+    List<Segment> getSegments() {
+        return this.segments;
+    }
+
+    private static String escape(String text) {
+        return text.replace(NEW_LINE, ESCAPED_NEW_LINE).replace(CARRIAGE_RETURN, "");
+    }
+
+    static class Segment {
+        private final String escapedText;
+        private final byte[] bytes;
+        private final String placeholder;
+
+        private Segment(String escapedText, String placeholder) {
+            this.escapedText = escapedText;
+            this.bytes = escapedText == null ? null : escapedText.getBytes(StandardCharsets.UTF_8);
+            this.placeholder = placeholder;
+        }
+
+        static Segment literal(String text) {
+            return new Segment(escape(text), null);
+        }
+
+        static Segment escapedLiteral(String escapedText) {
+            return new Segment(escapedText, null);
+        }
+
+        static Segment placeholder(String placeholder) {
+            return new Segment(null, placeholder);
+        }
+
+        boolean isLiteral() {
+            return this.placeholder == null;
+        }
+
+        String getEscapedText() {
+            return this.escapedText;
+        }
+
+        byte[] getBytes() {
+            return this.bytes;
+        }
+
+        String getPlaceholder() {
+            return this.placeholder;
+        }
+    }
+}
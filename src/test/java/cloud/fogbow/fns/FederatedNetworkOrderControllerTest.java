@@ -11,6 +11,7 @@ import cloud.fogbow.fns.core.exceptions.FederatedNetworkNotFoundException;
 import cloud.fogbow.fns.core.exceptions.InvalidCidrException;
 import cloud.fogbow.fns.core.exceptions.NotEmptyFederatedNetworkException;
 import cloud.fogbow.fns.core.model.FederatedNetworkOrder;
+import cloud.fogbow.fns.core.model.FederatedNetworkOrderView;
 import cloud.fogbow.fns.api.http.response.InstanceStatus;
 import cloud.fogbow.fns.core.model.OrderState;
 import cloud.fogbow.fns.utils.AgentCommunicatorUtil;
@@ -177,6 +178,8 @@ public class FederatedNetworkOrderControllerTest extends MockedFederatedNetworkU
         when(federatedNetwork2.getSystemUser()).thenReturn(systemUser);
         when(federatedNetwork.getOrderState()).thenReturn(OrderState.FULFILLED);
         when(federatedNetwork2.getOrderState()).thenReturn(OrderState.FULFILLED);
+        when(federatedNetwork.getView()).thenReturn(createView(FEDERATED_NETWORK_ID, systemUser));
+        when(federatedNetwork2.getView()).thenReturn(createView(federatedNetworkId2, systemUser));
         fakeActiveFederatedNetworks.put(FEDERATED_NETWORK_ID, federatedNetwork);
         fakeActiveFederatedNetworks.put(federatedNetworkId2, federatedNetwork2);
         BDDMockito.given(federatedNetworkOrdersHolder.getActiveOrders()).willReturn(fakeActiveFederatedNetworks);
@@ -206,6 +209,8 @@ public class FederatedNetworkOrderControllerTest extends MockedFederatedNetworkU
         when(federatedNetwork2.getSystemUser()).thenReturn(nonAuthenticatedUser);
         when(federatedNetwork.getOrderState()).thenReturn(OrderState.FULFILLED);
         when(federatedNetwork2.getOrderState()).thenReturn(OrderState.FULFILLED);
+        when(federatedNetwork.getView()).thenReturn(createView(FEDERATED_NETWORK_ID, systemUser));
+        when(federatedNetwork2.getView()).thenReturn(createView(federatedNetworkId2, nonAuthenticatedUser));
         fakeActiveFederatedNetworks.put(FEDERATED_NETWORK_ID, federatedNetwork);
         fakeActiveFederatedNetworks.put(federatedNetworkId2, federatedNetwork2);
         BDDMockito.given(federatedNetworkOrdersHolder.getActiveOrders()).willReturn(fakeActiveFederatedNetworks);
@@ -536,6 +541,13 @@ public class FederatedNetworkOrderControllerTest extends MockedFederatedNetworkU
     }
 
 
+    // The listing reads the views of the orders, which cannot be taken from a mocked order
+    private FederatedNetworkOrderView createView(String federatedNetworkId, SystemUser systemUser) {
+        FederatedNetworkOrder order = new FederatedNetworkOrder(federatedNetworkId, systemUser, MEMBER, MEMBER);
+        order.setOrderStateInTestMode(OrderState.FULFILLED);
+        return order.getView();
+    }
+
     private Map<String, FederatedNetworkOrder> getFederatedNetworksMap(Collection<FederatedNetworkOrder> activeOrdersMap) {
         return activeOrdersMap.stream()
                 .collect(Collectors.toMap(order -> order.getId(), order -> order));
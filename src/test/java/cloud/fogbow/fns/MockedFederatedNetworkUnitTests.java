@@ -1,6 +1,5 @@
 package cloud.fogbow.fns;
 
-import cloud.fogbow.common.models.linkedlists.SynchronizedDoublyLinkedList;
 import cloud.fogbow.fns.core.FederatedNetworkOrderController;
 import cloud.fogbow.fns.core.FederatedNetworkOrdersHolder;
 import cloud.fogbow.fns.core.datastore.DatabaseManager;
@@ -17,6 +16,7 @@ import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -83,7 +83,7 @@ public class MockedFederatedNetworkUnitTests extends BaseUnitTest {
     private DatabaseManager mockDatabaseManager() {
         DatabaseManager mockedDatabase = Mockito.mock(DatabaseManager.class);
         for (OrderState state : OrderState.values()) {
-            Mockito.when(mockedDatabase.readActiveOrders(state)).thenReturn(new SynchronizedDoublyLinkedList<>());
+            Mockito.when(mockedDatabase.readActiveOrders(state)).thenReturn(new ArrayList<>());
         }
         return mockedDatabase;
     }
@@ -0,0 +1,94 @@
+package cloud.fogbow.fns.api.http.request;
+
+import com.google.gson.Gson;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+
+public class FederatedNetworkTest {
+    private static final String COMPUTE_ID = "compute";
+
+    private FederatedNetwork controller;
+    private ResponseBodyEmitter emitter;
+
+    @Before
+    public void setUp() {
+        this.controller = new FederatedNetwork();
+        this.emitter = Mockito.mock(ResponseBodyEmitter.class);
+    }
+
+    //test case: each item is written as a JSON document in a line of its own
+    @Test
+    public void testSendAsJsonLine() throws Exception {
+        //exercise
+        this.controller.sendAsJsonLine(this.emitter, new Gson(), Collections.singletonMap("id", COMPUTE_ID));
+
+        //verify
+        Mockito.verify(this.emitter).send("{\"id\":\"" + COMPUTE_ID + "\"}\n");
+    }
+
+    //test case: an item that cannot be written, as the client is gone or the listing timed out, does not stop the listing
+    @Test
+    public void testSendAsJsonLineAfterClientIsGone() throws Exception {
+        //set up
+        Mockito.doThrow(new IOException()).doThrow(new IllegalStateException()).when(this.emitter)
+                .send(Mockito.anyString());
+
+        //exercise
+        this.controller.sendAsJsonLine(this.emitter, new Gson(), COMPUTE_ID);
+        this.controller.sendAsJsonLine(this.emitter, new Gson(), COMPUTE_ID);
+
+        //verify
+        Mockito.verify(this.emitter, Mockito.times(2)).send(Mockito.anyString());
+    }
+
+    //test case: the response ends once the listing is done
+    @Test
+    public void testCompleteWhenListingSucceeds() {
+        //set up
+        CompletableFuture<Void> listing = new CompletableFuture<>();
+        this.controller.completeWhenDone(this.emitter, listing);
+        Mockito.verify(this.emitter, Mockito.never()).complete();
+
+        //exercise
+        listing.complete(null);
+
+        //verify
+        Mockito.verify(this.emitter).complete();
+    }
+
+    //test case: the response also ends if the listing fails halfway
+    @Test
+    public void testCompleteWhenListingFails() {
+        //set up
+        CompletableFuture<Void> listing = new CompletableFuture<>();
+        this.controller.completeWhenDone(this.emitter, listing);
+        RuntimeException failure = new RuntimeException();
+
+        //exercise
+        listing.completeExceptionally(failure);
+
+        //verify
+        Mockito.verify(this.emitter).completeWithError(failure);
+    }
+
+    //test case: a listing done after the response timed out does not fail
+    @Test
+    public void testCompleteAfterTimeout() {
+        //set up
+        Mockito.doThrow(new IllegalStateException()).when(this.emitter).complete();
+        CompletableFuture<Void> listing = new CompletableFuture<>();
+        this.controller.completeWhenDone(this.emitter, listing);
+
+        //exercise
+        listing.complete(null);
+
+        //verify
+        Mockito.verify(this.emitter).complete();
+    }
+}
@@ -0,0 +1,160 @@
+package cloud.fogbow.fns.core;
+
+import cloud.fogbow.common.models.SystemUser;
+import cloud.fogbow.fns.core.exceptions.AdmissionRejectedException;
+import cloud.fogbow.fns.core.model.FederatedNetworkOrder;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedList;
+
+public class AdmissionControllerTest {
+    private static final int AGENT_FAILURE_THRESHOLD = 2;
+    private static final long AGENT_UNAVAILABLE_RETRY_AFTER = 60000;
+    private static final long MAX_RETRY_AFTER = 600000;
+    // The average time of a call to the agent until one is measured
+    private static final long AGENT_CALL_TIME = 1000;
+
+    private SystemUser firstUser = new SystemUser("first-user", "first-user", "identity-provider");
+    private SystemUser secondUser = new SystemUser("second-user", "second-user", "identity-provider");
+    private SystemUser thirdUser = new SystemUser("third-user", "third-user", "identity-provider");
+    private OrderWorkSet openOrders;
+
+    @Before
+    public void setUp() {
+        this.openOrders = new OrderWorkSet();
+    }
+
+    //test case: no limit is enforced unless configured
+    @Test
+    public void testAdmitWithoutLimits() throws Exception {
+        //set up
+        StubAdmissionController admissionController = new StubAdmissionController(0, 0);
+        addOpenOrders(this.firstUser, 10);
+
+        //exercise and verify
+        admissionController.admit(this.firstUser);
+    }
+
+    //test case: a creation over the limit of open orders is told to retry once the orders over it have been served
+    @Test
+    public void testRejectOverOpenOrdersLimit() throws Exception {
+        //set up
+        StubAdmissionController admissionController = new StubAdmissionController(2, 0);
+        addOpenOrders(this.firstUser, 3);
+
+        try {
+            //exercise
+            admissionController.admit(this.secondUser);
+            Assert.fail();
+        } catch (AdmissionRejectedException e) {
+            //verify: 2 orders must be served, one agent call each
+            Assert.assertEquals(2 * AGENT_CALL_TIME / 1000, e.getRetryAfter());
+        }
+    }
+
+    //test case: a user over its limit is told to retry once enough rounds across the users have been served, while
+    //the other users are still admitted
+    @Test
+    public void testRejectOverUserOpenOrdersLimit() throws Exception {
+        //set up
+        StubAdmissionController admissionController = new StubAdmissionController(0, 1);
+        addOpenOrders(this.firstUser, 2);
+        addOpenOrders(this.secondUser, 1);
+
+        //exercise
+        admissionController.admit(this.thirdUser);
+        try {
+            admissionController.admit(this.firstUser);
+            Assert.fail();
+        } catch (AdmissionRejectedException e) {
+            //verify: 2 rounds of 2 users, bounded by the 3 open orders
+            Assert.assertEquals(3 * AGENT_CALL_TIME / 1000, e.getRetryAfter());
+        }
+    }
+
+    //test case: the agent is unavailable after consecutive failed calls, and available again after a successful one
+    @Test
+    public void testRejectWhileAgentUnavailable() throws Exception {
+        //set up
+        StubAdmissionController admissionController = new StubAdmissionController(0, 0);
+        admissionController.recordAgentCall(false, AGENT_CALL_TIME);
+        Assert.assertTrue(admissionController.isAgentAvailable());
+        admissionController.recordAgentCall(false, AGENT_CALL_TIME);
+
+        //exercise
+        try {
+            admissionController.admit(this.firstUser);
+            Assert.fail();
+        } catch (AdmissionRejectedException e) {
+            //verify
+            Assert.assertEquals(AGENT_UNAVAILABLE_RETRY_AFTER / 1000, e.getRetryAfter());
+        }
+        admissionController.recordAgentCall(true, AGENT_CALL_TIME);
+
+        //verify
+        Assert.assertTrue(admissionController.isAgentAvailable());
+        admissionController.admit(this.firstUser);
+    }
+
+    //test case: once the retry period has elapsed, a single creation is let through to probe the agent
+    @Test
+    public void testLetOneProbeThroughAfterRetryPeriod() throws Exception {
+        //set up
+        StubAdmissionController admissionController = new StubAdmissionController(0, 0);
+        admissionController.recordAgentCall(false, AGENT_CALL_TIME);
+        admissionController.recordAgentCall(false, AGENT_CALL_TIME);
+        admissionController.currentTime += AGENT_UNAVAILABLE_RETRY_AFTER;
+
+        //exercise
+        admissionController.admit(this.firstUser);
+        try {
+            admissionController.admit(this.secondUser);
+            Assert.fail();
+        } catch (AdmissionRejectedException e) {
+            //verify: the next probe is let through one retry period after this one
+            Assert.assertEquals(AGENT_UNAVAILABLE_RETRY_AFTER / 1000, e.getRetryAfter());
+        }
+        admissionController.currentTime += AGENT_UNAVAILABLE_RETRY_AFTER / 2;
+        // The call to the agent made for the probe failed
+        admissionController.recordAgentCall(false, AGENT_CALL_TIME);
+        admissionController.currentTime += AGENT_UNAVAILABLE_RETRY_AFTER / 2;
+        try {
+            admissionController.admit(this.secondUser);
+            Assert.fail();
+        } catch (AdmissionRejectedException e) {
+            //verify: the retry period starts over from the failed probe
+            Assert.assertEquals(AGENT_UNAVAILABLE_RETRY_AFTER / 2000, e.getRetryAfter());
+        }
+    }
+
+    private void addOpenOrders(SystemUser systemUser, int count) {
+        for (int i = 0; i < count; i++) {
+            this.openOrders.add(new FederatedNetworkOrder(systemUser.getId() + "-order-" + i, systemUser,
+                    "requester", "provider", "10.0.30.1/20", "name", new HashSet<>(), new LinkedList<>(),
+                    new ArrayList<>(), null));
+        }
+    }
+
+    private class StubAdmissionController extends AdmissionController {
+        private long currentTime = 1000000;
+
+        StubAdmissionController(int maxOpenOrders, int maxOpenOrdersPerUser) {
+            super(maxOpenOrders, maxOpenOrdersPerUser, AGENT_FAILURE_THRESHOLD, AGENT_UNAVAILABLE_RETRY_AFTER,
+                    MAX_RETRY_AFTER, 1);
+        }
+
+        @Override
+        protected OrderWorkSet getOpenOrders() {
+            return AdmissionControllerTest.this.openOrders;
+        }
+
+        @Override
+        protected long getCurrentTime() {
+            return this.currentTime;
+        }
+    }
+}
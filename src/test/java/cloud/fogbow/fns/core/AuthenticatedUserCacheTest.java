@@ -0,0 +1,138 @@
+package cloud.fogbow.fns.core;
+
+import cloud.fogbow.common.models.SystemUser;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+
+public class AuthenticatedUserCacheTest {
+    private static final String TOKEN = "user-token";
+    private static final long ONE_MINUTE = 60000;
+
+    private KeyPairGenerator keyPairGenerator;
+    private SystemUser systemUser;
+
+    @Before
+    public void setUp() throws Exception {
+        this.keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        this.keyPairGenerator.initialize(1024);
+        this.systemUser = new SystemUser("user", "user", "identity-provider");
+    }
+
+    //test case: a token already authenticated is not verified again
+    @Test
+    public void testCachedTokenIsNotVerifiedAgain() throws Exception {
+        //set up
+        StubAuthenticatedUserCache cache = new StubAuthenticatedUserCache(System.currentTimeMillis() + ONE_MINUTE);
+        RSAPublicKey asPublicKey = generateKeyPair().getPublic();
+        cache.authenticate(asPublicKey, TOKEN);
+
+        //exercise
+        SystemUser cachedUser = cache.authenticate(asPublicKey, TOKEN);
+
+        //verify
+        Assert.assertEquals(this.systemUser, cachedUser);
+        Assert.assertEquals(1, cache.verifications);
+    }
+
+    //test case: an entry expires with its token, even if the configured time to live has not elapsed
+    @Test
+    public void testEntryExpiresWithItsToken() throws Exception {
+        //set up
+        StubAuthenticatedUserCache cache = new StubAuthenticatedUserCache(System.currentTimeMillis() + 50);
+        RSAPublicKey asPublicKey = generateKeyPair().getPublic();
+        cache.authenticate(asPublicKey, TOKEN);
+        Thread.sleep(100);
+
+        //exercise
+        cache.authenticate(asPublicKey, TOKEN);
+
+        //verify
+        Assert.assertEquals(2, cache.verifications);
+    }
+
+    //test case: an already expired token is never cached
+    @Test
+    public void testExpiredTokenIsNotCached() throws Exception {
+        //set up
+        StubAuthenticatedUserCache cache = new StubAuthenticatedUserCache(System.currentTimeMillis() - 1);
+        RSAPublicKey asPublicKey = generateKeyPair().getPublic();
+
+        //exercise
+        cache.authenticate(asPublicKey, TOKEN);
+
+        //verify
+        Assert.assertEquals(0, cache.size());
+    }
+
+    //test case: when the private key used to decrypt the tokens or the AS public key changes, every token is
+    //verified again
+    @Test
+    public void testKeyRotationInvalidatesCache() throws Exception {
+        //set up
+        StubAuthenticatedUserCache cache = new StubAuthenticatedUserCache(System.currentTimeMillis() + ONE_MINUTE);
+        RSAPublicKey asPublicKey = generateKeyPair().getPublic();
+        cache.authenticate(asPublicKey, TOKEN);
+
+        //exercise
+        cache.privateKey = generateKeyPair().getPrivate();
+        cache.authenticate(asPublicKey, TOKEN);
+        cache.authenticate(generateKeyPair().getPublic(), TOKEN);
+
+        //verify
+        Assert.assertEquals(3, cache.verifications);
+    }
+
+    private RsaKeyPair generateKeyPair() {
+        return new RsaKeyPair(this.keyPairGenerator.generateKeyPair());
+    }
+
+    private static class RsaKeyPair {
+        private final KeyPair keyPair;
+
+        RsaKeyPair(KeyPair keyPair) {
+            this.keyPair = keyPair;
+        }
+
+        RSAPublicKey getPublic() {
+            return (RSAPublicKey) this.keyPair.getPublic();
+        }
+
+        RSAPrivateKey getPrivate() {
+            return (RSAPrivateKey) this.keyPair.getPrivate();
+        }
+    }
+
+    private class StubAuthenticatedUserCache extends AuthenticatedUserCache {
+        private final long tokenExpirationTime;
+        private RSAPrivateKey privateKey;
+        private int verifications = 0;
+
+        StubAuthenticatedUserCache(long tokenExpirationTime) {
+            super(10, ONE_MINUTE);
+            this.tokenExpirationTime = tokenExpirationTime;
+            this.privateKey = generateKeyPair().getPrivate();
+        }
+
+        @Override
+        protected RSAPrivateKey getPrivateKey() {
+            return this.privateKey;
+        }
+
+        @Override
+        protected SystemUser verify(RSAPublicKey asPublicKey, String systemUserToken) {
+            this.verifications++;
+            return systemUser;
+        }
+
+        @Override
+        protected long getTokenExpirationTime(RSAPrivateKey privateKey, String systemUserToken) {
+            return this.tokenExpirationTime;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package cloud.fogbow.fns.core;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CidrAllocatorTest {
+    private static final String SUPERNET = "10.0.0.0/16";
+    private static final String FIRST_OWNER = "first-order";
+    private static final String SECOND_OWNER = "second-order";
+
+    //test case: blocks are carved out of the supernet without overlapping, lowest address first
+    @Test
+    public void testAllocateWithoutOverlap() throws Exception {
+        //set up
+        CidrAllocator allocator = new CidrAllocator(SUPERNET);
+
+        //exercise
+        String firstBlock = allocator.allocate(24, FIRST_OWNER);
+        String secondBlock = allocator.allocate(23, SECOND_OWNER);
+        String thirdBlock = allocator.allocate(24, SECOND_OWNER);
+
+        //verify
+        Assert.assertEquals("10.0.0.0/24", firstBlock);
+        Assert.assertEquals("10.0.2.0/23", secondBlock);
+        Assert.assertEquals("10.0.1.0/24", thirdBlock);
+        Assert.assertEquals(1024, allocator.getAllocatedAddresses());
+        Assert.assertNull(allocator.allocate(15, FIRST_OWNER));
+    }
+
+    //test case: a CIDR overlapping an allocated block, or outside the supernet, cannot be reserved
+    @Test
+    public void testReserveOverlappingCidr() throws Exception {
+        //set up
+        CidrAllocator allocator = new CidrAllocator(SUPERNET);
+        Assert.assertTrue(allocator.reserve("10.0.4.0/22", FIRST_OWNER));
+
+        //exercise
+        boolean smallerBlockReserved = allocator.reserve("10.0.5.0/24", SECOND_OWNER);
+        boolean largerBlockReserved = allocator.reserve("10.0.0.0/20", SECOND_OWNER);
+        boolean outsideBlockReserved = allocator.reserve("10.1.0.0/24", SECOND_OWNER);
+        boolean neighbourBlockReserved = allocator.reserve("10.0.8.0/22", SECOND_OWNER);
+
+        //verify
+        Assert.assertFalse(smallerBlockReserved);
+        Assert.assertFalse(largerBlockReserved);
+        Assert.assertFalse(outsideBlockReserved);
+        Assert.assertTrue(neighbourBlockReserved);
+        Assert.assertEquals("10.0.0.0/22", allocator.allocate(22, FIRST_OWNER));
+    }
+
+    //test case: freed blocks are merged with their buddies, so the whole supernet can be allocated again
+    @Test
+    public void testReleaseCoalescesBuddies() throws Exception {
+        //set up
+        CidrAllocator allocator = new CidrAllocator(SUPERNET);
+        String firstBlock = allocator.allocate(24, FIRST_OWNER);
+        String secondBlock = allocator.allocate(26, SECOND_OWNER);
+        Assert.assertNull(allocator.allocate(16, FIRST_OWNER));
+
+        //exercise
+        allocator.release(secondBlock, FIRST_OWNER);
+        allocator.release(firstBlock, FIRST_OWNER);
+        Assert.assertNull(allocator.allocate(16, FIRST_OWNER));
+        allocator.release(secondBlock, SECOND_OWNER);
+
+        //verify
+        Assert.assertEquals(0, allocator.getAllocatedAddresses());
+        Assert.assertEquals(SUPERNET, allocator.allocate(16, FIRST_OWNER));
+    }
+
+    //test case: a block given to another owner can only be freed, or given back, by that owner
+    @Test
+    public void testTransferBlock() throws Exception {
+        //set up
+        CidrAllocator allocator = new CidrAllocator(SUPERNET);
+        String block = allocator.allocate(16, FIRST_OWNER);
+
+        //exercise
+        boolean transferred = allocator.transfer(block, FIRST_OWNER, SECOND_OWNER);
+        boolean transferredAgain = allocator.transfer(block, FIRST_OWNER, SECOND_OWNER);
+        allocator.release(block, FIRST_OWNER);
+
+        //verify
+        Assert.assertTrue(transferred);
+        Assert.assertFalse(transferredAgain);
+        Assert.assertFalse(allocator.reserve(block, FIRST_OWNER));
+        allocator.release(block, SECOND_OWNER);
+        Assert.assertEquals(0, allocator.getAllocatedAddresses());
+        Assert.assertTrue(allocator.reserve(block, FIRST_OWNER));
+    }
+}
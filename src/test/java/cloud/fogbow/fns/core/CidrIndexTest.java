@@ -0,0 +1,127 @@
+package cloud.fogbow.fns.core;
+
+import cloud.fogbow.common.models.SystemUser;
+import cloud.fogbow.fns.core.model.FederatedNetworkOrder;
+import cloud.fogbow.fns.core.model.OrderState;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedList;
+
+public class CidrIndexTest {
+    //test case: a CIDR overlapping an indexed one, whether containing it, contained in it or equal to it, is rejected
+    @Test
+    public void testAddOverlappingCidr() throws Exception {
+        //set up
+        CidrIndex cidrIndex = new CidrIndex();
+        FederatedNetworkOrder indexedOrder = createOrder("10.0.4.0/22");
+        Assert.assertNull(cidrIndex.add(indexedOrder));
+
+        //exercise
+        FederatedNetworkOrder containedOverlap = cidrIndex.add(createOrder("10.0.5.0/24"));
+        FederatedNetworkOrder containingOverlap = cidrIndex.add(createOrder("10.0.0.0/16"));
+        FederatedNetworkOrder equalOverlap = cidrIndex.add(createOrder("10.0.4.0/22"));
+        FederatedNetworkOrder lowerNeighbourOverlap = cidrIndex.add(createOrder("10.0.0.0/22"));
+        FederatedNetworkOrder upperNeighbourOverlap = cidrIndex.add(createOrder("10.0.8.0/22"));
+
+        //verify
+        Assert.assertEquals(indexedOrder, containedOverlap);
+        Assert.assertEquals(indexedOrder, containingOverlap);
+        Assert.assertEquals(indexedOrder, equalOverlap);
+        Assert.assertNull(lowerNeighbourOverlap);
+        Assert.assertNull(upperNeighbourOverlap);
+        Assert.assertEquals(3, cidrIndex.size());
+    }
+
+    //test case: the network containing an IP is found, until it is dropped from the index
+    @Test
+    public void testFindNetworkContainingIp() throws Exception {
+        //set up
+        CidrIndex cidrIndex = new CidrIndex();
+        FederatedNetworkOrder firstOrder = createOrder("10.0.0.0/24");
+        FederatedNetworkOrder secondOrder = createOrder("10.0.2.0/23");
+        cidrIndex.add(firstOrder);
+        cidrIndex.add(secondOrder);
+
+        //exercise
+        cidrIndex.remove(firstOrder);
+
+        //verify
+        Assert.assertNull(cidrIndex.find("10.0.0.1"));
+        Assert.assertNull(cidrIndex.find("10.0.1.1"));
+        Assert.assertEquals(secondOrder, cidrIndex.find("10.0.3.255"));
+        Assert.assertNull(cidrIndex.find("10.0.4.0"));
+    }
+
+    //test case: a closed order gives its CIDR to a new order with the very same CIDR, and cannot drop it afterwards
+    @Test
+    public void testClosedOrderHandsOverCidr() throws Exception {
+        //set up
+        CidrIndex cidrIndex = new CidrIndex();
+        FederatedNetworkOrder closedOrder = createOrder("10.0.0.0/24");
+        cidrIndex.add(closedOrder);
+        closedOrder.setOrderStateInTestMode(OrderState.CLOSED);
+        FederatedNetworkOrder newOrder = createOrder("10.0.0.0/24");
+
+        //exercise
+        FederatedNetworkOrder overlappingOrder = cidrIndex.add(newOrder);
+        cidrIndex.remove(closedOrder);
+
+        //verify
+        Assert.assertNull(overlappingOrder);
+        Assert.assertEquals(newOrder, cidrIndex.find("10.0.0.1"));
+    }
+
+    //test case: the closed order gets its CIDR back when the order it handed it over to is dropped, as long as its
+    // network is still to be removed from the agent
+    @Test
+    public void testDroppedOrderGivesCidrBack() throws Exception {
+        //set up
+        CidrIndex cidrIndex = new CidrIndex();
+        FederatedNetworkOrder closedOrder = createOrder("10.0.0.0/24");
+        cidrIndex.add(closedOrder);
+        closedOrder.setOrderStateInTestMode(OrderState.CLOSED);
+        closedOrder.setAgentDeletionPending(true);
+        FederatedNetworkOrder newOrder = createOrder("10.0.0.0/24");
+        cidrIndex.add(newOrder);
+
+        //exercise
+        cidrIndex.remove(newOrder);
+
+        //verify
+        Assert.assertEquals(closedOrder, cidrIndex.find("10.0.0.1"));
+        Assert.assertNull(cidrIndex.getHandedOverOrder(closedOrder));
+        cidrIndex.remove(closedOrder);
+        Assert.assertEquals(0, cidrIndex.size());
+    }
+
+    //test case: a closed order whose network was taken over does not get its CIDR back
+    @Test
+    public void testTakenOverCidrIsNotGivenBack() throws Exception {
+        //set up
+        CidrIndex cidrIndex = new CidrIndex();
+        FederatedNetworkOrder closedOrder = createOrder("10.0.0.0/24");
+        cidrIndex.add(closedOrder);
+        closedOrder.setOrderStateInTestMode(OrderState.CLOSED);
+        closedOrder.setAgentDeletionPending(true);
+        FederatedNetworkOrder newOrder = createOrder("10.0.0.0/24");
+        cidrIndex.add(newOrder);
+        Assert.assertEquals(closedOrder, cidrIndex.getHandedOverOrder(newOrder));
+        closedOrder.setAgentDeletionPending(false);
+
+        //exercise
+        cidrIndex.remove(newOrder);
+
+        //verify
+        Assert.assertNull(cidrIndex.find("10.0.0.1"));
+        Assert.assertEquals(0, cidrIndex.size());
+    }
+
+    private FederatedNetworkOrder createOrder(String cidr) {
+        SystemUser systemUser = new SystemUser("user", "user", "identity-provider");
+        return new FederatedNetworkOrder(systemUser, "requester", "provider", cidr, "name", new HashSet<>(),
+                new LinkedList<>(), new ArrayList<>());
+    }
+}
@@ -0,0 +1,70 @@
+package cloud.fogbow.fns.core;
+
+import cloud.fogbow.ras.api.http.response.ComputeInstance;
+import cloud.fogbow.ras.api.http.response.InstanceState;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ComputeInstanceCacheTest {
+    private static final String COMPUTE_ID = "fake-compute-id";
+    private static final String FIRST_USER = "fake-idp/first-user";
+    private static final String SECOND_USER = "fake-idp/second-user";
+    private static final long ONE_MINUTE = 60000;
+
+    //test case: a cached instance must only be returned to the user that got it
+    @Test
+    public void testGet() {
+        //set up
+        ComputeInstanceCache cache = new ComputeInstanceCache(10, ONE_MINUTE, ONE_MINUTE);
+        ComputeInstance computeInstance = createComputeInstance(InstanceState.READY);
+        cache.put(COMPUTE_ID, FIRST_USER, computeInstance, cache.getVersion());
+
+        //exercise
+        ComputeInstance firstUserInstance = cache.get(COMPUTE_ID, FIRST_USER);
+        ComputeInstance secondUserInstance = cache.get(COMPUTE_ID, SECOND_USER);
+
+        //verify
+        Assert.assertSame(computeInstance, firstUserInstance);
+        Assert.assertNull(secondUserInstance);
+    }
+
+    //test case: a compute that is not READY must be kept only for the transitional time to live
+    @Test
+    public void testTransitionalStateExpiresSooner() {
+        //set up
+        ComputeInstanceCache cache = new ComputeInstanceCache(10, ONE_MINUTE, 0);
+        cache.put(COMPUTE_ID, FIRST_USER, createComputeInstance(InstanceState.CREATING), cache.getVersion());
+
+        //exercise
+        ComputeInstance cachedInstance = cache.get(COMPUTE_ID, FIRST_USER);
+
+        //verify
+        Assert.assertNull(cachedInstance);
+        Assert.assertEquals(0, cache.size());
+    }
+
+    //test case: invalidating a compute must discard its instances, and an instance fetched before the invalidation
+    //must not be cached after it
+    @Test
+    public void testInvalidate() {
+        //set up
+        ComputeInstanceCache cache = new ComputeInstanceCache(10, ONE_MINUTE, ONE_MINUTE);
+        cache.put(COMPUTE_ID, FIRST_USER, createComputeInstance(InstanceState.READY), cache.getVersion());
+        long versionBeforeInvalidation = cache.getVersion();
+
+        //exercise
+        cache.invalidate(COMPUTE_ID);
+        cache.put(COMPUTE_ID, SECOND_USER, createComputeInstance(InstanceState.READY), versionBeforeInvalidation);
+
+        //verify
+        Assert.assertNull(cache.get(COMPUTE_ID, FIRST_USER));
+        Assert.assertNull(cache.get(COMPUTE_ID, SECOND_USER));
+        Assert.assertEquals(0, cache.size());
+    }
+
+    private ComputeInstance createComputeInstance(InstanceState state) {
+        ComputeInstance computeInstance = new ComputeInstance(COMPUTE_ID);
+        computeInstance.setState(state);
+        return computeInstance;
+    }
+}
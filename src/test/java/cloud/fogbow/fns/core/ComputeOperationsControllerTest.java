@@ -0,0 +1,175 @@
+package cloud.fogbow.fns.core;
+
+import cloud.fogbow.common.exceptions.InstanceNotFoundException;
+import cloud.fogbow.common.models.SystemUser;
+import cloud.fogbow.fns.core.exceptions.ComputeOperationsCapacityReachedException;
+import cloud.fogbow.fns.core.model.ComputeOperation;
+import cloud.fogbow.fns.core.model.ComputeOperationState;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+public class ComputeOperationsControllerTest {
+    private static final String FEDERATED_NETWORK_ID = "federated-network";
+    private static final String COMPUTE_ID = "compute";
+    private static final String ERROR_MESSAGE = "error";
+    private static final long RETENTION_TIME = 60000;
+    private static final long COMPLETION_TIMEOUT = 5;
+
+    private SystemUser systemUser = new SystemUser("user", "user", "identity-provider");
+
+    //test case: a compute creation run by the pool completes its operation with the id of the compute created
+    @Test
+    public void testSubmitSucceeds() throws Exception {
+        //set up
+        ComputeOperationsController controller = new ComputeOperationsController(1, 1, RETENTION_TIME, 1);
+
+        //exercise
+        ComputeOperation operation = controller.submit(this.systemUser, FEDERATED_NETWORK_ID, () -> COMPUTE_ID);
+        operation.getCompletion().get(COMPLETION_TIMEOUT, TimeUnit.SECONDS);
+
+        //verify
+        Assert.assertEquals(ComputeOperationState.SUCCEEDED, operation.getState());
+        Assert.assertEquals(COMPUTE_ID, operation.getComputeId());
+        Assert.assertSame(operation, controller.getOperation(operation.getId()));
+    }
+
+    //test case: a compute creation that throws completes its operation with the message of the exception
+    @Test
+    public void testSubmitFails() throws Exception {
+        //set up
+        ComputeOperationsController controller = new ComputeOperationsController(1, 1, RETENTION_TIME, 1);
+
+        //exercise
+        ComputeOperation operation = controller.submit(this.systemUser, FEDERATED_NETWORK_ID, () -> {
+            throw new Exception(ERROR_MESSAGE);
+        });
+        operation.getCompletion().get(COMPLETION_TIMEOUT, TimeUnit.SECONDS);
+
+        //verify
+        Assert.assertEquals(ComputeOperationState.FAILED, operation.getState());
+        Assert.assertEquals(ERROR_MESSAGE, operation.getErrorMessage());
+    }
+
+    //test case: once the pool and its queue are full, compute creations are rejected without being run
+    @Test
+    public void testSubmitRejectedWhenCapacityReached() throws Exception {
+        //set up
+        ComputeOperationsController controller = new ComputeOperationsController(1, 1, RETENTION_TIME, 1);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        controller.submit(this.systemUser, FEDERATED_NETWORK_ID, () -> {
+            running.countDown();
+            release.await();
+            return COMPUTE_ID;
+        });
+        Assert.assertTrue(running.await(COMPLETION_TIMEOUT, TimeUnit.SECONDS));
+        ComputeOperation queuedOperation = controller.submit(this.systemUser, FEDERATED_NETWORK_ID, () -> COMPUTE_ID);
+
+        //exercise
+        try {
+            controller.submit(this.systemUser, FEDERATED_NETWORK_ID, () -> COMPUTE_ID);
+            Assert.fail();
+        } catch (ComputeOperationsCapacityReachedException e) {
+            // expected
+        } finally {
+            release.countDown();
+        }
+
+        //verify
+        queuedOperation.getCompletion().get(COMPLETION_TIMEOUT, TimeUnit.SECONDS);
+        Assert.assertEquals(ComputeOperationState.SUCCEEDED, queuedOperation.getState());
+    }
+
+    //test case: each call keeps at most the configured parallelism of requests in flight, whatever the other calls do
+    @Test
+    public void testInvokeAllAsyncBoundsEachCall() throws Exception {
+        //set up
+        ComputeOperationsController controller = new ComputeOperationsController(1, 1, RETENTION_TIME, 2);
+        BlockingQueue<CompletableFuture<Object>> inFlight = new LinkedBlockingQueue<>();
+        List<Integer> items = Arrays.asList(1, 2, 3, 4, 5);
+
+        //exercise
+        CompletableFuture<Void> firstBatch = controller.invokeAllAsync(items, item -> sendRequest(inFlight));
+        CompletableFuture<Void> secondBatch = controller.invokeAllAsync(items, item -> sendRequest(inFlight));
+        int initiallyInFlight = inFlight.size();
+        for (int i = 0; i < 2 * items.size(); i++) {
+            inFlight.poll(COMPLETION_TIMEOUT, TimeUnit.SECONDS).complete(null);
+        }
+
+        //verify
+        Assert.assertEquals(4, initiallyInFlight);
+        firstBatch.get(COMPLETION_TIMEOUT, TimeUnit.SECONDS);
+        secondBatch.get(COMPLETION_TIMEOUT, TimeUnit.SECONDS);
+        Assert.assertTrue(inFlight.isEmpty());
+    }
+
+    //test case: requests that fail, or that cannot even be sent, do not keep the others from being sent
+    @Test
+    public void testInvokeAllAsyncCompletesDespiteFailures() throws Exception {
+        //set up
+        ComputeOperationsController controller = new ComputeOperationsController(1, 1, RETENTION_TIME, 2);
+        List<Integer> items = Arrays.asList(1, 2, 3, 4, 5, 6);
+        Set<Integer> requestedItems = ConcurrentHashMap.newKeySet();
+
+        //exercise
+        CompletableFuture<Void> completion = controller.invokeAllAsync(items, item -> {
+            requestedItems.add(item);
+            if (item % 3 == 0) {
+                throw new RuntimeException(ERROR_MESSAGE);
+            }
+            CompletableFuture<Object> response = new CompletableFuture<>();
+            if (item % 3 == 1) {
+                response.completeExceptionally(new Exception(ERROR_MESSAGE));
+            } else {
+                response.complete(item);
+            }
+            return response;
+        });
+
+        //verify
+        completion.get(COMPLETION_TIMEOUT, TimeUnit.SECONDS);
+        Assert.assertEquals(new HashSet<>(items), requestedItems);
+    }
+
+    //test case: a call without items completes right away
+    @Test
+    public void testInvokeAllAsyncWithoutItems() {
+        //set up
+        ComputeOperationsController controller = new ComputeOperationsController(1, 1, RETENTION_TIME, 2);
+
+        //exercise
+        CompletableFuture<Void> completion = controller.invokeAllAsync(Collections.emptyList(),
+                item -> new CompletableFuture<>());
+
+        //verify
+        Assert.assertTrue(completion.isDone());
+    }
+
+    //test case: an unknown operation is not found
+    @Test(expected = InstanceNotFoundException.class)
+    public void testGetUnknownOperation() throws Exception {
+        //set up
+        ComputeOperationsController controller = new ComputeOperationsController(1, 1, RETENTION_TIME, 1);
+
+        //exercise
+        controller.getOperation("unknown-operation");
+    }
+
+    private CompletableFuture<Object> sendRequest(BlockingQueue<CompletableFuture<Object>> inFlight) {
+        CompletableFuture<Object> response = new CompletableFuture<>();
+        inFlight.add(response);
+        return response;
+    }
+}
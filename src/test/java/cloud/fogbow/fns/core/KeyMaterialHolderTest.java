@@ -0,0 +1,158 @@
+package cloud.fogbow.fns.core;
+
+import cloud.fogbow.common.exceptions.FogbowException;
+import cloud.fogbow.common.exceptions.UnavailableProviderException;
+import cloud.fogbow.fns.constants.ConfigurationPropertyKeys;
+import cloud.fogbow.fns.utils.RasTokenCache;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+
+public class KeyMaterialHolderTest {
+    private static final String USER_TOKEN = "key-material-holder-test-token";
+    private static final String RAS_TOKEN = "ras-token";
+    private static final String UNAVAILABLE = "unavailable";
+
+    private KeyPair fnsKeyPair;
+    private RSAPublicKey asPublicKey;
+    private RSAPublicKey rasPublicKey;
+
+    @Before
+    public void setUp() throws Exception {
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(1024);
+        this.fnsKeyPair = keyPairGenerator.generateKeyPair();
+        this.asPublicKey = (RSAPublicKey) keyPairGenerator.generateKeyPair().getPublic();
+        this.rasPublicKey = (RSAPublicKey) keyPairGenerator.generateKeyPair().getPublic();
+    }
+
+    //test case: when the RAS public key cannot be fetched, tokens can still be authenticated with the other keys
+    @Test
+    public void testUnavailableRasKeyDoesNotPreventAuthentication() throws Exception {
+        //set up
+        StubKeyMaterialHolder holder = new StubKeyMaterialHolder();
+        holder.rasAvailable = false;
+
+        //exercise
+        try {
+            holder.refresh();
+            Assert.fail();
+        } catch (UnavailableProviderException e) {
+            // expected
+        }
+
+        //verify
+        Assert.assertEquals(this.asPublicKey, holder.getAsPublicKey());
+        Assert.assertEquals(this.fnsKeyPair.getPrivate(), holder.getFnsPrivateKey());
+        try {
+            holder.getRasPublicKey();
+            Assert.fail();
+        } catch (UnavailableProviderException e) {
+            // expected
+        }
+    }
+
+    //test case: a failed refresh keeps the keys of the last successful one
+    @Test
+    public void testFailedRefreshKeepsLastGoodKeys() throws Exception {
+        //set up
+        StubKeyMaterialHolder holder = new StubKeyMaterialHolder();
+        holder.refresh();
+        KeyMaterialHolder.KeyMaterial loadedKeyMaterial = holder.getKeyMaterial();
+        holder.asAvailable = false;
+        holder.rasAvailable = false;
+
+        //exercise
+        try {
+            holder.refresh();
+            Assert.fail();
+        } catch (UnavailableProviderException e) {
+            // expected
+        }
+
+        //verify
+        Assert.assertFalse(holder.isCurrent(loadedKeyMaterial));
+        Assert.assertEquals(this.asPublicKey, holder.getAsPublicKey());
+        Assert.assertEquals(this.rasPublicKey, holder.getRasPublicKey());
+        Assert.assertEquals(0, holder.getRetryDelay());
+    }
+
+    //test case: requests do not load a missing key again before the backoff delay, which grows on each failure
+    @Test
+    public void testMissingKeyIsLoadedWithBackoff() throws Exception {
+        //set up
+        StubKeyMaterialHolder holder = new StubKeyMaterialHolder();
+        holder.rasAvailable = false;
+        holder.getKeyMaterial();
+        long firstRetryDelay = holder.getRetryDelay();
+
+        //exercise
+        holder.getKeyMaterial();
+        holder.getKeyMaterial();
+        int fetchesDuringBackoff = holder.rasFetches;
+        holder.rasAvailable = true;
+        holder.refresh();
+
+        //verify
+        Assert.assertEquals(1, fetchesDuringBackoff);
+        Assert.assertTrue(firstRetryDelay > 0);
+        Assert.assertEquals(this.rasPublicKey, holder.getRasPublicKey());
+        Assert.assertEquals(0, holder.getRetryDelay());
+    }
+
+    //test case: when the RAS public key changes, the tokens rewrapped with the old one are dropped
+    @Test
+    public void testRotationDropsRewrappedTokens() throws Exception {
+        //set up
+        StubKeyMaterialHolder holder = new StubKeyMaterialHolder();
+        holder.refresh();
+        RasTokenCache.getInstance().put(USER_TOKEN, RAS_TOKEN);
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(1024);
+        this.rasPublicKey = (RSAPublicKey) keyPairGenerator.generateKeyPair().getPublic();
+
+        //exercise
+        holder.refresh();
+
+        //verify
+        Assert.assertNull(RasTokenCache.getInstance().get(USER_TOKEN));
+        Assert.assertEquals(this.rasPublicKey, holder.getRasPublicKey());
+    }
+
+    private class StubKeyMaterialHolder extends KeyMaterialHolder {
+        private boolean asAvailable = true;
+        private boolean rasAvailable = true;
+        private int rasFetches = 0;
+
+        @Override
+        protected RSAPublicKey readFnsPublicKey() {
+            return (RSAPublicKey) fnsKeyPair.getPublic();
+        }
+
+        @Override
+        protected RSAPrivateKey readFnsPrivateKey() {
+            return (RSAPrivateKey) fnsKeyPair.getPrivate();
+        }
+
+        @Override
+        protected RSAPublicKey fetchPublicKey(String addressKey, String portKey, String endpoint)
+                throws FogbowException {
+            if (addressKey.equals(ConfigurationPropertyKeys.RAS_URL_KEY)) {
+                this.rasFetches++;
+                if (!this.rasAvailable) {
+                    throw new UnavailableProviderException(UNAVAILABLE);
+                }
+                return rasPublicKey;
+            }
+            if (!this.asAvailable) {
+                throw new UnavailableProviderException(UNAVAILABLE);
+            }
+            return asPublicKey;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package cloud.fogbow.fns.core;
+
+import cloud.fogbow.common.models.SystemUser;
+import cloud.fogbow.fns.core.model.FederatedNetworkOrder;
+import cloud.fogbow.fns.core.model.OrderPriority;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.Map;
+
+public class OrderWorkSetTest {
+    private static final String FIRST_ORDER_ID = "first-order";
+    private static final String SECOND_ORDER_ID = "second-order";
+    private static final String THIRD_ORDER_ID = "third-order";
+    private static final String FIRST_USER_ID = "first-user";
+    private static final String SECOND_USER_ID = "second-user";
+
+    //test case: each order must be handed to a single consumer until it is given back
+    @Test
+    public void testPollHandsEachOrderOnce() {
+        //set up
+        OrderWorkSet workSet = new OrderWorkSet();
+        FederatedNetworkOrder firstOrder = createOrder(FIRST_ORDER_ID);
+        FederatedNetworkOrder secondOrder = createOrder(SECOND_ORDER_ID);
+        workSet.add(firstOrder);
+        workSet.add(secondOrder);
+
+        //exercise
+        FederatedNetworkOrder firstTaken = workSet.poll();
+        FederatedNetworkOrder secondTaken = workSet.poll();
+        FederatedNetworkOrder nothingLeft = workSet.poll();
+        workSet.requeue(firstTaken);
+        workSet.requeue(firstTaken);
+
+        //verify
+        Assert.assertSame(firstOrder, firstTaken);
+        Assert.assertSame(secondOrder, secondTaken);
+        Assert.assertNull(nothingLeft);
+        Assert.assertSame(firstOrder, workSet.poll());
+        Assert.assertNull(workSet.poll());
+        Assert.assertEquals(2, workSet.size());
+    }
+
+    //test case: a removed order must be neither handed to consumers nor queued again
+    @Test
+    public void testRemovedOrderIsSkipped() {
+        //set up
+        OrderWorkSet workSet = new OrderWorkSet();
+        FederatedNetworkOrder order = createOrder(FIRST_ORDER_ID);
+        workSet.add(order);
+
+        //exercise
+        boolean removed = workSet.remove(order);
+        boolean removedAgain = workSet.remove(order);
+        workSet.requeue(order);
+
+        //verify
+        Assert.assertTrue(removed);
+        Assert.assertFalse(removedAgain);
+        Assert.assertFalse(workSet.contains(order));
+        Assert.assertNull(workSet.poll());
+        Assert.assertEquals(0, workSet.size());
+    }
+
+    //test case: an order removed and added again must be handed to consumers only once
+    @Test
+    public void testOrderAddedAgainIsNotDuplicated() {
+        //set up
+        OrderWorkSet workSet = new OrderWorkSet();
+        FederatedNetworkOrder order = createOrder(FIRST_ORDER_ID);
+        workSet.add(order);
+        workSet.remove(order);
+
+        //exercise
+        boolean added = workSet.add(order);
+        boolean addedAgain = workSet.add(order);
+
+        //verify
+        Assert.assertTrue(added);
+        Assert.assertFalse(addedAgain);
+        Assert.assertSame(order, workSet.poll());
+        Assert.assertNull(workSet.poll());
+    }
+
+    //test case: the orders of a user must not be handed out before the orders of the other users get their turn
+    @Test
+    public void testPollIsRoundRobinAcrossUsers() {
+        //set up
+        OrderWorkSet workSet = new OrderWorkSet();
+        FederatedNetworkOrder firstOrder = createOrder(FIRST_ORDER_ID, FIRST_USER_ID);
+        FederatedNetworkOrder secondOrder = createOrder(SECOND_ORDER_ID, FIRST_USER_ID);
+        FederatedNetworkOrder thirdOrder = createOrder(THIRD_ORDER_ID, SECOND_USER_ID);
+        workSet.add(firstOrder);
+        workSet.add(secondOrder);
+        workSet.add(thirdOrder);
+
+        //exercise
+        FederatedNetworkOrder firstTaken = workSet.poll();
+        FederatedNetworkOrder secondTaken = workSet.poll();
+        FederatedNetworkOrder thirdTaken = workSet.poll();
+
+        //verify
+        Assert.assertSame(firstOrder, firstTaken);
+        Assert.assertSame(thirdOrder, secondTaken);
+        Assert.assertSame(secondOrder, thirdTaken);
+        Assert.assertNull(workSet.poll());
+    }
+
+    //test case: with a priority policy, the orders of a user must be handed out by due time, and an order whose
+    // deadline has passed must be handed out first
+    @Test
+    public void testPollByPriorityAndDeadline() {
+        //set up
+        Map<OrderPriority, Long> targetWaits = new EnumMap<>(OrderPriority.class);
+        targetWaits.put(OrderPriority.HIGH, 0L);
+        targetWaits.put(OrderPriority.NORMAL, 60000L);
+        targetWaits.put(OrderPriority.LOW, 600000L);
+        OrderWorkSet workSet = new OrderWorkSet(new PrioritySchedulingPolicy(targetWaits));
+        FederatedNetworkOrder normalOrder = createOrder(FIRST_ORDER_ID);
+        FederatedNetworkOrder lowOrder = createOrder(SECOND_ORDER_ID);
+        lowOrder.setPriority(OrderPriority.LOW);
+        FederatedNetworkOrder highOrder = createOrder(THIRD_ORDER_ID);
+        highOrder.setPriority(OrderPriority.HIGH);
+        FederatedNetworkOrder lateOrder = createOrder("late-order");
+        lateOrder.setPriority(OrderPriority.LOW);
+        lateOrder.setDeadline(System.currentTimeMillis() - 1);
+        workSet.add(normalOrder);
+        workSet.add(lowOrder);
+        workSet.add(highOrder);
+        workSet.add(lateOrder);
+
+        //exercise
+        FederatedNetworkOrder firstTaken = workSet.poll();
+        FederatedNetworkOrder secondTaken = workSet.poll();
+        FederatedNetworkOrder thirdTaken = workSet.poll();
+        FederatedNetworkOrder fourthTaken = workSet.poll();
+
+        //verify
+        Assert.assertSame(lateOrder, firstTaken);
+        Assert.assertSame(highOrder, secondTaken);
+        Assert.assertSame(normalOrder, thirdTaken);
+        Assert.assertSame(lowOrder, fourthTaken);
+    }
+
+    //test case: the orders of each user and the users with orders are counted as orders are added and removed,
+    //regardless of whether the orders have been taken by a consumer
+    @Test
+    public void testSizePerUser() {
+        //set up
+        OrderWorkSet workSet = new OrderWorkSet();
+        FederatedNetworkOrder firstOrder = createOrder(FIRST_ORDER_ID, FIRST_USER_ID);
+        FederatedNetworkOrder secondOrder = createOrder(SECOND_ORDER_ID, FIRST_USER_ID);
+        FederatedNetworkOrder thirdOrder = createOrder(THIRD_ORDER_ID, SECOND_USER_ID);
+        workSet.add(firstOrder);
+        workSet.add(secondOrder);
+        workSet.add(thirdOrder);
+        workSet.poll();
+
+        //exercise
+        workSet.remove(thirdOrder);
+
+        //verify
+        Assert.assertEquals(2, workSet.size(firstOrder.getSystemUser()));
+        Assert.assertEquals(0, workSet.size(thirdOrder.getSystemUser()));
+        Assert.assertEquals(1, workSet.getTenantCount());
+    }
+
+    private FederatedNetworkOrder createOrder(String id) {
+        return createOrder(id, "userId");
+    }
+
+    private FederatedNetworkOrder createOrder(String id, String userId) {
+        SystemUser systemUser = new SystemUser(userId, "userName", "identityProviderId");
+        return new FederatedNetworkOrder(id, systemUser, "requester", "provider", "10.0.30.1/20", "name",
+                new HashSet<>(), new LinkedList<>(), new ArrayList<>(), null);
+    }
+}
@@ -0,0 +1,162 @@
+package cloud.fogbow.fns.core;
+
+import cloud.fogbow.common.exceptions.QuotaExceededException;
+import cloud.fogbow.common.models.SystemUser;
+import cloud.fogbow.fns.api.http.response.AssignedIp;
+import cloud.fogbow.fns.core.QuotaController.Resource;
+import cloud.fogbow.fns.core.model.FederatedNetworkOrder;
+import cloud.fogbow.fns.core.model.OrderState;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedList;
+
+public class QuotaControllerTest {
+    private static final String FIRST_ORDER_ID = "first-order";
+    private static final String SECOND_ORDER_ID = "second-order";
+    private static final String THIRD_ORDER_ID = "third-order";
+    private static final String FIRST_USER_ID = "first-user";
+    private static final String SECOND_USER_ID = "second-user";
+    private static final String IDENTITY_PROVIDER_ID = "identity-provider";
+    private static final String CIDR = "10.0.0.0/24";
+    private static final long CIDR_ADDRESS_SPACE = 256;
+
+    //test case: a user cannot hold more federated networks than its quota
+    @Test
+    public void testNetworksQuotaPerUser() throws Exception {
+        //set up
+        QuotaController quotaController = new QuotaController(1, 0, 0, 0, 0, 0);
+        FederatedNetworkOrder firstOrder = createOrder(FIRST_ORDER_ID, FIRST_USER_ID, null);
+        FederatedNetworkOrder secondOrder = createOrder(SECOND_ORDER_ID, FIRST_USER_ID, null);
+        quotaController.chargeNetwork(firstOrder);
+
+        //exercise
+        try {
+            quotaController.chargeNetwork(secondOrder);
+            Assert.fail();
+        } catch (QuotaExceededException e) {
+            //verify
+        }
+        SystemUser user = firstOrder.getSystemUser();
+        Assert.assertEquals(1, quotaController.getUserUsage(user, Resource.NETWORKS));
+        Assert.assertEquals(CIDR_ADDRESS_SPACE, quotaController.getUserUsage(user, Resource.ADDRESS_SPACE));
+        Assert.assertEquals(1, quotaController.getIdentityProviderUsage(user, Resource.NETWORKS));
+    }
+
+    //test case: when the quota of the identity provider is exceeded, nothing is charged to the user either
+    @Test
+    public void testExceededQuotaChargesNothing() throws Exception {
+        //set up
+        QuotaController quotaController = new QuotaController(0, 256, 0, 0, 256, 0);
+        FederatedNetworkOrder firstOrder = createOrder(FIRST_ORDER_ID, FIRST_USER_ID, null);
+        FederatedNetworkOrder secondOrder = createOrder(SECOND_ORDER_ID, SECOND_USER_ID, null);
+        quotaController.chargeNetwork(secondOrder);
+
+        //exercise
+        try {
+            quotaController.chargeNetwork(firstOrder);
+            Assert.fail();
+        } catch (QuotaExceededException e) {
+            //verify
+        }
+        SystemUser firstUser = firstOrder.getSystemUser();
+        Assert.assertEquals(0, quotaController.getUserUsage(firstUser, Resource.NETWORKS));
+        Assert.assertEquals(0, quotaController.getUserUsage(firstUser, Resource.ADDRESS_SPACE));
+        Assert.assertEquals(1, quotaController.getIdentityProviderUsage(firstUser, Resource.NETWORKS));
+        Assert.assertEquals(CIDR_ADDRESS_SPACE,
+                quotaController.getIdentityProviderUsage(firstUser, Resource.ADDRESS_SPACE));
+    }
+
+    //test case: the IPs of a federated network are charged to its owner, up to its quota
+    @Test
+    public void testIpsQuotaPerUser() throws Exception {
+        //set up
+        QuotaController quotaController = new QuotaController(0, 0, 2, 0, 0, 0);
+        FederatedNetworkOrder firstOrder = createOrder(FIRST_ORDER_ID, FIRST_USER_ID, null);
+        FederatedNetworkOrder secondOrder = createOrder(SECOND_ORDER_ID, FIRST_USER_ID, null);
+        quotaController.chargeNetwork(firstOrder);
+        quotaController.chargeNetwork(secondOrder);
+        quotaController.chargeIps(firstOrder, 2);
+
+        //exercise
+        try {
+            quotaController.chargeIps(secondOrder, 1);
+            Assert.fail();
+        } catch (QuotaExceededException e) {
+            //verify
+        }
+        Assert.assertEquals(2, quotaController.getUserUsage(firstOrder.getSystemUser(), Resource.IPS));
+        Assert.assertEquals(2, quotaController.getIdentityProviderUsage(firstOrder.getSystemUser(), Resource.IPS));
+    }
+
+    //test case: discharging a federated network discharges its IPs as well, and a second discharge does nothing
+    @Test
+    public void testReleaseNetwork() throws Exception {
+        //set up
+        QuotaController quotaController = new QuotaController(0, 0, 0, 0, 0, 0);
+        FederatedNetworkOrder firstOrder = createOrder(FIRST_ORDER_ID, FIRST_USER_ID, null);
+        FederatedNetworkOrder secondOrder = createOrder(SECOND_ORDER_ID, FIRST_USER_ID, null);
+        quotaController.chargeNetwork(firstOrder);
+        quotaController.chargeNetwork(secondOrder);
+        quotaController.chargeIps(firstOrder, 2);
+        quotaController.chargeIps(secondOrder, 1);
+
+        //exercise
+        quotaController.releaseNetwork(firstOrder);
+        quotaController.releaseNetwork(firstOrder);
+        quotaController.releaseIps(firstOrder, 1);
+
+        //verify
+        SystemUser user = firstOrder.getSystemUser();
+        Assert.assertEquals(1, quotaController.getUserUsage(user, Resource.NETWORKS));
+        Assert.assertEquals(CIDR_ADDRESS_SPACE, quotaController.getUserUsage(user, Resource.ADDRESS_SPACE));
+        Assert.assertEquals(1, quotaController.getUserUsage(user, Resource.IPS));
+    }
+
+    //test case: rebuilding charges from scratch the orders holding quota, with the IPs assigned to their computes, and
+    // those orders can be discharged afterwards
+    @Test
+    public void testRebuild() throws Exception {
+        //set up
+        QuotaController quotaController = new QuotaController(1, 0, 1, 0, 0, 0);
+        FederatedNetworkOrder fulfilledOrder = createOrder(FIRST_ORDER_ID, FIRST_USER_ID, OrderState.FULFILLED);
+        fulfilledOrder.getAssignedIps().add(new AssignedIp("first-compute", "10.0.0.2"));
+        fulfilledOrder.getAssignedIps().add(new AssignedIp("second-compute", "10.0.0.3"));
+        FederatedNetworkOrder closedOrder = createOrder(SECOND_ORDER_ID, FIRST_USER_ID, OrderState.CLOSED);
+        closedOrder.getAssignedIps().add(new AssignedIp("third-compute", "10.0.0.2"));
+        FederatedNetworkOrder openOrder = createOrder(THIRD_ORDER_ID, SECOND_USER_ID, OrderState.OPEN);
+        quotaController.chargeNetwork(openOrder);
+        quotaController.chargeIps(openOrder, 1);
+
+        //exercise
+        quotaController.rebuild(Arrays.asList(fulfilledOrder, closedOrder, openOrder));
+
+        //verify
+        SystemUser firstUser = fulfilledOrder.getSystemUser();
+        SystemUser secondUser = openOrder.getSystemUser();
+        // Recovered orders are charged regardless of the quotas
+        Assert.assertEquals(1, quotaController.getUserUsage(firstUser, Resource.NETWORKS));
+        Assert.assertEquals(CIDR_ADDRESS_SPACE, quotaController.getUserUsage(firstUser, Resource.ADDRESS_SPACE));
+        Assert.assertEquals(2, quotaController.getUserUsage(firstUser, Resource.IPS));
+        Assert.assertEquals(1, quotaController.getUserUsage(secondUser, Resource.NETWORKS));
+        Assert.assertEquals(0, quotaController.getUserUsage(secondUser, Resource.IPS));
+        Assert.assertEquals(2, quotaController.getIdentityProviderUsage(firstUser, Resource.NETWORKS));
+        Assert.assertEquals(2, quotaController.getIdentityProviderUsage(firstUser, Resource.IPS));
+
+        quotaController.releaseNetwork(fulfilledOrder);
+        quotaController.releaseNetwork(closedOrder);
+        Assert.assertEquals(0, quotaController.getUserUsage(firstUser, Resource.NETWORKS));
+        Assert.assertEquals(0, quotaController.getUserUsage(firstUser, Resource.ADDRESS_SPACE));
+        Assert.assertEquals(0, quotaController.getUserUsage(firstUser, Resource.IPS));
+        Assert.assertEquals(1, quotaController.getIdentityProviderUsage(firstUser, Resource.NETWORKS));
+    }
+
+    private FederatedNetworkOrder createOrder(String id, String userId, OrderState orderState) {
+        SystemUser systemUser = new SystemUser(userId, userId, IDENTITY_PROVIDER_ID);
+        return new FederatedNetworkOrder(id, systemUser, "requester", "provider", CIDR, "name", new HashSet<>(),
+                new LinkedList<>(), new ArrayList<>(), orderState);
+    }
+}
@@ -1,6 +1,7 @@
 package cloud.fogbow.fns.core.model;
 
 import cloud.fogbow.fns.MockedFederatedNetworkUnitTests;
+import cloud.fogbow.common.exceptions.QuotaExceededException;
 import cloud.fogbow.common.exceptions.UnexpectedException;
 import cloud.fogbow.common.models.SystemUser;
 import cloud.fogbow.fns.api.http.response.AssignedIp;
@@ -8,6 +9,7 @@ import cloud.fogbow.fns.core.exceptions.InvalidCidrException;
 import cloud.fogbow.fns.core.exceptions.SubnetAddressesCapacityReachedException;
 import org.junit.Assert;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
 import java.util.*;
@@ -20,26 +22,26 @@ public class FederatedNetworkOrderTest extends MockedFederatedNetworkUnitTests {
 
     private static final String FAKE_IP = "fake-ip";
     private static final String FAKE_COMPUTE_ID = "fake-compute-id";
+    private static final long RESERVATION_TTL = 60000;
     public static final String CIDR_EXAMPLE = "10.0.0.0/29";
 
     @Test
-    public void testAddAssociatedIp() throws UnexpectedException {
+    public void testAddAssociatedIp() throws InvalidCidrException, UnexpectedException,
+            SubnetAddressesCapacityReachedException, QuotaExceededException {
         // setup
         super.mockSingletons();
-        ArrayList<AssignedIp> fakeAssociatedIps;
-        fakeAssociatedIps = new ArrayList<>();
-
-        FederatedNetworkOrder fakeFederatedNetworkOrder = new FederatedNetworkOrder();
-        fakeFederatedNetworkOrder.setAssignedIps(fakeAssociatedIps);
+        FederatedNetworkOrder fakeFederatedNetworkOrder = createFederatedNetworkOrder(CIDR_EXAMPLE);
+        IpLease lease = fakeFederatedNetworkOrder.getFreeIp(RESERVATION_TTL);
 
         // exercise
-        fakeFederatedNetworkOrder.addAssociatedIp(FAKE_COMPUTE_ID, FAKE_IP);
+        fakeFederatedNetworkOrder.addAssociatedIp(FAKE_COMPUTE_ID, lease);
 
         // verify
         List<AssignedIp> fednetAssociatedIps = fakeFederatedNetworkOrder.getAssignedIps();
         assertEquals(1, fednetAssociatedIps.size());
         assertTrue(fednetAssociatedIps.get(0).getComputeId().equals(FAKE_COMPUTE_ID));
-        assertTrue(fednetAssociatedIps.get(0).getIp().equals(FAKE_IP));
+        assertTrue(fednetAssociatedIps.get(0).getIp().equals(lease.getIp()));
+        assertTrue(fakeFederatedNetworkOrder.getReservedIps().isEmpty());
     }
 
     @Test
@@ -77,7 +79,8 @@ public class FederatedNetworkOrderTest extends MockedFederatedNetworkUnitTests {
 
     //test case: tests that if ips served is higher than the network mask allows, it must throw an exception, since this ip will be in a different network
     @Test
-    public void testGetIpForNetworkWithNoFreeIps() throws InvalidCidrException, UnexpectedException, SubnetAddressesCapacityReachedException {
+    public void testGetIpForNetworkWithNoFreeIps() throws InvalidCidrException, UnexpectedException,
+            SubnetAddressesCapacityReachedException, QuotaExceededException {
         //set up
         mockDatabase(new HashMap<>());
         FederatedNetworkOrder federatedNetwork = createFederatedNetworkOrder(CIDR_EXAMPLE);
@@ -86,14 +89,14 @@ public class FederatedNetworkOrderTest extends MockedFederatedNetworkUnitTests {
         int freeIps = (int) (Math.pow(2, 3) - 3); // 2^freeBits - bitsForNetBroadcastAndAgent
         for (int i = 0; i < freeIps; i++) {
             // associating an IP address to a VM is a two step process in the order
-            String freeIp = federatedNetwork.getFreeIp();
+            IpLease freeIp = federatedNetwork.getFreeIp(RESERVATION_TTL);
             String uniqueComputeId = FAKE_COMPUTE_ID + i;
             federatedNetwork.addAssociatedIp(uniqueComputeId, freeIp);
         }
 
         //exercise
         try {
-            String freeIp = federatedNetwork.getFreeIp();
+            federatedNetwork.getFreeIp(RESERVATION_TTL);
             fail();
         } catch (SubnetAddressesCapacityReachedException e) {
             //verify
@@ -101,21 +104,22 @@ public class FederatedNetworkOrderTest extends MockedFederatedNetworkUnitTests {
     }
 
     @Test
-    public void testAddingAndRemovingAssociatedIps() throws UnexpectedException {
+    public void testAddingAndRemovingAssociatedIps() throws InvalidCidrException, UnexpectedException,
+            SubnetAddressesCapacityReachedException, QuotaExceededException {
         // set up
         mockDatabase(new HashMap<>());
         FederatedNetworkOrder federatedNetwork = createFederatedNetworkOrder(CIDR_EXAMPLE);
 
         String fakeComputeId = "fake-compute-id";
-        String fakeIpAddress = "10.0.1.4";
+        IpLease lease = federatedNetwork.getFreeIp(RESERVATION_TTL);
 
         Assert.assertEquals(null, federatedNetwork.getAssociatedIp(fakeComputeId));
 
         // exercise
-        federatedNetwork.addAssociatedIp(fakeComputeId, fakeIpAddress);
+        federatedNetwork.addAssociatedIp(fakeComputeId, lease);
 
         // verify
-        Assert.assertEquals(fakeIpAddress, federatedNetwork.getAssociatedIp(fakeComputeId));
+        Assert.assertEquals(lease.getIp(), federatedNetwork.getAssociatedIp(fakeComputeId));
 
         // exercise
         federatedNetwork.removeAssociatedIp(fakeComputeId);
@@ -124,6 +128,188 @@ public class FederatedNetworkOrderTest extends MockedFederatedNetworkUnitTests {
         Assert.assertEquals(null, federatedNetwork.getAssociatedIp(fakeComputeId));
     }
 
+    //test case: an IP released after a failed compute creation must be handed out again, while IPs that are still
+    // reserved must not be handed out when the cache of free IPs is refilled
+    @Test
+    public void testReleaseFreeIp() throws InvalidCidrException, UnexpectedException,
+            SubnetAddressesCapacityReachedException, QuotaExceededException {
+        // set up
+        mockDatabase(new HashMap<>());
+        FederatedNetworkOrder federatedNetwork = createFederatedNetworkOrder(CIDR_EXAMPLE);
+        String reservedIp = federatedNetwork.getFreeIp(RESERVATION_TTL).getIp();
+        IpLease releasedLease = federatedNetwork.getFreeIp(RESERVATION_TTL);
+        String releasedIp = releasedLease.getIp();
+        federatedNetwork.getCacheOfFreeIps().clear();
+
+        // exercise
+        federatedNetwork.releaseFreeIp(releasedLease);
+
+        // verify
+        assertEquals(releasedIp, federatedNetwork.getFreeIp(RESERVATION_TTL).getIp());
+
+        // exercise
+        federatedNetwork.getCacheOfFreeIps().clear();
+        String newIp = federatedNetwork.getFreeIp(RESERVATION_TTL).getIp();
+
+        // verify
+        Assert.assertNotEquals(reservedIp, newIp);
+        Assert.assertNotEquals(releasedIp, newIp);
+        assertTrue(federatedNetwork.getReservedIps().contains(reservedIp));
+    }
+
+    //test case: reservations that were neither committed nor released within their TTL must be reclaimed
+    @Test
+    public void testExpireIpReservations() throws InvalidCidrException, UnexpectedException,
+            SubnetAddressesCapacityReachedException, QuotaExceededException {
+        // set up
+        mockDatabase(new HashMap<>());
+        FederatedNetworkOrder federatedNetwork = createFederatedNetworkOrder(CIDR_EXAMPLE);
+        long reservationTtl = 1000;
+        IpLease committedLease = federatedNetwork.getFreeIp(reservationTtl);
+        String committedIp = committedLease.getIp();
+        String expiredIp = federatedNetwork.getFreeIp(reservationTtl).getIp();
+        federatedNetwork.addAssociatedIp(FAKE_COMPUTE_ID, committedLease);
+        long afterExpiration = System.currentTimeMillis() + reservationTtl + 1;
+
+        // exercise
+        int expired = federatedNetwork.expireIpReservations(afterExpiration);
+
+        // verify
+        assertEquals(1, expired);
+        assertTrue(federatedNetwork.getReservedIps().isEmpty());
+        assertTrue(federatedNetwork.getCacheOfFreeIps().contains(expiredIp));
+        Assert.assertFalse(federatedNetwork.getCacheOfFreeIps().contains(committedIp));
+    }
+
+    //test case: once a lease has expired and its IP has been reserved again, the old lease can neither commit nor
+    // release the IP, which stays reserved by the new lease
+    @Test
+    public void testExpiredLeaseCannotCommitNorReleaseIp() throws InvalidCidrException, UnexpectedException,
+            SubnetAddressesCapacityReachedException, QuotaExceededException {
+        // set up
+        mockDatabase(new HashMap<>());
+        FederatedNetworkOrder federatedNetwork = createFederatedNetworkOrder(CIDR_EXAMPLE);
+        long reservationTtl = 1000;
+        IpLease expiredLease = federatedNetwork.getFreeIp(reservationTtl);
+        federatedNetwork.getCacheOfFreeIps().clear();
+        federatedNetwork.expireIpReservations(System.currentTimeMillis() + reservationTtl + 1);
+        IpLease currentLease = federatedNetwork.getFreeIp(reservationTtl);
+        assertEquals(expiredLease.getIp(), currentLease.getIp());
+
+        // exercise
+        try {
+            federatedNetwork.addAssociatedIp(FAKE_COMPUTE_ID, expiredLease);
+            fail();
+        } catch (UnexpectedException e) {
+            federatedNetwork.releaseFreeIp(expiredLease);
+        }
+
+        // verify
+        assertTrue(federatedNetwork.getAssignedIps().isEmpty());
+        assertTrue(federatedNetwork.getReservedIps().contains(currentLease.getIp()));
+        Assert.assertFalse(federatedNetwork.getCacheOfFreeIps().contains(currentLease.getIp()));
+        federatedNetwork.addAssociatedIp(FAKE_COMPUTE_ID, currentLease);
+        assertEquals(currentLease.getIp(), federatedNetwork.getAssociatedIp(FAKE_COMPUTE_ID));
+    }
+
+    //test case: a view must keep the state of the order at the time it was taken, while the order publishes a new
+    // view after each change
+    @Test
+    public void testViewIsRepublishedAfterChanges() throws InvalidCidrException, UnexpectedException,
+            SubnetAddressesCapacityReachedException, QuotaExceededException {
+        // set up
+        mockDatabase(new HashMap<>());
+        FederatedNetworkOrder federatedNetwork = createFederatedNetworkOrder(CIDR_EXAMPLE);
+        federatedNetwork.setOrderStateInTestMode(OrderState.OPEN);
+        IpLease lease = federatedNetwork.getFreeIp(RESERVATION_TTL);
+        FederatedNetworkOrderView viewBeforeChanges = federatedNetwork.getView();
+
+        // exercise
+        federatedNetwork.addAssociatedIp(FAKE_COMPUTE_ID, lease);
+        federatedNetwork.setOrderState(OrderState.FULFILLED);
+
+        // verify
+        FederatedNetworkOrderView viewAfterChanges = federatedNetwork.getView();
+        assertTrue(viewBeforeChanges.getAssignedIps().isEmpty());
+        assertEquals(InstanceState.OPEN, viewBeforeChanges.getInstanceState());
+        assertEquals(lease.getIp(), viewAfterChanges.getAssociatedIp(FAKE_COMPUTE_ID));
+        assertEquals(InstanceState.READY, viewAfterChanges.getInstanceState());
+    }
+
+    //test case: a transition based on a state that has changed since it was read must not be made
+    @Test
+    public void testCompareAndSetOrderStateFailsOnStaleState() {
+        // set up
+        FederatedNetworkOrder federatedNetwork = createFederatedNetworkOrder(CIDR_EXAMPLE);
+        federatedNetwork.setOrderStateInTestMode(OrderState.OPEN);
+        VersionedOrderState staleState = federatedNetwork.getVersionedState();
+
+        // exercise
+        boolean firstTransition = federatedNetwork.compareAndSetOrderState(staleState, OrderState.FULFILLED);
+        boolean secondTransition = federatedNetwork.compareAndSetOrderState(staleState, OrderState.FAILED);
+
+        // verify
+        assertTrue(firstTransition);
+        Assert.assertFalse(secondTransition);
+        assertEquals(OrderState.FULFILLED, federatedNetwork.getOrderState());
+        assertEquals(staleState.getVersion() + 1, federatedNetwork.getVersionedState().getVersion());
+        assertEquals(InstanceState.READY, federatedNetwork.getView().getInstanceState());
+    }
+
+    //test case: setting the state of an order goes through the allowed transitions, from activation on
+    @Test
+    public void testSetOrderStateOnlyMakesAllowedTransitions() throws UnexpectedException {
+        // set up
+        mockDatabase(new HashMap<>());
+        FederatedNetworkOrder federatedNetwork = createFederatedNetworkOrder(CIDR_EXAMPLE);
+
+        // exercise
+        try {
+            federatedNetwork.setOrderState(OrderState.FULFILLED);
+            fail();
+        } catch (UnexpectedException e) {
+            // expected: a new order must be activated first
+        }
+        federatedNetwork.setOrderState(OrderState.OPEN);
+        federatedNetwork.setOrderState(OrderState.CLOSED);
+        try {
+            federatedNetwork.setOrderState(OrderState.OPEN);
+            fail();
+        } catch (UnexpectedException e) {
+            // expected: a closed order is never reopened
+        }
+
+        // verify
+        assertEquals(OrderState.CLOSED, federatedNetwork.getOrderState());
+    }
+
+    //test case: the order is written to the database as a copy, which later changes to the order do not affect
+    @Test
+    public void testPersistWritesCopy() throws InvalidCidrException, UnexpectedException,
+            SubnetAddressesCapacityReachedException, QuotaExceededException {
+        // set up
+        super.mockSingletons();
+        FederatedNetworkOrder federatedNetwork = createFederatedNetworkOrder(CIDR_EXAMPLE);
+        federatedNetwork.setOrderStateInTestMode(OrderState.FULFILLED);
+        IpLease lease = federatedNetwork.getFreeIp(RESERVATION_TTL);
+        federatedNetwork.addAssociatedIp(FAKE_COMPUTE_ID, lease);
+        ArgumentCaptor<FederatedNetworkOrder> written = ArgumentCaptor.forClass(FederatedNetworkOrder.class);
+
+        // exercise
+        federatedNetwork.persist();
+        federatedNetwork.removeAssociatedIp(FAKE_COMPUTE_ID);
+
+        // verify
+        Mockito.verify(this.database, Mockito.times(3)).put(written.capture());
+        FederatedNetworkOrder copy = written.getAllValues().get(1);
+        Assert.assertNotSame(federatedNetwork, copy);
+        assertEquals(federatedNetwork.getId(), copy.getId());
+        assertEquals(OrderState.FULFILLED, copy.getOrderState());
+        assertEquals(1, copy.getAssignedIps().size());
+        assertEquals(lease.getIp(), copy.getAssignedIps().get(0).getIp());
+        assertTrue(written.getAllValues().get(2).getAssignedIps().isEmpty());
+    }
+
     private FederatedNetworkOrder createFederatedNetworkOrder(String cidr) {
         SystemUser systemUser = Mockito.mock(SystemUser.class);
         Set<String> providers = new HashSet<>();
@@ -0,0 +1,80 @@
+package cloud.fogbow.fns.core.processors;
+
+import cloud.fogbow.common.models.SystemUser;
+import cloud.fogbow.fns.MockedFederatedNetworkUnitTests;
+import cloud.fogbow.fns.core.FederatedNetworkOrderController;
+import cloud.fogbow.fns.core.OrderStateTransitioner;
+import cloud.fogbow.fns.core.model.FederatedNetworkOrder;
+import cloud.fogbow.fns.core.model.OrderState;
+import cloud.fogbow.fns.utils.AgentCommunicatorUtil;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedList;
+
+public class ClosedProcessorTest extends MockedFederatedNetworkUnitTests {
+    private static final long LONG_RETRY_DELAY = 60000;
+
+    //test case: a removal from the agent that failed is not retried before its retry delay has elapsed
+    @Test
+    public void testFailedDeletionBacksOff() throws Exception {
+        // set up
+        FederatedNetworkOrderController orderController = new FederatedNetworkOrderController();
+        mockOnlyDatabase();
+        FederatedNetworkOrder order = createDeletedOrder(orderController, "backing-off-order");
+        ClosedProcessor closedProcessor = new ClosedProcessor(orderController, LONG_RETRY_DELAY, LONG_RETRY_DELAY);
+        PowerMockito.mockStatic(AgentCommunicatorUtil.class);
+        Mockito.when(AgentCommunicatorUtil.deleteFederatedNetwork(Mockito.anyString())).thenReturn(false);
+
+        // exercise
+        closedProcessor.processOrder(order);
+        closedProcessor.processOrder(order);
+
+        // verify
+        PowerMockito.verifyStatic(AgentCommunicatorUtil.class, Mockito.times(1));
+        AgentCommunicatorUtil.deleteFederatedNetwork(Mockito.anyString());
+
+        Assert.assertTrue(closedProcessor.isRetrying(order));
+        Assert.assertTrue(order.isAgentDeletionPending());
+        Assert.assertEquals(OrderState.CLOSED, order.getOrderState());
+    }
+
+    //test case: once a failed removal from the agent succeeds, the order is deactivated
+    @Test
+    public void testFailedDeletionIsRetried() throws Exception {
+        // set up
+        FederatedNetworkOrderController orderController = new FederatedNetworkOrderController();
+        mockOnlyDatabase();
+        FederatedNetworkOrder order = createDeletedOrder(orderController, "retried-order");
+        ClosedProcessor closedProcessor = new ClosedProcessor(orderController, 0, 0);
+        PowerMockito.mockStatic(AgentCommunicatorUtil.class);
+        Mockito.when(AgentCommunicatorUtil.deleteFederatedNetwork(Mockito.anyString())).thenReturn(false, true);
+
+        // exercise
+        closedProcessor.processOrder(order);
+        closedProcessor.processOrder(order);
+
+        // verify
+        PowerMockito.verifyStatic(AgentCommunicatorUtil.class, Mockito.times(2));
+        AgentCommunicatorUtil.deleteFederatedNetwork(Mockito.anyString());
+
+        Assert.assertFalse(closedProcessor.isRetrying(order));
+        Assert.assertFalse(order.isAgentDeletionPending());
+        Assert.assertEquals(OrderState.DEACTIVATED, order.getOrderState());
+    }
+
+    private FederatedNetworkOrder createDeletedOrder(FederatedNetworkOrderController orderController, String id)
+            throws Exception {
+        SystemUser systemUser = new SystemUser("userId", "userName", "identityProviderId");
+        FederatedNetworkOrder order = new FederatedNetworkOrder(id, systemUser, "requester",
+                "provider", "10.0.30.1/20", "name", new HashSet<>(), new LinkedList<>(), new ArrayList<>(), null);
+        orderController.activateOrder(order);
+        OrderStateTransitioner.transition(order, OrderState.FULFILLED);
+        orderController.deleteFederatedNetwork(order);
+        return order;
+    }
+}
@@ -0,0 +1,66 @@
+package cloud.fogbow.fns.core.processors;
+
+import cloud.fogbow.common.exceptions.UnexpectedException;
+import cloud.fogbow.common.models.SystemUser;
+import cloud.fogbow.fns.MockedFederatedNetworkUnitTests;
+import cloud.fogbow.fns.core.FederatedNetworkOrdersHolder;
+import cloud.fogbow.fns.core.exceptions.InvalidCidrException;
+import cloud.fogbow.fns.core.model.FederatedNetworkOrder;
+import cloud.fogbow.fns.core.model.OrderState;
+import cloud.fogbow.fns.utils.AgentCommunicatorUtil;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedList;
+
+public class FailedProcessorTest extends MockedFederatedNetworkUnitTests {
+    //test case: a failed order must stay failed while the federated network cannot be created at the agent
+    @Test
+    public void testRetryFailsAgain() throws InvalidCidrException, UnexpectedException {
+        // set up
+        mockOnlyDatabase();
+        FederatedNetworkOrder order = createFailedOrder("failed-order");
+        FailedProcessor failedProcessor = new FailedProcessor();
+        PowerMockito.mockStatic(AgentCommunicatorUtil.class);
+        Mockito.when(AgentCommunicatorUtil.createFederatedNetwork(Mockito.anyString(), Mockito.anyString())).thenReturn(false);
+
+        // exercise
+        failedProcessor.processOrder(order);
+
+        // verify
+        Assert.assertEquals(OrderState.FAILED, order.getOrderState());
+        Assert.assertTrue(FederatedNetworkOrdersHolder.getInstance().getFailedOrders().contains(order));
+    }
+
+    //test case: a failed order must be fulfilled once the federated network is created at the agent
+    @Test
+    public void testRetrySucceeds() throws InvalidCidrException, UnexpectedException {
+        // set up
+        mockOnlyDatabase();
+        FederatedNetworkOrder order = createFailedOrder("retried-order");
+        FailedProcessor failedProcessor = new FailedProcessor();
+        PowerMockito.mockStatic(AgentCommunicatorUtil.class);
+        Mockito.when(AgentCommunicatorUtil.createFederatedNetwork(Mockito.anyString(), Mockito.anyString())).thenReturn(true);
+
+        // exercise
+        failedProcessor.processOrder(order);
+
+        // verify
+        Assert.assertEquals(OrderState.FULFILLED, order.getOrderState());
+        Assert.assertFalse(FederatedNetworkOrdersHolder.getInstance().getFailedOrders().contains(order));
+        Assert.assertTrue(FederatedNetworkOrdersHolder.getInstance().getFulfilledOrders().contains(order));
+    }
+
+    private FederatedNetworkOrder createFailedOrder(String id) {
+        SystemUser systemUser = new SystemUser("userId", "userName", "identityProviderId");
+        FederatedNetworkOrder order = new FederatedNetworkOrder(id, systemUser, "requester",
+                "provider", "10.0.30.1/20", "name", new HashSet<>(), new LinkedList<>(), new ArrayList<>(),
+                OrderState.FAILED);
+        FederatedNetworkOrdersHolder.getInstance().insertNewOrder(order);
+        return order;
+    }
+}
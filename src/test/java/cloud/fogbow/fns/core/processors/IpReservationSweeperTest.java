@@ -0,0 +1,39 @@
+package cloud.fogbow.fns.core.processors;
+
+import cloud.fogbow.fns.MockedFederatedNetworkUnitTests;
+import cloud.fogbow.fns.core.model.FederatedNetworkOrder;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class IpReservationSweeperTest extends MockedFederatedNetworkUnitTests {
+    private static final long SLEEP_TIME = 1000;
+    private static final long NOW = 100000;
+
+    //test case: an order failing to expire its reservations does not keep the other orders from being swept
+    @Test
+    public void testSweepSurvivesFailingOrder() {
+        // set up
+        mockSharedOrderHolders();
+        FederatedNetworkOrder firstOrder = Mockito.mock(FederatedNetworkOrder.class);
+        FederatedNetworkOrder failingOrder = Mockito.mock(FederatedNetworkOrder.class);
+        FederatedNetworkOrder lastOrder = Mockito.mock(FederatedNetworkOrder.class);
+        Mockito.when(failingOrder.expireIpReservations(NOW)).thenThrow(new IllegalStateException());
+        Map<String, FederatedNetworkOrder> activeOrders = new LinkedHashMap<>();
+        activeOrders.put("first-order", firstOrder);
+        activeOrders.put("failing-order", failingOrder);
+        activeOrders.put("last-order", lastOrder);
+        Mockito.when(federatedNetworkOrdersHolder.getActiveOrders()).thenReturn(activeOrders);
+        IpReservationSweeper sweeper = new IpReservationSweeper(SLEEP_TIME);
+
+        // exercise
+        sweeper.sweep(NOW);
+
+        // verify
+        Mockito.verify(firstOrder).expireIpReservations(NOW);
+        Mockito.verify(failingOrder).expireIpReservations(NOW);
+        Mockito.verify(lastOrder).expireIpReservations(NOW);
+    }
+}
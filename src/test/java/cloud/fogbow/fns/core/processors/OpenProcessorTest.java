@@ -4,6 +4,7 @@ import cloud.fogbow.common.exceptions.UnexpectedException;
 import cloud.fogbow.common.models.SystemUser;
 import cloud.fogbow.fns.MockedFederatedNetworkUnitTests;
 import cloud.fogbow.fns.core.FederatedNetworkOrderController;
+import cloud.fogbow.fns.core.FederatedNetworkOrdersHolder;
 import cloud.fogbow.fns.core.OrderStateTransitioner;
 import cloud.fogbow.fns.core.exceptions.InvalidCidrException;
 import cloud.fogbow.fns.core.model.FederatedNetworkOrder;
@@ -29,7 +30,7 @@ public class OpenProcessorTest extends MockedFederatedNetworkUnitTests {
 
         orderController.activateOrder(order);
 
-        OpenProcessor openProcessor = new OpenProcessor(1000L);
+        OpenProcessor openProcessor = new OpenProcessor();
         PowerMockito.mockStatic(AgentCommunicatorUtil.class);
         Mockito.when(AgentCommunicatorUtil.createFederatedNetwork(Mockito.anyString(), Mockito.anyString())).thenReturn(false);
 
@@ -53,7 +54,7 @@ public class OpenProcessorTest extends MockedFederatedNetworkUnitTests {
 
         orderController.activateOrder(order);
 
-        OpenProcessor openProcessor = new OpenProcessor(1000L);
+        OpenProcessor openProcessor = new OpenProcessor();
         PowerMockito.mockStatic(AgentCommunicatorUtil.class);
         Mockito.when(AgentCommunicatorUtil.createFederatedNetwork(Mockito.anyString(), Mockito.anyString())).thenReturn(true);
 
@@ -64,5 +65,41 @@ public class OpenProcessorTest extends MockedFederatedNetworkUnitTests {
         PowerMockito.verifyStatic(AgentCommunicatorUtil.class, Mockito.times(1));
 
         Assert.assertEquals(OrderState.FULFILLED, order.getOrderState());
+        Assert.assertTrue(order.isAgentDeletionPending());
+    }
+
+    //test case: a new federated network takes over, at the agent, a deleted one with the same CIDR that has not been
+    //removed from the agent yet, so that neither the removal nor the creation is sent to the agent
+    @Test
+    public void testTakeOverPendingDeletion() throws Exception {
+        // set up
+        FederatedNetworkOrderController orderController = new FederatedNetworkOrderController();
+        mockOnlyDatabase();
+        SystemUser systemUser = new SystemUser("userId", "userName", "identityProviderId");
+        FederatedNetworkOrder deletedOrder = new FederatedNetworkOrder("deleted-order", systemUser, "requester",
+                "provider", "10.0.30.1/20", "name", new HashSet<>(), new LinkedList<>(), new ArrayList<>(), null);
+        FederatedNetworkOrder order = new FederatedNetworkOrder("new-order", systemUser, "requester",
+                "provider", "10.0.30.1/20", "name", new HashSet<>(), new LinkedList<>(), new ArrayList<>(), null);
+
+        FederatedNetworkOrdersHolder.getInstance().assignCidr(deletedOrder);
+        orderController.activateOrder(deletedOrder);
+        OrderStateTransitioner.transition(deletedOrder, OrderState.FULFILLED);
+        orderController.deleteFederatedNetwork(deletedOrder);
+        FederatedNetworkOrdersHolder.getInstance().assignCidr(order);
+        orderController.activateOrder(order);
+
+        OpenProcessor openProcessor = new OpenProcessor();
+        PowerMockito.mockStatic(AgentCommunicatorUtil.class);
+
+        // exercise
+        openProcessor.processOrder(order);
+
+        // verify
+        PowerMockito.verifyStatic(AgentCommunicatorUtil.class, Mockito.never());
+        AgentCommunicatorUtil.createFederatedNetwork(Mockito.anyString(), Mockito.anyString());
+
+        Assert.assertEquals(OrderState.FULFILLED, order.getOrderState());
+        Assert.assertEquals(OrderState.CLOSED, deletedOrder.getOrderState());
+        Assert.assertFalse(deletedOrder.isAgentDeletionPending());
     }
 }
@@ -2,11 +2,13 @@ package cloud.fogbow.fns.utils;
 
 import cloud.fogbow.common.models.SystemUser;
 import cloud.fogbow.fns.MockedFederatedNetworkUnitTests;
+import cloud.fogbow.common.exceptions.QuotaExceededException;
 import cloud.fogbow.common.exceptions.UnexpectedException;
 import cloud.fogbow.fns.api.http.response.AssignedIp;
 import cloud.fogbow.fns.core.exceptions.InvalidCidrException;
 import cloud.fogbow.fns.core.exceptions.SubnetAddressesCapacityReachedException;
 import cloud.fogbow.fns.core.model.FederatedNetworkOrder;
+import cloud.fogbow.fns.core.model.IpLease;
 import org.apache.commons.net.util.SubnetUtils;
 import org.junit.Assert;
 import org.junit.Before;
@@ -20,6 +22,7 @@ import static org.mockito.Mockito.mock;
 
 public class FederatedNetworkUtilTest extends MockedFederatedNetworkUnitTests {
     public static final int MAX_CIDR_SUFFIX = 32;
+    private static final long RESERVATION_TTL = 60000;
     Properties properties;
 
     private final String MEMBER = "fake-member";
@@ -31,7 +34,8 @@ public class FederatedNetworkUtilTest extends MockedFederatedNetworkUnitTests {
 
     //test case: Tests if networks are correctly returned, to a given ips served amount.
     @Test
-    public void testGetFreeIp() throws SubnetAddressesCapacityReachedException, InvalidCidrException, UnexpectedException {
+    public void testGetFreeIp() throws SubnetAddressesCapacityReachedException, InvalidCidrException, UnexpectedException,
+            QuotaExceededException {
         //set up
         SystemUser user = Mockito.mock(SystemUser.class);
         Set<String> allowedMembers = new HashSet<>();
@@ -42,17 +46,17 @@ public class FederatedNetworkUtilTest extends MockedFederatedNetworkUnitTests {
                 "name", allowedMembers, freedIps, computesIp));
 
         //exercise
-        String freeIp = federatedNetwork.getFreeIp();
+        String freeIp = federatedNetwork.getFreeIp(RESERVATION_TTL).getIp();
         //verify
         Assert.assertEquals("10.0.0.2", freeIp);
 
         //exercise
-        freeIp = federatedNetwork.getFreeIp();
+        freeIp = federatedNetwork.getFreeIp(RESERVATION_TTL).getIp();
         //verify
         Assert.assertEquals("10.0.0.3", freeIp);
 
         //exercise
-        freeIp = federatedNetwork.getFreeIp();
+        freeIp = federatedNetwork.getFreeIp(RESERVATION_TTL).getIp();
         //verify
         Assert.assertEquals("10.0.0.4", freeIp);
     }
@@ -74,7 +78,7 @@ public class FederatedNetworkUtilTest extends MockedFederatedNetworkUnitTests {
     //test case: if a network is already filled in, it should throw an exception when trying to fill cache of free ips
     @Test
     public void testFillCacheOfFreeIpsWithNoFreeIps() throws InvalidCidrException, UnexpectedException,
-            SubnetAddressesCapacityReachedException {
+            SubnetAddressesCapacityReachedException, QuotaExceededException {
         //set up
         mockOnlyDatabase();
         SystemUser user = mock(SystemUser.class);
@@ -148,14 +152,14 @@ public class FederatedNetworkUtilTest extends MockedFederatedNetworkUnitTests {
     }
 
     private void fillInFederatedNetwork(FederatedNetworkOrder federatedNetwork, int mask) throws InvalidCidrException,
-            UnexpectedException, SubnetAddressesCapacityReachedException {
+            UnexpectedException, SubnetAddressesCapacityReachedException, QuotaExceededException {
         double freeIps = Math.pow(2, MAX_CIDR_SUFFIX - mask) - FederatedNetworkUtil.RESERVED_IPS;
         // getFreeIp will give the second valid ip, because the first one is set to the agent,
         // so we need to decrement our freeIps variable.
         freeIps -= 1;
         String computeId = "id-";
         for (int i = 0; i < freeIps; i++) {
-            String ip = federatedNetwork.getFreeIp();
+            IpLease ip = federatedNetwork.getFreeIp(RESERVATION_TTL);
             federatedNetwork.addAssociatedIp(computeId + i, ip);
         }
     }
@@ -0,0 +1,44 @@
+package cloud.fogbow.fns.utils;
+
+import com.google.gson.Gson;
+import org.apache.http.util.EntityUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+
+public class PooledJsonBufferTest {
+    private static final int LARGE_BUFFER_SIZE = 1024 * 1024 + 1;
+
+    //test case: the JSON written into a buffer is sent as is, and a released buffer is reused empty
+    @Test
+    public void testReleasedBufferIsReused() throws Exception {
+        //set up
+        PooledJsonBuffer buffer = PooledJsonBuffer.acquire();
+        buffer.writeJson(new Gson(), Collections.singletonMap("name", "compute"));
+        Assert.assertEquals("{\"name\":\"compute\"}", EntityUtils.toString(buffer.toEntity()));
+        int pooledBuffers = PooledJsonBuffer.getPooledBuffers();
+
+        //exercise
+        buffer.release();
+
+        //verify
+        Assert.assertEquals(pooledBuffers + 1, PooledJsonBuffer.getPooledBuffers());
+        Assert.assertEquals(0, buffer.size());
+    }
+
+    //test case: a buffer grown beyond the limit is not kept in the pool
+    @Test
+    public void testLargeBufferIsNotPooled() throws Exception {
+        //set up
+        PooledJsonBuffer buffer = PooledJsonBuffer.acquire();
+        buffer.write(new byte[LARGE_BUFFER_SIZE]);
+        int pooledBuffers = PooledJsonBuffer.getPooledBuffers();
+
+        //exercise
+        buffer.release();
+
+        //verify
+        Assert.assertEquals(pooledBuffers, PooledJsonBuffer.getPooledBuffers());
+    }
+}
@@ -0,0 +1,138 @@
+package cloud.fogbow.fns.utils;
+
+import cloud.fogbow.common.exceptions.FatalErrorException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RasRequestCoalescerTest {
+    private static final String IMAGES_ENDPOINT = "images/cloud";
+    private static final String QUOTA_ENDPOINT = "computes/quota/provider";
+    private static final String FIRST_USER = "idp/first-user";
+    private static final String SECOND_USER = "idp/second-user";
+    private static final long ONE_MINUTE = 60000;
+    private static final int OK = 200;
+    private static final int NOT_FOUND = 404;
+
+    //test case: identical requests made while the first one is in flight must share its response
+    @Test
+    public void testCoalesceIdenticalRequests() {
+        //set up
+        RasRequestCoalescer coalescer = new RasRequestCoalescer(new HashMap<>(), 10, 1024);
+        CompletableFuture<BufferedRasResponse> rasResponse = new CompletableFuture<>();
+        AtomicInteger sentRequests = new AtomicInteger();
+
+        //exercise
+        CompletableFuture<BufferedRasResponse> first = coalescer.get(IMAGES_ENDPOINT, null, FIRST_USER,
+                () -> send(sentRequests, rasResponse));
+        CompletableFuture<BufferedRasResponse> second = coalescer.get(IMAGES_ENDPOINT, null, FIRST_USER,
+                () -> send(sentRequests, rasResponse));
+        BufferedRasResponse response = createResponse(OK);
+        rasResponse.complete(response);
+
+        //verify
+        Assert.assertEquals(1, sentRequests.get());
+        Assert.assertSame(response, first.join());
+        Assert.assertSame(response, second.join());
+    }
+
+    //test case: requests of different users, or with different queries, must not be coalesced
+    @Test
+    public void testDoNotCoalesceDifferentRequests() {
+        //set up
+        RasRequestCoalescer coalescer = new RasRequestCoalescer(new HashMap<>(), 10, 1024);
+        CompletableFuture<BufferedRasResponse> rasResponse = new CompletableFuture<>();
+        AtomicInteger sentRequests = new AtomicInteger();
+
+        //exercise
+        coalescer.get(IMAGES_ENDPOINT, null, FIRST_USER, () -> send(sentRequests, rasResponse));
+        coalescer.get(IMAGES_ENDPOINT, null, SECOND_USER, () -> send(sentRequests, rasResponse));
+        coalescer.get(IMAGES_ENDPOINT, "page=2", FIRST_USER, () -> send(sentRequests, rasResponse));
+
+        //verify
+        Assert.assertEquals(3, sentRequests.get());
+    }
+
+    //test case: once the response arrives, a new request must be sent unless the endpoint family is cached
+    @Test
+    public void testCacheOnlyConfiguredFamilies() {
+        //set up
+        Map<String, Long> timesToLive = Collections.singletonMap("computes/quota", ONE_MINUTE);
+        RasRequestCoalescer coalescer = new RasRequestCoalescer(timesToLive, 10, 1024);
+        AtomicInteger sentRequests = new AtomicInteger();
+        CompletableFuture<BufferedRasResponse> rasResponse = CompletableFuture.completedFuture(createResponse(OK));
+
+        //exercise
+        coalescer.get(QUOTA_ENDPOINT, null, FIRST_USER, () -> send(sentRequests, rasResponse)).join();
+        coalescer.get(QUOTA_ENDPOINT, null, FIRST_USER, () -> send(sentRequests, rasResponse)).join();
+        coalescer.get(IMAGES_ENDPOINT, null, FIRST_USER, () -> send(sentRequests, rasResponse)).join();
+        coalescer.get(IMAGES_ENDPOINT, null, FIRST_USER, () -> send(sentRequests, rasResponse)).join();
+
+        //verify
+        Assert.assertEquals(3, sentRequests.get());
+    }
+
+    //test case: error responses must never be cached
+    @Test
+    public void testDoNotCacheErrors() {
+        //set up
+        Map<String, Long> timesToLive = Collections.singletonMap("images", ONE_MINUTE);
+        RasRequestCoalescer coalescer = new RasRequestCoalescer(timesToLive, 10, 1024);
+        AtomicInteger sentRequests = new AtomicInteger();
+        CompletableFuture<BufferedRasResponse> rasResponse =
+                CompletableFuture.completedFuture(createResponse(NOT_FOUND));
+
+        //exercise
+        coalescer.get(IMAGES_ENDPOINT, null, FIRST_USER, () -> send(sentRequests, rasResponse)).join();
+        coalescer.get(IMAGES_ENDPOINT, null, FIRST_USER, () -> send(sentRequests, rasResponse)).join();
+
+        //verify
+        Assert.assertEquals(2, sentRequests.get());
+    }
+
+    //test case: the longest configured prefix must determine the family of an endpoint
+    @Test
+    public void testParseTimesToLive() {
+        //set up
+        Map<String, Long> timesToLive = RasRequestCoalescer.parseTimesToLive(
+                "computes:1000, computes/quota/:5000,images:10000");
+        RasRequestCoalescer coalescer = new RasRequestCoalescer(timesToLive, 10, 1024);
+
+        //exercise and verify
+        Assert.assertEquals(5000, coalescer.getTimeToLive(QUOTA_ENDPOINT));
+        Assert.assertEquals(1000, coalescer.getTimeToLive("computes/allocation/provider"));
+        Assert.assertEquals(10000, coalescer.getTimeToLive(IMAGES_ENDPOINT));
+        Assert.assertEquals(0, coalescer.getTimeToLive("imagesets"));
+        Assert.assertEquals(0, coalescer.getTimeToLive("clouds"));
+    }
+
+    //test case: a malformed entry must be rejected when the configuration is loaded
+    @Test
+    public void testParseMalformedTimesToLive() {
+        for (String property : new String[]{"images", "images:ten", ":1000", "images:-1", "images:1:2"}) {
+            try {
+                //exercise
+                RasRequestCoalescer.parseTimesToLive("computes:1000," + property);
+                Assert.fail(property);
+            } catch (FatalErrorException e) {
+                //verify
+                Assert.assertTrue(e.getMessage().contains(property));
+            }
+        }
+    }
+
+    private CompletableFuture<BufferedRasResponse> send(AtomicInteger sentRequests,
+                                                       CompletableFuture<BufferedRasResponse> rasResponse) {
+        sentRequests.incrementAndGet();
+        return rasResponse;
+    }
+
+    private BufferedRasResponse createResponse(int status) {
+        return new BufferedRasResponse(status, Collections.emptyList(), new byte[0]);
+    }
+}
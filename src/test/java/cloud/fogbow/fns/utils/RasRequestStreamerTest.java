@@ -0,0 +1,141 @@
+package cloud.fogbow.fns.utils;
+
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.nio.ContentEncoder;
+import org.apache.http.nio.IOControl;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public class RasRequestStreamerTest {
+    private static final String RAS_URI = "http://ras:8080/ras/volumes";
+    private static final byte[] BODY = "{\"name\":\"volume\",\"size\":1}".getBytes(StandardCharsets.UTF_8);
+
+    private ClientInputStream inputStream;
+    private BodyEncoder encoder;
+    private IOControl ioControl;
+    private RasRequestStreamer streamer;
+
+    @Before
+    public void setUp() {
+        this.inputStream = new ClientInputStream(BODY);
+        this.encoder = new BodyEncoder();
+        this.ioControl = Mockito.mock(IOControl.class);
+        this.streamer = new RasRequestStreamer(new HttpPost(RAS_URI), this.inputStream);
+    }
+
+    //test case: the body sent by the client is sent to the RAS, and the request ends with it
+    @Test
+    public void testStreamBody() throws Exception {
+        //exercise
+        this.streamer.produceContent(this.encoder, this.ioControl);
+        this.streamer.produceContent(this.encoder, this.ioControl);
+
+        //verify
+        Assert.assertArrayEquals(BODY, this.encoder.body.toByteArray());
+        Assert.assertTrue(this.encoder.isCompleted());
+        Mockito.verify(this.ioControl, Mockito.never()).suspendOutput();
+    }
+
+    //test case: while the client has not sent more data, writing to the RAS is suspended instead of waiting for it,
+    // and it is resumed once the container tells the data is available
+    @Test
+    public void testSuspendUntilDataAvailable() throws Exception {
+        //set up
+        this.inputStream.ready = false;
+
+        //exercise
+        this.streamer.produceContent(this.encoder, this.ioControl);
+        this.inputStream.ready = true;
+        this.streamer.onDataAvailable();
+
+        //verify
+        Mockito.verify(this.ioControl).suspendOutput();
+        Mockito.verify(this.ioControl).requestOutput();
+        Assert.assertEquals(0, this.encoder.body.size());
+
+        this.streamer.produceContent(this.encoder, this.ioControl);
+        Assert.assertArrayEquals(BODY, this.encoder.body.toByteArray());
+    }
+
+    //test case: when the client fails while sending its body, the request to the RAS fails too
+    @Test(expected = IOException.class)
+    public void testClientError() throws Exception {
+        //set up
+        this.inputStream.ready = false;
+        this.streamer.produceContent(this.encoder, this.ioControl);
+
+        //exercise
+        this.streamer.onError(new IOException());
+
+        //verify
+        Mockito.verify(this.ioControl).requestOutput();
+        this.streamer.produceContent(this.encoder, this.ioControl);
+    }
+
+    private static class ClientInputStream extends ServletInputStream {
+        private final ByteArrayInputStream content;
+        private boolean ready;
+
+        ClientInputStream(byte[] body) {
+            this.content = new ByteArrayInputStream(body);
+            this.ready = true;
+        }
+
+        @Override
+        public int read() {
+            return this.content.read();
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            return this.content.read(buffer, offset, length);
+        }
+
+        @Override
+        public boolean isFinished() {
+            return this.content.available() == 0;
+        }
+
+        @Override
+        public boolean isReady() {
+            return this.ready;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+        }
+    }
+
+    private static class BodyEncoder implements ContentEncoder {
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        private boolean completed;
+
+        @Override
+        public int write(ByteBuffer src) {
+            int written = src.remaining();
+            this.body.write(src.array(), src.arrayOffset() + src.position(), written);
+            src.position(src.limit());
+            return written;
+        }
+
+        @Override
+        public void complete() {
+            this.completed = true;
+        }
+
+        @Override
+        public boolean isCompleted() {
+            return this.completed;
+        }
+    }
+}
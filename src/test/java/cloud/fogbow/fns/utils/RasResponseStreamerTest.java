@@ -0,0 +1,79 @@
+package cloud.fogbow.fns.utils;
+
+import org.apache.http.HttpVersion;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.message.BasicStatusLine;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Collections;
+
+public class RasResponseStreamerTest {
+    private static final int NON_STANDARD_STATUS = 599;
+    private static final String REQUEST_DESCRIPTION = "uri=/fns/volumes";
+
+    private AsyncContext asyncContext;
+    private HttpServletResponse response;
+    private ServletOutputStream outputStream;
+
+    @Before
+    public void setUp() throws Exception {
+        this.asyncContext = Mockito.mock(AsyncContext.class);
+        this.response = Mockito.mock(HttpServletResponse.class);
+        this.outputStream = Mockito.mock(ServletOutputStream.class);
+        Mockito.when(this.response.getOutputStream()).thenReturn(this.outputStream);
+        Mockito.when(this.outputStream.isReady()).thenReturn(true);
+    }
+
+    //test case: a status code unknown to the FNS is forwarded to the client as is
+    @Test
+    public void testForwardNonStandardStatus() throws Exception {
+        //set up
+        RasResponseStreamer streamer = new RasResponseStreamer(this.asyncContext, this.response,
+                Collections.emptySet(), REQUEST_DESCRIPTION);
+
+        //exercise
+        streamer.onResponseReceived(new BasicHttpResponse(
+                new BasicStatusLine(HttpVersion.HTTP_1_1, NON_STANDARD_STATUS, "Custom")));
+
+        //verify
+        Mockito.verify(this.response).setStatus(NON_STANDARD_STATUS);
+    }
+
+    //test case: when the RAS cannot be reached, the client gets a gateway timeout, and the request is completed
+    @Test
+    public void testFailBeforeResponse() throws Exception {
+        //set up
+        Mockito.when(this.response.isCommitted()).thenReturn(false);
+        RasResponseStreamer streamer = new RasResponseStreamer(this.asyncContext, this.response,
+                Collections.emptySet(), REQUEST_DESCRIPTION);
+
+        //exercise
+        streamer.fail(new IOException());
+
+        //verify
+        Mockito.verify(this.response).setStatus(HttpServletResponse.SC_GATEWAY_TIMEOUT);
+        Mockito.verify(this.asyncContext).complete();
+    }
+
+    //test case: a request timed out by the container is not completed again
+    @Test
+    public void testFailAfterTimeout() throws Exception {
+        //set up
+        Mockito.when(this.response.isCommitted()).thenReturn(true);
+        Mockito.doThrow(new IllegalStateException()).when(this.asyncContext).complete();
+        RasResponseStreamer streamer = new RasResponseStreamer(this.asyncContext, this.response,
+                Collections.emptySet(), REQUEST_DESCRIPTION);
+
+        //exercise
+        streamer.fail(new IOException());
+
+        //verify
+        Mockito.verify(this.asyncContext).complete();
+    }
+}
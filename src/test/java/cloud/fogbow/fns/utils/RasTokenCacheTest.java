@@ -0,0 +1,64 @@
+package cloud.fogbow.fns.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RasTokenCacheTest {
+    private static final String FIRST_TOKEN = "first-user-token";
+    private static final String SECOND_TOKEN = "second-user-token";
+    private static final String THIRD_TOKEN = "third-user-token";
+    private static final String FIRST_RAS_TOKEN = "first-ras-token";
+    private static final String SECOND_RAS_TOKEN = "second-ras-token";
+    private static final String THIRD_RAS_TOKEN = "third-ras-token";
+    private static final long ONE_MINUTE = 60000;
+
+    //test case: a rewrapped token must be returned for the same user token until it expires
+    @Test
+    public void testGet() {
+        //set up
+        RasTokenCache cache = new RasTokenCache(10, ONE_MINUTE);
+        cache.put(FIRST_TOKEN, FIRST_RAS_TOKEN);
+
+        //exercise
+        String cachedToken = cache.get(FIRST_TOKEN);
+        String missingToken = cache.get(SECOND_TOKEN);
+
+        //verify
+        Assert.assertEquals(FIRST_RAS_TOKEN, cachedToken);
+        Assert.assertNull(missingToken);
+    }
+
+    //test case: an expired entry must not be returned, and must be removed from the cache
+    @Test
+    public void testGetExpiredToken() {
+        //set up
+        RasTokenCache cache = new RasTokenCache(10, 0);
+        cache.put(FIRST_TOKEN, FIRST_RAS_TOKEN);
+
+        //exercise
+        String cachedToken = cache.get(FIRST_TOKEN);
+
+        //verify
+        Assert.assertNull(cachedToken);
+        Assert.assertEquals(0, cache.size());
+    }
+
+    //test case: when the cache is full, the least recently used entry must be evicted
+    @Test
+    public void testEvictLeastRecentlyUsed() {
+        //set up
+        RasTokenCache cache = new RasTokenCache(2, ONE_MINUTE);
+        cache.put(FIRST_TOKEN, FIRST_RAS_TOKEN);
+        cache.put(SECOND_TOKEN, SECOND_RAS_TOKEN);
+        cache.get(FIRST_TOKEN);
+
+        //exercise
+        cache.put(THIRD_TOKEN, THIRD_RAS_TOKEN);
+
+        //verify
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals(FIRST_RAS_TOKEN, cache.get(FIRST_TOKEN));
+        Assert.assertNull(cache.get(SECOND_TOKEN));
+        Assert.assertEquals(THIRD_RAS_TOKEN, cache.get(THIRD_TOKEN));
+    }
+}
@@ -0,0 +1,114 @@
+package cloud.fogbow.fns.utils;
+
+import cloud.fogbow.common.exceptions.InstanceNotFoundException;
+import cloud.fogbow.common.exceptions.InvalidParameterException;
+import cloud.fogbow.common.exceptions.UnavailableProviderException;
+import cloud.fogbow.fns.api.http.response.ResourceId;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.HttpVersion;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.message.BasicStatusLine;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+public class RedirectToRasUtilTest {
+    private static final String COMPUTE_ID = "compute";
+    private static final String ERROR_MESSAGE = "Compute not found.";
+
+    //test case: a successful response is read as JSON into the requested type
+    @Test
+    public void testReadSuccessfulRasResponse() throws Exception {
+        //set up
+        HttpResponse rasResponse = createRasResponse(HttpStatus.SC_CREATED, "Created",
+                "{\"id\":\"" + COMPUTE_ID + "\"}");
+
+        //exercise
+        ResourceId resourceId = RedirectToRasUtil.readRasResponse(rasResponse, ResourceId.class);
+
+        //verify
+        Assert.assertEquals(COMPUTE_ID, resourceId.getId());
+    }
+
+    //test case: an error response is turned into the exception corresponding to its status, with the RAS message
+    @Test
+    public void testReadRasErrorResponse() throws Exception {
+        //set up
+        HttpResponse rasResponse = createRasResponse(HttpStatus.SC_NOT_FOUND, "Not Found",
+                "{\"message\":\"" + ERROR_MESSAGE + "\"}");
+
+        try {
+            //exercise
+            RedirectToRasUtil.readRasResponse(rasResponse, ResourceId.class);
+            Assert.fail();
+        } catch (InstanceNotFoundException e) {
+            //verify
+            Assert.assertEquals(ERROR_MESSAGE, e.getMessage());
+        }
+    }
+
+    //test case: an error response not coming from the RAS itself keeps the reason phrase of its status as message
+    @Test
+    public void testReadErrorResponseWithoutJson() throws Exception {
+        //set up
+        HttpResponse rasResponse = createRasResponse(HttpStatus.SC_BAD_REQUEST, "Bad Request", "<html></html>");
+
+        try {
+            //exercise
+            RedirectToRasUtil.readRasResponse(rasResponse, ResourceId.class);
+            Assert.fail();
+        } catch (InvalidParameterException e) {
+            //verify
+            Assert.assertEquals("Bad Request", e.getMessage());
+        }
+    }
+
+    //test case: the body of a request is released whether the request completes, fails or is cancelled
+    @Test
+    public void testRasResponseCallbackReleasesBody() throws Exception {
+        //set up
+        HttpResponse rasResponse = createRasResponse(HttpStatus.SC_NO_CONTENT, "No Content", "");
+        CompletableFuture<Void> completed = new CompletableFuture<>();
+        CompletableFuture<Void> failed = new CompletableFuture<>();
+        CompletableFuture<Void> cancelled = new CompletableFuture<>();
+        int pooledBuffers = PooledJsonBuffer.getPooledBuffers();
+
+        //exercise
+        createCallback(completed).completed(rasResponse);
+        createCallback(failed).failed(new IOException());
+        createCallback(cancelled).cancelled();
+
+        //verify
+        Assert.assertEquals(pooledBuffers + 3, PooledJsonBuffer.getPooledBuffers());
+        Assert.assertNull(completed.get());
+        assertCompletedWith(failed, UnavailableProviderException.class);
+        assertCompletedWith(cancelled, UnavailableProviderException.class);
+    }
+
+    private RedirectToRasUtil.RasResponseCallback<Void> createCallback(CompletableFuture<Void> future) {
+        return new RedirectToRasUtil.RasResponseCallback<>(future, PooledJsonBuffer.acquire(), Void.class,
+                Runnable::run);
+    }
+
+    private void assertCompletedWith(CompletableFuture<?> future, Class<? extends Throwable> exceptionType) {
+        try {
+            future.join();
+            Assert.fail();
+        } catch (CompletionException e) {
+            Assert.assertTrue(exceptionType.isInstance(e.getCause()));
+        }
+    }
+
+    private HttpResponse createRasResponse(int status, String reasonPhrase, String body) {
+        HttpResponse rasResponse = new BasicHttpResponse(new BasicStatusLine(HttpVersion.HTTP_1_1, status,
+                reasonPhrase));
+        rasResponse.setEntity(new StringEntity(body, ContentType.APPLICATION_JSON));
+        return rasResponse;
+    }
+}
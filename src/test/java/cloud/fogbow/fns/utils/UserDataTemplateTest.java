@@ -0,0 +1,67 @@
+package cloud.fogbow.fns.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class UserDataTemplateTest {
+    private static final String FIRST_KEY = "#FIRST#";
+    private static final String SECOND_KEY = "#SECOND#";
+    private static final List<String> PLACEHOLDERS = Arrays.asList(FIRST_KEY, SECOND_KEY);
+    private static final String SCRIPT = "#!/bin/sh\r\nleft=#FIRST#\nright=#SECOND#\n\"#FIRST#\"#SECOND#";
+
+    //test case: rendering a compiled template must produce the same output as replacing the placeholders and
+    // escaping the new lines of the whole script
+    @Test
+    public void testRenderBase64() {
+        //set up
+        Map<String, String> values = new HashMap<>();
+        values.put(FIRST_KEY, "10.0.0.2");
+        values.put(SECOND_KEY, "10.0.0.0/24");
+        UserDataTemplate template = UserDataTemplate.compile(SCRIPT, PLACEHOLDERS);
+
+        //exercise
+        String rendered = template.renderBase64(values);
+
+        //verify
+        Assert.assertEquals(legacyRender(SCRIPT, values), decode(rendered));
+    }
+
+    //test case: binding some of the placeholders must merge their values into the literal segments, leaving only the
+    // unbound placeholders to be rendered
+    @Test
+    public void testBind() {
+        //set up
+        UserDataTemplate template = UserDataTemplate.compile(SCRIPT, PLACEHOLDERS);
+        Map<String, String> values = new HashMap<>();
+        values.put(FIRST_KEY, "10.0.0.2");
+        values.put(SECOND_KEY, "10.0.0.0/24");
+
+        //exercise
+        UserDataTemplate boundTemplate = template.bind(Collections.singletonMap(SECOND_KEY, "10.0.0.0/24"));
+        String rendered = boundTemplate.renderBase64(Collections.singletonMap(FIRST_KEY, "10.0.0.2"));
+
+        //verify
+        Assert.assertEquals(5, boundTemplate.getSegments().size());
+        Assert.assertEquals(legacyRender(SCRIPT, values), decode(rendered));
+    }
+
+    private String decode(String base64) {
+        return new String(Base64.getDecoder().decode(base64), StandardCharsets.UTF_8);
+    }
+
+    private String legacyRender(String script, Map<String, String> values) {
+        String rendered = script;
+        for (Map.Entry<String, String> value : values.entrySet()) {
+            rendered = rendered.replace(value.getKey(), value.getValue());
+        }
+        return rendered.replace("\n", "[[\\n]]").replace("\r", "");
+    }
+}